@@ -0,0 +1,74 @@
+package ru.dan.eduinstitution.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.dan.eduinstitution.EduinstitutionApplication;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Общий для бенчмарков контекст Spring, поднятый на базе из DATASOURCE_URL.
+ * Перед запуском база заполняется синтетическими данными (см. {@link BenchmarkDataSeeder}).
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+
+    private ConfigurableApplicationContext context;
+    private long[] courseIds;
+    private long[] studentIds;
+    private long[] tagIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EduinstitutionApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("bench")
+                .run();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        int rows = context.getEnvironment().getProperty("bench.rows", Integer.class, 1_000_000);
+        new BenchmarkDataSeeder(jdbcTemplate, rows).seedIfEmpty();
+
+        courseIds = queryIds(jdbcTemplate, "SELECT id FROM courses WHERE title LIKE 'Bench Course %'");
+        studentIds = queryIds(jdbcTemplate, "SELECT id FROM users WHERE email LIKE 'bench.student.%'");
+        tagIds = queryIds(jdbcTemplate, "SELECT id FROM tags WHERE name LIKE 'bench-tag-%'");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public long randomCourseId() {
+        return courseIds[ThreadLocalRandom.current().nextInt(courseIds.length)];
+    }
+
+    public long randomStudentId() {
+        return studentIds[ThreadLocalRandom.current().nextInt(studentIds.length)];
+    }
+
+    public long randomTagId() {
+        return tagIds[ThreadLocalRandom.current().nextInt(tagIds.length)];
+    }
+
+    public int courseCount() {
+        return courseIds.length;
+    }
+
+    private static long[] queryIds(JdbcTemplate jdbcTemplate, String sql) {
+        return jdbcTemplate.queryForList(sql, Long.class).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+}
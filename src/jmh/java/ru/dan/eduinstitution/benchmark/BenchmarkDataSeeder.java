@@ -0,0 +1,202 @@
+package ru.dan.eduinstitution.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Наполнение базы синтетическими данными для бенчмарков.
+ * Структура данных повторяет test_data.sql, объём задаётся числом записей на курсы.
+ */
+public class BenchmarkDataSeeder {
+
+    private static final int TAG_COUNT = 500;
+    private static final int COURSES_PER_STUDENT = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int rows;
+
+    public BenchmarkDataSeeder(JdbcTemplate jdbcTemplate, int rows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rows = rows;
+    }
+
+    /**
+     * Заполнение базы, если синтетические данные ещё не созданы.
+     */
+    public void seedIfEmpty() {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM users WHERE email LIKE 'bench.%'", Integer.class);
+        if (existing != null && existing > 0) {
+            return;
+        }
+
+        int students = Math.max(rows / COURSES_PER_STUDENT, 10);
+        int teachers = Math.max(rows / 1000, 1);
+        int courses = Math.max(rows / 100, COURSES_PER_STUDENT);
+
+        jdbcTemplate.update("""
+                INSERT INTO users (name, email, role)
+                SELECT 'Bench Teacher ' || g, 'bench.teacher.' || g || '@bench.local', 'TEACHER'
+                FROM generate_series(1, ?) g
+                """, teachers);
+        jdbcTemplate.update("""
+                INSERT INTO users (name, email, role)
+                SELECT 'Bench Student ' || g, 'bench.student.' || g || '@bench.local', 'STUDENT'
+                FROM generate_series(1, ?) g
+                """, students);
+        jdbcTemplate.update("""
+                INSERT INTO profiles (user_id, bio)
+                SELECT id, 'Synthetic profile' FROM users WHERE email LIKE 'bench.%'
+                """);
+
+        jdbcTemplate.update("""
+                INSERT INTO courses (title, description, category_id, teacher_id, duration, start_date)
+                SELECT 'Bench Course ' || g, 'Synthetic course ' || g, cat.id, t.id, 30, DATE '2025-01-01' + (g % 365)
+                FROM generate_series(1, ?) g
+                JOIN (SELECT id, row_number() OVER (ORDER BY id) AS rn
+                      FROM users WHERE email LIKE 'bench.teacher.%') t ON t.rn = 1 + g % ?
+                JOIN (SELECT id, row_number() OVER (ORDER BY id) AS rn FROM categories) cat
+                      ON cat.rn = 1 + g % (SELECT count(*) FROM categories)
+                """, courses, teachers);
+
+        jdbcTemplate.update("""
+                INSERT INTO tags (name)
+                SELECT 'bench-tag-' || g FROM generate_series(1, ?) g
+                """, TAG_COUNT);
+        jdbcTemplate.update("""
+                INSERT INTO course_tag (course_id, tag_id)
+                SELECT c.id, t.id
+                FROM (SELECT id, row_number() OVER (ORDER BY id) AS rn
+                      FROM courses WHERE title LIKE 'Bench Course %') c
+                JOIN (SELECT id, row_number() OVER (ORDER BY id) AS rn
+                      FROM tags WHERE name LIKE 'bench-tag-%') t
+                      ON t.rn IN (1 + c.rn % ?, 1 + (c.rn + 7) % ?, 1 + (c.rn + 101) % ?)
+                """, TAG_COUNT, TAG_COUNT, TAG_COUNT);
+
+        // Каждый студент записан на COURSES_PER_STUDENT соседних курсов, первый из них завершён
+        jdbcTemplate.update("""
+                INSERT INTO enrollments (user_id, course_id, enroll_date, status)
+                SELECT s.id, c.id, DATE '2025-01-01' + (s.rn % 365)::int,
+                       CASE WHEN k = 0 THEN 2
+                            WHEN k = ? AND s.rn % 10 = 0 THEN 3
+                            ELSE 1 END
+                FROM (SELECT id, row_number() OVER (ORDER BY id) AS rn
+                      FROM users WHERE email LIKE 'bench.student.%') s
+                CROSS JOIN generate_series(0, ?) k
+                JOIN (SELECT id, row_number() OVER (ORDER BY id) AS rn
+                      FROM courses WHERE title LIKE 'Bench Course %') c
+                      ON c.rn = 1 + (s.rn * 7 + k) % ?
+                """, COURSES_PER_STUDENT - 1, COURSES_PER_STUDENT - 1, courses);
+        jdbcTemplate.update("""
+                INSERT INTO course_enrollment_counts (course_id, active_count, completed_count, dropped_count)
+                SELECT e.course_id, count(*) FILTER (WHERE e.status = 1), count(*) FILTER (WHERE e.status = 2),
+                       count(*) FILTER (WHERE e.status = 3)
+                FROM enrollments e JOIN courses c ON c.id = e.course_id
+                WHERE c.title LIKE 'Bench Course %'
+                GROUP BY e.course_id
+                """);
+
+        // Структура курса: модуль, урок, задание и тест из пяти вопросов
+        jdbcTemplate.update("""
+                INSERT INTO modules (course_id, title, order_index, description)
+                SELECT id, 'Module 1', 1, 'Synthetic module' FROM courses WHERE title LIKE 'Bench Course %'
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO lessons (module_id, title, content)
+                SELECT m.id, 'Lesson 1', 'Synthetic lesson content'
+                FROM modules m JOIN courses c ON c.id = m.course_id
+                WHERE c.title LIKE 'Bench Course %'
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO assignments (lesson_id, title, description, due_date, max_score)
+                SELECT l.id, 'Assignment 1', 'Synthetic assignment', DATE '2025-06-01', 100
+                FROM lessons l JOIN modules m ON m.id = l.module_id JOIN courses c ON c.id = m.course_id
+                WHERE c.title LIKE 'Bench Course %'
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO quizzes (module_id, title, time_limit)
+                SELECT m.id, 'Quiz 1', 30
+                FROM modules m JOIN courses c ON c.id = m.course_id
+                WHERE c.title LIKE 'Bench Course %'
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO questions (quiz_id, text, type)
+                SELECT q.id, 'Question ' || g, 'SINGLE_CHOICE'
+                FROM quizzes q CROSS JOIN generate_series(1, 5) g
+                WHERE q.title = 'Quiz 1'
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO answer_options (question_id, text, is_correct)
+                SELECT qs.id, 'Option ' || g, g = 1
+                FROM questions qs JOIN quizzes q ON q.id = qs.quiz_id
+                CROSS JOIN generate_series(1, 4) g
+                WHERE q.title = 'Quiz 1'
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO course_item_counts (course_id, assignment_count, quiz_count)
+                SELECT c.id,
+                       (SELECT count(*) FROM modules m JOIN lessons l ON l.module_id = m.id
+                        JOIN assignments a ON a.lesson_id = l.id WHERE m.course_id = c.id),
+                       (SELECT count(*) FROM modules m JOIN quizzes q ON q.module_id = m.id WHERE m.course_id = c.id)
+                FROM courses c
+                WHERE c.title LIKE 'Bench Course %'
+                """);
+
+        // Результаты студентов по завершённому курсу
+        jdbcTemplate.update("""
+                INSERT INTO submissions (assignment_id, student_id, content, score)
+                SELECT a.id, e.user_id, 'Synthetic solution', (e.user_id % 100)::int
+                FROM enrollments e
+                JOIN modules m ON m.course_id = e.course_id
+                JOIN lessons l ON l.module_id = m.id
+                JOIN assignments a ON a.lesson_id = l.id
+                JOIN users u ON u.id = e.user_id
+                WHERE e.status = 2 AND u.email LIKE 'bench.student.%'
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO quiz_submissions (quiz_id, student_id, score)
+                SELECT q.id, e.user_id, (e.user_id % 100)::int
+                FROM enrollments e
+                JOIN modules m ON m.course_id = e.course_id
+                JOIN quizzes q ON q.module_id = m.id
+                JOIN users u ON u.id = e.user_id
+                WHERE e.status = 2 AND u.email LIKE 'bench.student.%'
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO enrollment_progress (user_id, course_id, graded_assignments, submitted_quizzes)
+                SELECT e.user_id, e.course_id, coalesce(sa.graded, 0), coalesce(sq.submitted, 0)
+                FROM enrollments e
+                JOIN users u ON u.id = e.user_id
+                LEFT JOIN (SELECT s.student_id, m.course_id, count(*) AS graded
+                           FROM submissions s JOIN assignments a ON a.id = s.assignment_id
+                           JOIN lessons l ON l.id = a.lesson_id JOIN modules m ON m.id = l.module_id
+                           WHERE s.score IS NOT NULL
+                           GROUP BY s.student_id, m.course_id) sa
+                          ON sa.student_id = e.user_id AND sa.course_id = e.course_id
+                LEFT JOIN (SELECT qs.student_id, m.course_id, count(*) AS submitted
+                           FROM quiz_submissions qs JOIN quizzes q ON q.id = qs.quiz_id
+                           JOIN modules m ON m.id = q.module_id
+                           GROUP BY qs.student_id, m.course_id) sq
+                          ON sq.student_id = e.user_id AND sq.course_id = e.course_id
+                WHERE u.email LIKE 'bench.student.%'
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO course_reviews (course_id, student_id, rating, comment)
+                SELECT e.course_id, e.user_id, 1 + (e.user_id % 5)::int, 'Synthetic review'
+                FROM enrollments e JOIN users u ON u.id = e.user_id
+                WHERE e.status = 2 AND u.email LIKE 'bench.student.%'
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO course_rating_stats (course_id, review_count, rating_sum,
+                                                 rating_1, rating_2, rating_3, rating_4, rating_5)
+                SELECT r.course_id, count(*), sum(r.rating),
+                       count(*) FILTER (WHERE r.rating = 1), count(*) FILTER (WHERE r.rating = 2),
+                       count(*) FILTER (WHERE r.rating = 3), count(*) FILTER (WHERE r.rating = 4),
+                       count(*) FILTER (WHERE r.rating = 5)
+                FROM course_reviews r JOIN courses c ON c.id = r.course_id
+                WHERE c.title LIKE 'Bench Course %' AND r.rating IS NOT NULL
+                GROUP BY r.course_id
+                """);
+
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
@@ -0,0 +1,38 @@
+package ru.dan.eduinstitution.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import ru.dan.eduinstitution.model.CourseResponseDto;
+import ru.dan.eduinstitution.service.CourseService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк постраничного получения курсов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CourseServiceBenchmark {
+
+    @Param({"10", "100"})
+    public int pageSize;
+
+    @Benchmark
+    public Page<CourseResponseDto> getAllCoursesFirstPage(BenchmarkContext context) {
+        return context.getBean(CourseService.class).getAllCourses(PageRequest.of(0, pageSize));
+    }
+
+    @Benchmark
+    public Page<CourseResponseDto> getAllCoursesDeepPage(BenchmarkContext context) {
+        int lastPage = Math.max(context.courseCount() / pageSize - 1, 0);
+        return context.getBean(CourseService.class).getAllCourses(PageRequest.of(lastPage, pageSize));
+    }
+}
@@ -0,0 +1,25 @@
+package ru.dan.eduinstitution.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import ru.dan.eduinstitution.model.EnrollmentResponseDto;
+import ru.dan.eduinstitution.model.KeysetPageDto;
+import ru.dan.eduinstitution.service.EnrollmentService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк получения записей на курс.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EnrollmentServiceBenchmark {
+
+    @Benchmark
+    public KeysetPageDto<EnrollmentResponseDto> getCourseEnrollments(BenchmarkContext context) {
+        return context.getBean(EnrollmentService.class)
+                .getCourseEnrollments(context.randomCourseId(), null, KeysetPageDto.DEFAULT_SIZE);
+    }
+}
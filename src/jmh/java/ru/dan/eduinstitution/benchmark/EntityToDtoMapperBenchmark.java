@@ -0,0 +1,147 @@
+package ru.dan.eduinstitution.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.dan.eduinstitution.entity.Assignment;
+import ru.dan.eduinstitution.entity.Category;
+import ru.dan.eduinstitution.entity.Course;
+import ru.dan.eduinstitution.entity.CourseReview;
+import ru.dan.eduinstitution.entity.Enrollment;
+import ru.dan.eduinstitution.entity.Quiz;
+import ru.dan.eduinstitution.entity.QuizSubmission;
+import ru.dan.eduinstitution.entity.Submission;
+import ru.dan.eduinstitution.entity.User;
+import ru.dan.eduinstitution.model.CourseResponseDto;
+import ru.dan.eduinstitution.model.CourseReviewResponseDto;
+import ru.dan.eduinstitution.model.EnrollmentResponseDto;
+import ru.dan.eduinstitution.model.QuizSubmissionResponseDto;
+import ru.dan.eduinstitution.model.SubmissionResponseDto;
+import ru.dan.eduinstitution.service.EntityToDtoMapper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк маппинга сущностей в DTO без обращения к базе.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EntityToDtoMapperBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private final EntityToDtoMapper mapper = new EntityToDtoMapper();
+
+    private List<Course> courses;
+    private List<Enrollment> enrollments;
+    private List<Submission> submissions;
+    private List<QuizSubmission> quizSubmissions;
+    private List<CourseReview> courseReviews;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        courses = new ArrayList<>(size);
+        enrollments = new ArrayList<>(size);
+        submissions = new ArrayList<>(size);
+        quizSubmissions = new ArrayList<>(size);
+        courseReviews = new ArrayList<>(size);
+
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Programming");
+        User teacher = User.builder().id(1L).name("Bench Teacher").role(User.Role.TEACHER).build();
+
+        for (int i = 0; i < size; i++) {
+            long id = i + 1;
+            User student = User.builder().id(id + 1).name("Bench Student " + id).role(User.Role.STUDENT).build();
+
+            Course course = new Course();
+            course.setId(id);
+            course.setTitle("Bench Course " + id);
+            course.setDescription("Synthetic course " + id);
+            course.setCategory(category);
+            course.setTeacher(teacher);
+            course.setDuration(30);
+            course.setStartDate(LocalDate.of(2025, 1, 15));
+            courses.add(course);
+
+            Enrollment enrollment = new Enrollment();
+            enrollment.setUserId(student.getId());
+            enrollment.setCourseId(course.getId());
+            enrollment.setStudent(student);
+            enrollment.setCourse(course);
+            enrollment.setEnrollDate(LocalDate.of(2025, 1, 15));
+            enrollment.setStatus(Enrollment.Status.ACTIVE);
+            enrollments.add(enrollment);
+
+            Assignment assignment = new Assignment();
+            assignment.setId(id);
+            assignment.setTitle("Assignment " + id);
+            Submission submission = new Submission();
+            submission.setId(id);
+            submission.setAssignment(assignment);
+            submission.setStudent(student);
+            submission.setSubmittedAt(LocalDateTime.of(2025, 1, 15, 14, 30));
+            submission.setContent("Synthetic solution");
+            submission.setScore(90);
+            submissions.add(submission);
+
+            Quiz quiz = new Quiz();
+            quiz.setId(id);
+            quiz.setTitle("Quiz " + id);
+            QuizSubmission quizSubmission = new QuizSubmission();
+            quizSubmission.setId(id);
+            quizSubmission.setQuiz(quiz);
+            quizSubmission.setStudent(student);
+            quizSubmission.setScore(85);
+            quizSubmission.setTakenAt(LocalDateTime.of(2025, 1, 15, 10, 30));
+            quizSubmissions.add(quizSubmission);
+
+            CourseReview courseReview = new CourseReview();
+            courseReview.setId(id);
+            courseReview.setCourse(course);
+            courseReview.setStudent(student);
+            courseReview.setRating(5);
+            courseReview.setComment("Synthetic review");
+            courseReview.setCreatedAt(LocalDateTime.of(2025, 1, 15, 16, 45));
+            courseReviews.add(courseReview);
+        }
+    }
+
+    @Benchmark
+    public List<CourseResponseDto> mapCoursesToDtos() {
+        return mapper.mapCoursesToDtos(courses);
+    }
+
+    @Benchmark
+    public List<EnrollmentResponseDto> mapEnrollmentsToDtos() {
+        return mapper.mapEnrollmentsToDtos(enrollments);
+    }
+
+    @Benchmark
+    public List<SubmissionResponseDto> mapSubmissionsToDtos() {
+        return mapper.mapSubmissionsToDtos(submissions);
+    }
+
+    @Benchmark
+    public List<QuizSubmissionResponseDto> mapQuizSubmissionsToDtos() {
+        return mapper.mapQuizSubmissionsToDtos(quizSubmissions);
+    }
+
+    @Benchmark
+    public List<CourseReviewResponseDto> mapCourseReviewsToDtos() {
+        return mapper.mapCourseReviewsToDtos(courseReviews);
+    }
+}
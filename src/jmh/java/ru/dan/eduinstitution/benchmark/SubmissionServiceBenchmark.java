@@ -0,0 +1,71 @@
+package ru.dan.eduinstitution.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.dan.eduinstitution.model.SubmissionCreateDto;
+import ru.dan.eduinstitution.model.SubmissionResponseDto;
+import ru.dan.eduinstitution.service.SubmissionService;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Бенчмарк пропускной способности создания ответов на задания под конкурентной нагрузкой.
+ * Для сравнения до/после запускается на соответствующих коммитах с одинаковой базой.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class SubmissionServiceBenchmark {
+
+    private static final int LOAD_ASSIGNMENTS = 1000;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private long[] assignmentIds;
+    private long[] studentIds;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        // Отдельные задания без ответов, чтобы пары задание-студент не пересекались с исходными данными
+        jdbcTemplate.update("DELETE FROM submissions WHERE content = 'Bench load submission'");
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM assignments WHERE title = 'Bench Load Assignment'", Integer.class);
+        if (existing == null || existing == 0) {
+            jdbcTemplate.update("""
+                    INSERT INTO assignments (lesson_id, title, max_score)
+                    SELECT id, 'Bench Load Assignment', 100 FROM lessons ORDER BY id LIMIT ?
+                    """, LOAD_ASSIGNMENTS);
+        }
+
+        assignmentIds = jdbcTemplate.queryForList(
+                        "SELECT id FROM assignments WHERE title = 'Bench Load Assignment'", Long.class).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        studentIds = jdbcTemplate.queryForList(
+                        "SELECT id FROM users WHERE email LIKE 'bench.student.%'", Long.class).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    @Benchmark
+    public SubmissionResponseDto createSubmission(BenchmarkContext context) {
+        long n = sequence.getAndIncrement();
+        SubmissionCreateDto dto = new SubmissionCreateDto();
+        dto.setAssignmentId(assignmentIds[(int) (n % assignmentIds.length)]);
+        dto.setStudentId(studentIds[(int) (n / assignmentIds.length % studentIds.length)]);
+        dto.setContent("Bench load submission");
+        return context.getBean(SubmissionService.class).createSubmission(dto, null);
+    }
+}
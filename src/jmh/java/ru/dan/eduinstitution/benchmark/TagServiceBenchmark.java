@@ -0,0 +1,35 @@
+package ru.dan.eduinstitution.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import ru.dan.eduinstitution.service.TagService;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк массового добавления тегов к курсу.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TagServiceBenchmark {
+
+    @Param({"5", "50"})
+    public int tagCount;
+
+    @Benchmark
+    public void addTagsToCourse(BenchmarkContext context) {
+        Set<Long> tagIds = new HashSet<>();
+        while (tagIds.size() < tagCount) {
+            tagIds.add(context.randomTagId());
+        }
+        context.getBean(TagService.class).addTagsToCourse(context.randomCourseId(), tagIds);
+    }
+}
@@ -0,0 +1,23 @@
+package ru.dan.eduinstitution.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import ru.dan.eduinstitution.model.UserResponseDto;
+import ru.dan.eduinstitution.service.UserService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк получения пользователя со всеми связанными коллекциями.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserServiceBenchmark {
+
+    @Benchmark
+    public UserResponseDto getUserById(BenchmarkContext context) {
+        return context.getBean(UserService.class).getUserById(context.randomStudentId());
+    }
+}
@@ -0,0 +1,41 @@
+package ru.dan.eduinstitution.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Настройка кешей справочных данных.
+ * Статистика кешей публикуется в actuator как метрики cache.gets, cache.puts, cache.evictions.
+ * Запись и вытеснение выполняются после фиксации транзакции, чтобы в кеш не попадали откатанные изменения.
+ */
+@Configuration
+@EnableCaching
+@EnableScheduling
+public class CacheConfig {
+
+    public static final String TAGS = "tags";
+    public static final String COURSE_HEADERS = "courseHeaders";
+    public static final String ANSWER_KEYS = "answerKeys";
+    public static final String COURSE_OUTLINES = "courseOutlines";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.cache.tags.spec:maximumSize=10000,expireAfterWrite=30m}") String tagsSpec,
+            @Value("${app.cache.course-headers.spec:maximumSize=50000,expireAfterWrite=10m}") String courseHeadersSpec,
+            @Value("${app.cache.answer-keys.spec:maximumSize=5000,expireAfterAccess=2h}") String answerKeysSpec,
+            @Value("${app.cache.course-outlines.spec:maximumSize=10000,expireAfterWrite=1h}") String courseOutlinesSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(TAGS, Caffeine.from(tagsSpec).recordStats().build());
+        cacheManager.registerCustomCache(COURSE_HEADERS, Caffeine.from(courseHeadersSpec).recordStats().build());
+        cacheManager.registerCustomCache(ANSWER_KEYS, Caffeine.from(answerKeysSpec).recordStats().build());
+        cacheManager.registerCustomCache(COURSE_OUTLINES, Caffeine.from(courseOutlinesSpec).recordStats().build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
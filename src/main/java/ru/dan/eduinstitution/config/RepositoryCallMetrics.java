@@ -0,0 +1,88 @@
+package ru.dan.eduinstitution.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Подсчёт обращений к репозиториям: общий счётчик repository.calls и число обращений к каждому репозиторию
+ * за один HTTP-запрос (http.server.requests.repository.calls с тегами uri и repository).
+ * По второй метрике видно, какой эндпоинт нагружает базу.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryCallMetrics implements HandlerInterceptor {
+
+    private static final String REPOSITORY_PACKAGE = "ru.dan.eduinstitution.repository";
+    private static final ThreadLocal<Map<String, Integer>> REQUEST_CALLS = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("target(org.springframework.data.repository.Repository)")
+    public Object count(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryName(joinPoint.getThis().getClass());
+        Counter.builder("repository.calls")
+                .description("Number of repository method calls.")
+                .tags("repository", repository, "method", joinPoint.getSignature().getName())
+                .register(meterRegistry)
+                .increment();
+        Map<String, Integer> calls = REQUEST_CALLS.get();
+        if (calls != null) {
+            calls.merge(repository, 1, Integer::sum);
+        }
+        return joinPoint.proceed();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        REQUEST_CALLS.set(new HashMap<>());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Map<String, Integer> calls = REQUEST_CALLS.get();
+        REQUEST_CALLS.remove();
+        if (calls == null || calls.isEmpty()) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        calls.forEach((repository, count) -> DistributionSummary.builder("http.server.requests.repository.calls")
+                .description("Number of repository calls made while handling one HTTP request.")
+                .baseUnit("calls")
+                .tags("method", request.getMethod(), "uri", uri, "repository", repository)
+                .register(meterRegistry)
+                .record(count));
+    }
+
+    /**
+     * Имя интерфейса репозитория приложения, который реализует прокси Spring Data.
+     */
+    private String repositoryName(Class<?> proxyClass) {
+        return repositoryNames.computeIfAbsent(proxyClass, type -> {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (candidate.getName().startsWith(REPOSITORY_PACKAGE)) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        });
+    }
+}
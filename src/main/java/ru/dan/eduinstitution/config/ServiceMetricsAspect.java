@@ -0,0 +1,70 @@
+package ru.dan.eduinstitution.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Метрики всех публичных методов сервисов: время выполнения (service.method, с тегом exception для ошибок)
+ * и размер возвращаемых коллекций и страниц (service.method.result.size).
+ * Методы жизненного цикла фоновых компонентов не учитываются.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * ru.dan.eduinstitution.service..*.*(..))"
+            + " && !execution(* org.springframework.context.Lifecycle.*(..))"
+            + " && !execution(* org.springframework.context.SmartLifecycle.*(..))")
+    public Object observe(ProceedingJoinPoint joinPoint) throws Throwable {
+        String className = AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName();
+        String methodName = joinPoint.getSignature().getName();
+        String exception = "none";
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Object result = joinPoint.proceed();
+            recordResultSize(className, methodName, result);
+            return result;
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("service.method")
+                    .description("Service method execution time.")
+                    .tags("class", className, "method", methodName, "exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    private void recordResultSize(String className, String methodName, Object result) {
+        int size;
+        if (result instanceof Collection<?> collection) {
+            size = collection.size();
+        } else if (result instanceof Slice<?> slice) {
+            size = slice.getNumberOfElements();
+        } else if (result instanceof Map<?, ?> map) {
+            size = map.size();
+        } else {
+            return;
+        }
+        DistributionSummary.builder("service.method.result.size")
+                .description("Number of elements returned by a service method.")
+                .baseUnit("elements")
+                .tags("class", className, "method", methodName)
+                .register(meterRegistry)
+                .record(size);
+    }
+}
@@ -0,0 +1,39 @@
+package ru.dan.eduinstitution.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Заголовок X-Sql-Statement-Count с числом SQL-запросов, выполненных до записи тела ответа.
+ * Включается свойством app.diagnostics.sql.expose-header, по нему тесты проверяют число запросов эндпоинта.
+ */
+@ControllerAdvice
+public class SqlStatementCountAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "X-Sql-Statement-Count";
+
+    @Value("${app.diagnostics.sql.expose-header:false}")
+    private boolean exposeHeader;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return exposeHeader;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        int count = SqlStatementCounter.current();
+        if (count >= 0) {
+            response.getHeaders().set(HEADER, String.valueOf(count));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,48 @@
+package ru.dan.eduinstitution.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Счётчик SQL-запросов Hibernate в текущем потоке. Подключается к фабрике сессий свойством
+ * hibernate.session_factory.statement_inspector и вызывается при подготовке каждого запроса.
+ * Запросы через JdbcTemplate не учитываются.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    /**
+     * Начать подсчёт в текущем потоке.
+     */
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * @return Число запросов с начала подсчёта или -1, если подсчёт не начат
+     */
+    public static int current() {
+        int[] count = COUNT.get();
+        return count != null ? count[0] : -1;
+    }
+
+    /**
+     * Закончить подсчёт в текущем потоке.
+     *
+     * @return Число запросов с начала подсчёта или -1, если подсчёт не начат
+     */
+    public static int stop() {
+        int count = current();
+        COUNT.remove();
+        return count;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
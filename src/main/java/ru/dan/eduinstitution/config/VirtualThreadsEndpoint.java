@@ -0,0 +1,62 @@
+package ru.dan.eduinstitution.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import ru.dan.eduinstitution.model.VirtualThreadDiagnosticsDto;
+import ru.dan.eduinstitution.service.VirtualThreadPinningMonitor;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Эндпоинт actuator /actuator/virtualthreads: закрепления виртуальных потоков и ожидание соединений Hikari.
+ * По нему проверяется, что путь JDBC не закрепляет носители, и подбирается размер пула под число виртуальных потоков.
+ */
+@Component
+@Endpoint(id = "virtualthreads")
+@RequiredArgsConstructor
+public class VirtualThreadsEndpoint {
+
+    private final ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor;
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @ReadOperation
+    public VirtualThreadDiagnosticsDto diagnostics() {
+        VirtualThreadPinningMonitor monitor = pinningMonitor.getIfAvailable();
+        return new VirtualThreadDiagnosticsDto(virtualThreadsEnabled,
+                monitor != null ? monitor.getPinning() : null,
+                connectionPool());
+    }
+
+    private VirtualThreadDiagnosticsDto.ConnectionPool connectionPool() {
+        if (!(dataSource instanceof HikariDataSource hikari)) {
+            return null;
+        }
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", hikari.getPoolName()).timer();
+        Counter timeouts = meterRegistry.find("hikaricp.connections.timeout").tag("pool", hikari.getPoolName()).counter();
+        return new VirtualThreadDiagnosticsDto.ConnectionPool(
+                hikari.getPoolName(),
+                pool != null ? pool.getActiveConnections() : 0,
+                pool != null ? pool.getIdleConnections() : 0,
+                hikari.getMaximumPoolSize(),
+                pool != null ? pool.getThreadsAwaitingConnection() : 0,
+                acquire != null ? acquire.count() : 0,
+                acquire != null ? acquire.mean(TimeUnit.MILLISECONDS) : 0,
+                acquire != null ? acquire.max(TimeUnit.MILLISECONDS) : 0,
+                timeouts != null ? (long) timeouts.count() : 0);
+    }
+}
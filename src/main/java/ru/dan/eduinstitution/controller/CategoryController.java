@@ -8,17 +8,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import ru.dan.eduinstitution.entity.Category;
+import org.springframework.web.context.request.WebRequest;
 import ru.dan.eduinstitution.model.CategoryResponseDto;
 import ru.dan.eduinstitution.service.CategoryCacheService;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Tag(name = "Category", description = "Operations related to categories")
 @Slf4j
@@ -35,21 +35,22 @@ public class CategoryController {
         responses = {
             @ApiResponse(responseCode = "200", description = "List of categories retrieved successfully",
                 content = @Content(mediaType = "application/json", 
-                schema = @Schema(implementation = CategoryResponseDto.class)))
+                schema = @Schema(implementation = CategoryResponseDto.class))),
+            @ApiResponse(responseCode = "304", description = "Categories not modified since the ETag from If-None-Match")
         }
     )
     @GetMapping
-    public ResponseEntity<List<CategoryResponseDto>> getAllCategories() {
+    public ResponseEntity<List<CategoryResponseDto>> getAllCategories(WebRequest webRequest) {
         log.info("Retrieving all categories from cache");
-        List<Category> categories = categoryCacheService.getCategoryMap().values().stream()
-                .toList();
-        
-        List<CategoryResponseDto> dtos = categories.stream()
-                .map(category -> new CategoryResponseDto(category.getId(), category.getName()))
-                .collect(Collectors.toList());
-        
+        String etag = categoryCacheService.getEtag();
+        if (webRequest.checkNotModified(etag)) {
+            log.info("Categories not modified, etag {}", etag);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        List<CategoryResponseDto> dtos = categoryCacheService.getCategories();
         log.info("Retrieved {} categories", dtos.size());
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok().eTag(etag).body(dtos);
     }
 
     @Operation(
@@ -67,9 +68,8 @@ public class CategoryController {
         @Parameter(description = "Unique identifier of the category") 
         @PathVariable Long id) {
         log.info("Retrieving category by ID: {}", id);
-        Category category = categoryCacheService.findById(id);
-        if (category != null) {
-            CategoryResponseDto dto = new CategoryResponseDto(category.getId(), category.getName());
+        CategoryResponseDto dto = categoryCacheService.findDtoById(id);
+        if (dto != null) {
             log.info("Successfully retrieved category: {}", dto.getName());
             return ResponseEntity.ok(dto);
         } else {
@@ -8,9 +8,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,12 +21,26 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.dan.eduinstitution.model.CourseCreateDto;
+import ru.dan.eduinstitution.model.CourseImportDto;
+import ru.dan.eduinstitution.model.CourseImportResultDto;
+import ru.dan.eduinstitution.model.CourseOutlineDto;
 import ru.dan.eduinstitution.model.CourseResponseDto;
+import ru.dan.eduinstitution.model.CourseSearchFilter;
 import ru.dan.eduinstitution.model.CourseUpdateDto;
+import ru.dan.eduinstitution.model.SuggestionDto;
+import ru.dan.eduinstitution.service.AutocompleteService;
+import ru.dan.eduinstitution.service.CourseImportService;
+import ru.dan.eduinstitution.service.CourseOutlineService;
+import ru.dan.eduinstitution.service.CourseSearchService;
 import ru.dan.eduinstitution.service.CourseService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
 @Tag(name = "Course", description = "Operations related to course")
 @Slf4j
 @RestController
@@ -33,6 +49,10 @@ import ru.dan.eduinstitution.service.CourseService;
 public class CourseController {
 
     private final CourseService courseService;
+    private final CourseOutlineService courseOutlineService;
+    private final CourseImportService courseImportService;
+    private final CourseSearchService courseSearchService;
+    private final AutocompleteService autocompleteService;
 
     @Operation(
             summary = "Create a new course",
@@ -78,6 +98,27 @@ public class CourseController {
         return ResponseEntity.ok(responseDto);
     }
 
+    @Operation(
+            summary = "Get course outline",
+            description = "Retrieves the course tree in one call: ordered modules with quiz headers, "
+                    + "their lessons without content and the lessons' assignments",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Course outline retrieved successfully",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = CourseOutlineDto.class))),
+                    @ApiResponse(responseCode = "404", description = "Course not found")
+            }
+    )
+    @GetMapping("/{id}/outline")
+    public ResponseEntity<CourseOutlineDto> getCourseOutline(
+            @io.swagger.v3.oas.annotations.Parameter(description = "Unique identifier of the course")
+            @PathVariable Long id) {
+        log.info("Getting outline for course with ID: {}", id);
+        CourseOutlineDto outline = courseOutlineService.getOutline(id);
+        log.info("Outline retrieved for course with ID: {}, {} modules", id, outline.getModules().size());
+        return ResponseEntity.ok(outline);
+    }
+
     @Operation(
             summary = "Update a course",
             description = "Updates a course with the provided details",
@@ -122,4 +163,93 @@ public class CourseController {
         log.info("Retrieved {} courses", courses.getContent().size());
         return ResponseEntity.ok(courses);
     }
+
+    @Operation(
+            summary = "Search courses",
+            description = "Full-text search over the course catalog with optional category, teacher, tag and "
+                    + "start date filters; results are ordered by the sort parameter (id, title, duration, startDate), "
+                    + "then by relevance",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Search results retrieved successfully",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = Page.class))),
+                    @ApiResponse(responseCode = "400", description = "Unsupported sort property")
+            }
+    )
+    @GetMapping("/search")
+    public ResponseEntity<Page<CourseResponseDto>> searchCourses(
+            @ParameterObject CourseSearchFilter filter,
+            @PageableDefault(size = 10, page = 0) Pageable pageable) {
+        log.info("Searching courses: {}", filter);
+        Page<CourseResponseDto> courses = courseSearchService.search(filter, pageable);
+        log.info("Found {} courses", courses.getContent().size());
+        return ResponseEntity.ok(courses);
+    }
+
+    @Operation(
+            summary = "Get top rated courses",
+            description = "Returns courses ordered by Bayesian average rating, which pulls courses with few reviews "
+                    + "towards the catalog-wide mean",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Top rated courses retrieved successfully",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = CourseResponseDto[].class)))
+            }
+    )
+    @GetMapping("/top-rated")
+    public ResponseEntity<List<CourseResponseDto>> getTopRatedCourses(
+            @io.swagger.v3.oas.annotations.Parameter(description = "Number of courses, at most 100")
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("Getting top {} rated courses", limit);
+        List<CourseResponseDto> courses = courseSearchService.topRated(limit);
+        log.info("Retrieved {} top rated courses", courses.size());
+        return ResponseEntity.ok(courses);
+    }
+
+    @Operation(
+            summary = "Autocomplete courses",
+            description = "Returns courses whose title starts with the given prefix, case-insensitive, in alphabetical order",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = SuggestionDto[].class)))
+            }
+    )
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<SuggestionDto>> autocompleteCourses(
+            @io.swagger.v3.oas.annotations.Parameter(description = "Beginning of the course title")
+            @RequestParam String prefix,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Maximum number of suggestions, at most 50")
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("Autocompleting courses by prefix: {}", prefix);
+        List<SuggestionDto> suggestions = autocompleteService.completeCourses(prefix, limit);
+        log.info("Found {} course suggestions", suggestions.size());
+        return ResponseEntity.ok(suggestions);
+    }
+
+    @Operation(
+            summary = "Bulk import courses",
+            description = "Imports course trees (modules, lessons, assignments, quizzes, questions, answer options) "
+                    + "from a streamed JSON array or NDJSON document",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Courses imported successfully",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = CourseImportResultDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid input data"),
+                    @ApiResponse(responseCode = "404", description = "Referenced category, teacher or tag not found")
+            }
+    )
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<CourseImportResultDto> importCourses(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Course trees to import",
+                    required = true,
+                    content = @Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = CourseImportDto.class))
+            ) InputStream body) throws IOException {
+        log.info("Importing courses");
+        CourseImportResultDto result = courseImportService.importCourses(body);
+        log.info("Imported {} courses", result.getCourses());
+        return ResponseEntity.status(201).body(result);
+    }
 }
@@ -16,10 +16,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.dan.eduinstitution.model.CourseRatingStatsDto;
 import ru.dan.eduinstitution.model.CourseReviewCreateDto;
 import ru.dan.eduinstitution.model.CourseReviewResponseDto;
 import ru.dan.eduinstitution.model.CourseReviewUpdateDto;
+import ru.dan.eduinstitution.model.KeysetPageDto;
 import ru.dan.eduinstitution.service.CourseReviewService;
 
 import java.util.List;
@@ -138,11 +141,15 @@ public class CourseReviewController {
     @GetMapping("/course/{courseId}")
     public ResponseEntity<List<CourseReviewResponseDto>> getReviewsByCourse(
             @io.swagger.v3.oas.annotations.Parameter(description = "Unique identifier of the course")
-            @PathVariable Long courseId) {
+            @PathVariable Long courseId,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Cursor from the X-Next-Cursor header of the previous page")
+            @RequestParam(required = false) Long after,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Page size")
+            @RequestParam(defaultValue = "100") int size) {
         log.info("Getting reviews for course with ID: {}", courseId);
-        List<CourseReviewResponseDto> responseDtos = courseReviewService.getReviewsByCourse(courseId);
-        log.info("Retrieved {} reviews for course with ID: {}", responseDtos.size(), courseId);
-        return ResponseEntity.ok(responseDtos);
+        KeysetPageDto<CourseReviewResponseDto> page = courseReviewService.getReviewsByCourse(courseId, after, size);
+        log.info("Retrieved {} reviews for course with ID: {}", page.getContent().size(), courseId);
+        return KeysetPageResponse.ok(page);
     }
 
     @Operation(
@@ -158,11 +165,15 @@ public class CourseReviewController {
     @GetMapping("/student/{studentId}")
     public ResponseEntity<List<CourseReviewResponseDto>> getReviewsByStudent(
             @io.swagger.v3.oas.annotations.Parameter(description = "Unique identifier of the student")
-            @PathVariable Long studentId) {
+            @PathVariable Long studentId,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Cursor from the X-Next-Cursor header of the previous page")
+            @RequestParam(required = false) Long after,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Page size")
+            @RequestParam(defaultValue = "100") int size) {
         log.info("Getting reviews by student with ID: {}", studentId);
-        List<CourseReviewResponseDto> responseDtos = courseReviewService.getReviewsByStudent(studentId);
-        log.info("Retrieved {} reviews by student with ID: {}", responseDtos.size(), studentId);
-        return ResponseEntity.ok(responseDtos);
+        KeysetPageDto<CourseReviewResponseDto> page = courseReviewService.getReviewsByStudent(studentId, after, size);
+        log.info("Retrieved {} reviews by student with ID: {}", page.getContent().size(), studentId);
+        return KeysetPageResponse.ok(page);
     }
 
     @Operation(
@@ -184,4 +195,24 @@ public class CourseReviewController {
         log.info("Average rating for course with ID {} is: {}", courseId, averageRating);
         return ResponseEntity.ok(averageRating);
     }
+
+    @Operation(
+            summary = "Get rating stats for a course",
+            description = "Retrieves the number of ratings, the average rating and the number of ratings per star",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Rating stats retrieved successfully",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = CourseRatingStatsDto.class))),
+                    @ApiResponse(responseCode = "404", description = "Course not found")
+            }
+    )
+    @GetMapping("/course/{courseId}/rating-stats")
+    public ResponseEntity<CourseRatingStatsDto> getRatingStatsByCourse(
+            @io.swagger.v3.oas.annotations.Parameter(description = "Unique identifier of the course")
+            @PathVariable Long courseId) {
+        log.info("Getting rating stats for course with ID: {}", courseId);
+        CourseRatingStatsDto ratingStats = courseReviewService.getRatingStatsByCourse(courseId);
+        log.info("Course with ID {} has {} ratings", courseId, ratingStats.getReviewCount());
+        return ResponseEntity.ok(ratingStats);
+    }
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,9 +17,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.dan.eduinstitution.entity.Enrollment;
+import ru.dan.eduinstitution.model.CourseEnrollmentCountsDto;
 import ru.dan.eduinstitution.model.EnrollmentRequestDto;
 import ru.dan.eduinstitution.model.EnrollmentResponseDto;
+import ru.dan.eduinstitution.model.KeysetPageDto;
 import ru.dan.eduinstitution.service.EnrollmentService;
 
 import java.util.List;
@@ -34,14 +40,19 @@ public class EnrollmentController {
 
     @Operation(
             summary = "Enroll a student to a course",
-            description = "Enrolls a student to a course with the provided details",
+            description = "Enrolls a student to a course with the provided details; when the course is full "
+                    + "the student is put on its waitlist and enrolled as soon as a seat is freed",
             responses = {
                     @ApiResponse(responseCode = "201", description = "Student enrolled successfully",
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = EnrollmentResponseDto.class))),
+                    @ApiResponse(responseCode = "202", description = "Course is full, student is waitlisted",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = EnrollmentResponseDto.class))),
                     @ApiResponse(responseCode = "400", description = "Invalid input data"),
                     @ApiResponse(responseCode = "404", description = "Student or course not found"),
-                    @ApiResponse(responseCode = "409", description = "Student already enrolled in the course")
+                    @ApiResponse(responseCode = "409", description = "Student already enrolled in the course"),
+                    @ApiResponse(responseCode = "503", description = "Course registration is busy, retry later")
             }
     )
     @PostMapping("/enroll")
@@ -56,14 +67,41 @@ public class EnrollmentController {
                 dto.getStudentId(), dto.getCourseId());
         
         EnrollmentResponseDto responseDto = enrollmentService.enrollStudent(dto);
+        if (EnrollmentService.WAITLISTED.equals(responseDto.getStatus())) {
+            log.info("Student with ID {} waitlisted at position {}", responseDto.getStudentId(),
+                    responseDto.getWaitlistPosition());
+            return ResponseEntity.status(202).body(responseDto);
+        }
         log.info("Student enrolled with ID: {}", responseDto.getStudentId());
         
         return ResponseEntity.status(201).body(responseDto);
     }
 
+    @Operation(
+            summary = "Leave a course waitlist",
+            description = "Removes a student from the waitlist of a full course",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Student removed from the waitlist"),
+                    @ApiResponse(responseCode = "404", description = "Waitlist entry not found")
+            }
+    )
+    @DeleteMapping("/waitlist/{studentId}/{courseId}")
+    public ResponseEntity<Void> leaveWaitlist(
+            @io.swagger.v3.oas.annotations.Parameter(description = "ID of the waitlisted student")
+            @PathVariable Long studentId,
+            @io.swagger.v3.oas.annotations.Parameter(description = "ID of the course")
+            @PathVariable Long courseId) {
+        log.info("Removing student with ID {} from the waitlist of course with ID {}", studentId, courseId);
+
+        enrollmentService.leaveWaitlist(studentId, courseId);
+
+        return ResponseEntity.noContent().build();
+    }
+
     @Operation(
             summary = "Unenroll a student from a course",
-            description = "Removes the enrollment of a student from a course",
+            description = "Removes the enrollment of a student from a course; a freed seat goes to the first "
+                    + "waitlisted student",
             responses = {
                     @ApiResponse(responseCode = "204", description = "Student unenrolled successfully"),
                     @ApiResponse(responseCode = "404", description = "Enrollment not found")
@@ -85,7 +123,7 @@ public class EnrollmentController {
 
     @Operation(
             summary = "Get all enrollments for a student",
-            description = "Retrieves all course enrollments for a specific student",
+            description = "Retrieves all course enrollments for a specific student with precomputed course progress",
             responses = {
                     @ApiResponse(responseCode = "200", description = "List of student enrollments retrieved successfully",
                             content = @Content(mediaType = "application/json",
@@ -95,18 +133,22 @@ public class EnrollmentController {
     @GetMapping("/student/{studentId}")
     public ResponseEntity<List<EnrollmentResponseDto>> getStudentEnrollments(
             @io.swagger.v3.oas.annotations.Parameter(description = "ID of the student")
-            @PathVariable Long studentId) {
+            @PathVariable Long studentId,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Cursor from the X-Next-Cursor header of the previous page")
+            @RequestParam(required = false) Long after,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Page size")
+            @RequestParam(defaultValue = "100") int size) {
         log.info("Getting enrollments for student with ID {}", studentId);
         
-        List<EnrollmentResponseDto> enrollments = enrollmentService.getStudentEnrollments(studentId);
-        log.info("Retrieved {} enrollments for student with ID {}", enrollments.size(), studentId);
+        KeysetPageDto<EnrollmentResponseDto> page = enrollmentService.getStudentEnrollments(studentId, after, size);
+        log.info("Retrieved {} enrollments for student with ID {}", page.getContent().size(), studentId);
         
-        return ResponseEntity.ok(enrollments);
+        return KeysetPageResponse.ok(page);
     }
 
     @Operation(
             summary = "Get all students enrolled in a course",
-            description = "Retrieves all student enrollments for a specific course",
+            description = "Retrieves all student enrollments for a specific course with precomputed course progress",
             responses = {
                     @ApiResponse(responseCode = "200", description = "List of course enrollments retrieved successfully",
                             content = @Content(mediaType = "application/json",
@@ -116,13 +158,17 @@ public class EnrollmentController {
     @GetMapping("/course/{courseId}")
     public ResponseEntity<List<EnrollmentResponseDto>> getCourseEnrollments(
             @io.swagger.v3.oas.annotations.Parameter(description = "ID of the course")
-            @PathVariable Long courseId) {
+            @PathVariable Long courseId,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Cursor from the X-Next-Cursor header of the previous page")
+            @RequestParam(required = false) Long after,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Page size")
+            @RequestParam(defaultValue = "100") int size) {
         log.info("Getting enrollments for course with ID {}", courseId);
         
-        List<EnrollmentResponseDto> enrollments = enrollmentService.getCourseEnrollments(courseId);
-        log.info("Retrieved {} student enrollments for course with ID {}", enrollments.size(), courseId);
+        KeysetPageDto<EnrollmentResponseDto> page = enrollmentService.getCourseEnrollments(courseId, after, size);
+        log.info("Retrieved {} student enrollments for course with ID {}", page.getContent().size(), courseId);
         
-        return ResponseEntity.ok(enrollments);
+        return KeysetPageResponse.ok(page);
     }
 
     @Operation(
@@ -132,7 +178,9 @@ public class EnrollmentController {
                     @ApiResponse(responseCode = "200", description = "Enrollment status updated successfully",
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = EnrollmentResponseDto.class))),
-                    @ApiResponse(responseCode = "404", description = "Enrollment not found")
+                    @ApiResponse(responseCode = "400", description = "Unknown status"),
+                    @ApiResponse(responseCode = "404", description = "Enrollment not found"),
+                    @ApiResponse(responseCode = "409", description = "Dropped enrollment cannot be restored, course is full")
             }
     )
     @PutMapping("/update-status/{studentId}/{courseId}")
@@ -157,23 +205,74 @@ public class EnrollmentController {
     }
 
     @Operation(
-            summary = "Get all enrollments with a specific status",
-            description = "Retrieves all enrollments with a specific status",
+            summary = "Get enrollments with a specific status",
+            description = "Retrieves a page of enrollments with a specific status ordered by student and course; "
+                    + "the cursor of the next page is returned in the X-Next-Cursor header",
             responses = {
-                    @ApiResponse(responseCode = "200", description = "List of enrollments with status retrieved successfully",
+                    @ApiResponse(responseCode = "200", description = "Page of enrollments with status retrieved successfully",
                             content = @Content(mediaType = "application/json",
-                                    schema = @Schema(implementation = EnrollmentResponseDto[].class)))
+                                    schema = @Schema(implementation = EnrollmentResponseDto[].class))),
+                    @ApiResponse(responseCode = "400", description = "Unknown status or invalid cursor")
             }
     )
     @GetMapping("/by-status/{status}")
     public ResponseEntity<List<EnrollmentResponseDto>> getEnrollmentsByStatus(
-            @io.swagger.v3.oas.annotations.Parameter(description = "Status to filter enrollments by")
-            @PathVariable String status) {
+            @io.swagger.v3.oas.annotations.Parameter(description = "Status to filter enrollments by: Active, Completed or Dropped")
+            @PathVariable String status,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Cursor from the X-Next-Cursor header of the previous page")
+            @RequestParam(required = false) String after,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Page size")
+            @RequestParam(defaultValue = "100") int size) {
         log.info("Getting enrollments with status: {}", status);
         
-        List<EnrollmentResponseDto> enrollments = enrollmentService.getEnrollmentsByStatus(status);
-        log.info("Retrieved {} enrollments with status: {}", enrollments.size(), status);
+        KeysetPageDto<EnrollmentResponseDto> page = enrollmentService.getEnrollmentsByStatus(status, after, size);
+        log.info("Retrieved {} enrollments with status: {}", page.getContent().size(), status);
         
-        return ResponseEntity.ok(enrollments);
+        return KeysetPageResponse.ok(page);
+    }
+
+    @Operation(
+            summary = "Export all enrollments with a specific status",
+            description = "Streams every enrollment with a specific status as newline-delimited JSON "
+                    + "without loading the whole result into memory",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Enrollments streamed successfully",
+                            content = @Content(mediaType = "application/x-ndjson")),
+                    @ApiResponse(responseCode = "400", description = "Unknown status")
+            }
+    )
+    @GetMapping("/by-status/{status}/stream")
+    public ResponseEntity<StreamingResponseBody> streamEnrollmentsByStatus(
+            @io.swagger.v3.oas.annotations.Parameter(description = "Status to filter enrollments by: Active, Completed or Dropped")
+            @PathVariable String status) {
+        log.info("Streaming enrollments with status: {}", status);
+        Enrollment.Status enrollmentStatus = enrollmentService.parseStatus(status);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> enrollmentService.streamEnrollmentsByStatus(enrollmentStatus, out));
+    }
+
+    @Operation(
+            summary = "Get enrollment counts of a course",
+            description = "Retrieves the number of active, completed and dropped enrollments of a course "
+                    + "from a counter table maintained together with the enrollments, its seat limit and waitlist size",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Enrollment counts retrieved successfully",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = CourseEnrollmentCountsDto.class))),
+                    @ApiResponse(responseCode = "404", description = "Course not found")
+            }
+    )
+    @GetMapping("/course/{courseId}/counts")
+    public ResponseEntity<CourseEnrollmentCountsDto> getCourseEnrollmentCounts(
+            @io.swagger.v3.oas.annotations.Parameter(description = "ID of the course")
+            @PathVariable Long courseId) {
+        log.info("Getting enrollment counts for course with ID {}", courseId);
+
+        CourseEnrollmentCountsDto counts = enrollmentService.getCourseEnrollmentCounts(courseId);
+        log.info("Retrieved enrollment counts for course with ID {}", courseId);
+
+        return ResponseEntity.ok(counts);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package ru.dan.eduinstitution.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.dan.eduinstitution.service.GradebookExportService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@Tag(name = "Gradebook", description = "Export of course gradebooks")
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/gradebook")
+public class GradebookController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final GradebookExportService gradebookExportService;
+
+    @Operation(
+            summary = "Export course gradebook",
+            description = "Streams one row per enrolled student with a score column for every assignment and quiz "
+                    + "of the course, as CSV or newline-delimited JSON",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Gradebook streamed successfully",
+                            content = {@Content(mediaType = "text/csv"),
+                                    @Content(mediaType = "application/x-ndjson")}),
+                    @ApiResponse(responseCode = "404", description = "Course not found")
+            }
+    )
+    @GetMapping("/course/{courseId}")
+    public ResponseEntity<StreamingResponseBody> exportGradebook(
+            @io.swagger.v3.oas.annotations.Parameter(description = "Unique identifier of the course")
+            @PathVariable Long courseId,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Export format: CSV or NDJSON")
+            @RequestParam(defaultValue = "CSV") GradebookExportService.Format format) {
+        log.info("Exporting gradebook for course with ID {} as {}", courseId, format);
+        List<GradebookExportService.Item> items = gradebookExportService.getItems(courseId);
+        log.info("Streaming gradebook for course with ID {}: {} items", courseId, items.size());
+
+        boolean csv = format == GradebookExportService.Format.CSV;
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("gradebook-course-" + courseId + (csv ? ".csv" : ".ndjson"))
+                .build();
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(out -> gradebookExportService.export(courseId, items, format, out));
+    }
+}
@@ -0,0 +1,25 @@
+package ru.dan.eduinstitution.controller;
+
+import org.springframework.http.ResponseEntity;
+import ru.dan.eduinstitution.model.KeysetPageDto;
+
+import java.util.List;
+
+/**
+ * Ответ со страницей keyset-выборки: элементы в теле, курсор следующей страницы в заголовке.
+ */
+final class KeysetPageResponse {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private KeysetPageResponse() {
+    }
+
+    static <T> ResponseEntity<List<T>> ok(KeysetPageDto<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContent());
+    }
+}
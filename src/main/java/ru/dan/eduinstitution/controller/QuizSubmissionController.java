@@ -8,6 +8,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,14 +17,20 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.dan.eduinstitution.model.AnswerOptionStatsDto;
+import ru.dan.eduinstitution.model.KeysetPageDto;
 import ru.dan.eduinstitution.model.QuizSubmissionCreateDto;
 import ru.dan.eduinstitution.model.QuizSubmissionResponseDto;
 import ru.dan.eduinstitution.model.QuizSubmissionUpdateDto;
+import ru.dan.eduinstitution.model.SubmissionReceiptDto;
 import ru.dan.eduinstitution.service.QuizSubmissionService;
 
 import java.util.List;
+import java.util.Optional;
 
 @Tag(name = "QuizSubmission", description = "Operations related to quiz submissions")
 @Slf4j
@@ -31,11 +39,14 @@ import java.util.List;
 @RequestMapping("/quiz-submission")
 public class QuizSubmissionController {
 
+    private static final String RETRY_AFTER_SECONDS = "1";
+
     private final QuizSubmissionService quizSubmissionService;
 
     @Operation(
             summary = "Create a new quiz submission",
-            description = "Creates a new quiz submission with the provided details",
+            description = "Creates a new quiz submission with the provided details. "
+                    + "Requests with the same Idempotency-Key return the quiz submission created by the first one",
             responses = {
                     @ApiResponse(responseCode = "201", description = "Quiz submission created successfully",
                             content = @Content(mediaType = "application/json",
@@ -52,14 +63,55 @@ public class QuizSubmissionController {
                     required = true,
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = QuizSubmissionCreateDto.class))
-            ) @Valid @RequestBody QuizSubmissionCreateDto dto) {
+            ) @Valid @RequestBody QuizSubmissionCreateDto dto,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Client-generated key; "
+                    + "a repeated request with the same key returns the already created quiz submission")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         log.info("Creating quiz submission for quiz ID: {} by student ID: {}", 
                 dto.getQuizId(), dto.getStudentId());
-        QuizSubmissionResponseDto responseDto = quizSubmissionService.createQuizSubmission(dto);
+        QuizSubmissionResponseDto responseDto = quizSubmissionService.createQuizSubmission(dto, idempotencyKey);
         log.info("Quiz submission created with ID: {}", responseDto.getId());
         return ResponseEntity.status(201).body(responseDto);
     }
 
+    @Operation(
+            summary = "Accept a new quiz submission for asynchronous write",
+            description = "Validates the quiz submission and queues it for a batched write. "
+                    + "The returned receipt is polled via GET /submission/receipt/{receiptId}",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Quiz submission accepted, receipt returned",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = SubmissionReceiptDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid input data"),
+                    @ApiResponse(responseCode = "404", description = "Write-behind mode is disabled"),
+                    @ApiResponse(responseCode = "429", description = "Write queue is full, retry after the Retry-After delay"),
+                    @ApiResponse(responseCode = "503", description = "Write-behind writer is stopped")
+            }
+    )
+    @PostMapping("/async")
+    public ResponseEntity<SubmissionReceiptDto> createQuizSubmissionAsync(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Quiz submission details for creation",
+                    required = true,
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = QuizSubmissionCreateDto.class))
+            ) @Valid @RequestBody QuizSubmissionCreateDto dto,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Client-generated key; "
+                    + "a repeated request with the same key completes with the already created quiz submission")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        log.info("Queueing quiz submission for quiz ID: {} by student ID: {}",
+                dto.getQuizId(), dto.getStudentId());
+        Optional<SubmissionReceiptDto> receipt = quizSubmissionService.createQuizSubmissionAsync(dto, idempotencyKey);
+        if (receipt.isEmpty()) {
+            log.warn("Write queue is full, quiz submission rejected");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+        }
+        log.info("Quiz submission queued with receipt ID: {}", receipt.get().getReceiptId());
+        return ResponseEntity.accepted().body(receipt.get());
+    }
+
     @Operation(
             summary = "Get quiz submission by ID",
             description = "Retrieves a quiz submission by its unique ID",
@@ -138,11 +190,15 @@ public class QuizSubmissionController {
     @GetMapping("/student/{studentId}")
     public ResponseEntity<List<QuizSubmissionResponseDto>> getQuizSubmissionsByStudentId(
             @io.swagger.v3.oas.annotations.Parameter(description = "Unique identifier of the student")
-            @PathVariable Long studentId) {
+            @PathVariable Long studentId,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Cursor from the X-Next-Cursor header of the previous page")
+            @RequestParam(required = false) Long after,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Page size")
+            @RequestParam(defaultValue = "100") int size) {
         log.info("Getting quiz submissions for student with ID: {}", studentId);
-        List<QuizSubmissionResponseDto> responseDtos = quizSubmissionService.getQuizSubmissionsByStudentId(studentId);
-        log.info("Retrieved {} quiz submissions for student with ID: {}", responseDtos.size(), studentId);
-        return ResponseEntity.ok(responseDtos);
+        KeysetPageDto<QuizSubmissionResponseDto> page = quizSubmissionService.getQuizSubmissionsByStudentId(studentId, after, size);
+        log.info("Retrieved {} quiz submissions for student with ID: {}", page.getContent().size(), studentId);
+        return KeysetPageResponse.ok(page);
     }
 
     @Operation(
@@ -158,10 +214,34 @@ public class QuizSubmissionController {
     @GetMapping("/quiz/{quizId}")
     public ResponseEntity<List<QuizSubmissionResponseDto>> getQuizSubmissionsByQuizId(
             @io.swagger.v3.oas.annotations.Parameter(description = "Unique identifier of the quiz")
-            @PathVariable Long quizId) {
+            @PathVariable Long quizId,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Cursor from the X-Next-Cursor header of the previous page")
+            @RequestParam(required = false) Long after,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Page size")
+            @RequestParam(defaultValue = "100") int size) {
         log.info("Getting quiz submissions for quiz with ID: {}", quizId);
-        List<QuizSubmissionResponseDto> responseDtos = quizSubmissionService.getQuizSubmissionsByQuizId(quizId);
-        log.info("Retrieved {} quiz submissions for quiz with ID: {}", responseDtos.size(), quizId);
-        return ResponseEntity.ok(responseDtos);
+        KeysetPageDto<QuizSubmissionResponseDto> page = quizSubmissionService.getQuizSubmissionsByQuizId(quizId, after, size);
+        log.info("Retrieved {} quiz submissions for quiz with ID: {}", page.getContent().size(), quizId);
+        return KeysetPageResponse.ok(page);
+    }
+
+    @Operation(
+            summary = "Get answer option stats for a quiz",
+            description = "Retrieves how many submissions selected each answer option of the quiz",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Answer option stats retrieved successfully",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = AnswerOptionStatsDto[].class))),
+                    @ApiResponse(responseCode = "404", description = "Quiz not found")
+            }
+    )
+    @GetMapping("/quiz/{quizId}/option-stats")
+    public ResponseEntity<List<AnswerOptionStatsDto>> getOptionStats(
+            @io.swagger.v3.oas.annotations.Parameter(description = "Unique identifier of the quiz")
+            @PathVariable Long quizId) {
+        log.info("Getting answer option stats for quiz with ID: {}", quizId);
+        List<AnswerOptionStatsDto> stats = quizSubmissionService.getOptionStats(quizId);
+        log.info("Retrieved stats for {} answer options of quiz with ID: {}", stats.size(), quizId);
+        return ResponseEntity.ok(stats);
     }
-}
\ No newline at end of file
+}
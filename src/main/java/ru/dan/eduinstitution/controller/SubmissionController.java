@@ -8,6 +8,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,15 +17,20 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.dan.eduinstitution.model.KeysetPageDto;
 import ru.dan.eduinstitution.model.SubmissionCreateDto;
 import ru.dan.eduinstitution.model.SubmissionGradeDto;
+import ru.dan.eduinstitution.model.SubmissionReceiptDto;
 import ru.dan.eduinstitution.model.SubmissionResponseDto;
 import ru.dan.eduinstitution.service.SubmissionService;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Tag(name = "Submission", description = "Operations related to submissions")
 @Slf4j
@@ -32,11 +39,14 @@ import java.util.List;
 @RequestMapping("/submission")
 public class SubmissionController {
 
+    private static final String RETRY_AFTER_SECONDS = "1";
+
     private final SubmissionService submissionService;
 
     @Operation(
             summary = "Create a new submission",
-            description = "Creates a new submission with the provided details",
+            description = "Creates a new submission with the provided details. "
+                    + "Requests with the same Idempotency-Key return the submission created by the first one",
             responses = {
                     @ApiResponse(responseCode = "201", description = "Submission created successfully",
                             content = @Content(mediaType = "application/json",
@@ -53,14 +63,75 @@ public class SubmissionController {
                     required = true,
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = SubmissionCreateDto.class))
-            ) @Valid @RequestBody SubmissionCreateDto dto) {
+            ) @Valid @RequestBody SubmissionCreateDto dto,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Client-generated key; "
+                    + "a repeated request with the same key returns the already created submission")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         log.info("Creating submission for assignment ID: {} by student ID: {}", 
                 dto.getAssignmentId(), dto.getStudentId());
-        SubmissionResponseDto responseDto = submissionService.createSubmission(dto);
+        SubmissionResponseDto responseDto = submissionService.createSubmission(dto, idempotencyKey);
         log.info("Submission created with ID: {}", responseDto.getId());
         return ResponseEntity.status(201).body(responseDto);
     }
 
+    @Operation(
+            summary = "Accept a new submission for asynchronous write",
+            description = "Validates the submission and queues it for a batched write. "
+                    + "The returned receipt is polled via GET /submission/receipt/{receiptId}",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Submission accepted, receipt returned",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = SubmissionReceiptDto.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid input data"),
+                    @ApiResponse(responseCode = "404", description = "Write-behind mode is disabled"),
+                    @ApiResponse(responseCode = "429", description = "Write queue is full, retry after the Retry-After delay"),
+                    @ApiResponse(responseCode = "503", description = "Write-behind writer is stopped")
+            }
+    )
+    @PostMapping("/async")
+    public ResponseEntity<SubmissionReceiptDto> createSubmissionAsync(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Submission details for creation",
+                    required = true,
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = SubmissionCreateDto.class))
+            ) @Valid @RequestBody SubmissionCreateDto dto,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Client-generated key; "
+                    + "a repeated request with the same key completes with the already created submission")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        log.info("Queueing submission for assignment ID: {} by student ID: {}",
+                dto.getAssignmentId(), dto.getStudentId());
+        Optional<SubmissionReceiptDto> receipt = submissionService.createSubmissionAsync(dto, idempotencyKey);
+        if (receipt.isEmpty()) {
+            log.warn("Write queue is full, submission rejected");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+        }
+        log.info("Submission queued with receipt ID: {}", receipt.get().getReceiptId());
+        return ResponseEntity.accepted().body(receipt.get());
+    }
+
+    @Operation(
+            summary = "Get asynchronous submission receipt",
+            description = "Retrieves the write status of a submission or quiz submission accepted by an /async endpoint",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Receipt retrieved successfully",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = SubmissionReceiptDto.class))),
+                    @ApiResponse(responseCode = "404", description = "Receipt not found or expired, or write-behind mode is disabled")
+            }
+    )
+    @GetMapping("/receipt/{receiptId}")
+    public ResponseEntity<SubmissionReceiptDto> getReceipt(
+            @io.swagger.v3.oas.annotations.Parameter(description = "Unique identifier of the receipt")
+            @PathVariable UUID receiptId) {
+        log.info("Getting submission receipt by ID: {}", receiptId);
+        SubmissionReceiptDto receipt = submissionService.getReceipt(receiptId);
+        log.info("Submission receipt with ID: {} is {}", receiptId, receipt.getStatus());
+        return ResponseEntity.ok(receipt);
+    }
+
     @Operation(
             summary = "Get submission by ID",
             description = "Retrieves a submission by its unique ID",
@@ -121,11 +192,15 @@ public class SubmissionController {
     @GetMapping("/student/{studentId}")
     public ResponseEntity<List<SubmissionResponseDto>> getSubmissionsByStudentId(
             @io.swagger.v3.oas.annotations.Parameter(description = "Unique identifier of the student")
-            @PathVariable Long studentId) {
+            @PathVariable Long studentId,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Cursor from the X-Next-Cursor header of the previous page")
+            @RequestParam(required = false) Long after,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Page size")
+            @RequestParam(defaultValue = "100") int size) {
         log.info("Getting submissions for student with ID: {}", studentId);
-        List<SubmissionResponseDto> responseDtos = submissionService.getSubmissionsByStudentId(studentId);
-        log.info("Retrieved {} submissions for student with ID: {}", responseDtos.size(), studentId);
-        return ResponseEntity.ok(responseDtos);
+        KeysetPageDto<SubmissionResponseDto> page = submissionService.getSubmissionsByStudentId(studentId, after, size);
+        log.info("Retrieved {} submissions for student with ID: {}", page.getContent().size(), studentId);
+        return KeysetPageResponse.ok(page);
     }
 
     @Operation(
@@ -141,10 +216,14 @@ public class SubmissionController {
     @GetMapping("/assignment/{assignmentId}")
     public ResponseEntity<List<SubmissionResponseDto>> getSubmissionsByAssignmentId(
             @io.swagger.v3.oas.annotations.Parameter(description = "Unique identifier of the assignment")
-            @PathVariable Long assignmentId) {
+            @PathVariable Long assignmentId,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Cursor from the X-Next-Cursor header of the previous page")
+            @RequestParam(required = false) Long after,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Page size")
+            @RequestParam(defaultValue = "100") int size) {
         log.info("Getting submissions for assignment with ID: {}", assignmentId);
-        List<SubmissionResponseDto> responseDtos = submissionService.getSubmissionsByAssignmentId(assignmentId);
-        log.info("Retrieved {} submissions for assignment with ID: {}", responseDtos.size(), assignmentId);
-        return ResponseEntity.ok(responseDtos);
+        KeysetPageDto<SubmissionResponseDto> page = submissionService.getSubmissionsByAssignmentId(assignmentId, after, size);
+        log.info("Retrieved {} submissions for assignment with ID: {}", page.getContent().size(), assignmentId);
+        return KeysetPageResponse.ok(page);
     }
 }
\ No newline at end of file
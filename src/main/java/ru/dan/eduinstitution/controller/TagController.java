@@ -16,10 +16,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.dan.eduinstitution.model.SuggestionDto;
 import ru.dan.eduinstitution.model.TagCreateDto;
 import ru.dan.eduinstitution.model.TagResponseDto;
 import ru.dan.eduinstitution.model.TagUpdateDto;
+import ru.dan.eduinstitution.service.AutocompleteService;
 import ru.dan.eduinstitution.service.TagService;
 
 import java.util.List;
@@ -33,6 +36,7 @@ import java.util.Set;
 public class TagController {
 
     private final TagService tagService;
+    private final AutocompleteService autocompleteService;
 
     @Operation(
             summary = "Create a new tag",
@@ -142,6 +146,27 @@ public class TagController {
         return ResponseEntity.ok(responseDtos);
     }
 
+    @Operation(
+            summary = "Autocomplete tags",
+            description = "Returns tags whose name starts with the given prefix, case-insensitive, in alphabetical order",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = SuggestionDto[].class)))
+            }
+    )
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<SuggestionDto>> autocompleteTags(
+            @io.swagger.v3.oas.annotations.Parameter(description = "Beginning of the tag name")
+            @RequestParam String prefix,
+            @io.swagger.v3.oas.annotations.Parameter(description = "Maximum number of suggestions, at most 50")
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("Autocompleting tags by prefix: {}", prefix);
+        List<SuggestionDto> suggestions = autocompleteService.completeTags(prefix, limit);
+        log.info("Found {} tag suggestions", suggestions.size());
+        return ResponseEntity.ok(suggestions);
+    }
+
     @Operation(
             summary = "Add tag to course",
             description = "Adds a tag to a specific course",
@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -13,6 +14,7 @@ import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -27,6 +29,7 @@ import java.util.Set;
  * Курс.
  */
 @Entity
+@EntityListeners(CourseEntityListener.class)
 @Table(name = "courses")
 @Getter
 @Setter
@@ -34,7 +37,8 @@ import java.util.Set;
 @Schema(description = "Course entity representing an educational course")
 public class Course {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "courses_seq")
+    @SequenceGenerator(name = "courses_seq", sequenceName = "courses_id_seq", allocationSize = 50)
     @Schema(description = "Unique identifier of the course", example = "1")
     private Long id;
 
@@ -61,6 +65,9 @@ public class Course {
     @Schema(description = "Start date of the course", example = "2025-01-15")
     private LocalDate startDate;
 
+    @Schema(description = "Seat limit of the course, null when unlimited", example = "150")
+    private Integer capacity;
+
     // Связи
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Schema(description = "List of modules in this course")
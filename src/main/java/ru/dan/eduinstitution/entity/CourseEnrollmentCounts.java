@@ -0,0 +1,37 @@
+package ru.dan.eduinstitution.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Число записей курса по статусам.
+ */
+@Entity
+@Table(name = "course_enrollment_counts")
+@Getter
+@Setter
+@NoArgsConstructor
+@Schema(description = "CourseEnrollmentCounts entity holding the number of enrollments of a course by status")
+public class CourseEnrollmentCounts {
+    @Id
+    @Schema(description = "ID of the course", example = "1")
+    private Long courseId;
+
+    @Column(nullable = false)
+    @Schema(description = "Number of active enrollments", example = "120")
+    private Integer activeCount;
+
+    @Column(nullable = false)
+    @Schema(description = "Number of completed enrollments", example = "35")
+    private Integer completedCount;
+
+    @Column(nullable = false)
+    @Schema(description = "Number of dropped enrollments", example = "8")
+    private Integer droppedCount;
+}
@@ -0,0 +1,29 @@
+package ru.dan.eduinstitution.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import ru.dan.eduinstitution.service.CourseChangedEvent;
+
+import java.util.List;
+
+/**
+ * Публикует {@link CourseChangedEvent} при сохранении, изменении и удалении курса.
+ * Создаётся Hibernate через контейнер бинов Spring.
+ */
+@Component
+@RequiredArgsConstructor
+public class CourseEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void courseChanged(Course course) {
+        eventPublisher.publishEvent(new CourseChangedEvent(List.of(course.getId())));
+    }
+}
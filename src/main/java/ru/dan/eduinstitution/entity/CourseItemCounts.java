@@ -0,0 +1,33 @@
+package ru.dan.eduinstitution.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Число заданий и тестов в дереве курса.
+ */
+@Entity
+@Table(name = "course_item_counts")
+@Getter
+@Setter
+@NoArgsConstructor
+@Schema(description = "CourseItemCounts entity holding the number of assignments and quizzes of a course")
+public class CourseItemCounts {
+    @Id
+    @Schema(description = "ID of the course", example = "1")
+    private Long courseId;
+
+    @Column(nullable = false)
+    @Schema(description = "Number of assignments in the course lessons", example = "12")
+    private Integer assignmentCount;
+
+    @Column(nullable = false)
+    @Schema(description = "Number of quizzes in the course modules", example = "4")
+    private Integer quizCount;
+}
@@ -0,0 +1,60 @@
+package ru.dan.eduinstitution.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Агрегаты оценок курса.
+ */
+@Entity
+@Table(name = "course_rating_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@Schema(description = "CourseRatingStats entity holding review aggregates of a course")
+public class CourseRatingStats {
+    @Id
+    @Schema(description = "ID of the course", example = "1")
+    private Long courseId;
+
+    @Column(nullable = false)
+    @Schema(description = "Number of rated reviews", example = "12")
+    private Integer reviewCount;
+
+    @Column(nullable = false)
+    @Schema(description = "Sum of all ratings", example = "51")
+    private Long ratingSum;
+
+    @Column(name = "rating_1", nullable = false)
+    @Schema(description = "Number of 1-star ratings", example = "0")
+    private Integer rating1;
+
+    @Column(name = "rating_2", nullable = false)
+    @Schema(description = "Number of 2-star ratings", example = "1")
+    private Integer rating2;
+
+    @Column(name = "rating_3", nullable = false)
+    @Schema(description = "Number of 3-star ratings", example = "1")
+    private Integer rating3;
+
+    @Column(name = "rating_4", nullable = false)
+    @Schema(description = "Number of 4-star ratings", example = "3")
+    private Integer rating4;
+
+    @Column(name = "rating_5", nullable = false)
+    @Schema(description = "Number of 5-star ratings", example = "7")
+    private Integer rating5;
+
+    /**
+     * @return Средняя оценка или null, если оценок нет
+     */
+    public Double getAverageRating() {
+        return reviewCount > 0 ? (double) ratingSum / reviewCount : null;
+    }
+}
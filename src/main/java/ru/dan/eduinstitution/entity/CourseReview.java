@@ -8,6 +8,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -26,7 +27,8 @@ import java.time.LocalDateTime;
 @Schema(description = "CourseReview entity representing a review for a course")
 public class CourseReview {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "course_reviews_seq")
+    @SequenceGenerator(name = "course_reviews_seq", sequenceName = "course_reviews_id_seq", allocationSize = 50)
     @Schema(description = "Unique identifier of the course review", example = "1")
     private Long id;
 
@@ -0,0 +1,43 @@
+package ru.dan.eduinstitution.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Студент в очереди ожидания места на курсе.
+ */
+@Entity
+@Table(name = "course_waitlist")
+@Getter
+@Setter
+@NoArgsConstructor
+@IdClass(EnrollmentId.class)
+@Schema(description = "CourseWaitlistEntry entity representing a student waiting for a seat in a full course")
+public class CourseWaitlistEntry {
+    @Id
+    @Column(name = "user_id")
+    @Schema(description = "ID of the waiting user", example = "1")
+    private Long userId;
+
+    @Id
+    @Column(name = "course_id")
+    @Schema(description = "ID of the course", example = "1")
+    private Long courseId;
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    @Schema(description = "Order of the student in the waitlist, assigned on insert", example = "1")
+    private Long seq;
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    @Schema(description = "Time the student joined the waitlist", example = "2025-01-15T10:00:00")
+    private LocalDateTime createdAt;
+}
@@ -2,6 +2,7 @@ package ru.dan.eduinstitution.entity;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
@@ -52,6 +53,63 @@ public class Enrollment {
     @Schema(description = "Date when the enrollment was made", example = "2025-01-15")
     private LocalDate enrollDate;
 
+    @Convert(converter = EnrollmentStatusConverter.class)
+    @Column(nullable = false)
     @Schema(description = "Status of the enrollment", example = "Active", allowableValues = {"Active", "Completed", "Dropped"})
-    private String status; // Active, Completed, Dropped
+    private Status status;
+
+    /**
+     * Статус записи. В базе хранится кодом smallint, в API передаётся названием.
+     */
+    public enum Status {
+        @Schema(description = "Student is taking the course")
+        ACTIVE((short) 1, "Active"),
+        @Schema(description = "Student has completed the course")
+        COMPLETED((short) 2, "Completed"),
+        @Schema(description = "Student has dropped the course")
+        DROPPED((short) 3, "Dropped");
+
+        private final short code;
+        private final String title;
+
+        Status(short code, String title) {
+            this.code = code;
+            this.title = title;
+        }
+
+        public short getCode() {
+            return code;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        /**
+         * @param title Название статуса (Active, Completed, Dropped) без учёта регистра
+         * @return Статус
+         * @throws IllegalArgumentException если статуса с таким названием нет
+         */
+        public static Status getStatus(String title) {
+            for (Status status : values()) {
+                if (status.title.equalsIgnoreCase(title)) {
+                    return status;
+                }
+            }
+            throw new IllegalArgumentException(String.format("Unknown enrollment status '%s'", title));
+        }
+
+        /**
+         * @param code Код статуса в базе
+         * @return Статус
+         */
+        public static Status fromCode(short code) {
+            for (Status status : values()) {
+                if (status.code == code) {
+                    return status;
+                }
+            }
+            throw new IllegalArgumentException(String.format("Unknown enrollment status code '%s'", code));
+        }
+    }
 }
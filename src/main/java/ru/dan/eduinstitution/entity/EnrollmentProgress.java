@@ -0,0 +1,41 @@
+package ru.dan.eduinstitution.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Прогресс записи студента на курс.
+ */
+@Entity
+@Table(name = "enrollment_progress")
+@Getter
+@Setter
+@NoArgsConstructor
+@IdClass(EnrollmentId.class)
+@Schema(description = "EnrollmentProgress entity holding completed items of an enrollment")
+public class EnrollmentProgress {
+    @Id
+    @Column(name = "user_id")
+    @Schema(description = "ID of the enrolled user", example = "1")
+    private Long userId;
+
+    @Id
+    @Column(name = "course_id")
+    @Schema(description = "ID of the enrolled course", example = "1")
+    private Long courseId;
+
+    @Column(nullable = false)
+    @Schema(description = "Number of graded submissions to the course assignments", example = "7")
+    private Integer gradedAssignments;
+
+    @Column(nullable = false)
+    @Schema(description = "Number of submitted course quizzes", example = "2")
+    private Integer submittedQuizzes;
+}
@@ -0,0 +1,21 @@
+package ru.dan.eduinstitution.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Хранение статуса записи кодом smallint: коды не зависят от порядка констант в перечислении.
+ */
+@Converter
+public class EnrollmentStatusConverter implements AttributeConverter<Enrollment.Status, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(Enrollment.Status status) {
+        return status != null ? status.getCode() : null;
+    }
+
+    @Override
+    public Enrollment.Status convertToEntityAttribute(Short code) {
+        return code != null ? Enrollment.Status.fromCode(code) : null;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.dan.eduinstitution.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Ответы студента в результате теста: все выбранные варианты одним массивом.
+ */
+@Entity
+@Table(name = "quiz_answers")
+@Getter
+@Setter
+@NoArgsConstructor
+@Schema(description = "QuizAnswer entity holding the answer options selected in a quiz submission")
+public class QuizAnswer {
+    @Id
+    @Schema(description = "ID of the quiz submission", example = "1")
+    private Long quizSubmissionId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "quiz_submission_id")
+    @Schema(description = "Quiz submission these answers belong to")
+    private QuizSubmission quizSubmission;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "selected_option_ids", nullable = false)
+    @Schema(description = "IDs of all selected answer options", example = "[1, 5, 7]")
+    private Long[] selectedOptionIds;
+}
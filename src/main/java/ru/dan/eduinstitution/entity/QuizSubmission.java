@@ -1,6 +1,7 @@
 package ru.dan.eduinstitution.entity;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
@@ -8,6 +9,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -26,7 +28,8 @@ import java.time.LocalDateTime;
 @Schema(description = "QuizSubmission entity representing a quiz submission by a student")
 public class QuizSubmission {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quiz_submissions_seq")
+    @SequenceGenerator(name = "quiz_submissions_seq", sequenceName = "quiz_submissions_id_seq", allocationSize = 50)
     @Schema(description = "Unique identifier of the quiz submission", example = "1")
     private Long id;
 
@@ -45,4 +48,8 @@ public class QuizSubmission {
     
     @Schema(description = "Date and time when the quiz was taken", example = "2025-01-15T10:30:00")
     private LocalDateTime takenAt;
+
+    @Column(name = "idempotency_key", updatable = false)
+    @Schema(description = "Idempotency-Key of the request that created the submission", example = "0b6f1f7e-3c1a-4a53-9d43-5f2b7a3c9e10")
+    private String idempotencyKey;
 }
@@ -0,0 +1,20 @@
+package ru.dan.eduinstitution.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * DTO импорта варианта ответа.
+ */
+@Data
+@Schema(description = "DTO for bulk import of an answer option")
+public class AnswerOptionImportDto {
+
+    @NotNull(message = "Text cannot be null")
+    @Schema(description = "Text of the answer option", example = "Paris")
+    private String text;
+
+    @Schema(description = "Indicates if this option is correct", example = "true")
+    private Boolean isCorrect;
+}
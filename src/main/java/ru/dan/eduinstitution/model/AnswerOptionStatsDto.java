@@ -0,0 +1,28 @@
+package ru.dan.eduinstitution.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO статистики выбора варианта ответа в тесте.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "How many submissions selected an answer option")
+public class AnswerOptionStatsDto {
+
+    @Schema(description = "ID of the question", example = "1")
+    private Long questionId;
+
+    @Schema(description = "ID of the answer option", example = "1")
+    private Long optionId;
+
+    @Schema(description = "Indicates if this option is correct", example = "true")
+    private Boolean isCorrect;
+
+    @Schema(description = "Number of submissions that selected this option", example = "42")
+    private long selectedCount;
+}
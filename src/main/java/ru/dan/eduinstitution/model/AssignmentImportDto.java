@@ -0,0 +1,28 @@
+package ru.dan.eduinstitution.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * DTO импорта задания.
+ */
+@Data
+@Schema(description = "DTO for bulk import of an assignment")
+public class AssignmentImportDto {
+
+    @NotNull(message = "Title cannot be null")
+    @Schema(description = "Title of the assignment", example = "Hello World")
+    private String title;
+
+    @Schema(description = "Description of the assignment")
+    private String description;
+
+    @Schema(description = "Due date of the assignment", example = "2025-02-01")
+    private LocalDate dueDate;
+
+    @Schema(description = "Maximum score", example = "100")
+    private Integer maxScore;
+}
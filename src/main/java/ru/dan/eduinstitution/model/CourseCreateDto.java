@@ -2,6 +2,7 @@ package ru.dan.eduinstitution.model;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.Data;
 
 import java.time.LocalDate;
@@ -34,4 +35,8 @@ public class CourseCreateDto {
     @Schema(description = "Start date of the course", example = "2025-01-15")
     private LocalDate startDate;
 
+    @Positive(message = "Capacity must be positive")
+    @Schema(description = "Seat limit of the course, unlimited when omitted", example = "150")
+    private Integer capacity;
+
 }
@@ -0,0 +1,35 @@
+package ru.dan.eduinstitution.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO числа записей курса по статусам.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO representing the number of enrollments of a course by status")
+public class CourseEnrollmentCountsDto {
+
+    @Schema(description = "ID of the course", example = "1")
+    private Long courseId;
+
+    @Schema(description = "Number of active enrollments", example = "120")
+    private Integer active;
+
+    @Schema(description = "Number of completed enrollments", example = "35")
+    private Integer completed;
+
+    @Schema(description = "Number of dropped enrollments", example = "8")
+    private Integer dropped;
+
+    @Schema(description = "Seat limit of the course, null when unlimited; active and completed enrollments take seats",
+            example = "150")
+    private Integer capacity;
+
+    @Schema(description = "Number of students waiting for a seat", example = "12")
+    private Integer waitlisted;
+}
@@ -0,0 +1,50 @@
+package ru.dan.eduinstitution.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * DTO импорта курса вместе со структурой: модули, уроки, задания и тесты.
+ */
+@Data
+@Schema(description = "DTO for bulk import of a course tree")
+public class CourseImportDto {
+
+    @NotNull(message = "Title cannot be null")
+    @Schema(description = "Title of the course", example = "Java Programming")
+    private String title;
+
+    @Schema(description = "Description of the course")
+    private String description;
+
+    @NotNull(message = "Category cannot be null")
+    @Schema(description = "Category id of the course", example = "1")
+    private Long categoryId;
+
+    @NotNull(message = "Teacher cannot be null")
+    @Schema(description = "Teachers user id", example = "1")
+    private Long teacherId;
+
+    @Schema(description = "Course duration", example = "30")
+    private Integer duration;
+
+    @Schema(description = "Start date of the course", example = "2025-01-15")
+    private LocalDate startDate;
+
+    @NotNull(message = "Tag IDs cannot be null")
+    @Schema(description = "IDs of existing tags to assign to the course")
+    private Set<@NotNull Long> tagIds = new HashSet<>();
+
+    @NotNull(message = "Modules cannot be null")
+    @Valid
+    @Schema(description = "Modules of the course")
+    private List<@NotNull ModuleImportDto> modules = new ArrayList<>();
+}
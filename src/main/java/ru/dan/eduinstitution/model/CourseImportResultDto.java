@@ -0,0 +1,37 @@
+package ru.dan.eduinstitution.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Итог импорта курсов.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of a bulk course import")
+public class CourseImportResultDto {
+
+    @Schema(description = "Number of imported courses", example = "8000")
+    private int courses;
+
+    @Schema(description = "Number of imported modules")
+    private int modules;
+
+    @Schema(description = "Number of imported lessons")
+    private int lessons;
+
+    @Schema(description = "Number of imported assignments")
+    private int assignments;
+
+    @Schema(description = "Number of imported quizzes")
+    private int quizzes;
+
+    @Schema(description = "Number of imported questions")
+    private int questions;
+
+    @Schema(description = "Number of imported answer options")
+    private int answerOptions;
+}
@@ -0,0 +1,125 @@
+package ru.dan.eduinstitution.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO структуры курса: модули по порядку, их уроки без содержимого, задания уроков и заголовки тестов.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO representing the course tree: modules, lessons, assignments and quiz headers")
+public class CourseOutlineDto {
+
+    @Schema(description = "Unique identifier of the course", example = "1")
+    private Long id;
+
+    @Schema(description = "Title of the course", example = "Java Programming")
+    private String title;
+
+    @Schema(description = "Description of the course")
+    private String description;
+
+    @Schema(description = "Duration of the course in days", example = "30")
+    private Integer duration;
+
+    @Schema(description = "Start date of the course", example = "2025-01-15")
+    private LocalDate startDate;
+
+    @Schema(description = "Modules ordered by order index")
+    private List<ModuleOutline> modules = new ArrayList<>();
+
+    /**
+     * Модуль курса.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ModuleOutline {
+
+        @Schema(description = "Unique identifier of the module", example = "1")
+        private Long id;
+
+        @Schema(description = "Title of the module", example = "Java Fundamentals")
+        private String title;
+
+        @Schema(description = "Order index of the module", example = "1")
+        private Integer orderIndex;
+
+        @Schema(description = "Description of the module")
+        private String description;
+
+        @Schema(description = "Quiz of the module, if any")
+        private QuizHeader quiz;
+
+        @Schema(description = "Lessons of the module")
+        private List<LessonOutline> lessons = new ArrayList<>();
+    }
+
+    /**
+     * Урок модуля без содержимого.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LessonOutline {
+
+        @Schema(description = "Unique identifier of the lesson", example = "1")
+        private Long id;
+
+        @Schema(description = "Title of the lesson", example = "Variables and Types")
+        private String title;
+
+        @Schema(description = "Video URL of the lesson", example = "https://example.com/video.mp4")
+        private String videoUrl;
+
+        @Schema(description = "Assignments of the lesson")
+        private List<AssignmentOutline> assignments = new ArrayList<>();
+    }
+
+    /**
+     * Задание урока.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AssignmentOutline {
+
+        @Schema(description = "Unique identifier of the assignment", example = "1")
+        private Long id;
+
+        @Schema(description = "Title of the assignment", example = "Homework 1")
+        private String title;
+
+        @Schema(description = "Due date of the assignment", example = "2025-02-01")
+        private LocalDate dueDate;
+
+        @Schema(description = "Maximum score of the assignment", example = "100")
+        private Integer maxScore;
+    }
+
+    /**
+     * Заголовок теста модуля.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class QuizHeader {
+
+        @Schema(description = "Unique identifier of the quiz", example = "1")
+        private Long id;
+
+        @Schema(description = "Title of the quiz", example = "Module 1 Quiz")
+        private String title;
+
+        @Schema(description = "Time limit in minutes", example = "30")
+        private Integer timeLimit;
+    }
+}
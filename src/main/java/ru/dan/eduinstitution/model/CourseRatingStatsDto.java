@@ -0,0 +1,30 @@
+package ru.dan.eduinstitution.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO агрегатов оценок курса.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO representing rating aggregates of a course")
+public class CourseRatingStatsDto {
+
+    @Schema(description = "ID of the course", example = "1")
+    private Long courseId;
+
+    @Schema(description = "Number of rated reviews", example = "12")
+    private Integer reviewCount;
+
+    @Schema(description = "Average rating, null when the course has no ratings", example = "4.25")
+    private Double averageRating;
+
+    @Schema(description = "Number of ratings per star, from 1 to 5", example = "[0, 1, 1, 3, 7]")
+    private List<Integer> histogram;
+}
@@ -24,4 +24,7 @@ public class CourseResponseDto {
     private String teacherName;
     private Integer duration; // в днях
     private LocalDate startDate;
+    private Integer capacity; // null - без ограничения
+    private Double averageRating;
+    private Integer reviewCount;
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package ru.dan.eduinstitution.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Параметры поиска курсов.
+ */
+@Data
+@Schema(description = "Course search query and filters")
+public class CourseSearchFilter {
+
+    @Schema(description = "Full-text query over title, tag names and description; supports quotes, OR and -",
+            example = "java spring")
+    private String q;
+
+    @Schema(description = "Category id", example = "1")
+    private Long categoryId;
+
+    @Schema(description = "Teacher user id", example = "1")
+    private Long teacherId;
+
+    @Schema(description = "Tag id", example = "1")
+    private Long tagId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    @Schema(description = "Earliest start date, inclusive", example = "2025-01-01")
+    private LocalDate startFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    @Schema(description = "Latest start date, inclusive", example = "2025-12-31")
+    private LocalDate startTo;
+}
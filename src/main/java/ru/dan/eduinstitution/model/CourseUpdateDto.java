@@ -1,6 +1,7 @@
 package ru.dan.eduinstitution.model;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Positive;
 import lombok.Data;
 
 import java.time.LocalDate;
@@ -31,6 +32,14 @@ public class CourseUpdateDto {
     @Schema(description = "Start date of the course", example = "2025-01-15")
     private LocalDate startDate;
 
+    @Positive(message = "Capacity must be positive")
+    @Schema(description = "Seat limit of the course; raising it enrolls waitlisted students", example = "150")
+    private Integer capacity;
+
+    @Schema(description = "Removes the seat limit of the course and enrolls all waitlisted students; "
+            + "cannot be combined with capacity", example = "false")
+    private Boolean unlimitedCapacity;
+
     @Schema(description = "Set of tag IDs associated with this course", example = "[1, 2, 3]")
     private Set<Long> tagIds;
 }
\ No newline at end of file
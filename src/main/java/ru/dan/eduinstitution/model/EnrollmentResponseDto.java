@@ -33,6 +33,26 @@ public class EnrollmentResponseDto {
     @Schema(description = "Enrollment date", example = "2025-01-15")
     private LocalDate enrollDate;
 
-    @Schema(description = "Status of the enrollment", example = "Active")
+    @Schema(description = "Status of the enrollment: Active, Completed, Dropped, or Waitlisted when the course is full",
+            example = "Active")
     private String status;
-}
\ No newline at end of file
+
+    @Schema(description = "Number of graded submissions to the course assignments", example = "7")
+    private Integer gradedAssignments;
+
+    @Schema(description = "Number of assignments in the course", example = "12")
+    private Integer totalAssignments;
+
+    @Schema(description = "Number of submitted course quizzes", example = "2")
+    private Integer submittedQuizzes;
+
+    @Schema(description = "Number of quizzes in the course", example = "4")
+    private Integer totalQuizzes;
+
+    @Schema(description = "Share of completed assignments and quizzes, percent", example = "56")
+    private Integer progressPercent;
+
+    @Schema(description = "Position in the course waitlist, set when the course is full and status is Waitlisted",
+            example = "3")
+    private Integer waitlistPosition;
+}
@@ -0,0 +1,67 @@
+package ru.dan.eduinstitution.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Страница выборки по курсору (keyset-пагинация).
+ * Следующая страница запрашивается с параметром after, равным nextCursor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Keyset page of results")
+public class KeysetPageDto<T> {
+
+    public static final int DEFAULT_SIZE = 100;
+    public static final int MAX_SIZE = 1000;
+
+    @Schema(description = "Items of the page")
+    private List<T> content;
+
+    @Schema(description = "Cursor of the next page, null for the last page", example = "42")
+    private String nextCursor;
+
+    /**
+     * Ограничение размера страницы допустимыми пределами.
+     *
+     * @param size Запрошенный размер страницы
+     * @return Размер страницы
+     */
+    public static int limit(int size) {
+        return Math.min(Math.max(size, 1), MAX_SIZE);
+    }
+
+    /**
+     * Значение ключа, с которого начинается выборка.
+     *
+     * @param after Курсор предыдущей страницы
+     * @return Значение ключа (0 для первой страницы)
+     */
+    public static long after(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    /**
+     * Формирование страницы из выборки размером limit + 1.
+     *
+     * @param rows   Строки выборки
+     * @param limit  Размер страницы
+     * @param mapper Маппер строки в DTO
+     * @param cursor Ключ строки, используемый как курсор
+     * @return Страница
+     */
+    public static <E, T> KeysetPageDto<T> of(List<E> rows, int limit,
+                                             Function<E, T> mapper, Function<E, ?> cursor) {
+        boolean hasNext = rows.size() > limit;
+        List<E> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? String.valueOf(cursor.apply(pageRows.get(limit - 1))) : null;
+        return new KeysetPageDto<>(pageRows.stream().map(mapper).collect(Collectors.toList()), nextCursor);
+    }
+}
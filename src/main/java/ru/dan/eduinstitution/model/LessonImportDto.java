@@ -0,0 +1,32 @@
+package ru.dan.eduinstitution.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO импорта урока.
+ */
+@Data
+@Schema(description = "DTO for bulk import of a lesson")
+public class LessonImportDto {
+
+    @NotNull(message = "Title cannot be null")
+    @Schema(description = "Title of the lesson", example = "Introduction to Java")
+    private String title;
+
+    @Schema(description = "Content of the lesson")
+    private String content;
+
+    @Schema(description = "URL of the lesson video", example = "https://example.com/video.mp4")
+    private String videoUrl;
+
+    @NotNull(message = "Assignments cannot be null")
+    @Valid
+    @Schema(description = "Assignments of the lesson")
+    private List<@NotNull AssignmentImportDto> assignments = new ArrayList<>();
+}
@@ -0,0 +1,36 @@
+package ru.dan.eduinstitution.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO импорта модуля.
+ */
+@Data
+@Schema(description = "DTO for bulk import of a module")
+public class ModuleImportDto {
+
+    @NotNull(message = "Title cannot be null")
+    @Schema(description = "Title of the module", example = "Java Fundamentals")
+    private String title;
+
+    @Schema(description = "Order index of the module", example = "1")
+    private Integer orderIndex;
+
+    @Schema(description = "Description of the module")
+    private String description;
+
+    @NotNull(message = "Lessons cannot be null")
+    @Valid
+    @Schema(description = "Lessons of the module")
+    private List<@NotNull LessonImportDto> lessons = new ArrayList<>();
+
+    @Valid
+    @Schema(description = "Quiz of the module")
+    private QuizImportDto quiz;
+}
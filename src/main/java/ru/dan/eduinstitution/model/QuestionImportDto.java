@@ -0,0 +1,32 @@
+package ru.dan.eduinstitution.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO импорта вопроса.
+ */
+@Data
+@Schema(description = "DTO for bulk import of a question")
+public class QuestionImportDto {
+
+    @NotNull(message = "Text cannot be null")
+    @Schema(description = "Text of the question", example = "What is the capital of France?")
+    private String text;
+
+    @NotNull(message = "Type cannot be null")
+    @Pattern(regexp = "SINGLE_CHOICE|MULTIPLE_CHOICE|TEXT", message = "Type must be SINGLE_CHOICE, MULTIPLE_CHOICE or TEXT")
+    @Schema(description = "Type of the question", allowableValues = {"SINGLE_CHOICE", "MULTIPLE_CHOICE", "TEXT"})
+    private String type;
+
+    @NotNull(message = "Options cannot be null")
+    @Valid
+    @Schema(description = "Answer options of the question")
+    private List<@NotNull AnswerOptionImportDto> options = new ArrayList<>();
+}
@@ -0,0 +1,28 @@
+package ru.dan.eduinstitution.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO ответа студента на вопрос теста.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Options selected by the student for a question")
+public class QuizAnswerDto {
+
+    @NotNull(message = "Question ID cannot be null")
+    @Schema(description = "ID of the question", example = "1")
+    private Long questionId;
+
+    @NotNull(message = "Selected option IDs cannot be null")
+    @Schema(description = "IDs of the selected answer options", example = "[1]")
+    private List<@NotNull(message = "Selected option ID cannot be null") Long> selectedOptionIds = new ArrayList<>();
+}
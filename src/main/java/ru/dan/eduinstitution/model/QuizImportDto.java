@@ -0,0 +1,28 @@
+package ru.dan.eduinstitution.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO импорта теста модуля.
+ */
+@Data
+@Schema(description = "DTO for bulk import of a quiz")
+public class QuizImportDto {
+
+    @Schema(description = "Title of the quiz", example = "Java Basics Quiz")
+    private String title;
+
+    @Schema(description = "Time limit in minutes", example = "30")
+    private Integer timeLimit;
+
+    @NotNull(message = "Questions cannot be null")
+    @Valid
+    @Schema(description = "Questions of the quiz")
+    private List<@NotNull QuestionImportDto> questions = new ArrayList<>();
+}
@@ -1,11 +1,16 @@
 package ru.dan.eduinstitution.model;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
+import java.util.List;
+
 /**
  * DTO для создания результата теста.
+ * Балл всегда считается на сервере по выбранным вариантам ответов; без ответов принимается только тест
+ * без автоматически проверяемых вопросов.
  */
 @Data
 @Schema(description = "DTO for creating a new quiz submission")
@@ -18,8 +23,8 @@ public class QuizSubmissionCreateDto {
     @NotNull(message = "Student ID cannot be null")
     @Schema(description = "ID of the student who submitted the quiz", example = "1")
     private Long studentId;
-    
-    @NotNull(message = "Score cannot be null")
-    @Schema(description = "Score achieved in the quiz", example = "85")
-    private Integer score;
-}
\ No newline at end of file
+
+    @Schema(description = "Selected answer options per question for server-side grading; "
+            + "required when the quiz has single or multiple choice questions")
+    private List<@NotNull(message = "Answer cannot be null") @Valid QuizAnswerDto> answers;
+}
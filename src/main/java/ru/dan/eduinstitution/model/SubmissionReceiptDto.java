@@ -0,0 +1,41 @@
+package ru.dan.eduinstitution.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO квитанции об отложенной записи ответа или результата теста.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO representing the receipt of a submission accepted for asynchronous write")
+public class SubmissionReceiptDto {
+
+    @Schema(description = "Unique identifier of the receipt", example = "3f0c9a8e-2b7d-4d41-9a52-6d1f0e7b5c21")
+    private UUID receiptId;
+
+    @Schema(description = "Write status of the submission", example = "COMPLETED")
+    private Status status;
+
+    @Schema(description = "ID of the stored submission or quiz submission once completed", example = "1")
+    private Long submissionId;
+
+    @Schema(description = "Reason the submission was not stored", example = "Submission already exists for assignment ID '1' and student ID '2'")
+    private String error;
+
+    @Schema(description = "Date and time when the submission was accepted", example = "2025-01-15T14:30:00")
+    private LocalDateTime acceptedAt;
+
+    /**
+     * Статус записи.
+     */
+    public enum Status {
+        QUEUED, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,22 @@
+package ru.dan.eduinstitution.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO подсказки при вводе.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO representing an autocomplete suggestion")
+public class SuggestionDto {
+
+    @Schema(description = "ID of the suggested entity", example = "1")
+    private Long id;
+
+    @Schema(description = "Text of the suggestion", example = "Java Programming")
+    private String text;
+}
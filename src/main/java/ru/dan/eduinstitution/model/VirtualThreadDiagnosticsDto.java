@@ -0,0 +1,112 @@
+package ru.dan.eduinstitution.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO диагностики виртуальных потоков: закрепления за носителем и ожидание соединений пула.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "DTO representing virtual thread pinning and connection pool wait diagnostics")
+public class VirtualThreadDiagnosticsDto {
+
+    @Schema(description = "Whether requests and async tasks run on virtual threads", example = "true")
+    private boolean virtualThreadsEnabled;
+
+    @Schema(description = "Carrier pinning events recorded by JFR")
+    private Pinning pinning;
+
+    @Schema(description = "Hikari connection pool state and acquire wait times")
+    private ConnectionPool connectionPool;
+
+    /**
+     * Закрепления виртуальных потоков (событие JFR jdk.VirtualThreadPinned).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pinning {
+
+        @Schema(description = "Whether the JFR pinning stream is running", example = "true")
+        private boolean monitored;
+
+        @Schema(description = "Minimum pinning duration that is recorded, ms", example = "20")
+        private long thresholdMs;
+
+        @Schema(description = "Number of recorded pinning events since start", example = "3")
+        private long count;
+
+        @Schema(description = "Total pinned time, ms", example = "142.5")
+        private double totalMs;
+
+        @Schema(description = "Longest pinning in the recent metrics window, ms", example = "80.1")
+        private double maxMs;
+
+        @Schema(description = "Most recent pinning events, newest first")
+        private List<PinnedEvent> recent;
+    }
+
+    /**
+     * Одно закрепление виртуального потока.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PinnedEvent {
+
+        @Schema(description = "Name of the pinned thread", example = "tomcat-handler-42")
+        private String thread;
+
+        @Schema(description = "When the pinning started", example = "2025-01-15T10:30:00Z")
+        private Instant startedAt;
+
+        @Schema(description = "Pinning duration, ms", example = "35.2")
+        private double durationMs;
+
+        @Schema(description = "Top stack frames of the pinned thread")
+        private List<String> stackTrace;
+    }
+
+    /**
+     * Состояние пула соединений Hikari.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ConnectionPool {
+
+        @Schema(description = "Name of the pool", example = "HikariPool-1")
+        private String name;
+
+        @Schema(description = "Connections in use", example = "4")
+        private int active;
+
+        @Schema(description = "Idle connections", example = "6")
+        private int idle;
+
+        @Schema(description = "Maximum pool size", example = "10")
+        private int maximumPoolSize;
+
+        @Schema(description = "Threads currently waiting for a connection", example = "0")
+        private int threadsAwaitingConnection;
+
+        @Schema(description = "Number of connection acquisitions since start", example = "1520")
+        private long acquireCount;
+
+        @Schema(description = "Mean connection acquire wait, ms", example = "0.4")
+        private double acquireMeanMs;
+
+        @Schema(description = "Longest connection acquire wait in the recent metrics window, ms", example = "12.7")
+        private double acquireMaxMs;
+
+        @Schema(description = "Number of acquisitions that timed out", example = "0")
+        private long timeouts;
+    }
+}
@@ -1,10 +1,32 @@
 package ru.dan.eduinstitution.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.dan.eduinstitution.entity.Assignment;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
     List<Assignment> findByLessonId(Long lessonId);
+
+    @Query("SELECT a.id AS id, a.lesson.id AS lessonId, a.title AS title, a.dueDate AS dueDate, a.maxScore AS maxScore "
+            + "FROM Assignment a WHERE a.lesson.id IN :lessonIds ORDER BY a.id")
+    List<AssignmentOutlineRow> findOutlineRows(Collection<Long> lessonIds);
+
+    /**
+     * Задание для структуры курса.
+     */
+    interface AssignmentOutlineRow {
+        Long getId();
+
+        Long getLessonId();
+
+        String getTitle();
+
+        LocalDate getDueDate();
+
+        Integer getMaxScore();
+    }
 }
\ No newline at end of file
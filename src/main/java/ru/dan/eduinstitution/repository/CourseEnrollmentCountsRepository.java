@@ -0,0 +1,50 @@
+package ru.dan.eduinstitution.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.dan.eduinstitution.entity.CourseEnrollmentCounts;
+
+import java.util.Optional;
+
+public interface CourseEnrollmentCountsRepository extends JpaRepository<CourseEnrollmentCounts, Long> {
+
+    /**
+     * Изменение счётчиков записей курса на заданные величины.
+     * Выполняется одним upsert, поэтому конкурентные изменения записей одного курса не теряются.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO course_enrollment_counts AS c (course_id, active_count, completed_count, dropped_count)
+            VALUES (:courseId, :activeDelta, :completedDelta, :droppedDelta)
+            ON CONFLICT (course_id) DO UPDATE SET
+                active_count = c.active_count + EXCLUDED.active_count,
+                completed_count = c.completed_count + EXCLUDED.completed_count,
+                dropped_count = c.dropped_count + EXCLUDED.dropped_count
+            """, nativeQuery = true)
+    void apply(Long courseId, int activeDelta, int completedDelta, int droppedDelta);
+
+    /**
+     * Занятие места на курсе: активных записей становится на одну больше, если записей Active и Completed
+     * меньше лимита курса. Проверка и увеличение выполняются одним условным upsert под блокировкой строки
+     * счётчиков, поэтому конкурентные записи не превышают лимит. Строка блокируется и тогда, когда места нет.
+     *
+     * @return 1, если место занято, 0, если курс заполнен
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO course_enrollment_counts AS n (course_id, active_count, completed_count, dropped_count)
+            SELECT c.id, 1, 0, 0 FROM courses c WHERE c.id = :courseId
+            ON CONFLICT (course_id) DO UPDATE SET active_count = n.active_count + 1
+            WHERE NOT EXISTS (SELECT 1 FROM courses c
+                              WHERE c.id = n.course_id AND n.active_count + n.completed_count >= c.capacity)
+            """, nativeQuery = true)
+    int takeSeat(Long courseId);
+
+    /**
+     * Блокировка строки счётчиков курса: разбор очереди ожидания и занятие мест выполняются последовательно.
+     */
+    @Query(value = "SELECT course_id FROM course_enrollment_counts WHERE course_id = :courseId FOR UPDATE",
+            nativeQuery = true)
+    Optional<Long> lock(Long courseId);
+}
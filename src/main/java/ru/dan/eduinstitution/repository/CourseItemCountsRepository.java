@@ -0,0 +1,31 @@
+package ru.dan.eduinstitution.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.dan.eduinstitution.entity.CourseItemCounts;
+
+public interface CourseItemCountsRepository extends JpaRepository<CourseItemCounts, Long> {
+
+    /**
+     * Пересчёт числа заданий и тестов курса по его дереву.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO course_item_counts AS c (course_id, assignment_count, quiz_count)
+            SELECT :courseId,
+                   (SELECT count(*)
+                    FROM modules m
+                    JOIN lessons l ON l.module_id = m.id
+                    JOIN assignments a ON a.lesson_id = l.id
+                    WHERE m.course_id = :courseId),
+                   (SELECT count(*)
+                    FROM modules m
+                    JOIN quizzes q ON q.module_id = m.id
+                    WHERE m.course_id = :courseId)
+            ON CONFLICT (course_id) DO UPDATE SET
+                assignment_count = EXCLUDED.assignment_count,
+                quiz_count = EXCLUDED.quiz_count
+            """, nativeQuery = true)
+    void recount(Long courseId);
+}
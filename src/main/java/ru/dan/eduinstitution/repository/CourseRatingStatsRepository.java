@@ -0,0 +1,34 @@
+package ru.dan.eduinstitution.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.dan.eduinstitution.entity.CourseRatingStats;
+
+public interface CourseRatingStatsRepository extends JpaRepository<CourseRatingStats, Long> {
+
+    /**
+     * Добавление ({@code delta = 1}) или вычитание ({@code delta = -1}) одной оценки.
+     * Выполняется одним upsert, поэтому конкурентные изменения отзывов одного курса не теряются.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO course_rating_stats AS s
+                (course_id, review_count, rating_sum, rating_1, rating_2, rating_3, rating_4, rating_5)
+            VALUES (:courseId, :delta, :delta * :rating,
+                    CASE WHEN :rating = 1 THEN :delta ELSE 0 END,
+                    CASE WHEN :rating = 2 THEN :delta ELSE 0 END,
+                    CASE WHEN :rating = 3 THEN :delta ELSE 0 END,
+                    CASE WHEN :rating = 4 THEN :delta ELSE 0 END,
+                    CASE WHEN :rating = 5 THEN :delta ELSE 0 END)
+            ON CONFLICT (course_id) DO UPDATE SET
+                review_count = s.review_count + EXCLUDED.review_count,
+                rating_sum = s.rating_sum + EXCLUDED.rating_sum,
+                rating_1 = s.rating_1 + EXCLUDED.rating_1,
+                rating_2 = s.rating_2 + EXCLUDED.rating_2,
+                rating_3 = s.rating_3 + EXCLUDED.rating_3,
+                rating_4 = s.rating_4 + EXCLUDED.rating_4,
+                rating_5 = s.rating_5 + EXCLUDED.rating_5
+            """, nativeQuery = true)
+    void applyRating(Long courseId, int rating, int delta);
+}
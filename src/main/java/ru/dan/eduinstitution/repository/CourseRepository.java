@@ -1,17 +1,37 @@
 package ru.dan.eduinstitution.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.dan.eduinstitution.entity.Course;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CourseRepository extends JpaRepository<Course, Long> {
 
+    String INDEX_ROW_SELECT = """
+            SELECT c.id AS id, c.title AS title, c.description AS description, c.category_id AS categoryId,
+                   c.teacher_id AS teacherId, c.start_date - DATE '1970-01-01' AS startDay,
+                   string_agg(t.id::text, ',') AS tagIds, string_agg(t.name, ' ') AS tagNames
+            FROM courses c
+            LEFT JOIN course_tag ct ON ct.course_id = c.id
+            LEFT JOIN tags t ON t.id = ct.tag_id
+            """;
+
     List<Course> findByTeacherId(Long teacherId);
 
+    @Query("SELECT c FROM Course c LEFT JOIN FETCH c.category WHERE c.teacher.id = :teacherId")
+    List<Course> findByTeacherIdWithCategory(Long teacherId);
+
     List<Course> findByCategoryId(Long categoryId);
 
     List<Course> findByTitleContainingIgnoreCase(String keyword);
@@ -23,4 +43,96 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     
     @Query("SELECT c FROM Course c LEFT JOIN FETCH c.teacher LEFT JOIN FETCH c.category")
     Page<Course> findAllWithTeacherAndCategory(Pageable pageable);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO course_tag (course_id, tag_id)
+            SELECT :courseId, t.id FROM tags t WHERE t.id IN (:tagIds)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int addTags(Long courseId, Collection<Long> tagIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM course_tag WHERE course_id = :courseId AND tag_id IN (:tagIds)", nativeQuery = true)
+    int removeTags(Long courseId, Collection<Long> tagIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM course_tag WHERE course_id = :courseId AND tag_id NOT IN (:tagIds)", nativeQuery = true)
+    int removeTagsExcept(Long courseId, Collection<Long> tagIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM course_tag WHERE course_id = :courseId", nativeQuery = true)
+    int removeAllTags(Long courseId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id AS id, c.title AS title FROM Course c")
+    Stream<CourseTitleRow> streamTitles();
+
+    @Query("SELECT c.id AS id, c.title AS title FROM Course c WHERE c.id IN :ids")
+    List<CourseTitleRow> findTitles(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = INDEX_ROW_SELECT + " GROUP BY c.id", nativeQuery = true)
+    Stream<CourseIndexRow> streamIndexRows();
+
+    @Query(value = INDEX_ROW_SELECT + " WHERE c.id IN (:ids) GROUP BY c.id", nativeQuery = true)
+    List<CourseIndexRow> findIndexRows(Collection<Long> ids);
+
+    @Query("SELECT c.id AS id, c.title AS title, c.description AS description, c.duration AS duration, "
+            + "c.startDate AS startDate FROM Course c WHERE c.id = :id")
+    Optional<CourseOutlineRow> findOutlineRow(Long id);
+
+    /**
+     * ID и название курса.
+     */
+    interface CourseTitleRow {
+        Long getId();
+
+        String getTitle();
+    }
+
+    /**
+     * Данные курса для поискового индекса в памяти.
+     */
+    interface CourseIndexRow {
+        Long getId();
+
+        String getTitle();
+
+        String getDescription();
+
+        Long getCategoryId();
+
+        Long getTeacherId();
+
+        /**
+         * Дата начала в днях от 1970-01-01.
+         */
+        Integer getStartDay();
+
+        /**
+         * ID тегов через запятую.
+         */
+        String getTagIds();
+
+        /**
+         * Имена тегов через пробел.
+         */
+        String getTagNames();
+    }
+
+    /**
+     * Данные курса для структуры курса.
+     */
+    interface CourseOutlineRow {
+        Long getId();
+
+        String getTitle();
+
+        String getDescription();
+
+        Integer getDuration();
+
+        LocalDate getStartDate();
+    }
 }
@@ -1,5 +1,6 @@
 package ru.dan.eduinstitution.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.dan.eduinstitution.entity.CourseReview;
 
@@ -12,8 +13,16 @@ public interface CourseReviewRepository extends JpaRepository<CourseReview, Long
 
     List<CourseReview> findByStudentId(Long studentId);
 
-    Optional<CourseReview> findByCourseIdAndStudentId(Long courseId, Long studentId);
+    @org.springframework.data.jpa.repository.Query("SELECT cr FROM CourseReview cr JOIN FETCH cr.course WHERE cr.student.id = :studentId")
+    List<CourseReview> findByStudentIdWithCourse(Long studentId);
+
+    @org.springframework.data.jpa.repository.Query("SELECT cr FROM CourseReview cr JOIN FETCH cr.course JOIN FETCH cr.student "
+            + "WHERE cr.course.id = :courseId AND cr.id > :after ORDER BY cr.id")
+    List<CourseReview> findPageByCourseId(Long courseId, long after, Pageable pageable);
 
-    @org.springframework.data.jpa.repository.Query("SELECT AVG(cr.rating) FROM CourseReview cr WHERE cr.course.id = :courseId")
-    Double findAverageRatingByCourseId(Long courseId);
+    @org.springframework.data.jpa.repository.Query("SELECT cr FROM CourseReview cr JOIN FETCH cr.course JOIN FETCH cr.student "
+            + "WHERE cr.student.id = :studentId AND cr.id > :after ORDER BY cr.id")
+    List<CourseReview> findPageByStudentId(Long studentId, long after, Pageable pageable);
+
+    Optional<CourseReview> findByCourseIdAndStudentId(Long courseId, Long studentId);
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package ru.dan.eduinstitution.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.dan.eduinstitution.entity.CourseWaitlistEntry;
+import ru.dan.eduinstitution.entity.EnrollmentId;
+
+import java.util.Optional;
+
+public interface CourseWaitlistRepository extends JpaRepository<CourseWaitlistEntry, EnrollmentId> {
+
+    /**
+     * Постановка студента в очередь, если он не записан на курс и ещё не стоит в очереди.
+     *
+     * @return 1, если студент добавлен в очередь
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO course_waitlist (user_id, course_id)
+            SELECT :studentId, :courseId
+            WHERE NOT EXISTS (SELECT 1 FROM enrollments e WHERE e.user_id = :studentId AND e.course_id = :courseId)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int add(Long studentId, Long courseId);
+
+    Optional<CourseWaitlistEntry> findFirstByCourseIdOrderBySeqAsc(Long courseId);
+
+    /**
+     * Позиция студента в очереди курса, начиная с 1; 0, если студента в очереди нет.
+     */
+    @Query("SELECT count(w) FROM CourseWaitlistEntry w, CourseWaitlistEntry m "
+            + "WHERE m.userId = :studentId AND m.courseId = :courseId AND w.courseId = m.courseId "
+            + "AND w.seq <= m.seq")
+    long position(Long studentId, Long courseId);
+
+    long countByCourseId(Long courseId);
+
+    /**
+     * Удаление студента из очереди курса.
+     *
+     * @return 1, если студент стоял в очереди
+     */
+    @Modifying
+    @Query(value = "DELETE FROM course_waitlist WHERE user_id = :studentId AND course_id = :courseId", nativeQuery = true)
+    int remove(Long studentId, Long courseId);
+}
@@ -0,0 +1,181 @@
+package ru.dan.eduinstitution.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.dan.eduinstitution.entity.EnrollmentId;
+import ru.dan.eduinstitution.entity.EnrollmentProgress;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface EnrollmentProgressRepository extends JpaRepository<EnrollmentProgress, EnrollmentId> {
+
+    /**
+     * Перевод в Completed (код 2) активных (код 1) записей, прогресс которых (CTE {@code progress}) покрывает
+     * все задания и тесты курса, CTE {@code completed}. Курс без заданий и тестов завершённым не считается.
+     */
+    String COMPLETED = """
+            , completed AS (
+                UPDATE enrollments e SET status = 2
+                FROM progress p
+                JOIN course_item_counts c ON c.course_id = p.course_id
+                WHERE e.user_id = p.user_id AND e.course_id = p.course_id AND e.status = 1
+                  AND c.assignment_count + c.quiz_count > 0
+                  AND p.graded_assignments >= c.assignment_count
+                  AND p.submitted_quizzes >= c.quiz_count
+                RETURNING e.course_id)
+            """;
+
+    /**
+     * Перенос записей CTE {@code completed} из активных в завершённые в счётчиках курса.
+     */
+    String MOVE_COMPLETED_COUNTS = """
+            INSERT INTO course_enrollment_counts AS n (course_id, active_count, completed_count)
+            SELECT course_id, -count(*), count(*)
+            FROM completed
+            GROUP BY course_id
+            ON CONFLICT (course_id) DO UPDATE SET
+                active_count = n.active_count + EXCLUDED.active_count,
+                completed_count = n.completed_count + EXCLUDED.completed_count
+            """;
+
+    /**
+     * Завершение записей с полным прогрессом и перенос их в счётчиках курса.
+     */
+    String COMPLETE_ENROLLMENTS = COMPLETED + MOVE_COMPLETED_COUNTS;
+
+    /**
+     * Подсчёт оценённых ответов и сданных тестов студента по дереву курса.
+     */
+    String COUNT_PROGRESS = """
+            SELECT e.user_id, e.course_id,
+                   (SELECT count(*)
+                    FROM modules m
+                    JOIN lessons l ON l.module_id = m.id
+                    JOIN assignments a ON a.lesson_id = l.id
+                    JOIN submissions s ON s.assignment_id = a.id
+                    WHERE m.course_id = e.course_id AND s.student_id = e.user_id AND s.score IS NOT NULL),
+                   (SELECT count(*)
+                    FROM modules m
+                    JOIN quizzes q ON q.module_id = m.id
+                    JOIN quiz_submissions qs ON qs.quiz_id = q.id
+                    WHERE m.course_id = e.course_id AND qs.student_id = e.user_id)
+            FROM enrollments e
+            """;
+
+    /**
+     * Запись нового значения подсчёта {@link #COUNT_PROGRESS}, завершает CTE {@code progress}.
+     * Значение задаётся абсолютно, поэтому перед пересчётом строки прогресса блокируются отдельным запросом
+     * ({@link #lockEnrollment}, {@link #lockCourse}): подсчёт видит все увеличения, зафиксированные до блокировки,
+     * а более поздние ждут пересчёт и прибавляются к его результату.
+     */
+    String UPSERT_COUNTED = """
+            ON CONFLICT (user_id, course_id) DO UPDATE SET
+                graded_assignments = EXCLUDED.graded_assignments,
+                submitted_quizzes = EXCLUDED.submitted_quizzes
+            RETURNING *)
+            """;
+
+    /**
+     * Добавление ({@code delta = 1}) или вычитание ({@code delta = -1}) оценённого ответа на задание.
+     * Курс ответа находится по дереву; если студент не записан на курс, ничего не меняется.
+     *
+     * @return Число курсов, записи которых переведены в Completed
+     */
+    @Modifying
+    @Query(value = """
+            WITH progress AS (
+                INSERT INTO enrollment_progress AS p (user_id, course_id, graded_assignments)
+                SELECT e.user_id, e.course_id, :delta
+                FROM submissions s
+                JOIN assignments a ON a.id = s.assignment_id
+                JOIN lessons l ON l.id = a.lesson_id
+                JOIN modules m ON m.id = l.module_id
+                JOIN enrollments e ON e.user_id = s.student_id AND e.course_id = m.course_id
+                WHERE s.id = :submissionId
+                ON CONFLICT (user_id, course_id) DO UPDATE SET
+                    graded_assignments = p.graded_assignments + EXCLUDED.graded_assignments
+                RETURNING *)
+            """ + COMPLETE_ENROLLMENTS, nativeQuery = true)
+    int applyGradedSubmission(Long submissionId, int delta);
+
+    /**
+     * Добавление ({@code delta = 1}) или вычитание ({@code delta = -1}) сданных тестов пакетом.
+     * Курс каждого результата находится по дереву; результаты студентов, не записанных на курс, пропускаются.
+     *
+     * @return Число курсов, записи которых переведены в Completed
+     */
+    @Modifying
+    @Query(value = """
+            WITH progress AS (
+                INSERT INTO enrollment_progress AS p (user_id, course_id, submitted_quizzes)
+                SELECT e.user_id, e.course_id, count(*) * :delta
+                FROM quiz_submissions qs
+                JOIN quizzes q ON q.id = qs.quiz_id
+                JOIN modules m ON m.id = q.module_id
+                JOIN enrollments e ON e.user_id = qs.student_id AND e.course_id = m.course_id
+                WHERE qs.id IN (:quizSubmissionIds)
+                GROUP BY e.user_id, e.course_id
+                ON CONFLICT (user_id, course_id) DO UPDATE SET
+                    submitted_quizzes = p.submitted_quizzes + EXCLUDED.submitted_quizzes
+                RETURNING *)
+            """ + COMPLETE_ENROLLMENTS, nativeQuery = true)
+    int applyQuizSubmissions(Collection<Long> quizSubmissionIds, int delta);
+
+    /**
+     * Блокировка строки прогресса записи перед {@link #recountEnrollment}.
+     */
+    @Query(value = """
+            SELECT user_id FROM enrollment_progress
+            WHERE user_id = :studentId AND course_id = :courseId
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<Long> lockEnrollment(Long studentId, Long courseId);
+
+    /**
+     * Блокировка строк прогресса записей курса перед {@link #recountCourse}.
+     */
+    @Query(value = """
+            SELECT p.user_id
+            FROM enrollments e
+            JOIN enrollment_progress p ON p.user_id = e.user_id AND p.course_id = e.course_id
+            WHERE e.course_id = :courseId
+            FOR UPDATE OF p
+            """, nativeQuery = true)
+    List<Long> lockCourse(Long courseId);
+
+    /**
+     * Подсчёт прогресса одной записи с нуля, например при записи на курс с уже сданными работами.
+     *
+     * @return 1, если запись переведена в Completed, иначе 0
+     */
+    @Modifying
+    @Query(value = """
+            WITH progress AS (
+                INSERT INTO enrollment_progress (user_id, course_id, graded_assignments, submitted_quizzes)
+            """ + COUNT_PROGRESS + """
+                WHERE e.user_id = :studentId AND e.course_id = :courseId
+            """ + UPSERT_COUNTED + COMPLETE_ENROLLMENTS, nativeQuery = true)
+    int recountEnrollment(Long studentId, Long courseId);
+
+    /**
+     * Подсчёт прогресса всех записей курса с нуля после изменения его структуры.
+     * Итоговый SELECT считает завершённые записи, поэтому запрос объявлен без {@code @Modifying}:
+     * изменяющие CTE выполняются вместе с ним.
+     *
+     * @return Число записей курса, переведённых в Completed
+     */
+    @Query(value = """
+            WITH progress AS (
+                INSERT INTO enrollment_progress (user_id, course_id, graded_assignments, submitted_quizzes)
+            """ + COUNT_PROGRESS + """
+                WHERE e.course_id = :courseId
+            """ + UPSERT_COUNTED + COMPLETED + ", counts AS (" + MOVE_COMPLETED_COUNTS + ")\n"
+            + "SELECT count(*) FROM completed", nativeQuery = true)
+    long recountCourse(Long courseId);
+
+    List<EnrollmentProgress> findByUserIdAndCourseIdIn(Long userId, Collection<Long> courseIds);
+
+    List<EnrollmentProgress> findByCourseIdAndUserIdIn(Long courseId, Collection<Long> userIds);
+}
@@ -1,20 +1,85 @@
 package ru.dan.eduinstitution.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.dan.eduinstitution.entity.Enrollment;
 import ru.dan.eduinstitution.entity.EnrollmentId;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EnrollmentRepository extends JpaRepository<Enrollment, EnrollmentId> {
 
     List<Enrollment> findByStudentId(Long studentId);
 
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.course WHERE e.userId = :studentId")
+    List<Enrollment> findByStudentIdWithCourse(Long studentId);
+
     List<Enrollment> findByCourseId(Long courseId);
 
-    List<Enrollment> findByStatus(String status);
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.student JOIN FETCH e.course "
+            + "WHERE e.userId = :studentId AND e.courseId > :after ORDER BY e.courseId")
+    List<Enrollment> findPageByStudentId(Long studentId, long after, Pageable pageable);
+
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.student JOIN FETCH e.course "
+            + "WHERE e.courseId = :courseId AND e.userId > :after ORDER BY e.userId")
+    List<Enrollment> findPageByCourseId(Long courseId, long after, Pageable pageable);
+
+    // Обратная сторона один-к-одному User.profile без подгрузки в запросе читается отдельным запросом на каждого студента
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.student s LEFT JOIN FETCH s.profile JOIN FETCH e.course "
+            + "WHERE e.status = :status AND (e.userId, e.courseId) > (:afterUserId, :afterCourseId) "
+            + "ORDER BY e.userId, e.courseId")
+    List<Enrollment> findPageByStatus(Enrollment.Status status, long afterUserId, long afterCourseId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e.userId AS studentId, s.name AS studentName, e.courseId AS courseId, c.title AS courseTitle, "
+            + "e.enrollDate AS enrollDate FROM Enrollment e JOIN e.student s JOIN e.course c "
+            + "WHERE e.status = :status ORDER BY e.userId, e.courseId")
+    Stream<EnrollmentRow> streamByStatus(Enrollment.Status status);
+
+    // Блокировка строки не даёт автоматическому завершению по прогрессу изменить статус между чтением и записью
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Enrollment e WHERE e.userId = :studentId AND e.courseId = :courseId")
+    Optional<Enrollment> findForUpdate(Long studentId, Long courseId);
 
     boolean existsByStudentIdAndCourseId(Long studentId, Long courseId);
+
+    /**
+     * Создание активной записи без предварительной проверки: повторная запись не вставляется.
+     *
+     * @return 1, если запись создана, 0, если студент уже записан на курс
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO enrollments (user_id, course_id, enroll_date, status)
+            VALUES (:studentId, :courseId, :enrollDate, 1)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertActive(Long studentId, Long courseId, LocalDate enrollDate);
+
+    /**
+     * Запись на курс без сущностей студента и курса.
+     */
+    interface EnrollmentRow {
+        Long getStudentId();
+
+        String getStudentName();
+
+        Long getCourseId();
+
+        String getCourseTitle();
+
+        LocalDate getEnrollDate();
+    }
 }
@@ -4,6 +4,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.dan.eduinstitution.entity.Lesson;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface LessonRepository extends JpaRepository<Lesson, Long> {
@@ -12,4 +13,21 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
 
     @Query("SELECT l FROM Lesson l JOIN FETCH l.module WHERE l.module.id = :moduleId")
     List<Lesson> findByModuleIdWithModule(Long moduleId);
-}
\ No newline at end of file
+
+    @Query("SELECT l.id AS id, l.module.id AS moduleId, l.title AS title, l.videoUrl AS videoUrl "
+            + "FROM Lesson l WHERE l.module.id IN :moduleIds ORDER BY l.id")
+    List<LessonOutlineRow> findOutlineRows(Collection<Long> moduleIds);
+
+    /**
+     * Урок без содержимого для структуры курса.
+     */
+    interface LessonOutlineRow {
+        Long getId();
+
+        Long getModuleId();
+
+        String getTitle();
+
+        String getVideoUrl();
+    }
+}
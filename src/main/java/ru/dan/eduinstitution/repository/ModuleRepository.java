@@ -10,6 +10,32 @@ public interface ModuleRepository extends JpaRepository<Module, Long> {
 
     List<Module> findByCourseId(Long courseId);
 
-    @Query("SELECT m FROM Module m JOIN FETCH m.course WHERE m.course.id = :courseId ORDER BY m.orderIndex")
+    // Module.quiz - обратная сторона один-к-одному, без подгрузки в запросе читается отдельным запросом на модуль
+    @Query("SELECT m FROM Module m JOIN FETCH m.course LEFT JOIN FETCH m.quiz "
+            + "WHERE m.course.id = :courseId ORDER BY m.orderIndex")
     List<Module> findByCourseIdWithCourse(Long courseId);
-}
\ No newline at end of file
+
+    @Query("SELECT m.id AS id, m.title AS title, m.orderIndex AS orderIndex, m.description AS description, "
+            + "q.id AS quizId, q.title AS quizTitle, q.timeLimit AS quizTimeLimit "
+            + "FROM Module m LEFT JOIN m.quiz q WHERE m.course.id = :courseId ORDER BY m.orderIndex, m.id")
+    List<ModuleOutlineRow> findOutlineRows(Long courseId);
+
+    /**
+     * Модуль и заголовок его теста для структуры курса.
+     */
+    interface ModuleOutlineRow {
+        Long getId();
+
+        String getTitle();
+
+        Integer getOrderIndex();
+
+        String getDescription();
+
+        Long getQuizId();
+
+        String getQuizTitle();
+
+        Integer getQuizTimeLimit();
+    }
+}
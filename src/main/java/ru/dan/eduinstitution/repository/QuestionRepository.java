@@ -1,10 +1,32 @@
 package ru.dan.eduinstitution.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.dan.eduinstitution.entity.Question;
 
 import java.util.List;
 
 public interface QuestionRepository extends JpaRepository<Question, Long> {
     List<Question> findByQuizIdOrderByIdAsc(Long quizId);
+
+    @Query("""
+            SELECT q.id AS questionId, q.type AS type, o.id AS optionId, o.isCorrect AS correct
+            FROM Question q LEFT JOIN q.options o
+            WHERE q.quiz.id = :quizId
+            ORDER BY q.id, o.id
+            """)
+    List<AnswerKeyRow> findAnswerKeyRows(Long quizId);
+
+    /**
+     * Строка ключа ответов: вопрос и один из его вариантов.
+     */
+    interface AnswerKeyRow {
+        Long getQuestionId();
+
+        Question.QuestionType getType();
+
+        Long getOptionId();
+
+        Boolean getCorrect();
+    }
 }
@@ -0,0 +1,38 @@
+package ru.dan.eduinstitution.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.dan.eduinstitution.entity.QuizAnswer;
+
+import java.util.List;
+
+public interface QuizAnswerRepository extends JpaRepository<QuizAnswer, Long> {
+
+    @Query(value = """
+            SELECT ao.question_id AS questionId, ao.id AS optionId, ao.is_correct AS correct,
+                   count(sel.option_id) AS selectedCount
+            FROM answer_options ao
+            JOIN questions q ON q.id = ao.question_id
+            LEFT JOIN (SELECT unnest(qa.selected_option_ids) AS option_id
+                       FROM quiz_answers qa
+                       JOIN quiz_submissions qs ON qs.id = qa.quiz_submission_id
+                       WHERE qs.quiz_id = :quizId) sel ON sel.option_id = ao.id
+            WHERE q.quiz_id = :quizId
+            GROUP BY ao.question_id, ao.id, ao.is_correct
+            ORDER BY ao.question_id, ao.id
+            """, nativeQuery = true)
+    List<OptionStatsRow> findOptionStatsByQuizId(Long quizId);
+
+    /**
+     * Статистика выбора варианта ответа.
+     */
+    interface OptionStatsRow {
+        Long getQuestionId();
+
+        Long getOptionId();
+
+        Boolean getCorrect();
+
+        Long getSelectedCount();
+    }
+}
@@ -1,6 +1,8 @@
 package ru.dan.eduinstitution.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.dan.eduinstitution.entity.QuizSubmission;
 
 import java.util.List;
@@ -10,7 +12,18 @@ public interface QuizSubmissionRepository extends JpaRepository<QuizSubmission,
 
     List<QuizSubmission> findByStudentId(Long studentId);
 
+    @Query("SELECT qs FROM QuizSubmission qs JOIN FETCH qs.quiz WHERE qs.student.id = :studentId")
+    List<QuizSubmission> findByStudentIdWithQuiz(Long studentId);
+
     List<QuizSubmission> findByQuizId(Long quizId);
 
+    @Query("SELECT qs FROM QuizSubmission qs JOIN FETCH qs.quiz JOIN FETCH qs.student "
+            + "WHERE qs.student.id = :studentId AND qs.id > :after ORDER BY qs.id")
+    List<QuizSubmission> findPageByStudentId(Long studentId, long after, Pageable pageable);
+
+    @Query("SELECT qs FROM QuizSubmission qs JOIN FETCH qs.quiz JOIN FETCH qs.student "
+            + "WHERE qs.quiz.id = :quizId AND qs.id > :after ORDER BY qs.id")
+    List<QuizSubmission> findPageByQuizId(Long quizId, long after, Pageable pageable);
+
     Optional<QuizSubmission> findByQuizIdAndStudentId(Long quizId, Long studentId);
 }
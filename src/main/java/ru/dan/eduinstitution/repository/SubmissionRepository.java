@@ -1,6 +1,8 @@
 package ru.dan.eduinstitution.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.dan.eduinstitution.entity.Submission;
 
 import java.util.List;
@@ -10,7 +12,18 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
 
     List<Submission> findByStudentId(Long studentId);
 
+    @Query("SELECT s FROM Submission s JOIN FETCH s.assignment WHERE s.student.id = :studentId")
+    List<Submission> findByStudentIdWithAssignment(Long studentId);
+
     List<Submission> findByAssignmentId(Long assignmentId);
 
+    @Query("SELECT s FROM Submission s JOIN FETCH s.assignment JOIN FETCH s.student "
+            + "WHERE s.student.id = :studentId AND s.id > :after ORDER BY s.id")
+    List<Submission> findPageByStudentId(Long studentId, long after, Pageable pageable);
+
+    @Query("SELECT s FROM Submission s JOIN FETCH s.assignment JOIN FETCH s.student "
+            + "WHERE s.assignment.id = :assignmentId AND s.id > :after ORDER BY s.id")
+    List<Submission> findPageByAssignmentId(Long assignmentId, long after, Pageable pageable);
+
     Optional<Submission> findByAssignmentIdAndStudentId(Long assignmentId, Long studentId);
 }
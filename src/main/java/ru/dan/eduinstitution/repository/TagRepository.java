@@ -1,10 +1,16 @@
 package ru.dan.eduinstitution.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.dan.eduinstitution.entity.Tag;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface TagRepository extends JpaRepository<Tag, Long> {
     Optional<Tag> findByName(String name);
+
+    @Query("SELECT t.id FROM Tag t WHERE t.id IN :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
 }
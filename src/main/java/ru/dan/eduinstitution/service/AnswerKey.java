@@ -0,0 +1,212 @@
+package ru.dan.eduinstitution.service;
+
+import ru.dan.eduinstitution.entity.Question;
+import ru.dan.eduinstitution.model.QuizAnswerDto;
+import ru.dan.eduinstitution.repository.QuestionRepository;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Неизменяемый ключ ответов теста.
+ * Вопросы и варианты ответов хранятся в плоских отсортированных массивах, правильные варианты -
+ * битовой маской по словам на каждый вопрос. Подсчёт балла создаёт только битовую маску отвеченных вопросов.
+ */
+public final class AnswerKey {
+
+    private static final int MAX_SCORE = 100;
+
+    /**
+     * ID вопросов по возрастанию.
+     */
+    private final long[] questionIds;
+
+    /**
+     * Автоматически проверяемый вопрос (SINGLE_CHOICE или MULTIPLE_CHOICE).
+     */
+    private final boolean[] gradable;
+
+    /**
+     * Границы вариантов вопроса i в {@link #optionIds}: [optionStart[i], optionStart[i + 1]).
+     */
+    private final int[] optionStart;
+
+    /**
+     * ID вариантов ответов, упорядоченные по вопросу и по возрастанию внутри вопроса.
+     */
+    private final long[] optionIds;
+
+    /**
+     * Первое слово маски правильных вариантов вопроса i в {@link #correctBits}.
+     */
+    private final int[] wordStart;
+
+    private final long[] correctBits;
+
+    private final int gradableCount;
+
+    private AnswerKey(long[] questionIds, boolean[] gradable, int[] optionStart, long[] optionIds,
+                      int[] wordStart, long[] correctBits, int gradableCount) {
+        this.questionIds = questionIds;
+        this.gradable = gradable;
+        this.optionStart = optionStart;
+        this.optionIds = optionIds;
+        this.wordStart = wordStart;
+        this.correctBits = correctBits;
+        this.gradableCount = gradableCount;
+    }
+
+    /**
+     * Построение ключа по строкам вопрос-вариант, упорядоченным по ID вопроса и ID варианта.
+     *
+     * @param rows Строки ключа; у вопроса без вариантов ID варианта пустой
+     * @return Ключ ответов
+     */
+    public static AnswerKey of(List<QuestionRepository.AnswerKeyRow> rows) {
+        int questionCount = 0;
+        int optionCount = 0;
+        long previousQuestionId = Long.MIN_VALUE;
+        for (QuestionRepository.AnswerKeyRow row : rows) {
+            if (row.getQuestionId() != previousQuestionId) {
+                questionCount++;
+                previousQuestionId = row.getQuestionId();
+            }
+            if (row.getOptionId() != null) {
+                optionCount++;
+            }
+        }
+
+        long[] questionIds = new long[questionCount];
+        boolean[] gradable = new boolean[questionCount];
+        int[] optionStart = new int[questionCount + 1];
+        long[] optionIds = new long[optionCount];
+        int[] wordStart = new int[questionCount + 1];
+        boolean[] correct = new boolean[optionCount];
+
+        int q = -1;
+        int o = 0;
+        int gradableCount = 0;
+        previousQuestionId = Long.MIN_VALUE;
+        for (QuestionRepository.AnswerKeyRow row : rows) {
+            if (row.getQuestionId() != previousQuestionId) {
+                q++;
+                previousQuestionId = row.getQuestionId();
+                questionIds[q] = previousQuestionId;
+                gradable[q] = row.getType() != Question.QuestionType.TEXT;
+                optionStart[q] = o;
+                if (gradable[q]) {
+                    gradableCount++;
+                }
+            }
+            if (row.getOptionId() != null) {
+                optionIds[o] = row.getOptionId();
+                correct[o] = Boolean.TRUE.equals(row.getCorrect());
+                o++;
+            }
+        }
+        optionStart[questionCount] = optionCount;
+
+        for (int i = 0; i < questionCount; i++) {
+            wordStart[i + 1] = wordStart[i] + words(optionStart[i + 1] - optionStart[i]);
+        }
+        long[] correctBits = new long[wordStart[questionCount]];
+        for (int i = 0; i < questionCount; i++) {
+            for (int j = optionStart[i]; j < optionStart[i + 1]; j++) {
+                if (correct[j]) {
+                    int local = j - optionStart[i];
+                    correctBits[wordStart[i] + (local >>> 6)] |= 1L << local;
+                }
+            }
+        }
+
+        return new AnswerKey(questionIds, gradable, optionStart, optionIds, wordStart, correctBits, gradableCount);
+    }
+
+    /**
+     * Подсчёт балла: доля правильно отвеченных проверяемых вопросов от 0 до 100.
+     * Вопрос засчитывается, если выбраны ровно все правильные варианты. Вопросы с текстовым ответом не учитываются.
+     *
+     * @param answers Выбранные варианты по вопросам
+     * @return Балл
+     * @throws IllegalArgumentException если вопрос или вариант не относятся к тесту или ответ на вопрос повторяется
+     */
+    public int score(List<QuizAnswerDto> answers) {
+        // Ответы проверяются до подсчёта, в том числе в тесте без проверяемых вопросов;
+        // повтор вопроса ищется по маске индексов вопросов, а не попарным сравнением
+        long[] answered = new long[words(questionIds.length)];
+        for (int i = 0; i < answers.size(); i++) {
+            QuizAnswerDto answer = answers.get(i);
+            int q = Arrays.binarySearch(questionIds, answer.getQuestionId());
+            if (q < 0) {
+                throw new IllegalArgumentException(
+                        String.format("Question with id '%s' does not belong to the quiz", answer.getQuestionId()));
+            }
+            if ((answered[q >>> 6] & 1L << q) != 0) {
+                throw new IllegalArgumentException(
+                        String.format("Duplicate answer for question with id '%s'", answer.getQuestionId()));
+            }
+            answered[q >>> 6] |= 1L << q;
+            List<Long> selected = answer.getSelectedOptionIds();
+            for (int j = 0; j < selected.size(); j++) {
+                if (Arrays.binarySearch(optionIds, optionStart[q], optionStart[q + 1], selected.get(j)) < 0) {
+                    throw new IllegalArgumentException(
+                            String.format("Answer option with id '%s' does not belong to question '%s'",
+                                    selected.get(j), questionIds[q]));
+                }
+            }
+        }
+        if (gradableCount == 0) {
+            return 0;
+        }
+
+        int correctCount = 0;
+        for (int i = 0; i < answers.size(); i++) {
+            QuizAnswerDto answer = answers.get(i);
+            int q = Arrays.binarySearch(questionIds, answer.getQuestionId());
+            if (gradable[q] && isCorrect(q, answer.getSelectedOptionIds())) {
+                correctCount++;
+            }
+        }
+        return Math.round((float) correctCount * MAX_SCORE / gradableCount);
+    }
+
+    public int questionCount() {
+        return questionIds.length;
+    }
+
+    /**
+     * Есть ли в тесте автоматически проверяемые вопросы, то есть нужны ли ответы для подсчёта балла.
+     */
+    public boolean hasGradableQuestions() {
+        return gradableCount > 0;
+    }
+
+    private boolean isCorrect(int q, List<Long> selected) {
+        int from = optionStart[q];
+        int to = optionStart[q + 1];
+        if (from == to) {
+            return selected.isEmpty();
+        }
+        // Маска выбранных вариантов собирается и сравнивается по одному слову, без буфера
+        for (int word = wordStart[q]; word < wordStart[q + 1]; word++) {
+            int wordOffset = (word - wordStart[q]) << 6;
+            long selectedBits = 0L;
+            for (int i = 0; i < selected.size(); i++) {
+                // Варианты уже проверены в score, поэтому индекс найден
+                int index = Arrays.binarySearch(optionIds, from, to, selected.get(i));
+                int local = index - from - wordOffset;
+                if (local >= 0 && local < Long.SIZE) {
+                    selectedBits |= 1L << local;
+                }
+            }
+            if (selectedBits != correctBits[word]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int words(int bits) {
+        return (bits + Long.SIZE - 1) / Long.SIZE;
+    }
+}
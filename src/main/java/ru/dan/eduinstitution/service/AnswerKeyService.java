@@ -0,0 +1,45 @@
+package ru.dan.eduinstitution.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import ru.dan.eduinstitution.config.CacheConfig;
+import ru.dan.eduinstitution.repository.QuestionRepository;
+
+/**
+ * Сервис ключей ответов тестов.
+ * Ключ строится одним запросом и кешируется на тест; при одновременных сдачах загружается один раз.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AnswerKeyService {
+
+    private final QuestionRepository questionRepository;
+
+    /**
+     * Получение ключа ответов теста.
+     *
+     * @param quizId ID теста
+     * @return Ключ ответов
+     */
+    @Cacheable(cacheNames = CacheConfig.ANSWER_KEYS, key = "#quizId", sync = true)
+    public AnswerKey getAnswerKey(Long quizId) {
+        log.info("Loading answer key for quiz ID: {}", quizId);
+        AnswerKey answerKey = AnswerKey.of(questionRepository.findAnswerKeyRows(quizId));
+        log.info("Answer key for quiz ID {} loaded, {} questions", quizId, answerKey.questionCount());
+        return answerKey;
+    }
+
+    /**
+     * Сброс ключа ответов теста после изменения вопросов или вариантов ответов.
+     *
+     * @param quizId ID теста
+     */
+    @CacheEvict(cacheNames = CacheConfig.ANSWER_KEYS, key = "#quizId")
+    public void evict(Long quizId) {
+        log.info("Evicting answer key for quiz ID: {}", quizId);
+    }
+}
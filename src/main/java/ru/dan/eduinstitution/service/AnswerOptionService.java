@@ -27,6 +27,7 @@ public class AnswerOptionService {
 
     private final AnswerOptionRepository answerOptionRepository;
     private final QuestionRepository questionRepository;
+    private final AnswerKeyService answerKeyService;
 
     /**
      * Создание варианта ответа.
@@ -50,6 +51,7 @@ public class AnswerOptionService {
 
         answerOption = answerOptionRepository.save(answerOption);
         log.info("Answer option created with ID: {}", answerOption.getId());
+        answerKeyService.evict(question.getQuiz().getId());
 
         return answerOptionResponseDtoFromAnswerOption(answerOption);
     }
@@ -94,6 +96,7 @@ public class AnswerOptionService {
 
         answerOption = answerOptionRepository.save(answerOption);
         log.info("Answer option updated with ID: {}", answerOption.getId());
+        answerKeyService.evict(answerOption.getQuestion().getQuiz().getId());
 
         return answerOptionResponseDtoFromAnswerOption(answerOption);
     }
@@ -107,12 +110,12 @@ public class AnswerOptionService {
     public void deleteAnswerOption(Long id) {
         log.info("Deleting answer option with ID: {}", id);
 
-        if (!answerOptionRepository.existsById(id)) {
-            throw new ResourceNotFoundException(
-                    String.format("AnswerOption with id '%s' not found", id));
-        }
+        AnswerOption answerOption = answerOptionRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        String.format("AnswerOption with id '%s' not found", id)));
 
-        answerOptionRepository.deleteById(id);
+        answerOptionRepository.delete(answerOption);
+        answerKeyService.evict(answerOption.getQuestion().getQuiz().getId());
         log.info("Answer option deleted with ID: {}", id);
     }
 
@@ -27,6 +27,8 @@ public class AssignmentService {
 
     private final AssignmentRepository assignmentRepository;
     private final LessonRepository lessonRepository;
+    private final CourseOutlineService courseOutlineService;
+    private final EnrollmentProgressService enrollmentProgressService;
 
     /**
      * Создание задания.
@@ -51,6 +53,8 @@ public class AssignmentService {
         assignment.setMaxScore(dto.getMaxScore());
 
         assignment = assignmentRepository.save(assignment);
+        courseOutlineService.evictOutline(lesson.getModule().getCourse().getId());
+        enrollmentProgressService.courseStructureChanged(lesson.getModule().getCourse().getId());
         log.info("Assignment created with ID: {}", assignment.getId());
 
         return assignmentResponseDtoFromAssignment(assignment);
@@ -101,6 +105,7 @@ public class AssignmentService {
         }
 
         assignment = assignmentRepository.save(assignment);
+        courseOutlineService.evictOutline(assignment.getLesson().getModule().getCourse().getId());
         log.info("Assignment updated with ID: {}", assignment.getId());
 
         return assignmentResponseDtoFromAssignment(assignment);
@@ -115,12 +120,13 @@ public class AssignmentService {
     public void deleteAssignment(Long id) {
         log.info("Deleting assignment with ID: {}", id);
 
-        if (!assignmentRepository.existsById(id)) {
-            throw new ResourceNotFoundException(
-                    String.format("Assignment with id '%s' not found", id));
-        }
+        Assignment assignment = assignmentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        String.format("Assignment with id '%s' not found", id)));
 
-        assignmentRepository.deleteById(id);
+        assignmentRepository.delete(assignment);
+        courseOutlineService.evictOutline(assignment.getLesson().getModule().getCourse().getId());
+        enrollmentProgressService.courseStructureChanged(assignment.getLesson().getModule().getCourse().getId());
         log.info("Assignment deleted with ID: {}", id);
     }
 
@@ -0,0 +1,97 @@
+package ru.dan.eduinstitution.service;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.dan.eduinstitution.entity.Tag;
+import ru.dan.eduinstitution.model.SuggestionDto;
+import ru.dan.eduinstitution.repository.CourseRepository;
+import ru.dan.eduinstitution.repository.TagRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Подсказки по мере ввода для имён тегов и названий курсов.
+ * Словари хранятся в {@link AutocompleteTrie}, загружаются при старте и обновляются
+ * после коммита изменений тегов и курсов.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AutocompleteService {
+
+    private static final int MAX_LIMIT = 50;
+    private static final int RELOAD_BATCH_SIZE = 1000;
+
+    private final TagRepository tagRepository;
+    private final CourseRepository courseRepository;
+
+    private final AutocompleteTrie tags = new AutocompleteTrie();
+    private final AutocompleteTrie courses = new AutocompleteTrie();
+
+    /**
+     * Загрузка словарей тегов и курсов.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        for (Tag tag : tagRepository.findAll()) {
+            tags.put(tag.getId(), tag.getName());
+        }
+        try (Stream<CourseRepository.CourseTitleRow> rows = courseRepository.streamTitles()) {
+            rows.forEach(row -> courses.put(row.getId(), row.getTitle()));
+        }
+        log.info("Autocomplete loaded: {} tags, {} courses", tags.size(), courses.size());
+    }
+
+    /**
+     * Подсказки тегов.
+     *
+     * @param prefix Начало имени тега
+     * @param limit  Максимальное число подсказок
+     * @return Теги, имя которых начинается с префикса
+     */
+    public List<SuggestionDto> completeTags(String prefix, int limit) {
+        return tags.complete(prefix, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Подсказки курсов.
+     *
+     * @param prefix Начало названия курса
+     * @param limit  Максимальное число подсказок
+     * @return Курсы, название которых начинается с префикса
+     */
+    public List<SuggestionDto> completeCourses(String prefix, int limit) {
+        return courses.complete(prefix, Math.min(limit, MAX_LIMIT));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagChanged(TagChangedEvent event) {
+        tagRepository.findById(event.getTagId()).ifPresentOrElse(
+                tag -> tags.put(tag.getId(), tag.getName()),
+                () -> tags.remove(event.getTagId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        List<Long> ids = new ArrayList<>(event.getCourseIds());
+        for (int from = 0; from < ids.size(); from += RELOAD_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + RELOAD_BATCH_SIZE));
+            Set<Long> missing = new HashSet<>(batch);
+            for (CourseRepository.CourseTitleRow row : courseRepository.findTitles(batch)) {
+                courses.put(row.getId(), row.getTitle());
+                missing.remove(row.getId());
+            }
+            missing.forEach(courses::remove);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package ru.dan.eduinstitution.service;
+
+import ru.dan.eduinstitution.model.SuggestionDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Сжатое префиксное дерево (radix trie) для подсказок по мере ввода.
+ * Ключ - нормализованный текст, в узле конца ключа хранятся ID и исходные тексты записей.
+ * Подсказки выдаются в лексикографическом порядке ключей, обход останавливается на лимите,
+ * поэтому стоимость запроса зависит от длины префикса и лимита, а не от размера словаря.
+ */
+public class AutocompleteTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_IDS = new long[0];
+    private static final String[] NO_TEXTS = new String[0];
+
+    private final Node root = new Node("");
+    private final Map<Long, String> keysById = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Добавление или замена записи.
+     *
+     * @param id   ID записи
+     * @param text Текст, по префиксу которого ищется запись
+     */
+    public void put(long id, String text) {
+        String key = normalize(text);
+        lock.writeLock().lock();
+        try {
+            String oldKey = keysById.put(id, key);
+            if (oldKey != null) {
+                delete(oldKey, id);
+            }
+            insert(key, id, text);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаление записи.
+     *
+     * @param id ID записи
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            String key = keysById.remove(id);
+            if (key != null) {
+                delete(key, id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Число записей
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return keysById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Подсказки по префиксу.
+     *
+     * @param prefix Начало текста без учёта регистра
+     * @param limit  Максимальное число подсказок
+     * @return Записи, текст которых начинается с префикса
+     */
+    public List<SuggestionDto> complete(String prefix, int limit) {
+        String key = normalize(prefix);
+        List<SuggestionDto> result = new ArrayList<>(Math.min(limit, 16));
+        if (key.isEmpty() || limit <= 0) {
+            return result;
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int position = 0;
+            while (position < key.length()) {
+                int index = node.find(key.charAt(position));
+                if (index < 0) {
+                    return result;
+                }
+                Node child = node.children[index];
+                int length = Math.min(child.label.length(), key.length() - position);
+                if (!child.label.regionMatches(0, key, position, length)) {
+                    return result;
+                }
+                position += length;
+                node = child;
+            }
+            collect(node, result, limit);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Нормализация текста: нижний регистр, ё как е, пробельные символы схлопываются в один пробел.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).replace('ё', 'е').trim().replaceAll("\\s+", " ");
+    }
+
+    private void collect(Node node, List<SuggestionDto> result, int limit) {
+        for (int i = 0; i < node.ids.length && result.size() < limit; i++) {
+            result.add(new SuggestionDto(node.ids[i], node.texts[i]));
+        }
+        for (int i = 0; i < node.children.length && result.size() < limit; i++) {
+            collect(node.children[i], result, limit);
+        }
+    }
+
+    private void insert(String key, long id, String text) {
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            int index = node.find(key.charAt(position));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(position));
+                leaf.addValue(id, text);
+                node.insertChild(-index - 1, leaf);
+                return;
+            }
+            Node child = node.children[index];
+            int common = commonPrefixLength(child.label, key, position);
+            if (common < child.label.length()) {
+                // Ключ расходится с меткой ребра: ребро делится промежуточным узлом
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children = new Node[]{child};
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            position += common;
+        }
+        node.addValue(id, text);
+    }
+
+    private void delete(String key, long id) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            int index = node.find(key.charAt(position));
+            if (index < 0 || !key.startsWith(node.children[index].label, position)) {
+                return;
+            }
+            node = node.children[index];
+            position += node.label.length();
+            path.add(node);
+        }
+        node.removeValue(id);
+
+        // Пустой лист удаляется, узел с единственным потомком сливается с ним
+        if (node != root && node.ids.length == 0 && node.children.length == 0) {
+            Node parent = path.get(path.size() - 2);
+            parent.removeChild(node);
+            node = parent;
+        }
+        if (node != root && node.ids.length == 0 && node.children.length == 1) {
+            Node child = node.children[0];
+            node.label = node.label + child.label;
+            node.children = child.children;
+            node.ids = child.ids;
+            node.texts = child.texts;
+        }
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int length = 0;
+        while (length < max && label.charAt(length) == key.charAt(offset + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Узел дерева. Потомки упорядочены по первому символу метки ребра.
+     */
+    private static final class Node {
+
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private long[] ids = NO_IDS;
+        private String[] texts = NO_TEXTS;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        /**
+         * @return Индекс потомка с меткой на заданный символ или {@code -(точка вставки) - 1}
+         */
+        private int find(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char c = children[middle].label.charAt(0);
+                if (c < first) {
+                    low = middle + 1;
+                } else if (c > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -low - 1;
+        }
+
+        private void insertChild(int index, Node child) {
+            Node[] updated = new Node[children.length + 1];
+            System.arraycopy(children, 0, updated, 0, index);
+            updated[index] = child;
+            System.arraycopy(children, index, updated, index + 1, children.length - index);
+            children = updated;
+        }
+
+        private void removeChild(Node child) {
+            int index = find(child.label.charAt(0));
+            Node[] updated = new Node[children.length - 1];
+            System.arraycopy(children, 0, updated, 0, index);
+            System.arraycopy(children, index + 1, updated, index, children.length - index - 1);
+            children = updated;
+        }
+
+        private void addValue(long id, String text) {
+            ids = Arrays.copyOf(ids, ids.length + 1);
+            texts = Arrays.copyOf(texts, texts.length + 1);
+            ids[ids.length - 1] = id;
+            texts[texts.length - 1] = text;
+        }
+
+        private void removeValue(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    long[] updatedIds = new long[ids.length - 1];
+                    String[] updatedTexts = new String[texts.length - 1];
+                    System.arraycopy(ids, 0, updatedIds, 0, i);
+                    System.arraycopy(ids, i + 1, updatedIds, i, ids.length - i - 1);
+                    System.arraycopy(texts, 0, updatedTexts, 0, i);
+                    System.arraycopy(texts, i + 1, updatedTexts, i, texts.length - i - 1);
+                    ids = updatedIds;
+                    texts = updatedTexts;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -1,38 +1,136 @@
 package ru.dan.eduinstitution.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 import ru.dan.eduinstitution.entity.Category;
+import ru.dan.eduinstitution.model.CategoryResponseDto;
 import ru.dan.eduinstitution.repository.CategoryRepository;
 
-import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Сервис, кеширующий данные по категориям.
+ * Данные хранятся в неизменяемом снимке, который целиком подменяется при перечитывании,
+ * поэтому читатели никогда не видят частично обновлённый кеш.
  */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class CategoryCacheService {
 
+    private static final String CACHE_NAME = "categories";
+
     private final CategoryRepository categoryRepository;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
 
-    @Getter
-    private Map<Long, Category> categoryMap;
+    public CategoryCacheService(CategoryRepository categoryRepository, MeterRegistry meterRegistry) {
+        this.categoryRepository = categoryRepository;
+        this.hitCounter = Counter.builder("cache.gets")
+                .tags("cache", CACHE_NAME, "cache.manager", "categoryCacheService", "result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value.")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("cache.gets")
+                .tags("cache", CACHE_NAME, "cache.manager", "categoryCacheService", "result", "miss")
+                .description("The number of times cache lookup methods have returned an uncached (newly loaded) value, or null.")
+                .register(meterRegistry);
+    }
 
     @PostConstruct
     void init() {
         updateCache();
     }
 
+    /**
+     * Перечитывание категорий из базы. Вызывается по расписанию и по уведомлению об изменении таблицы.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.categories.refresh-interval:PT10M}",
+            initialDelayString = "${app.cache.categories.refresh-interval:PT10M}")
     public void updateCache() {
-        categoryMap = categoryRepository.findAll().stream().collect(Collectors.toMap(Category::getId, Function.identity()));
+        snapshot = Snapshot.of(categoryRepository.findAll(Sort.by("id")));
+        log.debug("Category cache reloaded, {} categories, etag {}", snapshot.ids.length, snapshot.etag);
     }
 
     public Category findById(long id) {
-        return categoryMap.get(id);
+        Snapshot current = snapshot;
+        int index = Arrays.binarySearch(current.ids, id);
+        (index >= 0 ? hitCounter : missCounter).increment();
+        return index >= 0 ? current.categories[index] : null;
+    }
+
+    /**
+     * DTO категории по ID.
+     *
+     * @param id ID категории
+     * @return Категория или null, если не найдена
+     */
+    public CategoryResponseDto findDtoById(long id) {
+        Snapshot current = snapshot;
+        int index = Arrays.binarySearch(current.ids, id);
+        (index >= 0 ? hitCounter : missCounter).increment();
+        return index >= 0 ? current.dtos.get(index) : null;
+    }
+
+    /**
+     * Все категории, упорядоченные по ID.
+     *
+     * @return Неизменяемый список категорий
+     */
+    public List<CategoryResponseDto> getCategories() {
+        return snapshot.dtos;
+    }
+
+    /**
+     * ETag текущего содержимого справочника.
+     *
+     * @return Хеш списка категорий
+     */
+    public String getEtag() {
+        return snapshot.etag;
+    }
+
+    /**
+     * Неизменяемый снимок справочника: отсортированные ID, сущности и готовые DTO с общим индексом.
+     */
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = of(List.of());
+
+        private final long[] ids;
+        private final Category[] categories;
+        private final List<CategoryResponseDto> dtos;
+        private final String etag;
+
+        private Snapshot(long[] ids, Category[] categories, List<CategoryResponseDto> dtos, String etag) {
+            this.ids = ids;
+            this.categories = categories;
+            this.dtos = dtos;
+            this.etag = etag;
+        }
+
+        private static Snapshot of(List<Category> sorted) {
+            long[] ids = new long[sorted.size()];
+            Category[] categories = new Category[sorted.size()];
+            CategoryResponseDto[] dtos = new CategoryResponseDto[sorted.size()];
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < sorted.size(); i++) {
+                Category category = sorted.get(i);
+                ids[i] = category.getId();
+                categories[i] = category;
+                dtos[i] = new CategoryResponseDto(category.getId(), category.getName());
+                content.append(category.getId()).append(':').append(category.getName()).append('\n');
+            }
+            String etag = DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+            return new Snapshot(ids, categories, List.of(dtos), etag);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package ru.dan.eduinstitution.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Слушатель уведомлений Postgres об изменении таблицы категорий (LISTEN/NOTIFY).
+ * Использует отдельное соединение вне пула и при получении уведомления перечитывает кеш категорий.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.cache.categories.listen-notify", havingValue = "true", matchIfMissing = true)
+public class CategoryChangeListener implements SmartLifecycle {
+
+    static final String CHANNEL = "categories_changed";
+
+    private static final int POLL_TIMEOUT_MS = 5_000;
+    private static final long RECONNECT_DELAY_MS = 10_000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final CategoryCacheService categoryCacheService;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::listen, "category-change-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Listening for category changes on channel {}", CHANNEL);
+                // Изменения, пропущенные до подписки, подхватываем сразу
+                categoryCacheService.updateCache();
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        log.info("Categories changed, reloading cache");
+                        categoryCacheService.updateCache();
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                // Ошибка перечитывания кеша (например, недоступен пул) не должна останавливать поток слушателя
+                if (!running) {
+                    return;
+                }
+                log.warn("Category change listener failed, reconnecting in {} ms: {}", RECONNECT_DELAY_MS, e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
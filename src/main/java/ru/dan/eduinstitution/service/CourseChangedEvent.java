@@ -0,0 +1,14 @@
+package ru.dan.eduinstitution.service;
+
+import lombok.Value;
+
+import java.util.Collection;
+
+/**
+ * Событие изменения курсов: данных курса или набора его тегов.
+ */
+@Value
+public class CourseChangedEvent {
+
+    Collection<Long> courseIds;
+}
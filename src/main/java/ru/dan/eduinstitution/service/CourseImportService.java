@@ -0,0 +1,338 @@
+package ru.dan.eduinstitution.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import ru.dan.eduinstitution.exception.ResourceNotFoundException;
+import ru.dan.eduinstitution.model.AnswerOptionImportDto;
+import ru.dan.eduinstitution.model.AssignmentImportDto;
+import ru.dan.eduinstitution.model.CourseImportDto;
+import ru.dan.eduinstitution.model.CourseImportResultDto;
+import ru.dan.eduinstitution.model.LessonImportDto;
+import ru.dan.eduinstitution.model.ModuleImportDto;
+import ru.dan.eduinstitution.model.QuestionImportDto;
+import ru.dan.eduinstitution.model.QuizImportDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис массового импорта курсов вместе со структурой.
+ * Документ читается потоково (JSON-массив или NDJSON), курсы пишутся порциями:
+ * ID выделяются из последовательностей одним запросом на таблицу, строки вставляются JDBC-батчами.
+ * Каждая порция фиксируется в отдельной транзакции, поэтому ошибка в середине документа не откатывает
+ * уже записанные порции: число зафиксированных курсов сообщается в ошибке проверки и в логе.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CourseImportService {
+
+    private static final int DEFAULT_COURSE_DURATION = 30;
+
+    /**
+     * Шаг последовательностей ID, совпадает с allocationSize сущностей.
+     */
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private static final String INSERT_COURSE = """
+            INSERT INTO courses (id, title, description, category_id, teacher_id, duration, start_date)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_COURSE_TAG = "INSERT INTO course_tag (course_id, tag_id) VALUES (?, ?)";
+    private static final String INSERT_MODULE = """
+            INSERT INTO modules (id, course_id, title, order_index, description) VALUES (?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_LESSON = """
+            INSERT INTO lessons (id, module_id, title, content, video_url) VALUES (?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_ASSIGNMENT = """
+            INSERT INTO assignments (id, lesson_id, title, description, due_date, max_score) VALUES (?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_QUIZ = "INSERT INTO quizzes (id, module_id, title, time_limit) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_QUESTION = "INSERT INTO questions (id, quiz_id, text, type) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_ANSWER_OPTION = """
+            INSERT INTO answer_options (id, question_id, text, is_correct) VALUES (?, ?, ?, ?)
+            """;
+    private static final String INSERT_COURSE_ITEM_COUNTS = """
+            INSERT INTO course_item_counts (course_id, assignment_count, quiz_count) VALUES (?, ?, ?)
+            """;
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryCacheService categoryCacheService;
+    private final TagService tagService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.import.chunk-size:200}")
+    private int chunkSize;
+
+    /**
+     * Импорт курсов из потока.
+     *
+     * @param inputStream JSON-массив курсов или NDJSON, по курсу на строку
+     * @return Количество импортированных записей по таблицам
+     * @throws IOException при ошибке чтения потока
+     */
+    public CourseImportResultDto importCourses(InputStream inputStream) throws IOException {
+        CourseImportResultDto result = new CourseImportResultDto();
+        List<CourseImportDto> chunk = new ArrayList<>(chunkSize);
+
+        try (MappingIterator<CourseImportDto> iterator =
+                     objectMapper.readerFor(CourseImportDto.class).readValues(inputStream)) {
+            while (iterator.hasNextValue()) {
+                CourseImportDto dto = iterator.nextValue();
+                validate(dto, result.getCourses() + chunk.size(), result.getCourses());
+                chunk.add(dto);
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, result);
+            }
+        } catch (JsonProcessingException e) {
+            logStopped(result, e);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.format(
+                    "Course #%d is not valid JSON: %s; %d courses before it are already imported",
+                    result.getCourses() + chunk.size(), e.getOriginalMessage(), result.getCourses()), e);
+        } catch (RuntimeException e) {
+            logStopped(result, e);
+            throw e;
+        }
+
+        log.info("Course import finished: {}", result);
+        return result;
+    }
+
+    private void logStopped(CourseImportResultDto result, Exception e) {
+        if (result.getCourses() > 0) {
+            log.warn("Course import stopped, {} courses already committed: {}", result.getCourses(), e.getMessage());
+        }
+    }
+
+    private void validate(CourseImportDto dto, int index, int committed) {
+        Set<ConstraintViolation<CourseImportDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.format(
+                    "Course #%d is invalid: %s; %d courses before it are already imported", index, message, committed));
+        }
+    }
+
+    private void writeChunk(List<CourseImportDto> chunk, CourseImportResultDto result) {
+        transactionTemplate.executeWithoutResult(status -> {
+            checkReferences(chunk);
+            insertChunk(chunk, result);
+        });
+        log.info("Imported {} courses so far", result.getCourses());
+    }
+
+    private void checkReferences(List<CourseImportDto> chunk) {
+        Set<Long> teacherIds = new HashSet<>();
+        Set<Long> tagIds = new HashSet<>();
+        for (CourseImportDto dto : chunk) {
+            if (categoryCacheService.findById(dto.getCategoryId()) == null) {
+                throw new ResourceNotFoundException(
+                        String.format("Category with id '%s' not found", dto.getCategoryId()));
+            }
+            teacherIds.add(dto.getTeacherId());
+            tagIds.addAll(dto.getTagIds());
+        }
+
+        Set<Long> missingTeachers = new HashSet<>(teacherIds);
+        missingTeachers.removeAll(namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE id IN (:ids)", Map.of("ids", teacherIds), Long.class));
+        if (!missingTeachers.isEmpty()) {
+            throw new ResourceNotFoundException(
+                    String.format("User with id '%s' not found", missingTeachers.iterator().next()));
+        }
+
+        if (!tagIds.isEmpty()) {
+            tagService.requireExistingTags(tagIds);
+        }
+    }
+
+    private void insertChunk(List<CourseImportDto> chunk, CourseImportResultDto result) {
+        List<ModuleImportDto> modules = new ArrayList<>();
+        List<LessonImportDto> lessons = new ArrayList<>();
+        List<QuizImportDto> quizzes = new ArrayList<>();
+        List<QuestionImportDto> questions = new ArrayList<>();
+        int assignmentCount = 0;
+        int optionCount = 0;
+        for (CourseImportDto course : chunk) {
+            modules.addAll(course.getModules());
+        }
+        for (ModuleImportDto module : modules) {
+            lessons.addAll(module.getLessons());
+            if (module.getQuiz() != null) {
+                quizzes.add(module.getQuiz());
+            }
+        }
+        for (LessonImportDto lesson : lessons) {
+            assignmentCount += lesson.getAssignments().size();
+        }
+        for (QuizImportDto quiz : quizzes) {
+            questions.addAll(quiz.getQuestions());
+        }
+        for (QuestionImportDto question : questions) {
+            optionCount += question.getOptions().size();
+        }
+
+        IdBlock courseIds = allocateIds("courses_id_seq", chunk.size());
+        IdBlock moduleIds = allocateIds("modules_id_seq", modules.size());
+        IdBlock lessonIds = allocateIds("lessons_id_seq", lessons.size());
+        IdBlock assignmentIds = allocateIds("assignments_id_seq", assignmentCount);
+        IdBlock quizIds = allocateIds("quizzes_id_seq", quizzes.size());
+        IdBlock questionIds = allocateIds("questions_id_seq", questions.size());
+        IdBlock optionIds = allocateIds("answer_options_id_seq", optionCount);
+
+        List<Long> importedCourseIds = new ArrayList<>(chunk.size());
+        List<Object[]> courseRows = new ArrayList<>(chunk.size());
+        List<Object[]> courseTagRows = new ArrayList<>();
+        List<Object[]> moduleRows = new ArrayList<>(modules.size());
+        List<Object[]> lessonRows = new ArrayList<>(lessons.size());
+        List<Object[]> assignmentRows = new ArrayList<>(assignmentCount);
+        List<Object[]> quizRows = new ArrayList<>(quizzes.size());
+        List<Object[]> questionRows = new ArrayList<>(questions.size());
+        List<Object[]> optionRows = new ArrayList<>(optionCount);
+        List<Object[]> itemCountRows = new ArrayList<>(chunk.size());
+
+        for (CourseImportDto course : chunk) {
+            long courseId = courseIds.next();
+            importedCourseIds.add(courseId);
+            courseRows.add(new Object[]{courseId, course.getTitle(), course.getDescription(), course.getCategoryId(),
+                    course.getTeacherId(),
+                    course.getDuration() != null ? course.getDuration() : DEFAULT_COURSE_DURATION,
+                    course.getStartDate() != null ? course.getStartDate() : LocalDate.now()});
+            for (Long tagId : course.getTagIds()) {
+                courseTagRows.add(new Object[]{courseId, tagId});
+            }
+
+            int assignmentsBefore = assignmentRows.size();
+            int quizzesBefore = quizRows.size();
+            for (ModuleImportDto module : course.getModules()) {
+                long moduleId = moduleIds.next();
+                moduleRows.add(new Object[]{moduleId, courseId, module.getTitle(), module.getOrderIndex(),
+                        module.getDescription()});
+
+                for (LessonImportDto lesson : module.getLessons()) {
+                    long lessonId = lessonIds.next();
+                    lessonRows.add(new Object[]{lessonId, moduleId, lesson.getTitle(), lesson.getContent(),
+                            lesson.getVideoUrl()});
+                    for (AssignmentImportDto assignment : lesson.getAssignments()) {
+                        assignmentRows.add(new Object[]{assignmentIds.next(), lessonId, assignment.getTitle(),
+                                assignment.getDescription(), assignment.getDueDate(), assignment.getMaxScore()});
+                    }
+                }
+
+                QuizImportDto quiz = module.getQuiz();
+                if (quiz != null) {
+                    long quizId = quizIds.next();
+                    quizRows.add(new Object[]{quizId, moduleId, quiz.getTitle(), quiz.getTimeLimit()});
+                    for (QuestionImportDto question : quiz.getQuestions()) {
+                        long questionId = questionIds.next();
+                        questionRows.add(new Object[]{questionId, quizId, question.getText(), question.getType()});
+                        for (AnswerOptionImportDto option : question.getOptions()) {
+                            optionRows.add(new Object[]{optionIds.next(), questionId, option.getText(),
+                                    Boolean.TRUE.equals(option.getIsCorrect())});
+                        }
+                    }
+                }
+            }
+            // Число элементов курса для прогресса записей известно без пересчёта по дереву
+            itemCountRows.add(new Object[]{courseId, assignmentRows.size() - assignmentsBefore,
+                    quizRows.size() - quizzesBefore});
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_COURSE, courseRows, new int[]{
+                Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.BIGINT, Types.INTEGER, Types.DATE});
+        jdbcTemplate.batchUpdate(INSERT_COURSE_TAG, courseTagRows, new int[]{Types.BIGINT, Types.BIGINT});
+        jdbcTemplate.batchUpdate(INSERT_MODULE, moduleRows, new int[]{
+                Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.INTEGER, Types.VARCHAR});
+        jdbcTemplate.batchUpdate(INSERT_LESSON, lessonRows, new int[]{
+                Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR});
+        jdbcTemplate.batchUpdate(INSERT_ASSIGNMENT, assignmentRows, new int[]{
+                Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.DATE, Types.INTEGER});
+        jdbcTemplate.batchUpdate(INSERT_QUIZ, quizRows, new int[]{
+                Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.INTEGER});
+        jdbcTemplate.batchUpdate(INSERT_QUESTION, questionRows, new int[]{
+                Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR});
+        jdbcTemplate.batchUpdate(INSERT_ANSWER_OPTION, optionRows, new int[]{
+                Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.BOOLEAN});
+        jdbcTemplate.batchUpdate(INSERT_COURSE_ITEM_COUNTS, itemCountRows, new int[]{
+                Types.BIGINT, Types.INTEGER, Types.INTEGER});
+        eventPublisher.publishEvent(new CourseChangedEvent(importedCourseIds));
+
+        result.setCourses(result.getCourses() + courseRows.size());
+        result.setModules(result.getModules() + moduleRows.size());
+        result.setLessons(result.getLessons() + lessonRows.size());
+        result.setAssignments(result.getAssignments() + assignmentRows.size());
+        result.setQuizzes(result.getQuizzes() + quizRows.size());
+        result.setQuestions(result.getQuestions() + questionRows.size());
+        result.setAnswerOptions(result.getAnswerOptions() + optionRows.size());
+    }
+
+    /**
+     * Выделение ID из последовательности. Каждое значение nextval - начало блока из
+     * {@link #ID_ALLOCATION_SIZE} свободных ID (как у оптимизатора pooled-lo), поэтому запрашивается
+     * только нужное число блоков.
+     */
+    private IdBlock allocateIds(String sequence, int count) {
+        if (count == 0) {
+            return new IdBlock(new long[0]);
+        }
+        int blocks = (count + ID_ALLOCATION_SIZE - 1) / ID_ALLOCATION_SIZE;
+        List<Long> starts = jdbcTemplate.queryForList(
+                "SELECT nextval(?::regclass) FROM generate_series(1, ?)", Long.class, sequence, blocks);
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = starts.get(i / ID_ALLOCATION_SIZE) + i % ID_ALLOCATION_SIZE;
+        }
+        return new IdBlock(ids);
+    }
+
+    /**
+     * Выделенные ID, выдаваемые по порядку.
+     */
+    private static final class IdBlock {
+
+        private final long[] ids;
+        private int position;
+
+        private IdBlock(long[] ids) {
+            this.ids = ids;
+        }
+
+        private long next() {
+            return ids[position++];
+        }
+    }
+}
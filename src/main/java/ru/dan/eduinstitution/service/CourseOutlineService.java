@@ -0,0 +1,104 @@
+package ru.dan.eduinstitution.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import ru.dan.eduinstitution.config.CacheConfig;
+import ru.dan.eduinstitution.exception.ResourceNotFoundException;
+import ru.dan.eduinstitution.model.CourseOutlineDto;
+import ru.dan.eduinstitution.repository.AssignmentRepository;
+import ru.dan.eduinstitution.repository.CourseRepository;
+import ru.dan.eduinstitution.repository.LessonRepository;
+import ru.dan.eduinstitution.repository.ModuleRepository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сервис структуры курса. Дерево собирается не более чем из четырёх запросов (курс, модули с тестами,
+ * уроки модулей, задания уроков) и кешируется по курсу до изменения модулей, уроков, заданий или тестов.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CourseOutlineService {
+
+    private final CourseRepository courseRepository;
+    private final ModuleRepository moduleRepository;
+    private final LessonRepository lessonRepository;
+    private final AssignmentRepository assignmentRepository;
+
+    /**
+     * Получение структуры курса.
+     *
+     * @param courseId ID курса
+     * @return Курс с модулями, уроками, заданиями и заголовками тестов
+     */
+    @Cacheable(cacheNames = CacheConfig.COURSE_OUTLINES, key = "#courseId", sync = true)
+    public CourseOutlineDto getOutline(Long courseId) {
+        log.info("Loading outline for course with ID: {}", courseId);
+
+        CourseRepository.CourseOutlineRow course = courseRepository.findOutlineRow(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        String.format("Course with id '%s' not found", courseId)));
+        CourseOutlineDto outline = new CourseOutlineDto();
+        outline.setId(course.getId());
+        outline.setTitle(course.getTitle());
+        outline.setDescription(course.getDescription());
+        outline.setDuration(course.getDuration());
+        outline.setStartDate(course.getStartDate());
+
+        Map<Long, CourseOutlineDto.ModuleOutline> modules = new LinkedHashMap<>();
+        for (ModuleRepository.ModuleOutlineRow row : moduleRepository.findOutlineRows(courseId)) {
+            CourseOutlineDto.ModuleOutline module = new CourseOutlineDto.ModuleOutline();
+            module.setId(row.getId());
+            module.setTitle(row.getTitle());
+            module.setOrderIndex(row.getOrderIndex());
+            module.setDescription(row.getDescription());
+            if (row.getQuizId() != null) {
+                module.setQuiz(new CourseOutlineDto.QuizHeader(row.getQuizId(), row.getQuizTitle(),
+                        row.getQuizTimeLimit()));
+            }
+            modules.put(module.getId(), module);
+        }
+        outline.setModules(List.copyOf(modules.values()));
+        if (modules.isEmpty()) {
+            return outline;
+        }
+
+        Map<Long, CourseOutlineDto.LessonOutline> lessons = new LinkedHashMap<>();
+        for (LessonRepository.LessonOutlineRow row : lessonRepository.findOutlineRows(modules.keySet())) {
+            CourseOutlineDto.LessonOutline lesson = new CourseOutlineDto.LessonOutline();
+            lesson.setId(row.getId());
+            lesson.setTitle(row.getTitle());
+            lesson.setVideoUrl(row.getVideoUrl());
+            modules.get(row.getModuleId()).getLessons().add(lesson);
+            lessons.put(lesson.getId(), lesson);
+        }
+        if (lessons.isEmpty()) {
+            return outline;
+        }
+
+        for (AssignmentRepository.AssignmentOutlineRow row : assignmentRepository.findOutlineRows(lessons.keySet())) {
+            lessons.get(row.getLessonId()).getAssignments().add(new CourseOutlineDto.AssignmentOutline(
+                    row.getId(), row.getTitle(), row.getDueDate(), row.getMaxScore()));
+        }
+        log.info("Outline for course with ID {} loaded: {} modules, {} lessons", courseId, modules.size(),
+                lessons.size());
+        return outline;
+    }
+
+    /**
+     * Сброс кешированной структуры курса после изменения его модулей, уроков, заданий или тестов.
+     * При транзакционном изменении сброс выполняется после фиксации.
+     *
+     * @param courseId ID курса
+     */
+    @CacheEvict(cacheNames = CacheConfig.COURSE_OUTLINES, key = "#courseId")
+    public void evictOutline(Long courseId) {
+        log.info("Evicting outline for course ID: {}", courseId);
+    }
+}
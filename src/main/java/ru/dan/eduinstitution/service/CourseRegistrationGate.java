@@ -0,0 +1,74 @@
+package ru.dan.eduinstitution.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Ограничение числа одновременных транзакций записи на один курс в процессе.
+ * Все записи на курс занимают место одной строкой счётчиков и ждут её блокировку. При открытии регистрации
+ * без ограничения каждый ожидающий держит соединение пула, и остальные эндпоинты остаются без соединений;
+ * здесь запросы сверх лимита ждут разрешения до начала транзакции. Курсы распределены по полосам
+ * с общим семафором, поэтому память не зависит от числа курсов.
+ */
+@Component
+@Slf4j
+public class CourseRegistrationGate {
+
+    private static final int STRIPES = 256;
+
+    private final Semaphore[] stripes = new Semaphore[STRIPES];
+    private final long waitNanos;
+    private final Counter rejectedCounter;
+
+    public CourseRegistrationGate(@Value("${app.enrollment.registration.concurrency:4}") int concurrency,
+                                  @Value("${app.enrollment.registration.wait:5s}") Duration wait,
+                                  MeterRegistry meterRegistry) {
+        for (int i = 0; i < STRIPES; i++) {
+            // Справедливый семафор: при наплыве запросы проходят в порядке поступления
+            stripes[i] = new Semaphore(concurrency, true);
+        }
+        this.waitNanos = wait.toNanos();
+        this.rejectedCounter = Counter.builder("enrollment.registration.rejected")
+                .description("Number of enrollment requests rejected because the course registration was busy.")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Выполнение записи на курс с разрешением полосы курса.
+     *
+     * @param courseId ID курса
+     * @param action   Транзакция записи
+     * @return Результат транзакции
+     */
+    public <T> T call(Long courseId, Supplier<T> action) {
+        Semaphore semaphore = stripes[Math.floorMod(Long.hashCode(courseId) * 0x9E3779B9, STRIPES)];
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejectedCounter.increment();
+            log.warn("Registration for course with ID {} is busy, request rejected", courseId);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    String.format("Registration for course '%s' is busy, retry later", courseId));
+        }
+        try {
+            return action.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+}
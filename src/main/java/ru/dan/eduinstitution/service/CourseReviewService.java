@@ -4,21 +4,25 @@ import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import ru.dan.eduinstitution.entity.Course;
+import ru.dan.eduinstitution.entity.CourseRatingStats;
 import ru.dan.eduinstitution.entity.CourseReview;
 import ru.dan.eduinstitution.entity.User;
 import ru.dan.eduinstitution.exception.ResourceNotFoundException;
+import ru.dan.eduinstitution.model.CourseRatingStatsDto;
 import ru.dan.eduinstitution.model.CourseReviewCreateDto;
 import ru.dan.eduinstitution.model.CourseReviewResponseDto;
 import ru.dan.eduinstitution.model.CourseReviewUpdateDto;
+import ru.dan.eduinstitution.model.KeysetPageDto;
+import ru.dan.eduinstitution.repository.CourseRatingStatsRepository;
 import ru.dan.eduinstitution.repository.CourseRepository;
 import ru.dan.eduinstitution.repository.CourseReviewRepository;
 import ru.dan.eduinstitution.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Сервис для работы с отзывами о курсах.
@@ -31,6 +35,8 @@ public class CourseReviewService {
     private final CourseReviewRepository courseReviewRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
+    private final CourseRatingStatsRepository courseRatingStatsRepository;
+    private final CourseService courseService;
 
     /**
      * Добавление отзыва о курсе (addReview method).
@@ -69,6 +75,7 @@ public class CourseReviewService {
         courseReview.setCreatedAt(LocalDateTime.now());
 
         courseReview = courseReviewRepository.save(courseReview);
+        applyRating(course.getId(), courseReview.getRating(), 1);
         log.info("Review added with ID: {}", courseReview.getId());
 
         return courseReviewResponseDtoFromCourseReview(courseReview);
@@ -105,7 +112,10 @@ public class CourseReviewService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         String.format("CourseReview with id '%s' not found", id)));
 
-        if (dto.getRating() != null) {
+        if (dto.getRating() != null && !dto.getRating().equals(courseReview.getRating())) {
+            Long courseId = courseReview.getCourse().getId();
+            applyRating(courseId, courseReview.getRating(), -1);
+            applyRating(courseId, dto.getRating(), 1);
             courseReview.setRating(dto.getRating());
         }
         if (dto.getComment() != null) {
@@ -127,12 +137,12 @@ public class CourseReviewService {
     public void deleteCourseReview(Long id) {
         log.info("Deleting course review with ID: {}", id);
 
-        if (!courseReviewRepository.existsById(id)) {
-            throw new ResourceNotFoundException(
-                    String.format("CourseReview with id '%s' not found", id));
-        }
+        CourseReview courseReview = courseReviewRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        String.format("CourseReview with id '%s' not found", id)));
 
-        courseReviewRepository.deleteById(id);
+        courseReviewRepository.delete(courseReview);
+        applyRating(courseReview.getCourse().getId(), courseReview.getRating(), -1);
         log.info("Course review deleted with ID: {}", id);
     }
 
@@ -140,42 +150,87 @@ public class CourseReviewService {
      * Получение всех отзывов по ID курса (getReviewsByCourse method).
      *
      * @param courseId ID курса
-     * @return Список отзывов
+     * @param after Курсор предыдущей страницы
+     * @param size Размер страницы
+     * @return Страница отзывов
      */
-    public List<CourseReviewResponseDto> getReviewsByCourse(Long courseId) {
+    public KeysetPageDto<CourseReviewResponseDto> getReviewsByCourse(Long courseId, Long after, int size) {
         log.info("Getting reviews for course with ID: {}", courseId);
 
-        List<CourseReview> courseReviews = courseReviewRepository.findByCourseId(courseId);
-        return courseReviews.stream()
-                .map(this::courseReviewResponseDtoFromCourseReview)
-                .collect(Collectors.toList());
+        int limit = KeysetPageDto.limit(size);
+        List<CourseReview> courseReviews = courseReviewRepository.findPageByCourseId(
+                courseId, KeysetPageDto.after(after), PageRequest.of(0, limit + 1));
+        return KeysetPageDto.of(courseReviews, limit, this::courseReviewResponseDtoFromCourseReview, CourseReview::getId);
     }
 
     /**
      * Получение всех отзывов по ID студента.
      *
      * @param studentId ID студента
-     * @return Список отзывов
+     * @param after Курсор предыдущей страницы
+     * @param size Размер страницы
+     * @return Страница отзывов
      */
-    public List<CourseReviewResponseDto> getReviewsByStudent(Long studentId) {
+    public KeysetPageDto<CourseReviewResponseDto> getReviewsByStudent(Long studentId, Long after, int size) {
         log.info("Getting reviews for student with ID: {}", studentId);
 
-        List<CourseReview> courseReviews = courseReviewRepository.findByStudentId(studentId);
-        return courseReviews.stream()
-                .map(this::courseReviewResponseDtoFromCourseReview)
-                .collect(Collectors.toList());
+        int limit = KeysetPageDto.limit(size);
+        List<CourseReview> courseReviews = courseReviewRepository.findPageByStudentId(
+                studentId, KeysetPageDto.after(after), PageRequest.of(0, limit + 1));
+        return KeysetPageDto.of(courseReviews, limit, this::courseReviewResponseDtoFromCourseReview, CourseReview::getId);
     }
 
     /**
      * Получение среднего рейтинга по ID курса.
      *
      * @param courseId ID курса
-     * @return Средний рейтинг
+     * @return Средний рейтинг или null, если оценок нет
      */
     public Double getAverageRatingByCourse(Long courseId) {
         log.info("Getting average rating for course with ID: {}", courseId);
 
-        return courseReviewRepository.findAverageRatingByCourseId(courseId);
+        return courseRatingStatsRepository.findById(courseId)
+                .map(CourseRatingStats::getAverageRating)
+                .orElse(null);
+    }
+
+    /**
+     * Получение агрегатов оценок курса.
+     *
+     * @param courseId ID курса
+     * @return Число оценок, средняя оценка и распределение по звёздам
+     */
+    public CourseRatingStatsDto getRatingStatsByCourse(Long courseId) {
+        log.info("Getting rating stats for course with ID: {}", courseId);
+
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException(
+                    String.format("Course with id '%s' not found", courseId));
+        }
+
+        CourseRatingStatsDto dto = new CourseRatingStatsDto();
+        dto.setCourseId(courseId);
+        courseRatingStatsRepository.findById(courseId).ifPresentOrElse(stats -> {
+            dto.setReviewCount(stats.getReviewCount());
+            dto.setAverageRating(stats.getAverageRating());
+            dto.setHistogram(List.of(stats.getRating1(), stats.getRating2(), stats.getRating3(),
+                    stats.getRating4(), stats.getRating5()));
+        }, () -> {
+            dto.setReviewCount(0);
+            dto.setHistogram(List.of(0, 0, 0, 0, 0));
+        });
+        return dto;
+    }
+
+    /**
+     * Учёт оценки в агрегатах курса и сброс кешированного заголовка курса.
+     */
+    private void applyRating(Long courseId, Integer rating, int delta) {
+        if (rating == null) {
+            return;
+        }
+        courseRatingStatsRepository.applyRating(courseId, rating, delta);
+        courseService.evictCourseHeader(courseId);
     }
 
     private CourseReviewResponseDto courseReviewResponseDtoFromCourseReview(CourseReview courseReview) {
@@ -0,0 +1,598 @@
+package ru.dan.eduinstitution.service;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.dan.eduinstitution.model.CourseSearchFilter;
+import ru.dan.eduinstitution.repository.CourseRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Инвертированный индекс каталога курсов в памяти процесса (режим {@code app.search.engine=memory}).
+ * Строится при старте потоковым чтением курсов и обновляется после коммита транзакций,
+ * изменивших курсы, их теги или имена тегов.
+ * <p>
+ * Документ индекса - слот. Постинги термина - возрастающий массив int вида {@code slot << 3 | поля},
+ * где поля - битовая маска: название, теги, описание. Изменённый курс получает новый слот, старый
+ * помечается удалённым; когда удалённых слотов становится больше живых, индекс уплотняется.
+ * Категория, преподаватель и теги курса индексируются служебными терминами, поэтому фильтры по ним -
+ * такие же пересечения постингов.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "memory")
+public class CourseSearchIndex {
+
+    private static final int FIELD_DESCRIPTION = 1;
+    private static final int FIELD_TAG = 2;
+    private static final int FIELD_TITLE = 4;
+    private static final int FIELD_BITS = 3;
+    private static final int FIELD_MASK = (1 << FIELD_BITS) - 1;
+    private static final int MAX_SLOTS = Integer.MAX_VALUE >>> FIELD_BITS;
+    private static final int NO_START_DAY = Integer.MIN_VALUE;
+    private static final int MIN_COMPACTION_TOMBSTONES = 1024;
+    private static final int RELOAD_BATCH_SIZE = 1000;
+
+    // Служебные термины начинаются с '#', а токены текста состоят только из букв и цифр
+    private static final String CATEGORY_TERM = "#category:";
+    private static final String TEACHER_TERM = "#teacher:";
+    private static final String TAG_TERM = "#tag:";
+
+    private final CourseRepository courseRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final LongIntMap slotsByCourseId = new LongIntMap();
+    private final BitSet deleted = new BitSet();
+    private long[] courseIds = new long[1024];
+    private int[] startDays = new int[1024];
+    private int slotCount;
+
+    /**
+     * ID курсов, изменённых во время первоначального построения; null после его завершения.
+     */
+    private Set<Long> pendingCourseIds = new HashSet<>();
+
+    private volatile boolean ready;
+
+    public CourseSearchIndex(CourseRepository courseRepository, PlatformTransactionManager transactionManager) {
+        this.courseRepository = courseRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Построение индекса потоковым чтением всех курсов.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long started = System.nanoTime();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<CourseRepository.CourseIndexRow> rows = courseRepository.streamIndexRows()) {
+                rows.forEach(row -> {
+                    lock.writeLock().lock();
+                    try {
+                        put(row);
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                });
+            }
+        });
+
+        Set<Long> pending;
+        lock.writeLock().lock();
+        try {
+            pending = pendingCourseIds;
+            pendingCourseIds = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        reindex(pending);
+        ready = true;
+        log.info("Course search index built: {} courses, {} terms in {} ms",
+                slotsByCourseId.size(), terms.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * @return true, если индекс построен и может обслуживать поиск
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        reindex(event.getCourseIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagChanged(TagChangedEvent event) {
+        reindex(courseIdsWithTag(event.getTagId()));
+    }
+
+    /**
+     * Перечитывание курсов из базы. Курсы, которых больше нет, удаляются из индекса.
+     *
+     * @param ids ID курсов
+     */
+    public void reindex(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendingCourseIds != null) {
+                pendingCourseIds.addAll(ids);
+                return;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Перечитывания упорядочены, чтобы более старое чтение не затёрло более новое.
+        // ReentrantLock, а не synchronized: чтение из базы под монитором закрепило бы виртуальный поток за носителем
+        reloadLock.lock();
+        try {
+            List<Long> idList = new ArrayList<>(ids);
+            for (int from = 0; from < idList.size(); from += RELOAD_BATCH_SIZE) {
+                List<Long> batch = idList.subList(from, Math.min(idList.size(), from + RELOAD_BATCH_SIZE));
+                List<CourseRepository.CourseIndexRow> rows = courseRepository.findIndexRows(batch);
+                Set<Long> missing = new HashSet<>(batch);
+                lock.writeLock().lock();
+                try {
+                    for (CourseRepository.CourseIndexRow row : rows) {
+                        put(row);
+                        missing.remove(row.getId());
+                    }
+                    for (Long courseId : missing) {
+                        remove(courseId);
+                    }
+                    compactIfNeeded();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Поиск курсов. Все слова запроса обязательны; последнее слово ищется по префиксу,
+     * остальные - точно. Релевантность - сумма весов лучшего поля для каждого слова
+     * (название 4, теги 2, описание 1), при равной релевантности курсы идут в порядке индексации.
+     *
+     * @param filter Запрос и фильтры
+     * @param offset Число пропускаемых результатов
+     * @param limit  Максимальное число возвращаемых результатов
+     * @return ID курсов страницы и общее число найденных курсов
+     */
+    public Hits search(CourseSearchFilter filter, long offset, int limit) {
+        List<String> tokens = tokenize(filter.getQ());
+        if (tokens.isEmpty()) {
+            return Hits.EMPTY;
+        }
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>(tokens.size() + 3);
+            for (int i = 0; i < tokens.size() - 1; i++) {
+                lists.add(exact(tokens.get(i), true));
+            }
+            lists.add(prefix(tokens.get(tokens.size() - 1)));
+            if (filter.getCategoryId() != null) {
+                lists.add(exact(CATEGORY_TERM + filter.getCategoryId(), false));
+            }
+            if (filter.getTeacherId() != null) {
+                lists.add(exact(TEACHER_TERM + filter.getTeacherId(), false));
+            }
+            if (filter.getTagId() != null) {
+                lists.add(exact(TAG_TERM + filter.getTagId(), false));
+            }
+            lists.sort((a, b) -> Integer.compare(a.size, b.size));
+            if (lists.get(0).size == 0) {
+                return Hits.EMPTY;
+            }
+
+            int startFrom = filter.getStartFrom() != null ? (int) filter.getStartFrom().toEpochDay() : NO_START_DAY;
+            int startTo = filter.getStartTo() != null ? (int) filter.getStartTo().toEpochDay() : Integer.MAX_VALUE;
+            boolean dateFilter = filter.getStartFrom() != null || filter.getStartTo() != null;
+
+            // Ключ совпадения: релевантность в старших 32 битах, инвертированный слот в младших,
+            // так что после сортировки по возрастанию лучшие результаты оказываются в конце
+            long[] matches = new long[Math.min(lists.get(0).size, 1024)];
+            int matchCount = 0;
+            int[] cursors = new int[lists.size()];
+            PostingList driver = lists.get(0);
+            candidates:
+            for (int i = 0; i < driver.size; i++) {
+                int slot = driver.entries[i] >>> FIELD_BITS;
+                if (deleted.get(slot)) {
+                    continue;
+                }
+                if (dateFilter) {
+                    int startDay = startDays[slot];
+                    if (startDay == NO_START_DAY || startDay < startFrom || startDay > startTo) {
+                        continue;
+                    }
+                }
+                int score = driver.text ? Integer.highestOneBit(driver.entries[i] & FIELD_MASK) : 0;
+                for (int l = 1; l < lists.size(); l++) {
+                    PostingList list = lists.get(l);
+                    int position = advance(list.entries, list.size, cursors[l], slot);
+                    cursors[l] = position;
+                    if (position == list.size) {
+                        break candidates;
+                    }
+                    if (list.entries[position] >>> FIELD_BITS != slot) {
+                        continue candidates;
+                    }
+                    if (list.text) {
+                        score += Integer.highestOneBit(list.entries[position] & FIELD_MASK);
+                    }
+                }
+                if (matchCount == matches.length) {
+                    matches = Arrays.copyOf(matches, matchCount * 2);
+                }
+                matches[matchCount++] = (long) score << 32 | (MAX_SLOTS - slot);
+            }
+
+            Arrays.sort(matches, 0, matchCount);
+            int from = (int) Math.min(offset, matchCount);
+            int count = Math.min(limit, matchCount - from);
+            long[] pageIds = new long[count];
+            for (int i = 0; i < count; i++) {
+                int slot = MAX_SLOTS - (int) matches[matchCount - 1 - from - i];
+                pageIds[i] = courseIds[slot];
+            }
+            return new Hits(pageIds, matchCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Long> courseIdsWithTag(Long tagId) {
+        lock.readLock().lock();
+        try {
+            Set<Long> result = new HashSet<>();
+            Postings postings = terms.get(TAG_TERM + tagId);
+            if (postings != null) {
+                for (int i = 0; i < postings.size; i++) {
+                    int slot = postings.entries[i] >>> FIELD_BITS;
+                    if (!deleted.get(slot)) {
+                        result.add(courseIds[slot]);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private PostingList exact(String term, boolean text) {
+        Postings postings = terms.get(term);
+        return postings != null
+                ? new PostingList(postings.entries, postings.size, text)
+                : new PostingList(new int[0], 0, text);
+    }
+
+    /**
+     * Объединение постингов всех терминов с заданным префиксом; поля одного слота объединяются по ИЛИ.
+     */
+    private PostingList prefix(String prefix) {
+        SortedMap<String, Postings> matched = terms.subMap(prefix, prefix + Character.MAX_VALUE);
+        if (matched.size() == 1) {
+            Postings postings = matched.values().iterator().next();
+            return new PostingList(postings.entries, postings.size, true);
+        }
+        int total = 0;
+        for (Postings postings : matched.values()) {
+            total += postings.size;
+        }
+        int[] merged = new int[total];
+        int position = 0;
+        for (Postings postings : matched.values()) {
+            System.arraycopy(postings.entries, 0, merged, position, postings.size);
+            position += postings.size;
+        }
+        Arrays.sort(merged);
+        int size = 0;
+        for (int i = 0; i < total; i++) {
+            if (size > 0 && merged[size - 1] >>> FIELD_BITS == merged[i] >>> FIELD_BITS) {
+                merged[size - 1] |= merged[i] & FIELD_MASK;
+            } else {
+                merged[size++] = merged[i];
+            }
+        }
+        return new PostingList(merged, size, true);
+    }
+
+    /**
+     * Позиция первой записи не раньше {@code from} со слотом не меньше {@code slot}:
+     * экспоненциальный поиск границы, затем двоичный.
+     */
+    private static int advance(int[] entries, int size, int from, int slot) {
+        int low = from;
+        int high = from;
+        int step = 1;
+        while (high < size && entries[high] >>> FIELD_BITS < slot) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        high = Math.min(high, size);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (entries[middle] >>> FIELD_BITS < slot) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void put(CourseRepository.CourseIndexRow row) {
+        remove(row.getId());
+        if (slotCount == MAX_SLOTS) {
+            compact();
+            if (slotCount == MAX_SLOTS) {
+                throw new IllegalStateException("Course search index is full");
+            }
+        }
+        int slot = slotCount++;
+        if (slot == courseIds.length) {
+            courseIds = Arrays.copyOf(courseIds, slot * 2);
+            startDays = Arrays.copyOf(startDays, slot * 2);
+        }
+        courseIds[slot] = row.getId();
+        startDays[slot] = row.getStartDay() != null ? row.getStartDay() : NO_START_DAY;
+        slotsByCourseId.put(row.getId(), slot);
+
+        Map<String, Integer> fields = new HashMap<>();
+        for (String token : tokenize(row.getTitle())) {
+            fields.merge(token, FIELD_TITLE, (a, b) -> a | b);
+        }
+        for (String token : tokenize(row.getTagNames())) {
+            fields.merge(token, FIELD_TAG, (a, b) -> a | b);
+        }
+        for (String token : tokenize(row.getDescription())) {
+            fields.merge(token, FIELD_DESCRIPTION, (a, b) -> a | b);
+        }
+        if (row.getCategoryId() != null) {
+            fields.put(CATEGORY_TERM + row.getCategoryId(), 0);
+        }
+        fields.put(TEACHER_TERM + row.getTeacherId(), 0);
+        if (row.getTagIds() != null) {
+            for (String tagId : row.getTagIds().split(",")) {
+                fields.put(TAG_TERM + tagId, 0);
+            }
+        }
+        fields.forEach((term, mask) -> terms.computeIfAbsent(term, t -> new Postings()).add(slot << FIELD_BITS | mask));
+    }
+
+    private void remove(long courseId) {
+        int slot = slotsByCourseId.remove(courseId);
+        if (slot >= 0) {
+            deleted.set(slot);
+        }
+    }
+
+    private void compactIfNeeded() {
+        int tombstones = deleted.cardinality();
+        if (tombstones >= MIN_COMPACTION_TOMBSTONES && tombstones > slotCount - tombstones) {
+            compact();
+        }
+    }
+
+    /**
+     * Удаление помеченных слотов с перенумерацией. Порядок живых слотов сохраняется,
+     * поэтому постинги остаются упорядоченными.
+     */
+    private void compact() {
+        int[] remap = new int[slotCount];
+        int live = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (deleted.get(slot)) {
+                remap[slot] = -1;
+                continue;
+            }
+            remap[slot] = live;
+            courseIds[live] = courseIds[slot];
+            startDays[live] = startDays[slot];
+            slotsByCourseId.put(courseIds[live], live);
+            live++;
+        }
+        Iterator<Postings> iterator = terms.values().iterator();
+        while (iterator.hasNext()) {
+            Postings postings = iterator.next();
+            postings.remap(remap);
+            if (postings.size == 0) {
+                iterator.remove();
+            } else {
+                postings.trim();
+            }
+        }
+        log.info("Course search index compacted: {} slots freed", slotCount - live);
+        deleted.clear();
+        slotCount = live;
+    }
+
+    /**
+     * Разбиение текста на слова в нижнем регистре; разделитель - любой символ, кроме буквы и цифры.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Результат поиска.
+     */
+    @Value
+    public static class Hits {
+
+        static final Hits EMPTY = new Hits(new long[0], 0);
+
+        /**
+         * ID курсов запрошенной страницы, самые релевантные первыми.
+         */
+        long[] courseIds;
+
+        /**
+         * Общее число найденных курсов.
+         */
+        long total;
+    }
+
+    /**
+     * Постинги, участвующие в запросе.
+     */
+    private record PostingList(int[] entries, int size, boolean text) {
+    }
+
+    /**
+     * Постинги термина, растущие добавлением в конец.
+     */
+    private static final class Postings {
+
+        private int[] entries = new int[2];
+        private int size;
+
+        private void add(int entry) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size + (size >> 1) + 1);
+            }
+            entries[size++] = entry;
+        }
+
+        private void remap(int[] slots) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int slot = slots[entries[i] >>> FIELD_BITS];
+                if (slot >= 0) {
+                    entries[kept++] = slot << FIELD_BITS | entries[i] & FIELD_MASK;
+                }
+            }
+            size = kept;
+        }
+
+        private void trim() {
+            if (entries.length > size) {
+                entries = Arrays.copyOf(entries, size);
+            }
+        }
+    }
+
+    /**
+     * Отображение ID курса в слот на открытой адресации без упаковки ключей. Ключ 0 означает пустую ячейку.
+     */
+    private static final class LongIntMap {
+
+        private long[] keys = new long[1024];
+        private int[] values = new int[1024];
+        private int size;
+
+        private int size() {
+            return size;
+        }
+
+        private void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int i = index(key, mask);
+            while (keys[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == 0) {
+                keys[i] = key;
+                size++;
+            }
+            values[i] = value;
+        }
+
+        private int remove(long key) {
+            int mask = keys.length - 1;
+            int hole = index(key, mask);
+            while (keys[hole] != key) {
+                if (keys[hole] == 0) {
+                    return -1;
+                }
+                hole = (hole + 1) & mask;
+            }
+            int value = values[hole];
+            // Сдвиг следующих записей цепочки на освободившееся место
+            for (int i = (hole + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+                int home = index(keys[i], mask);
+                if (((i - home) & mask) >= ((i - hole) & mask)) {
+                    keys[hole] = keys[i];
+                    values[hole] = values[i];
+                    hole = i;
+                }
+            }
+            keys[hole] = 0;
+            size--;
+            return value;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[capacity];
+            values = new int[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int index(long key, int mask) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+    }
+}
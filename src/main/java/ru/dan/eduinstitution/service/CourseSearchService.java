@@ -0,0 +1,207 @@
+package ru.dan.eduinstitution.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+import ru.dan.eduinstitution.entity.Category;
+import ru.dan.eduinstitution.model.CourseResponseDto;
+import ru.dan.eduinstitution.model.CourseSearchFilter;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Поиск по каталогу курсов.
+ * Текстовый запрос разбирается websearch_to_tsquery и ищется по GIN-индексу courses.search_vector,
+ * результаты упорядочены по релевантности (ts_rank). Фильтры добавляются в запрос только когда заданы.
+ * При {@code app.search.engine=memory} запросы с текстом обслуживает {@link CourseSearchIndex},
+ * а из базы читаются только курсы найденной страницы.
+ * Сортировка из параметра sort допускается по полям id, title, duration и startDate и выполняется в базе.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CourseSearchService {
+
+    private static final String TS_CONFIG = "simple";
+    private static final String SELECT_COURSES = "SELECT c.id, c.title, c.description, c.category_id, c.teacher_id,"
+            + " u.name AS teacher_name, c.duration, c.start_date, c.capacity, s.review_count, s.rating_sum"
+            + " FROM courses c JOIN users u ON u.id = c.teacher_id"
+            + " LEFT JOIN course_rating_stats s ON s.course_id = c.id";
+    private static final int MAX_TOP_RATED = 100;
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "c.id",
+            "title", "c.title",
+            "duration", "c.duration",
+            "startDate", "c.start_date");
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final CategoryCacheService categoryCacheService;
+    private final ObjectProvider<CourseSearchIndex> courseSearchIndex;
+
+    @Value("${app.rating.prior-weight:10}")
+    private double ratingPriorWeight;
+
+    /**
+     * Поиск курсов.
+     *
+     * @param filter   Текстовый запрос и фильтры, все поля необязательны
+     * @param pageable Параметры пагинации и сортировки
+     * @return Страница курсов в порядке сортировки, затем самые релевантные первыми
+     */
+    public Page<CourseResponseDto> search(CourseSearchFilter filter, Pageable pageable) {
+        log.info("Searching courses: {}, page={}, size={}", filter, pageable.getPageNumber(), pageable.getPageSize());
+
+        boolean hasQuery = StringUtils.hasText(filter.getQ());
+        String sortBy = orderBy(pageable.getSort());
+        CourseSearchIndex index = courseSearchIndex.getIfAvailable();
+        if (hasQuery && sortBy.isEmpty() && index != null && index.isReady()) {
+            return searchInIndex(index, filter, pageable);
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder where = new StringBuilder(" WHERE TRUE");
+        if (hasQuery) {
+            where.append(" AND c.search_vector @@ websearch_to_tsquery('" + TS_CONFIG + "', :q)");
+            params.addValue("q", filter.getQ());
+        }
+        if (filter.getCategoryId() != null) {
+            where.append(" AND c.category_id = :categoryId");
+            params.addValue("categoryId", filter.getCategoryId());
+        }
+        if (filter.getTeacherId() != null) {
+            where.append(" AND c.teacher_id = :teacherId");
+            params.addValue("teacherId", filter.getTeacherId());
+        }
+        if (filter.getTagId() != null) {
+            where.append(" AND EXISTS (SELECT 1 FROM course_tag ct WHERE ct.course_id = c.id AND ct.tag_id = :tagId)");
+            params.addValue("tagId", filter.getTagId());
+        }
+        if (filter.getStartFrom() != null) {
+            where.append(" AND c.start_date >= :startFrom");
+            params.addValue("startFrom", filter.getStartFrom());
+        }
+        if (filter.getStartTo() != null) {
+            where.append(" AND c.start_date <= :startTo");
+            params.addValue("startTo", filter.getStartTo());
+        }
+
+        String orderBy = " ORDER BY " + sortBy + (hasQuery
+                ? "ts_rank(c.search_vector, websearch_to_tsquery('" + TS_CONFIG + "', :q)) DESC, c.id"
+                : "c.id");
+        String sql = SELECT_COURSES + where + orderBy
+                + " LIMIT :limit OFFSET :offset";
+        params.addValue("limit", pageable.getPageSize());
+        params.addValue("offset", pageable.getOffset());
+
+        List<CourseResponseDto> content = namedParameterJdbcTemplate.query(sql, params, courseRowMapper());
+
+        // Подсчёт выполняется только когда без него нельзя определить общее число результатов
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            Long total = namedParameterJdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM courses c" + where, params, Long.class);
+            return total != null ? total : 0L;
+        });
+    }
+
+    /**
+     * Курсы с лучшей оценкой по байесовскому среднему: оценки курса усредняются вместе с
+     * {@code app.rating.prior-weight} условными оценками, равными средней оценке по всем курсам,
+     * поэтому курс с единственной пятёркой не опережает курс с сотней четвёрок.
+     * Читаются только агрегаты оценок, отзывы не сканируются.
+     *
+     * @param limit Число курсов, не больше 100
+     * @return Курсы, лучшие первыми
+     */
+    public List<CourseResponseDto> topRated(int limit) {
+        log.info("Getting top {} rated courses", limit);
+
+        String sql = "WITH prior AS (SELECT COALESCE(sum(rating_sum)::float8 / NULLIF(sum(review_count), 0), 0) AS mean"
+                + " FROM course_rating_stats) "
+                + SELECT_COURSES + " CROSS JOIN prior p"
+                + " WHERE s.review_count > 0"
+                + " ORDER BY (p.mean * :priorWeight + s.rating_sum) / (:priorWeight + s.review_count) DESC, c.id"
+                + " LIMIT :limit";
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("priorWeight", ratingPriorWeight)
+                .addValue("limit", Math.max(1, Math.min(limit, MAX_TOP_RATED)));
+        return namedParameterJdbcTemplate.query(sql, params, courseRowMapper());
+    }
+
+    /**
+     * @return Выражения ORDER BY для сортировки запроса с завершающей запятой или пустая строка
+     */
+    private static String orderBy(Sort sort) {
+        StringBuilder orderBy = new StringBuilder();
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.format(
+                        "Cannot sort courses by '%s', allowed: %s", order.getProperty(), SORT_COLUMNS.keySet()));
+            }
+            orderBy.append(column).append(order.isAscending() ? " ASC, " : " DESC, ");
+        }
+        return orderBy.toString();
+    }
+
+    private Page<CourseResponseDto> searchInIndex(CourseSearchIndex index, CourseSearchFilter filter,
+                                                  Pageable pageable) {
+        CourseSearchIndex.Hits hits = index.search(filter, pageable.getOffset(), pageable.getPageSize());
+        long[] ids = hits.getCourseIds();
+        if (ids.length == 0) {
+            return new PageImpl<>(List.of(), pageable, hits.getTotal());
+        }
+
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            positions.put(ids[i], i);
+        }
+        List<CourseResponseDto> content = namedParameterJdbcTemplate.query(
+                SELECT_COURSES + " WHERE c.id IN (:ids)",
+                new MapSqlParameterSource("ids", Arrays.stream(ids).boxed().toList()),
+                courseRowMapper());
+        content.sort(Comparator.comparing(dto -> positions.get(dto.getId())));
+        return new PageImpl<>(content, pageable, hits.getTotal());
+    }
+
+    private RowMapper<CourseResponseDto> courseRowMapper() {
+        return (rs, rowNum) -> {
+            CourseResponseDto dto = new CourseResponseDto();
+            dto.setId(rs.getLong("id"));
+            dto.setTitle(rs.getString("title"));
+            dto.setDescription(rs.getString("description"));
+            long categoryId = rs.getLong("category_id");
+            if (!rs.wasNull()) {
+                dto.setCategoryId(categoryId);
+                Category category = categoryCacheService.findById(categoryId);
+                dto.setCategoryName(category != null ? category.getName() : null);
+            }
+            dto.setTeacherId(rs.getLong("teacher_id"));
+            dto.setTeacherName(rs.getString("teacher_name"));
+            dto.setDuration(rs.getObject("duration", Integer.class));
+            dto.setStartDate(rs.getObject("start_date", LocalDate.class));
+            dto.setCapacity(rs.getObject("capacity", Integer.class));
+            int reviewCount = rs.getInt("review_count");
+            dto.setReviewCount(reviewCount);
+            dto.setAverageRating(reviewCount > 0 ? (double) rs.getLong("rating_sum") / reviewCount : null);
+            return dto;
+        };
+    }
+}
@@ -4,24 +4,33 @@ import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import ru.dan.eduinstitution.config.CacheConfig;
 import ru.dan.eduinstitution.entity.Course;
-import ru.dan.eduinstitution.entity.Tag;
+import ru.dan.eduinstitution.entity.CourseRatingStats;
 import ru.dan.eduinstitution.entity.User;
 import ru.dan.eduinstitution.exception.ResourceNotFoundException;
 import ru.dan.eduinstitution.model.CourseCreateDto;
 import ru.dan.eduinstitution.model.CourseResponseDto;
 import ru.dan.eduinstitution.model.CourseUpdateDto;
+import ru.dan.eduinstitution.repository.CourseRatingStatsRepository;
 import ru.dan.eduinstitution.repository.CourseRepository;
-import ru.dan.eduinstitution.repository.TagRepository;
 import ru.dan.eduinstitution.repository.UserRepository;
 
 import java.time.LocalDate;
-import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Сервис работы с курсами.
@@ -33,8 +42,10 @@ public class CourseService {
 
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
-    private final TagRepository tagRepository;
+    private final TagService tagService;
     private final CategoryCacheService categoryCacheService;
+    private final CourseRatingStatsRepository courseRatingStatsRepository;
+    private final EnrollmentService enrollmentService;
 
     private static final int DEFAULT_COURSE_DURATION = 30;
 
@@ -69,10 +80,11 @@ public class CourseService {
         } else {
             course.setDuration(DEFAULT_COURSE_DURATION);
         }
+        course.setCapacity(dto.getCapacity());
         courseRepository.save(course);
         log.info("Course entity saved with ID: {}", course.getId());
 
-        return courseResponseDtoFromCourse(course);
+        return courseResponseDtoFromCourse(course, null);
     }
 
     /**
@@ -83,6 +95,8 @@ public class CourseService {
      * @return Обновленный курс
      */
     @Transactional
+    @Caching(put = @CachePut(cacheNames = CacheConfig.COURSE_HEADERS, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.COURSE_OUTLINES, key = "#id"))
     public CourseResponseDto updateCourse(Long id, @Valid CourseUpdateDto dto) {
         log.info("Updating course with ID: {}", id);
 
@@ -112,23 +126,32 @@ public class CourseService {
         if (dto.getStartDate() != null) {
             course.setStartDate(dto.getStartDate());
         }
+        Integer previousCapacity = course.getCapacity();
+        if (Boolean.TRUE.equals(dto.getUnlimitedCapacity())) {
+            if (dto.getCapacity() != null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Capacity cannot be set together with unlimitedCapacity");
+            }
+            course.setCapacity(null);
+        } else if (dto.getCapacity() != null) {
+            course.setCapacity(dto.getCapacity());
+        }
 
-        // Обновляем теги, если они предоставлены
+        // Обновляем теги, если они предоставлены; связи меняются SQL-запросами без загрузки коллекции
         if (dto.getTagIds() != null) {
-            Set<Tag> newTags = new HashSet<>();
-            for (Long tagId : dto.getTagIds()) {
-                Tag tag = tagRepository.findById(tagId)
-                        .orElseThrow(() -> new ResourceNotFoundException(
-                                String.format("Tag with id '%s' not found", tagId)));
-                newTags.add(tag);
-            }
-            course.setTags(newTags);
+            tagService.replaceCourseTags(id, dto.getTagIds());
         }
 
         course = courseRepository.save(course);
+        // Новые места курса сразу отдаются очереди ожидания; лимит виден условному upsert после сброса изменений.
+        // Снятие лимита записывает всю очередь
+        if (previousCapacity != null && (course.getCapacity() == null || course.getCapacity() > previousCapacity)) {
+            courseRepository.flush();
+            enrollmentService.promoteWaitlisted(id);
+        }
         log.info("Course updated with ID: {}", course.getId());
 
-        return courseResponseDtoFromCourse(course);
+        return courseResponseDtoFromCourse(course, courseRatingStatsRepository.findById(id).orElse(null));
     }
 
     /**
@@ -137,6 +160,7 @@ public class CourseService {
      * @param id ID курса
      * @return Курс
      */
+    @Cacheable(cacheNames = CacheConfig.COURSE_HEADERS, key = "#id")
     public CourseResponseDto getCourseById(Long id) {
         log.info("Getting course by ID: {}", id);
 
@@ -144,10 +168,20 @@ public class CourseService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         String.format("Course with id '%s' not found", id)));
 
-        return courseResponseDtoFromCourse(course);
+        return courseResponseDtoFromCourse(course, courseRatingStatsRepository.findById(id).orElse(null));
     }
 
-    private CourseResponseDto courseResponseDtoFromCourse(Course course) {
+    /**
+     * Сброс кешированного заголовка курса после изменения его оценок.
+     *
+     * @param id ID курса
+     */
+    @CacheEvict(cacheNames = CacheConfig.COURSE_HEADERS, key = "#id")
+    public void evictCourseHeader(Long id) {
+        log.info("Evicting course header for course ID: {}", id);
+    }
+
+    private CourseResponseDto courseResponseDtoFromCourse(Course course, CourseRatingStats ratingStats) {
         CourseResponseDto responseDto = new CourseResponseDto();
         responseDto.setId(course.getId());
         responseDto.setTitle(course.getTitle());
@@ -158,6 +192,9 @@ public class CourseService {
         responseDto.setTeacherName(course.getTeacher().getName());
         responseDto.setDuration(course.getDuration());
         responseDto.setStartDate(course.getStartDate());
+        responseDto.setCapacity(course.getCapacity());
+        responseDto.setReviewCount(ratingStats != null ? ratingStats.getReviewCount() : 0);
+        responseDto.setAverageRating(ratingStats != null ? ratingStats.getAverageRating() : null);
         return responseDto;
     }
 
@@ -169,6 +206,11 @@ public class CourseService {
      */
     public Page<CourseResponseDto> getAllCourses(Pageable pageable) {
         Page<Course> courses = courseRepository.findAllWithTeacherAndCategory(pageable);
-        return courses.map(this::courseResponseDtoFromCourse);
+
+        // Оценки всей страницы читаются одним запросом по первичному ключу агрегатов
+        List<Long> courseIds = courses.map(Course::getId).getContent();
+        Map<Long, CourseRatingStats> ratingStats = courseRatingStatsRepository.findAllById(courseIds).stream()
+                .collect(Collectors.toMap(CourseRatingStats::getCourseId, Function.identity()));
+        return courses.map(course -> courseResponseDtoFromCourse(course, ratingStats.get(course.getId())));
     }
 }
@@ -0,0 +1,160 @@
+package ru.dan.eduinstitution.service;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.dan.eduinstitution.entity.CourseItemCounts;
+import ru.dan.eduinstitution.entity.EnrollmentProgress;
+import ru.dan.eduinstitution.model.EnrollmentResponseDto;
+import ru.dan.eduinstitution.repository.CourseItemCountsRepository;
+import ru.dan.eduinstitution.repository.EnrollmentProgressRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис прогресса прохождения курсов.
+ * Прогресс записи (оценённые ответы на задания и сданные тесты курса) хранится в enrollment_progress
+ * и меняется на единицу при оценке ответа или сдаче теста, число элементов курса хранится в course_item_counts
+ * и пересчитывается при изменении структуры курса. Когда прогресс покрывает все элементы курса,
+ * активная запись переводится в Completed тем же запросом вместе со счётчиками записей курса;
+ * завершённые записи обратно не переводятся.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class EnrollmentProgressService {
+
+    private final EnrollmentProgressRepository enrollmentProgressRepository;
+    private final CourseItemCountsRepository courseItemCountsRepository;
+
+    /**
+     * Учёт изменения оценки ответа на задание: засчитывается только наличие оценки, а не её значение.
+     *
+     * @param submissionId  ID ответа/решения
+     * @param previousScore Оценка до изменения
+     * @param score         Новая оценка
+     */
+    @Transactional
+    public void submissionGraded(Long submissionId, Integer previousScore, Integer score) {
+        int delta = (score != null ? 1 : 0) - (previousScore != null ? 1 : 0);
+        if (delta == 0) {
+            return;
+        }
+        int completed = enrollmentProgressRepository.applyGradedSubmission(submissionId, delta);
+        log.debug("Progress updated for graded submission {}, enrollments completed in {} courses", submissionId, completed);
+    }
+
+    /**
+     * Учёт сданных тестов.
+     *
+     * @param quizSubmissionIds ID результатов тестов
+     */
+    @Transactional
+    public void quizzesSubmitted(Collection<Long> quizSubmissionIds) {
+        if (quizSubmissionIds.isEmpty()) {
+            return;
+        }
+        int completed = enrollmentProgressRepository.applyQuizSubmissions(quizSubmissionIds, 1);
+        log.debug("Progress updated for {} quiz submissions, enrollments completed in {} courses",
+                quizSubmissionIds.size(), completed);
+    }
+
+    /**
+     * Учёт удаления результата теста. Вызывается до удаления, пока результат связан с курсом.
+     *
+     * @param quizSubmissionId ID результата теста
+     */
+    @Transactional
+    public void quizSubmissionDeleted(Long quizSubmissionId) {
+        enrollmentProgressRepository.applyQuizSubmissions(List.of(quizSubmissionId), -1);
+    }
+
+    /**
+     * Начальный прогресс новой записи: студент мог сдать работы курса до записи.
+     *
+     * @param studentId ID студента
+     * @param courseId  ID курса
+     * @return true, если запись сразу переведена в Completed
+     */
+    @Transactional
+    public boolean enrollmentCreated(Long studentId, Long courseId) {
+        enrollmentProgressRepository.lockEnrollment(studentId, courseId);
+        return enrollmentProgressRepository.recountEnrollment(studentId, courseId) > 0;
+    }
+
+    /**
+     * Пересчёт числа элементов курса и прогресса его записей после добавления, удаления
+     * или перемещения заданий и тестов.
+     *
+     * @param courseId ID курса
+     */
+    @Transactional
+    public void courseStructureChanged(Long courseId) {
+        courseItemCountsRepository.recount(courseId);
+        // Подсчёт идёт следующим запросом, то есть по снимку после получения блокировок
+        enrollmentProgressRepository.lockCourse(courseId);
+        long completed = enrollmentProgressRepository.recountCourse(courseId);
+        log.info("Progress of course {} recounted, enrollments completed: {}", courseId, completed);
+    }
+
+    /**
+     * Заполнение прогресса записей студента.
+     *
+     * @param studentId   ID студента
+     * @param enrollments Записи студента
+     */
+    public void fillStudentProgress(Long studentId, List<EnrollmentResponseDto> enrollments) {
+        if (enrollments.isEmpty()) {
+            return;
+        }
+        List<Long> courseIds = enrollments.stream().map(EnrollmentResponseDto::getCourseId).toList();
+        Map<Long, EnrollmentProgress> progress = enrollmentProgressRepository
+                .findByUserIdAndCourseIdIn(studentId, courseIds).stream()
+                .collect(Collectors.toMap(EnrollmentProgress::getCourseId, Function.identity()));
+        Map<Long, CourseItemCounts> counts = courseItemCountsRepository.findAllById(courseIds).stream()
+                .collect(Collectors.toMap(CourseItemCounts::getCourseId, Function.identity()));
+        for (EnrollmentResponseDto enrollment : enrollments) {
+            fill(enrollment, progress.get(enrollment.getCourseId()), counts.get(enrollment.getCourseId()));
+        }
+    }
+
+    /**
+     * Заполнение прогресса записей на курс.
+     *
+     * @param courseId    ID курса
+     * @param enrollments Записи на курс
+     */
+    public void fillCourseProgress(Long courseId, List<EnrollmentResponseDto> enrollments) {
+        if (enrollments.isEmpty()) {
+            return;
+        }
+        List<Long> studentIds = enrollments.stream().map(EnrollmentResponseDto::getStudentId).toList();
+        Map<Long, EnrollmentProgress> progress = enrollmentProgressRepository
+                .findByCourseIdAndUserIdIn(courseId, studentIds).stream()
+                .collect(Collectors.toMap(EnrollmentProgress::getUserId, Function.identity()));
+        CourseItemCounts counts = courseItemCountsRepository.findById(courseId).orElse(null);
+        for (EnrollmentResponseDto enrollment : enrollments) {
+            fill(enrollment, progress.get(enrollment.getStudentId()), counts);
+        }
+    }
+
+    private void fill(EnrollmentResponseDto enrollment, EnrollmentProgress progress, CourseItemCounts counts) {
+        int gradedAssignments = progress != null ? progress.getGradedAssignments() : 0;
+        int submittedQuizzes = progress != null ? progress.getSubmittedQuizzes() : 0;
+        int totalAssignments = counts != null ? counts.getAssignmentCount() : 0;
+        int totalQuizzes = counts != null ? counts.getQuizCount() : 0;
+        int total = totalAssignments + totalQuizzes;
+        int done = Math.min(gradedAssignments, totalAssignments) + Math.min(submittedQuizzes, totalQuizzes);
+
+        enrollment.setGradedAssignments(gradedAssignments);
+        enrollment.setTotalAssignments(totalAssignments);
+        enrollment.setSubmittedQuizzes(submittedQuizzes);
+        enrollment.setTotalQuizzes(totalQuizzes);
+        enrollment.setProgressPercent(total > 0 ? done * 100 / total : 0);
+    }
+}
@@ -1,81 +1,193 @@
 package ru.dan.eduinstitution.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 import ru.dan.eduinstitution.entity.Course;
+import ru.dan.eduinstitution.entity.CourseWaitlistEntry;
 import ru.dan.eduinstitution.entity.Enrollment;
 import ru.dan.eduinstitution.entity.EnrollmentId;
 import ru.dan.eduinstitution.entity.User;
 import ru.dan.eduinstitution.exception.ResourceNotFoundException;
+import ru.dan.eduinstitution.model.CourseEnrollmentCountsDto;
 import ru.dan.eduinstitution.model.EnrollmentRequestDto;
 import ru.dan.eduinstitution.model.EnrollmentResponseDto;
+import ru.dan.eduinstitution.model.KeysetPageDto;
+import ru.dan.eduinstitution.repository.CourseEnrollmentCountsRepository;
 import ru.dan.eduinstitution.repository.CourseRepository;
+import ru.dan.eduinstitution.repository.CourseWaitlistRepository;
 import ru.dan.eduinstitution.repository.EnrollmentRepository;
 import ru.dan.eduinstitution.repository.UserRepository;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Сервис для управления записями студентов на курсы.
+ * Счётчики записей курса по статусам изменяются в той же транзакции, что и сами записи.
+ * Место на курсе с лимитом занимается условным upsert строки счётчиков; на заполненный курс студент
+ * ставится в очередь ожидания, которая разбирается при освобождении мест.
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class EnrollmentService {
 
+    /**
+     * Статус ответа на запись, когда студент поставлен в очередь ожидания.
+     */
+    public static final String WAITLISTED = "Waitlisted";
+
     private final EnrollmentRepository enrollmentRepository;
     private final UserRepository userRepository;
     private final CourseRepository courseRepository;
+    private final EnrollmentProgressService enrollmentProgressService;
+    private final CourseEnrollmentCountsRepository courseEnrollmentCountsRepository;
+    private final CourseWaitlistRepository courseWaitlistRepository;
+    private final CourseRegistrationGate courseRegistrationGate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Записать студента на курс.
+     * Записать студента на курс. На заполненный курс студент ставится в очередь ожидания.
+     * Транзакция начинается после получения разрешения {@link CourseRegistrationGate}, поэтому запросы,
+     * ожидающие блокировку строки счётчиков курса, не занимают соединения пула.
      *
      * @param dto Данные для записи
-     * @return Результат записи
+     * @return Результат записи: запись со статусом Active или Completed либо позиция в очереди
      */
-    @Transactional
     public EnrollmentResponseDto enrollStudent(@Valid EnrollmentRequestDto dto) {
         log.info("Enrolling student with ID {} to course with ID {}", dto.getStudentId(), dto.getCourseId());
 
+        return courseRegistrationGate.call(dto.getCourseId(),
+                () -> transactionTemplate.execute(status -> enroll(dto.getStudentId(), dto.getCourseId())));
+    }
+
+    private EnrollmentResponseDto enroll(Long studentId, Long courseId) {
         // Проверяем, что студент существует
-        User student = userRepository.findById(dto.getStudentId())
+        User student = userRepository.findById(studentId)
                 .orElseThrow(() -> new ResourceNotFoundException(
-                        String.format("Student with id '%s' not found", dto.getStudentId())));
+                        String.format("Student with id '%s' not found", studentId)));
 
         // Проверяем, что курс существует
-        Course course = courseRepository.findById(dto.getCourseId())
+        Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new ResourceNotFoundException(
-                        String.format("Course with id '%s' not found", dto.getCourseId())));
+                        String.format("Course with id '%s' not found", courseId)));
 
-        // Проверяем, что студент не записан уже на этот курс
-        if (enrollmentRepository.existsByStudentIdAndCourseId(dto.getStudentId(), dto.getCourseId())) {
-            throw new IllegalStateException(
-                    String.format("Student with id '%s' is already enrolled in course with id '%s'",
-                            dto.getStudentId(), dto.getCourseId()));
+        // Место занимается до вставки записи: при повторной записи транзакция откатывается вместе с местом
+        if (courseEnrollmentCountsRepository.takeSeat(courseId) == 0) {
+            return waitlist(student, course);
+        }
+        if (enrollmentRepository.insertActive(studentId, courseId, LocalDate.now()) == 0) {
+            throw alreadyEnrolled(studentId, courseId);
         }
+        // Студент, записавшийся на освободившееся место сам, больше не ждёт в очереди
+        courseWaitlistRepository.remove(studentId, courseId);
 
-        // Создаем запись
         Enrollment enrollment = new Enrollment();
         enrollment.setStudent(student);
         enrollment.setCourse(course);
-        enrollment.setUserId(student.getId());
-        enrollment.setCourseId(course.getId());
+        enrollment.setUserId(studentId);
+        enrollment.setCourseId(courseId);
         enrollment.setEnrollDate(LocalDate.now());
-        enrollment.setStatus("Active"); // по умолчанию активная запись
-
-        // Сохраняем
-        enrollmentRepository.save(enrollment);
-        log.info("Student with ID {} successfully enrolled to course with ID {}", dto.getStudentId(), dto.getCourseId());
+        enrollment.setStatus(Enrollment.Status.ACTIVE); // по умолчанию активная запись
+        // Работы, сданные до записи, могут сразу завершить её; счётчики при этом переносятся тем же запросом
+        if (enrollmentProgressService.enrollmentCreated(studentId, courseId)) {
+            enrollment.setStatus(Enrollment.Status.COMPLETED);
+        }
+        log.info("Student with ID {} successfully enrolled to course with ID {}", studentId, courseId);
 
         return enrollmentResponseDtoFromEnrollment(enrollment);
     }
 
+    /**
+     * Постановка в очередь заполненного курса. Строка счётчиков курса заблокирована неудачным занятием места,
+     * поэтому освобождение места не может разобрать очередь раньше, чем студент в неё попадёт.
+     */
+    private EnrollmentResponseDto waitlist(User student, Course course) {
+        if (courseWaitlistRepository.add(student.getId(), course.getId()) == 0
+                && enrollmentRepository.existsByStudentIdAndCourseId(student.getId(), course.getId())) {
+            throw alreadyEnrolled(student.getId(), course.getId());
+        }
+        long position = courseWaitlistRepository.position(student.getId(), course.getId());
+        log.info("Course with ID {} is full, student with ID {} is waitlisted at position {}",
+                course.getId(), student.getId(), position);
+
+        EnrollmentResponseDto dto = new EnrollmentResponseDto();
+        dto.setStudentId(student.getId());
+        dto.setStudentName(student.getName());
+        dto.setCourseId(course.getId());
+        dto.setCourseTitle(course.getTitle());
+        dto.setStatus(WAITLISTED);
+        dto.setWaitlistPosition((int) position);
+        return dto;
+    }
+
+    private static ResponseStatusException alreadyEnrolled(Long studentId, Long courseId) {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                String.format("Student with id '%s' is already enrolled in course with id '%s'", studentId, courseId));
+    }
+
+    /**
+     * Запись студентов из очереди ожидания на свободные места курса в порядке постановки в очередь.
+     *
+     * @param courseId ID курса
+     * @return Число записанных студентов
+     */
+    @Transactional
+    public int promoteWaitlisted(Long courseId) {
+        // Очередь разбирается под блокировкой строки счётчиков, как и занятие мест новыми записями
+        courseEnrollmentCountsRepository.lock(courseId);
+        int promoted = 0;
+        Optional<CourseWaitlistEntry> next;
+        while ((next = courseWaitlistRepository.findFirstByCourseIdOrderBySeqAsc(courseId)).isPresent()
+                && courseEnrollmentCountsRepository.takeSeat(courseId) == 1) {
+            Long studentId = next.get().getUserId();
+            courseWaitlistRepository.delete(next.get());
+            if (enrollmentRepository.insertActive(studentId, courseId, LocalDate.now()) == 0) {
+                // Студент уже записан на курс: место возвращается следующему в очереди
+                applyCounts(courseId, Enrollment.Status.ACTIVE, -1);
+                continue;
+            }
+            enrollmentProgressService.enrollmentCreated(studentId, courseId);
+            log.info("Student with ID {} promoted from the waitlist of course with ID {}", studentId, courseId);
+            promoted++;
+        }
+        return promoted;
+    }
+
+    /**
+     * Удалить студента из очереди ожидания курса.
+     *
+     * @param studentId ID студента
+     * @param courseId  ID курса
+     */
+    @Transactional
+    public void leaveWaitlist(Long studentId, Long courseId) {
+        log.info("Removing student with ID {} from the waitlist of course with ID {}", studentId, courseId);
+
+        EnrollmentId id = new EnrollmentId();
+        id.setUserId(studentId);
+        id.setCourseId(courseId);
+        CourseWaitlistEntry entry = courseWaitlistRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        String.format("Waitlist entry with student ID '%s' and course ID '%s' not found",
+                                studentId, courseId)));
+        courseWaitlistRepository.delete(entry);
+    }
+
     /**
      * Отписать студента от курса.
      *
@@ -86,49 +198,59 @@ public class EnrollmentService {
     public void unenrollStudent(Long studentId, Long courseId) {
         log.info("Unenrolling student with ID {} from course with ID {}", studentId, courseId);
 
-        EnrollmentId enrollmentId = new EnrollmentId();
-        enrollmentId.setUserId(studentId);
-        enrollmentId.setCourseId(courseId);
-
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
+        Enrollment enrollment = enrollmentRepository.findForUpdate(studentId, courseId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         String.format("Enrollment with student ID '%s' and course ID '%s' not found", 
                                 studentId, courseId)));
 
         enrollmentRepository.delete(enrollment);
+        applyCounts(courseId, enrollment.getStatus(), -1);
+        if (enrollment.getStatus() != Enrollment.Status.DROPPED) {
+            promoteWaitlisted(courseId);
+        }
         log.info("Student with ID {} successfully unenrolled from course with ID {}", studentId, courseId);
     }
 
     /**
-     * Получить все записи студента.
+     * Получить все записи студента с прогрессом прохождения курсов.
      *
      * @param studentId ID студента
-     * @return Список записей
+     * @param after Курсор предыдущей страницы
+     * @param size Размер страницы
+     * @return Страница записей
      */
     @Transactional
-    public List<EnrollmentResponseDto> getStudentEnrollments(Long studentId) {
+    public KeysetPageDto<EnrollmentResponseDto> getStudentEnrollments(Long studentId, Long after, int size) {
         log.info("Getting enrollments for student with ID {}", studentId);
 
-        List<Enrollment> enrollments = enrollmentRepository.findByStudentId(studentId);
-        return enrollments.stream()
-                .map(this::enrollmentResponseDtoFromEnrollment)
-                .collect(Collectors.toList());
+        int limit = KeysetPageDto.limit(size);
+        List<Enrollment> enrollments = enrollmentRepository.findPageByStudentId(
+                studentId, KeysetPageDto.after(after), PageRequest.of(0, limit + 1));
+        KeysetPageDto<EnrollmentResponseDto> page = KeysetPageDto.of(
+                enrollments, limit, this::enrollmentResponseDtoFromEnrollment, Enrollment::getCourseId);
+        enrollmentProgressService.fillStudentProgress(studentId, page.getContent());
+        return page;
     }
 
     /**
-     * Получить всех студентов, записанных на курс.
+     * Получить всех студентов, записанных на курс, с прогрессом прохождения.
      *
      * @param courseId ID курса
-     * @return Список записей
+     * @param after Курсор предыдущей страницы
+     * @param size Размер страницы
+     * @return Страница записей
      */
     @Transactional
-    public List<EnrollmentResponseDto> getCourseEnrollments(Long courseId) {
+    public KeysetPageDto<EnrollmentResponseDto> getCourseEnrollments(Long courseId, Long after, int size) {
         log.info("Getting enrollments for course with ID {}", courseId);
 
-        List<Enrollment> enrollments = enrollmentRepository.findByCourseId(courseId);
-        return enrollments.stream()
-                .map(this::enrollmentResponseDtoFromEnrollment)
-                .collect(Collectors.toList());
+        int limit = KeysetPageDto.limit(size);
+        List<Enrollment> enrollments = enrollmentRepository.findPageByCourseId(
+                courseId, KeysetPageDto.after(after), PageRequest.of(0, limit + 1));
+        KeysetPageDto<EnrollmentResponseDto> page = KeysetPageDto.of(
+                enrollments, limit, this::enrollmentResponseDtoFromEnrollment, Enrollment::getUserId);
+        enrollmentProgressService.fillCourseProgress(courseId, page.getContent());
+        return page;
     }
 
     /**
@@ -143,17 +265,32 @@ public class EnrollmentService {
     public EnrollmentResponseDto updateEnrollmentStatus(Long studentId, Long courseId, String newStatus) {
         log.info("Updating enrollment status for student ID {} and course ID {} to {}", studentId, courseId, newStatus);
 
-        EnrollmentId enrollmentId = new EnrollmentId();
-        enrollmentId.setUserId(studentId);
-        enrollmentId.setCourseId(courseId);
-
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
+        Enrollment.Status status = parseStatus(newStatus);
+        Enrollment enrollment = enrollmentRepository.findForUpdate(studentId, courseId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         String.format("Enrollment with student ID '%s' and course ID '%s' not found", 
                                 studentId, courseId)));
 
-        enrollment.setStatus(newStatus);
-        enrollment = enrollmentRepository.save(enrollment);
+        Enrollment.Status previous = enrollment.getStatus();
+        if (previous != status) {
+            int activeDelta = countDelta(Enrollment.Status.ACTIVE, previous, status);
+            if (previous == Enrollment.Status.DROPPED) {
+                // Возвращённая запись снова занимает место; занятое место уже учтено как активное
+                if (courseEnrollmentCountsRepository.takeSeat(courseId) == 0) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            String.format("Course with id '%s' is full", courseId));
+                }
+                activeDelta--;
+            }
+            courseEnrollmentCountsRepository.apply(courseId, activeDelta,
+                    countDelta(Enrollment.Status.COMPLETED, previous, status),
+                    countDelta(Enrollment.Status.DROPPED, previous, status));
+            enrollment.setStatus(status);
+            enrollment = enrollmentRepository.save(enrollment);
+            if (status == Enrollment.Status.DROPPED) {
+                promoteWaitlisted(courseId);
+            }
+        }
 
         log.info("Enrollment status updated for student ID {} and course ID {} to {}", studentId, courseId, newStatus);
 
@@ -161,18 +298,114 @@ public class EnrollmentService {
     }
 
     /**
-     * Получить список записей по статусу.
+     * Получить страницу записей по статусу в порядке (ID студента, ID курса).
      *
      * @param status Статус записей
-     * @return Список записей
+     * @param after  Курсор предыдущей страницы в виде {@code studentId:courseId}
+     * @param size   Размер страницы
+     * @return Страница записей
      */
-    public List<EnrollmentResponseDto> getEnrollmentsByStatus(String status) {
+    public KeysetPageDto<EnrollmentResponseDto> getEnrollmentsByStatus(String status, String after, int size) {
         log.info("Getting enrollments with status: {}", status);
 
-        List<Enrollment> enrollments = enrollmentRepository.findByStatus(status);
-        return enrollments.stream()
-                .map(this::enrollmentResponseDtoFromEnrollment)
-                .collect(Collectors.toList());
+        Enrollment.Status enrollmentStatus = parseStatus(status);
+        long afterUserId = 0;
+        long afterCourseId = 0;
+        if (after != null) {
+            String[] cursor = after.split(":");
+            try {
+                afterUserId = Long.parseLong(cursor[0]);
+                afterCourseId = cursor.length == 2 ? Long.parseLong(cursor[1]) : 0;
+            } catch (NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        String.format("Invalid enrollment cursor '%s'", after));
+            }
+        }
+
+        int limit = KeysetPageDto.limit(size);
+        List<Enrollment> enrollments = enrollmentRepository.findPageByStatus(
+                enrollmentStatus, afterUserId, afterCourseId, PageRequest.of(0, limit + 1));
+        return KeysetPageDto.of(enrollments, limit, this::enrollmentResponseDtoFromEnrollment,
+                enrollment -> enrollment.getUserId() + ":" + enrollment.getCourseId());
+    }
+
+    /**
+     * Потоковая запись всех записей со статусом в NDJSON.
+     * Строки читаются курсором без загрузки сущностей, поэтому память не зависит от числа записей.
+     *
+     * @param status Статус записей
+     * @param out    Поток ответа
+     * @return Число записанных записей
+     */
+    @Transactional
+    public long streamEnrollmentsByStatus(Enrollment.Status status, OutputStream out) throws IOException {
+        log.info("Streaming enrollments with status: {}", status.getTitle());
+
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+             Stream<EnrollmentRepository.EnrollmentRow> rows = enrollmentRepository.streamByStatus(status)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            for (EnrollmentRepository.EnrollmentRow row : (Iterable<EnrollmentRepository.EnrollmentRow>) rows::iterator) {
+                generator.writeStartObject();
+                generator.writeNumberField("studentId", row.getStudentId());
+                generator.writeStringField("studentName", row.getStudentName());
+                generator.writeNumberField("courseId", row.getCourseId());
+                generator.writeStringField("courseTitle", row.getCourseTitle());
+                generator.writeStringField("enrollDate",
+                        row.getEnrollDate() != null ? row.getEnrollDate().toString() : null);
+                generator.writeStringField("status", status.getTitle());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        log.info("Streamed {} enrollments with status: {}", count, status.getTitle());
+        return count;
+    }
+
+    /**
+     * Получить число записей курса по статусам.
+     *
+     * @param courseId ID курса
+     * @return Счётчики записей курса
+     */
+    public CourseEnrollmentCountsDto getCourseEnrollmentCounts(Long courseId) {
+        log.info("Getting enrollment counts for course with ID {}", courseId);
+
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        String.format("Course with id '%s' not found", courseId)));
+        int waitlisted = (int) courseWaitlistRepository.countByCourseId(courseId);
+        return courseEnrollmentCountsRepository.findById(courseId)
+                .map(counts -> new CourseEnrollmentCountsDto(courseId, counts.getActiveCount(),
+                        counts.getCompletedCount(), counts.getDroppedCount(), course.getCapacity(), waitlisted))
+                .orElseGet(() -> new CourseEnrollmentCountsDto(courseId, 0, 0, 0, course.getCapacity(), waitlisted));
+    }
+
+    /**
+     * Разбор статуса записи из запроса.
+     *
+     * @param status Название статуса
+     * @return Статус
+     */
+    public Enrollment.Status parseStatus(String status) {
+        try {
+            return Enrollment.Status.getStatus(status != null ? status.trim() : null);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static int countDelta(Enrollment.Status counted, Enrollment.Status previous, Enrollment.Status status) {
+        return (counted == status ? 1 : 0) - (counted == previous ? 1 : 0);
+    }
+
+    private void applyCounts(Long courseId, Enrollment.Status status, int delta) {
+        courseEnrollmentCountsRepository.apply(courseId,
+                status == Enrollment.Status.ACTIVE ? delta : 0,
+                status == Enrollment.Status.COMPLETED ? delta : 0,
+                status == Enrollment.Status.DROPPED ? delta : 0);
     }
 
     private EnrollmentResponseDto enrollmentResponseDtoFromEnrollment(Enrollment enrollment) {
@@ -182,7 +415,7 @@ public class EnrollmentService {
         dto.setCourseId(enrollment.getCourseId());
         dto.setCourseTitle(enrollment.getCourse().getTitle());
         dto.setEnrollDate(enrollment.getEnrollDate());
-        dto.setStatus(enrollment.getStatus());
+        dto.setStatus(enrollment.getStatus().getTitle());
         return dto;
     }
 }
\ No newline at end of file
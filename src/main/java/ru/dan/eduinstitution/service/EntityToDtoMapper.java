@@ -40,6 +40,7 @@ public class EntityToDtoMapper {
         }
         dto.setDuration(course.getDuration());
         dto.setStartDate(course.getStartDate());
+        dto.setCapacity(course.getCapacity());
 
         return dto;
     }
@@ -59,7 +60,7 @@ public class EntityToDtoMapper {
             dto.setCourseTitle(enrollment.getCourse().getTitle());
         }
         dto.setEnrollDate(enrollment.getEnrollDate());
-        dto.setStatus(enrollment.getStatus());
+        dto.setStatus(enrollment.getStatus() != null ? enrollment.getStatus().getTitle() : null);
 
         return dto;
     }
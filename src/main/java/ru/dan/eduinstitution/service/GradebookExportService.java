@@ -0,0 +1,317 @@
+package ru.dan.eduinstitution.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.dan.eduinstitution.exception.ResourceNotFoundException;
+import ru.dan.eduinstitution.repository.CourseRepository;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Потоковая выгрузка журнала оценок курса: строка на каждого записанного студента, столбец на каждое задание и тест.
+ * Оценки читаются курсором PostgreSQL (fetchSize в транзакции только для чтения) в порядке студентов,
+ * поэтому в памяти находится только строка текущего студента, а не вся матрица.
+ */
+@Service
+@Slf4j
+public class GradebookExportService {
+
+    /**
+     * Задания и тесты курса в порядке модулей.
+     */
+    private static final String ITEMS_SQL = """
+            SELECT 'assignment' AS type, a.id AS id, a.title AS title, a.max_score AS max_score,
+                   m.order_index AS order_index, m.id AS module_id, 0 AS kind_order, l.id AS lesson_id
+            FROM modules m
+            JOIN lessons l ON l.module_id = m.id
+            JOIN assignments a ON a.lesson_id = l.id
+            WHERE m.course_id = :courseId
+            UNION ALL
+            SELECT 'quiz', q.id, q.title, NULL, m.order_index, m.id, 1, NULL
+            FROM modules m
+            JOIN quizzes q ON q.module_id = m.id
+            WHERE m.course_id = :courseId
+            ORDER BY order_index, module_id, kind_order, lesson_id, id
+            """;
+
+    /**
+     * Оценки записанных на курс студентов, по строке на оценку; студенты без оценок дают одну строку с NULL.
+     */
+    private static final String GRADES_SQL = """
+            SELECT e.user_id AS student_id, u.name AS student_name, g.type AS type, g.item_id AS item_id,
+                   g.score AS score
+            FROM enrollments e
+            JOIN users u ON u.id = e.user_id
+            LEFT JOIN (SELECT s.student_id, 'assignment' AS type, s.assignment_id AS item_id, s.score
+                       FROM submissions s
+                       JOIN assignments a ON a.id = s.assignment_id
+                       JOIN lessons l ON l.id = a.lesson_id
+                       JOIN modules m ON m.id = l.module_id
+                       WHERE m.course_id = :courseId
+                       UNION ALL
+                       SELECT qs.student_id, 'quiz', qs.quiz_id, qs.score
+                       FROM quiz_submissions qs
+                       JOIN quizzes q ON q.id = qs.quiz_id
+                       JOIN modules m ON m.id = q.module_id
+                       WHERE m.course_id = :courseId) g ON g.student_id = e.user_id
+            WHERE e.course_id = :courseId
+            ORDER BY e.user_id
+            """;
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final CourseRepository courseRepository;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final NamedParameterJdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public GradebookExportService(CourseRepository courseRepository,
+                                  NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                  DataSource dataSource,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.gradebook.fetch-size:1000}") int fetchSize) {
+        this.courseRepository = courseRepository;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        JdbcTemplate cursor = new JdbcTemplate(dataSource);
+        cursor.setFetchSize(fetchSize);
+        this.cursorJdbcTemplate = new NamedParameterJdbcTemplate(cursor);
+        // Курсор PostgreSQL работает только при выключенном автокоммите, то есть внутри транзакции
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Формат выгрузки.
+     */
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    /**
+     * Оцениваемый элемент курса - столбец журнала.
+     *
+     * @param type     assignment или quiz
+     * @param id       ID задания или теста
+     * @param title    Название
+     * @param maxScore Максимальный балл задания, у тестов null
+     */
+    public record Item(String type, long id, String title, Integer maxScore) {
+
+        String key() {
+            return type + ":" + id;
+        }
+    }
+
+    /**
+     * Получение столбцов журнала курса.
+     *
+     * @param courseId ID курса
+     * @return Задания и тесты курса в порядке модулей
+     */
+    public List<Item> getItems(Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException(String.format("Course with id '%s' not found", courseId));
+        }
+        return namedParameterJdbcTemplate.query(ITEMS_SQL,
+                new MapSqlParameterSource().addValue("courseId", courseId, Types.BIGINT),
+                (rs, rowNum) -> new Item(rs.getString("type"), rs.getLong("id"), rs.getString("title"),
+                        rs.getObject("max_score", Integer.class)));
+    }
+
+    /**
+     * Потоковая запись журнала оценок.
+     *
+     * @param courseId ID курса
+     * @param items    Столбцы журнала, полученные {@link #getItems(Long)}
+     * @param format   Формат выгрузки
+     * @param out      Поток ответа
+     */
+    public void export(Long courseId, List<Item> items, Format format, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            columns.put(items.get(i).key(), i);
+        }
+
+        try (RowWriter writer = format == Format.CSV ? new CsvRowWriter(out, items) : new NdjsonRowWriter(out, items)) {
+            StudentRowAssembler assembler = new StudentRowAssembler(columns, items.size(), writer);
+            readOnlyTransaction.executeWithoutResult(status -> cursorJdbcTemplate.query(GRADES_SQL,
+                    new MapSqlParameterSource().addValue("courseId", courseId, Types.BIGINT), assembler));
+            assembler.flush();
+            log.info("Gradebook of course {} exported as {}: {} students x {} items in {} ms", courseId, format,
+                    assembler.students, items.size(), (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    /**
+     * Сборка строки студента из строк курсора, упорядоченных по студенту.
+     */
+    private static final class StudentRowAssembler implements RowCallbackHandler {
+
+        private final Map<String, Integer> columns;
+        private final int columnCount;
+        private final RowWriter writer;
+
+        private long studentId;
+        private String studentName;
+        private Integer[] scores;
+        private int students;
+
+        StudentRowAssembler(Map<String, Integer> columns, int columnCount, RowWriter writer) {
+            this.columns = columns;
+            this.columnCount = columnCount;
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long rowStudentId = rs.getLong("student_id");
+            if (scores == null || rowStudentId != studentId) {
+                flush();
+                studentId = rowStudentId;
+                studentName = rs.getString("student_name");
+                scores = new Integer[columnCount];
+            }
+            String type = rs.getString("type");
+            if (type != null) {
+                Integer column = columns.get(type + ":" + rs.getLong("item_id"));
+                if (column != null) {
+                    scores[column] = rs.getObject("score", Integer.class);
+                }
+            }
+        }
+
+        void flush() {
+            if (scores != null) {
+                writer.row(studentId, studentName, scores);
+                students++;
+                scores = null;
+            }
+        }
+    }
+
+    /**
+     * Запись строк журнала в поток ответа. Поток ответа не закрывается, только сбрасывается.
+     */
+    private interface RowWriter extends AutoCloseable {
+
+        void row(long studentId, String studentName, Integer[] scores);
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out, List<Item> items) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+            writer.write("student_id,student_name");
+            for (Item item : items) {
+                writer.write(',');
+                writer.write(escape(item.key() + " " + item.title()));
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void row(long studentId, String studentName, Integer[] scores) {
+            try {
+                writer.write(Long.toString(studentId));
+                writer.write(',');
+                writer.write(escape(studentName));
+                for (Integer score : scores) {
+                    writer.write(',');
+                    if (score != null) {
+                        writer.write(score.toString());
+                    }
+                }
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+        private final List<Item> items;
+
+        NdjsonRowWriter(OutputStream out, List<Item> items) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+            this.items = items;
+        }
+
+        @Override
+        public void row(long studentId, String studentName, Integer[] scores) {
+            try {
+                generator.writeStartObject();
+                generator.writeNumberField("studentId", studentId);
+                generator.writeStringField("studentName", studentName);
+                generator.writeObjectFieldStart("scores");
+                for (int i = 0; i < scores.length; i++) {
+                    generator.writeFieldName(items.get(i).key());
+                    if (scores[i] != null) {
+                        generator.writeNumber(scores[i]);
+                    } else {
+                        generator.writeNull();
+                    }
+                }
+                generator.writeEndObject();
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
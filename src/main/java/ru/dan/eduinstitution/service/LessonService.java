@@ -27,6 +27,8 @@ public class LessonService {
 
     private final LessonRepository lessonRepository;
     private final ModuleRepository moduleRepository;
+    private final CourseOutlineService courseOutlineService;
+    private final EnrollmentProgressService enrollmentProgressService;
 
     /**
      * Создание урока.
@@ -50,6 +52,7 @@ public class LessonService {
         lesson.setVideoUrl(dto.getVideoUrl());
 
         lesson = lessonRepository.save(lesson);
+        courseOutlineService.evictOutline(module.getCourse().getId());
         log.info("Lesson created with ID: {}", lesson.getId());
 
         return lessonResponseDtoFromLesson(lesson);
@@ -97,6 +100,7 @@ public class LessonService {
         }
 
         lesson = lessonRepository.save(lesson);
+        courseOutlineService.evictOutline(lesson.getModule().getCourse().getId());
         log.info("Lesson updated with ID: {}", lesson.getId());
 
         return lessonResponseDtoFromLesson(lesson);
@@ -111,12 +115,13 @@ public class LessonService {
     public void deleteLesson(Long id) {
         log.info("Deleting lesson with ID: {}", id);
 
-        if (!lessonRepository.existsById(id)) {
-            throw new ResourceNotFoundException(
-                    String.format("Lesson with id '%s' not found", id));
-        }
+        Lesson lesson = lessonRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        String.format("Lesson with id '%s' not found", id)));
 
-        lessonRepository.deleteById(id);
+        lessonRepository.delete(lesson);
+        courseOutlineService.evictOutline(lesson.getModule().getCourse().getId());
+        enrollmentProgressService.courseStructureChanged(lesson.getModule().getCourse().getId());
         log.info("Lesson deleted with ID: {}", id);
     }
 
@@ -27,6 +27,8 @@ public class ModuleService {
 
     private final ModuleRepository moduleRepository;
     private final CourseRepository courseRepository;
+    private final CourseOutlineService courseOutlineService;
+    private final EnrollmentProgressService enrollmentProgressService;
 
     /**
      * Создание модуля.
@@ -50,6 +52,7 @@ public class ModuleService {
         module.setDescription(dto.getDescription());
 
         module = moduleRepository.save(module);
+        courseOutlineService.evictOutline(course.getId());
         log.info("Module created with ID: {}", module.getId());
 
         return moduleResponseDtoFromModule(module);
@@ -97,6 +100,7 @@ public class ModuleService {
         }
 
         module = moduleRepository.save(module);
+        courseOutlineService.evictOutline(module.getCourse().getId());
         log.info("Module updated with ID: {}", module.getId());
 
         return moduleResponseDtoFromModule(module);
@@ -111,12 +115,13 @@ public class ModuleService {
     public void deleteModule(Long id) {
         log.info("Deleting module with ID: {}", id);
 
-        if (!moduleRepository.existsById(id)) {
-            throw new ResourceNotFoundException(
-                    String.format("Module with id '%s' not found", id));
-        }
+        Module module = moduleRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        String.format("Module with id '%s' not found", id)));
 
-        moduleRepository.deleteById(id);
+        moduleRepository.delete(module);
+        courseOutlineService.evictOutline(module.getCourse().getId());
+        enrollmentProgressService.courseStructureChanged(module.getCourse().getId());
         log.info("Module deleted with ID: {}", id);
     }
 
@@ -154,9 +159,14 @@ public class ModuleService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         String.format("Course with id '%s' not found", targetCourseId)));
 
+        Long sourceCourseId = module.getCourse().getId();
+        courseOutlineService.evictOutline(sourceCourseId);
         module.setCourse(targetCourse);
 
         module = moduleRepository.save(module);
+        courseOutlineService.evictOutline(targetCourseId);
+        enrollmentProgressService.courseStructureChanged(sourceCourseId);
+        enrollmentProgressService.courseStructureChanged(targetCourseId);
         log.info("Module with ID {} moved to course with ID {}", moduleId, targetCourseId);
 
         return moduleResponseDtoFromModule(module);
@@ -180,6 +190,7 @@ public class ModuleService {
         module.setOrderIndex(newOrderIndex);
 
         module = moduleRepository.save(module);
+        courseOutlineService.evictOutline(module.getCourse().getId());
         log.info("Module with ID {} reordered to position {}", moduleId, newOrderIndex);
 
         return moduleResponseDtoFromModule(module);
@@ -27,6 +27,7 @@ public class QuestionService {
 
     private final QuestionRepository questionRepository;
     private final QuizRepository quizRepository;
+    private final AnswerKeyService answerKeyService;
 
     /**
      * Создание вопроса.
@@ -50,6 +51,7 @@ public class QuestionService {
 
         question = questionRepository.save(question);
         log.info("Question created with ID: {}", question.getId());
+        answerKeyService.evict(quiz.getId());
 
         return questionResponseDtoFromQuestion(question);
     }
@@ -94,6 +96,7 @@ public class QuestionService {
 
         question = questionRepository.save(question);
         log.info("Question updated with ID: {}", question.getId());
+        answerKeyService.evict(question.getQuiz().getId());
 
         return questionResponseDtoFromQuestion(question);
     }
@@ -107,12 +110,12 @@ public class QuestionService {
     public void deleteQuestion(Long id) {
         log.info("Deleting question with ID: {}", id);
 
-        if (!questionRepository.existsById(id)) {
-            throw new ResourceNotFoundException(
-                    String.format("Question with id '%s' not found", id));
-        }
+        Question question = questionRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        String.format("Question with id '%s' not found", id)));
 
-        questionRepository.deleteById(id);
+        questionRepository.delete(question);
+        answerKeyService.evict(question.getQuiz().getId());
         log.info("Question deleted with ID: {}", id);
     }
 
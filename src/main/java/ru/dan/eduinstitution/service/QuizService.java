@@ -27,6 +27,9 @@ public class QuizService {
 
     private final QuizRepository quizRepository;
     private final ModuleRepository moduleRepository;
+    private final AnswerKeyService answerKeyService;
+    private final CourseOutlineService courseOutlineService;
+    private final EnrollmentProgressService enrollmentProgressService;
 
     /**
      * Создание теста.
@@ -49,6 +52,8 @@ public class QuizService {
         quiz.setTimeLimit(dto.getTimeLimit());
 
         quiz = quizRepository.save(quiz);
+        courseOutlineService.evictOutline(module.getCourse().getId());
+        enrollmentProgressService.courseStructureChanged(module.getCourse().getId());
         log.info("Quiz created with ID: {}", quiz.getId());
 
         return quizResponseDtoFromQuiz(quiz);
@@ -93,6 +98,7 @@ public class QuizService {
         }
 
         quiz = quizRepository.save(quiz);
+        evictOutline(quiz);
         log.info("Quiz updated with ID: {}", quiz.getId());
 
         return quizResponseDtoFromQuiz(quiz);
@@ -107,12 +113,16 @@ public class QuizService {
     public void deleteQuiz(Long id) {
         log.info("Deleting quiz with ID: {}", id);
 
-        if (!quizRepository.existsById(id)) {
-            throw new ResourceNotFoundException(
-                    String.format("Quiz with id '%s' not found", id));
-        }
+        Quiz quiz = quizRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        String.format("Quiz with id '%s' not found", id)));
 
-        quizRepository.deleteById(id);
+        quizRepository.delete(quiz);
+        answerKeyService.evict(id);
+        evictOutline(quiz);
+        if (quiz.getModule() != null) {
+            enrollmentProgressService.courseStructureChanged(quiz.getModule().getCourse().getId());
+        }
         log.info("Quiz deleted with ID: {}", id);
     }
 
@@ -130,6 +140,12 @@ public class QuizService {
                 .orElse(null);
     }
 
+    private void evictOutline(Quiz quiz) {
+        if (quiz.getModule() != null) {
+            courseOutlineService.evictOutline(quiz.getModule().getCourse().getId());
+        }
+    }
+
     private QuizResponseDto quizResponseDtoFromQuiz(Quiz quiz) {
         QuizResponseDto dto = new QuizResponseDto();
         dto.setId(quiz.getId());
@@ -4,21 +4,33 @@ import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 import ru.dan.eduinstitution.entity.Quiz;
+import ru.dan.eduinstitution.entity.QuizAnswer;
 import ru.dan.eduinstitution.entity.QuizSubmission;
 import ru.dan.eduinstitution.entity.User;
 import ru.dan.eduinstitution.exception.ResourceNotFoundException;
+import ru.dan.eduinstitution.model.AnswerOptionStatsDto;
+import ru.dan.eduinstitution.model.KeysetPageDto;
 import ru.dan.eduinstitution.model.QuizSubmissionCreateDto;
 import ru.dan.eduinstitution.model.QuizSubmissionResponseDto;
 import ru.dan.eduinstitution.model.QuizSubmissionUpdateDto;
+import ru.dan.eduinstitution.model.SubmissionReceiptDto;
+import ru.dan.eduinstitution.repository.QuizAnswerRepository;
 import ru.dan.eduinstitution.repository.QuizRepository;
 import ru.dan.eduinstitution.repository.QuizSubmissionRepository;
 import ru.dan.eduinstitution.repository.UserRepository;
 
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 /**
  * Сервис для работы с результатами тестов.
@@ -28,18 +40,37 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class QuizSubmissionService {
 
+    private static final String INSERT_QUIZ_SUBMISSION = """
+            INSERT INTO quiz_submissions (quiz_id, student_id, score, taken_at, idempotency_key)
+            VALUES (:quizId, :studentId, :score, :takenAt, :idempotencyKey)
+            ON CONFLICT DO NOTHING
+            RETURNING id
+            """;
+
     private final QuizSubmissionRepository quizSubmissionRepository;
     private final QuizRepository quizRepository;
     private final UserRepository userRepository;
+    private final AnswerKeyService answerKeyService;
+    private final QuizAnswerRepository quizAnswerRepository;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ObjectProvider<SubmissionWriteBehindQueue> writeBehindQueue;
+    private final EnrollmentProgressService enrollmentProgressService;
 
     /**
      * Создание результата теста.
+     * Если переданы ответы, балл вычисляется по закешированному ключу ответов теста,
+     * а выбранные варианты сохраняются одной строкой quiz_answers.
+     * Результат вставляется через {@code INSERT ... ON CONFLICT DO NOTHING} без предварительной проверки:
+     * повтор запроса с тем же ключом идемпотентности возвращает уже созданный результат,
+     * иначе повторная сдача теста студентом отклоняется.
+     * Сданный тест засчитывается в прогресс записи студента на курс.
      *
-     * @param dto Данные для создания результата теста
+     * @param dto            Данные для создания результата теста
+     * @param idempotencyKey Ключ идемпотентности запроса (может быть null)
      * @return Созданный результат теста
      */
     @Transactional
-    public QuizSubmissionResponseDto createQuizSubmission(@Valid QuizSubmissionCreateDto dto) {
+    public QuizSubmissionResponseDto createQuizSubmission(@Valid QuizSubmissionCreateDto dto, String idempotencyKey) {
         log.info("Creating quiz submission for quiz ID: {} by student ID: {}", 
                 dto.getQuizId(), dto.getStudentId());
 
@@ -53,26 +84,54 @@ public class QuizSubmissionService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         String.format("Student with id '%s' not found", dto.getStudentId())));
 
-        // Проверяем, нет ли уже существующего submission для этого теста и студента
-        quizSubmissionRepository.findByQuizIdAndStudentId(dto.getQuizId(), dto.getStudentId())
-                .ifPresent(existing -> {
-                    throw new IllegalArgumentException(
-                            String.format("Quiz submission already exists for quiz ID '%s' and student ID '%s'", 
-                                    dto.getQuizId(), dto.getStudentId()));
-                });
-
         QuizSubmission quizSubmission = new QuizSubmission();
         quizSubmission.setQuiz(quiz);
         quizSubmission.setStudent(student);
-        quizSubmission.setScore(dto.getScore());
+        quizSubmission.setScore(score(dto));
         quizSubmission.setTakenAt(LocalDateTime.now());
+        quizSubmission.setIdempotencyKey(idempotencyKey);
 
-        quizSubmission = quizSubmissionRepository.save(quizSubmission);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("quizId", quiz.getId(), Types.BIGINT)
+                .addValue("studentId", student.getId(), Types.BIGINT)
+                .addValue("score", quizSubmission.getScore(), Types.INTEGER)
+                .addValue("takenAt", quizSubmission.getTakenAt(), Types.TIMESTAMP)
+                .addValue("idempotencyKey", idempotencyKey, Types.VARCHAR);
+        List<Long> ids = namedParameterJdbcTemplate.queryForList(INSERT_QUIZ_SUBMISSION, params, Long.class);
+        if (ids.isEmpty()) {
+            return existingQuizSubmission(dto, idempotencyKey);
+        }
+        quizSubmission.setId(ids.get(0));
+        enrollmentProgressService.quizzesSubmitted(ids);
         log.info("Quiz submission created with ID: {}", quizSubmission.getId());
 
+        if (dto.getAnswers() != null) {
+            QuizAnswer quizAnswer = new QuizAnswer();
+            quizAnswer.setQuizSubmission(quizSubmissionRepository.getReferenceById(quizSubmission.getId()));
+            quizAnswer.setSelectedOptionIds(dto.getAnswers().stream()
+                    .flatMap(answer -> answer.getSelectedOptionIds().stream())
+                    .toArray(Long[]::new));
+            quizAnswerRepository.save(quizAnswer);
+        }
+
         return quizSubmissionResponseDtoFromQuizSubmission(quizSubmission);
     }
 
+    /**
+     * Приём результата теста на отложенную запись (write-behind).
+     * Ответы проверяются и оцениваются до постановки в очередь, чтобы неверный ответ отклонялся запросом,
+     * а не ошибкой в фоновом пакете. Запись в базу выполняется пакетом в фоне, результат доступен по квитанции.
+     *
+     * @param dto            Данные для создания результата теста
+     * @param idempotencyKey Ключ идемпотентности запроса (может быть null)
+     * @return Квитанция или пустой результат, если очередь записи заполнена
+     */
+    public Optional<SubmissionReceiptDto> createQuizSubmissionAsync(QuizSubmissionCreateDto dto, String idempotencyKey) {
+        log.info("Queueing quiz submission for quiz ID: {} by student ID: {}",
+                dto.getQuizId(), dto.getStudentId());
+        return requireWriteBehindQueue().enqueue(dto, score(dto), idempotencyKey);
+    }
+
     /**
      * Получение результата теста по ID.
      *
@@ -128,6 +187,7 @@ public class QuizSubmissionService {
                     String.format("QuizSubmission with id '%s' not found", id));
         }
 
+        enrollmentProgressService.quizSubmissionDeleted(id);
         quizSubmissionRepository.deleteById(id);
         log.info("Quiz submission deleted with ID: {}", id);
     }
@@ -136,30 +196,95 @@ public class QuizSubmissionService {
      * Получение всех результатов тестов по ID студента.
      *
      * @param studentId ID студента
-     * @return Список результатов тестов
+     * @param after Курсор предыдущей страницы
+     * @param size Размер страницы
+     * @return Страница результатов тестов
      */
-    public List<QuizSubmissionResponseDto> getQuizSubmissionsByStudentId(Long studentId) {
+    public KeysetPageDto<QuizSubmissionResponseDto> getQuizSubmissionsByStudentId(Long studentId, Long after, int size) {
         log.info("Getting quiz submissions for student with ID: {}", studentId);
 
-        List<QuizSubmission> quizSubmissions = quizSubmissionRepository.findByStudentId(studentId);
-        return quizSubmissions.stream()
-                .map(this::quizSubmissionResponseDtoFromQuizSubmission)
-                .collect(Collectors.toList());
+        int limit = KeysetPageDto.limit(size);
+        List<QuizSubmission> quizSubmissions = quizSubmissionRepository.findPageByStudentId(
+                studentId, KeysetPageDto.after(after), PageRequest.of(0, limit + 1));
+        return KeysetPageDto.of(quizSubmissions, limit, this::quizSubmissionResponseDtoFromQuizSubmission, QuizSubmission::getId);
     }
 
     /**
      * Получение всех результатов тестов по ID теста.
      *
      * @param quizId ID теста
-     * @return Список результатов тестов
+     * @param after Курсор предыдущей страницы
+     * @param size Размер страницы
+     * @return Страница результатов тестов
      */
-    public List<QuizSubmissionResponseDto> getQuizSubmissionsByQuizId(Long quizId) {
+    public KeysetPageDto<QuizSubmissionResponseDto> getQuizSubmissionsByQuizId(Long quizId, Long after, int size) {
         log.info("Getting quiz submissions for quiz with ID: {}", quizId);
 
-        List<QuizSubmission> quizSubmissions = quizSubmissionRepository.findByQuizId(quizId);
-        return quizSubmissions.stream()
-                .map(this::quizSubmissionResponseDtoFromQuizSubmission)
-                .collect(Collectors.toList());
+        int limit = KeysetPageDto.limit(size);
+        List<QuizSubmission> quizSubmissions = quizSubmissionRepository.findPageByQuizId(
+                quizId, KeysetPageDto.after(after), PageRequest.of(0, limit + 1));
+        return KeysetPageDto.of(quizSubmissions, limit, this::quizSubmissionResponseDtoFromQuizSubmission, QuizSubmission::getId);
+    }
+
+    /**
+     * Статистика выбора вариантов ответов по тесту для анализа заданий.
+     *
+     * @param quizId ID теста
+     * @return Число выборов каждого варианта ответа
+     */
+    public List<AnswerOptionStatsDto> getOptionStats(Long quizId) {
+        log.info("Getting answer option stats for quiz with ID: {}", quizId);
+
+        if (!quizRepository.existsById(quizId)) {
+            throw new ResourceNotFoundException(
+                    String.format("Quiz with id '%s' not found", quizId));
+        }
+
+        return quizAnswerRepository.findOptionStatsByQuizId(quizId).stream()
+                .map(row -> new AnswerOptionStatsDto(
+                        row.getQuestionId(), row.getOptionId(), row.getCorrect(), row.getSelectedCount()))
+                .toList();
+    }
+
+    /**
+     * Оценка ответов по ключу теста. Балл от клиента не принимается: тест с проверяемыми вопросами
+     * без ответов, неизвестный вопрос или вариант ответа отклоняются с кодом 400.
+     */
+    private int score(QuizSubmissionCreateDto dto) {
+        AnswerKey answerKey = answerKeyService.getAnswerKey(dto.getQuizId());
+        if (dto.getAnswers() == null && answerKey.hasGradableQuestions()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    String.format("Answers are required for quiz with id '%s'", dto.getQuizId()));
+        }
+        try {
+            return answerKey.score(dto.getAnswers() != null ? dto.getAnswers() : List.of());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private SubmissionWriteBehindQueue requireWriteBehindQueue() {
+        SubmissionWriteBehindQueue queue = writeBehindQueue.getIfAvailable();
+        if (queue == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Write-behind submissions are disabled");
+        }
+        return queue;
+    }
+
+    /**
+     * Результат, из-за которого вставка не прошла: повтор запроса с тем же ключом или повторная сдача.
+     */
+    private QuizSubmissionResponseDto existingQuizSubmission(QuizSubmissionCreateDto dto, String idempotencyKey) {
+        QuizSubmission existing = quizSubmissionRepository.findByQuizIdAndStudentId(dto.getQuizId(), dto.getStudentId())
+                .orElse(null);
+        if (existing != null && idempotencyKey != null && idempotencyKey.equals(existing.getIdempotencyKey())) {
+            log.info("Quiz submission with ID: {} returned for repeated Idempotency-Key", existing.getId());
+            return quizSubmissionResponseDtoFromQuizSubmission(existing);
+        }
+        throw new ResponseStatusException(HttpStatus.CONFLICT, existing != null
+                ? String.format("Quiz submission already exists for quiz ID '%s' and student ID '%s'",
+                        dto.getQuizId(), dto.getStudentId())
+                : String.format("Idempotency-Key '%s' is already used by another quiz submission", idempotencyKey));
     }
 
     private QuizSubmissionResponseDto quizSubmissionResponseDtoFromQuizSubmission(QuizSubmission quizSubmission) {
@@ -4,21 +4,31 @@ import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 import ru.dan.eduinstitution.entity.Assignment;
 import ru.dan.eduinstitution.entity.Submission;
 import ru.dan.eduinstitution.entity.User;
 import ru.dan.eduinstitution.exception.ResourceNotFoundException;
+import ru.dan.eduinstitution.model.KeysetPageDto;
 import ru.dan.eduinstitution.model.SubmissionCreateDto;
 import ru.dan.eduinstitution.model.SubmissionGradeDto;
+import ru.dan.eduinstitution.model.SubmissionReceiptDto;
 import ru.dan.eduinstitution.model.SubmissionResponseDto;
 import ru.dan.eduinstitution.repository.AssignmentRepository;
 import ru.dan.eduinstitution.repository.SubmissionRepository;
 import ru.dan.eduinstitution.repository.UserRepository;
 
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Сервис для работы с ответами/решениями студентов.
@@ -28,18 +38,32 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SubmissionService {
 
+    private static final String INSERT_SUBMISSION = """
+            INSERT INTO submissions (assignment_id, student_id, submitted_at, content, idempotency_key)
+            VALUES (:assignmentId, :studentId, :submittedAt, :content, :idempotencyKey)
+            ON CONFLICT DO NOTHING
+            RETURNING id
+            """;
+
     private final SubmissionRepository submissionRepository;
     private final AssignmentRepository assignmentRepository;
     private final UserRepository userRepository;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ObjectProvider<SubmissionWriteBehindQueue> writeBehindQueue;
+    private final EnrollmentProgressService enrollmentProgressService;
 
     /**
      * Создание ответа/решения студента.
+     * Ответ вставляется через {@code INSERT ... ON CONFLICT DO NOTHING} без предварительной проверки:
+     * повтор запроса с тем же ключом идемпотентности возвращает уже созданный ответ,
+     * иначе повторный ответ студента на задание отклоняется.
      *
-     * @param dto Данные для создания ответа/решения
+     * @param dto            Данные для создания ответа/решения
+     * @param idempotencyKey Ключ идемпотентности запроса (может быть null)
      * @return Созданный ответ/решение
      */
     @Transactional
-    public SubmissionResponseDto createSubmission(@Valid SubmissionCreateDto dto) {
+    public SubmissionResponseDto createSubmission(@Valid SubmissionCreateDto dto, String idempotencyKey) {
         log.info("Creating submission for assignment ID: {} by student ID: {}", 
                 dto.getAssignmentId(), dto.getStudentId());
 
@@ -53,14 +77,6 @@ public class SubmissionService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         String.format("Student with id '%s' not found", dto.getStudentId())));
 
-        // Проверяем, нет ли уже существующего submission для этого задания и студента
-        submissionRepository.findByAssignmentIdAndStudentId(dto.getAssignmentId(), dto.getStudentId())
-                .ifPresent(existing -> {
-                    throw new IllegalArgumentException(
-                            String.format("Submission already exists for assignment ID '%s' and student ID '%s'", 
-                                    dto.getAssignmentId(), dto.getStudentId()));
-                });
-
         Submission submission = new Submission();
         submission.setAssignment(assignment);
         submission.setStudent(student);
@@ -68,13 +84,49 @@ public class SubmissionService {
         submission.setContent(dto.getContent());
         submission.setScore(null); // Оценка не выставлена при создании
         submission.setFeedback(null); // Обратная связь не предоставлена при создании
-
-        submission = submissionRepository.save(submission);
+        submission.setIdempotencyKey(idempotencyKey);
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("assignmentId", assignment.getId(), Types.BIGINT)
+                .addValue("studentId", student.getId(), Types.BIGINT)
+                .addValue("submittedAt", submission.getSubmittedAt(), Types.TIMESTAMP)
+                .addValue("content", submission.getContent(), Types.VARCHAR)
+                .addValue("idempotencyKey", idempotencyKey, Types.VARCHAR);
+        List<Long> ids = namedParameterJdbcTemplate.queryForList(INSERT_SUBMISSION, params, Long.class);
+        if (ids.isEmpty()) {
+            return existingSubmission(dto, idempotencyKey);
+        }
+        submission.setId(ids.get(0));
         log.info("Submission created with ID: {}", submission.getId());
 
         return submissionResponseDtoFromSubmission(submission);
     }
 
+    /**
+     * Приём ответа/решения на отложенную запись (write-behind).
+     * Запись в базу выполняется пакетом в фоне, результат доступен по квитанции.
+     *
+     * @param dto            Данные для создания ответа/решения
+     * @param idempotencyKey Ключ идемпотентности запроса (может быть null)
+     * @return Квитанция или пустой результат, если очередь записи заполнена
+     */
+    public Optional<SubmissionReceiptDto> createSubmissionAsync(SubmissionCreateDto dto, String idempotencyKey) {
+        log.info("Queueing submission for assignment ID: {} by student ID: {}",
+                dto.getAssignmentId(), dto.getStudentId());
+        return requireWriteBehindQueue().enqueue(dto, idempotencyKey);
+    }
+
+    /**
+     * Получение квитанции отложенной записи ответа/решения или результата теста.
+     *
+     * @param receiptId ID квитанции
+     * @return Квитанция с текущим статусом записи
+     */
+    public SubmissionReceiptDto getReceipt(UUID receiptId) {
+        log.info("Getting submission receipt by ID: {}", receiptId);
+        return requireWriteBehindQueue().getReceipt(receiptId);
+    }
+
     /**
      * Получение ответа/решения по ID.
      *
@@ -92,7 +144,7 @@ public class SubmissionService {
     }
 
     /**
-     * Выставление оценки за ответ/решение.
+     * Выставление оценки за ответ/решение. Первая оценка засчитывается в прогресс записи студента на курс.
      *
      * @param id ID ответа/решения
      * @param gradeDto Данные для оценки
@@ -106,10 +158,12 @@ public class SubmissionService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         String.format("Submission with id '%s' not found", id)));
 
+        Integer previousScore = submission.getScore();
         submission.setScore(gradeDto.getScore());
         submission.setFeedback(gradeDto.getFeedback());
 
         submission = submissionRepository.save(submission);
+        enrollmentProgressService.submissionGraded(submission.getId(), previousScore, submission.getScore());
         log.info("Submission graded with ID: {}", submission.getId());
 
         return submissionResponseDtoFromSubmission(submission);
@@ -119,30 +173,58 @@ public class SubmissionService {
      * Получение всех ответов/решений по ID студента.
      *
      * @param studentId ID студента
-     * @return Список ответов/решений
+     * @param after Курсор предыдущей страницы
+     * @param size Размер страницы
+     * @return Страница ответов/решений
      */
-    public List<SubmissionResponseDto> getSubmissionsByStudentId(Long studentId) {
+    public KeysetPageDto<SubmissionResponseDto> getSubmissionsByStudentId(Long studentId, Long after, int size) {
         log.info("Getting submissions for student with ID: {}", studentId);
 
-        List<Submission> submissions = submissionRepository.findByStudentId(studentId);
-        return submissions.stream()
-                .map(this::submissionResponseDtoFromSubmission)
-                .collect(Collectors.toList());
+        int limit = KeysetPageDto.limit(size);
+        List<Submission> submissions = submissionRepository.findPageByStudentId(
+                studentId, KeysetPageDto.after(after), PageRequest.of(0, limit + 1));
+        return KeysetPageDto.of(submissions, limit, this::submissionResponseDtoFromSubmission, Submission::getId);
     }
 
     /**
      * Получение всех ответов/решений по ID задания.
      *
      * @param assignmentId ID задания
-     * @return Список ответов/решений
+     * @param after Курсор предыдущей страницы
+     * @param size Размер страницы
+     * @return Страница ответов/решений
      */
-    public List<SubmissionResponseDto> getSubmissionsByAssignmentId(Long assignmentId) {
+    public KeysetPageDto<SubmissionResponseDto> getSubmissionsByAssignmentId(Long assignmentId, Long after, int size) {
         log.info("Getting submissions for assignment with ID: {}", assignmentId);
 
-        List<Submission> submissions = submissionRepository.findByAssignmentId(assignmentId);
-        return submissions.stream()
-                .map(this::submissionResponseDtoFromSubmission)
-                .collect(Collectors.toList());
+        int limit = KeysetPageDto.limit(size);
+        List<Submission> submissions = submissionRepository.findPageByAssignmentId(
+                assignmentId, KeysetPageDto.after(after), PageRequest.of(0, limit + 1));
+        return KeysetPageDto.of(submissions, limit, this::submissionResponseDtoFromSubmission, Submission::getId);
+    }
+
+    private SubmissionWriteBehindQueue requireWriteBehindQueue() {
+        SubmissionWriteBehindQueue queue = writeBehindQueue.getIfAvailable();
+        if (queue == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Write-behind submissions are disabled");
+        }
+        return queue;
+    }
+
+    /**
+     * Ответ, из-за которого вставка не прошла: повтор запроса с тем же ключом или повторный ответ на задание.
+     */
+    private SubmissionResponseDto existingSubmission(SubmissionCreateDto dto, String idempotencyKey) {
+        Submission existing = submissionRepository.findByAssignmentIdAndStudentId(dto.getAssignmentId(), dto.getStudentId())
+                .orElse(null);
+        if (existing != null && idempotencyKey != null && idempotencyKey.equals(existing.getIdempotencyKey())) {
+            log.info("Submission with ID: {} returned for repeated Idempotency-Key", existing.getId());
+            return submissionResponseDtoFromSubmission(existing);
+        }
+        throw new ResponseStatusException(HttpStatus.CONFLICT, existing != null
+                ? String.format("Submission already exists for assignment ID '%s' and student ID '%s'",
+                        dto.getAssignmentId(), dto.getStudentId())
+                : String.format("Idempotency-Key '%s' is already used by another submission", idempotencyKey));
     }
 
     private SubmissionResponseDto submissionResponseDtoFromSubmission(Submission submission) {
@@ -0,0 +1,397 @@
+package ru.dan.eduinstitution.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import ru.dan.eduinstitution.exception.ResourceNotFoundException;
+import ru.dan.eduinstitution.model.QuizSubmissionCreateDto;
+import ru.dan.eduinstitution.model.SubmissionCreateDto;
+import ru.dan.eduinstitution.model.SubmissionReceiptDto;
+
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Отложенная запись (write-behind) ответов на задания и результатов тестов.
+ * Запрос ставится в ограниченную очередь и сразу получает квитанцию; отдельный поток забирает из очереди
+ * пакеты и записывает каждый пакет одним многострочным {@code INSERT ... ON CONFLICT DO NOTHING} в одной транзакции,
+ * поэтому всплеск сдач занимает одно соединение пула, а не соединение на запрос.
+ * Заполненная очередь не блокирует запрос: он отклоняется, и клиент повторяет его позже.
+ * В квитанцию попадает стабильное описание ошибки, текст ошибки базы данных пишется только в лог.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "app.submission.write-behind.enabled", havingValue = "true")
+public class SubmissionWriteBehindQueue implements SmartLifecycle {
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+    private static final String WRITE_FAILED = "Submission could not be written";
+
+    private static final String INSERT_QUIZ_ANSWER =
+            "INSERT INTO quiz_answers (quiz_submission_id, selected_option_ids) VALUES (?, ?)";
+    private static final String SELECT_SUBMISSION =
+            "SELECT id, idempotency_key FROM submissions WHERE assignment_id = ? AND student_id = ?";
+    private static final String SELECT_QUIZ_SUBMISSION =
+            "SELECT id, idempotency_key FROM quiz_submissions WHERE quiz_id = ? AND student_id = ?";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EnrollmentProgressService enrollmentProgressService;
+    private final BlockingQueue<PendingWrite> queue;
+    private final Cache<UUID, SubmissionReceiptDto> receipts;
+    private final int batchSize;
+    private final long pollTimeoutMs;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public SubmissionWriteBehindQueue(NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                      JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      EnrollmentProgressService enrollmentProgressService,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.submission.write-behind.queue-capacity:10000}") int queueCapacity,
+                                      @Value("${app.submission.write-behind.batch-size:500}") int batchSize,
+                                      @Value("${app.submission.write-behind.poll-timeout:50ms}") Duration pollTimeout,
+                                      @Value("${app.submission.write-behind.receipts.spec:maximumSize=200000,expireAfterWrite=1h}")
+                                      String receiptsSpec) {
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enrollmentProgressService = enrollmentProgressService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.receipts = Caffeine.from(receiptsSpec).build();
+        this.batchSize = batchSize;
+        this.pollTimeoutMs = pollTimeout.toMillis();
+        Gauge.builder("submission.write_behind.queue.size", queue, BlockingQueue::size)
+                .description("The number of submissions waiting to be written to the database.")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Постановка ответа на задание в очередь записи.
+     *
+     * @param dto            Данные для создания ответа/решения
+     * @param idempotencyKey Ключ идемпотентности запроса (может быть null)
+     * @return Квитанция или пустой результат, если очередь заполнена
+     * @throws ResponseStatusException 503, если приём остановлен
+     */
+    public Optional<SubmissionReceiptDto> enqueue(SubmissionCreateDto dto, String idempotencyKey) {
+        return offer(new PendingSubmission(UUID.randomUUID(), LocalDateTime.now(), idempotencyKey, dto));
+    }
+
+    /**
+     * Постановка результата теста в очередь записи.
+     *
+     * @param dto            Данные для создания результата теста
+     * @param score          Балл, посчитанный по ответам на сервере
+     * @param idempotencyKey Ключ идемпотентности запроса (может быть null)
+     * @return Квитанция или пустой результат, если очередь заполнена
+     * @throws ResponseStatusException 503, если приём остановлен
+     */
+    public Optional<SubmissionReceiptDto> enqueue(QuizSubmissionCreateDto dto, int score, String idempotencyKey) {
+        return offer(new PendingQuizSubmission(UUID.randomUUID(), LocalDateTime.now(), idempotencyKey, dto, score));
+    }
+
+    /**
+     * Получение квитанции.
+     *
+     * @param receiptId ID квитанции
+     * @return Квитанция с текущим статусом записи
+     */
+    public SubmissionReceiptDto getReceipt(UUID receiptId) {
+        SubmissionReceiptDto receipt = receipts.getIfPresent(receiptId);
+        if (receipt == null) {
+            throw new ResourceNotFoundException(
+                    String.format("Submission receipt with id '%s' not found", receiptId));
+        }
+        return receipt;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::drain, "submission-write-behind");
+        writer.start();
+    }
+
+    /**
+     * Остановка приёма и ожидание, пока писатель запишет уже принятые запросы.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.join(SHUTDOWN_TIMEOUT.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Write-behind stopped with {} submissions not written", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Останавливается после веб-сервера, чтобы дописать запросы, принятые до его остановки.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private Optional<SubmissionReceiptDto> offer(PendingWrite write) {
+        if (!running) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Write-behind writer is stopped");
+        }
+        // Квитанция сохраняется до постановки в очередь, чтобы писатель не перезаписал её статус
+        receipts.put(write.receiptId(), receipt(write, SubmissionReceiptDto.Status.QUEUED, null, null));
+        if (!queue.offer(write)) {
+            receipts.invalidate(write.receiptId());
+            log.warn("Write-behind queue is full, submission rejected");
+            return Optional.empty();
+        }
+        return Optional.ofNullable(receipts.getIfPresent(write.receiptId()));
+    }
+
+    private void drain() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(pollTimeoutMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Write-behind writer interrupted with {} submissions not written", queue.size());
+                return;
+            } catch (RuntimeException e) {
+                log.error("Write-behind batch of {} submissions failed", batch.size(), e);
+                // Уже записанные квитанции пакета не перезаписываются
+                for (PendingWrite write : batch) {
+                    SubmissionReceiptDto current = receipts.getIfPresent(write.receiptId());
+                    if (current == null || current.getStatus() == SubmissionReceiptDto.Status.QUEUED) {
+                        receipts.put(write.receiptId(),
+                                receipt(write, SubmissionReceiptDto.Status.FAILED, null, WRITE_FAILED));
+                    }
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        List<PendingSubmission> submissions = new ArrayList<>();
+        List<PendingQuizSubmission> quizSubmissions = new ArrayList<>();
+        for (PendingWrite write : batch) {
+            if (write instanceof PendingSubmission submission) {
+                submissions.add(submission);
+            } else if (write instanceof PendingQuizSubmission quizSubmission) {
+                quizSubmissions.add(quizSubmission);
+            }
+        }
+        if (!submissions.isEmpty()) {
+            write(submissions, this::insertSubmissions, "Assignment or student not found");
+        }
+        if (!quizSubmissions.isEmpty()) {
+            write(quizSubmissions, this::insertQuizSubmissions, "Quiz or student not found");
+        }
+        log.debug("Write-behind flushed {} submissions and {} quiz submissions",
+                submissions.size(), quizSubmissions.size());
+    }
+
+    /**
+     * Запись пакета в одной транзакции. Статусы квитанций обновляются только после фиксации.
+     * Ошибка одной записи (например, несуществующий студент) откатывает весь пакет,
+     * тогда записи повторяются по одной, чтобы ошибка досталась только своей квитанции.
+     * Любая ошибка одиночной записи помечает неудачной только её квитанцию, а не весь пакет.
+     * Нарушение ограничения базы (внешний ключ на задание/тест или студента) даёт квитанции notFoundMessage.
+     */
+    private <T extends PendingWrite> void write(List<T> writes, Function<List<T>, Map<UUID, SubmissionReceiptDto>> insert,
+                                                String notFoundMessage) {
+        Map<UUID, SubmissionReceiptDto> results;
+        try {
+            results = transactionTemplate.execute(status -> insert.apply(writes));
+        } catch (RuntimeException e) {
+            if (writes.size() > 1) {
+                log.warn("Write-behind batch of {} rolled back, writing one by one: {}", writes.size(), e.getMessage());
+                for (T write : writes) {
+                    write(List.of(write), insert, notFoundMessage);
+                }
+                return;
+            }
+            T write = writes.get(0);
+            log.warn("Write-behind submission with receipt {} failed: {}", write.receiptId(), e.getMessage());
+            String message = e instanceof DataIntegrityViolationException ? notFoundMessage : WRITE_FAILED;
+            results = Map.of(write.receiptId(), receipt(write, SubmissionReceiptDto.Status.FAILED, null, message));
+        }
+        receipts.putAll(results);
+    }
+
+    private Map<UUID, SubmissionReceiptDto> insertSubmissions(List<PendingSubmission> writes) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO submissions (assignment_id, student_id, submitted_at, content, idempotency_key) VALUES ");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        for (int i = 0; i < writes.size(); i++) {
+            PendingSubmission write = writes.get(i);
+            sql.append(i == 0 ? "" : ", ").append(String.format(
+                    "(:assignmentId%1$d, :studentId%1$d, :submittedAt%1$d, :content%1$d, :idempotencyKey%1$d)", i));
+            params.addValue("assignmentId" + i, write.dto().getAssignmentId(), Types.BIGINT)
+                    .addValue("studentId" + i, write.dto().getStudentId(), Types.BIGINT)
+                    .addValue("submittedAt" + i, write.acceptedAt(), Types.TIMESTAMP)
+                    .addValue("content" + i, write.dto().getContent(), Types.VARCHAR)
+                    .addValue("idempotencyKey" + i, write.idempotencyKey(), Types.VARCHAR);
+        }
+        sql.append(" ON CONFLICT DO NOTHING RETURNING id, assignment_id, student_id");
+        Map<List<Long>, Long> inserted = insertReturningIds(sql.toString(), params);
+
+        Map<UUID, SubmissionReceiptDto> results = new HashMap<>();
+        for (PendingSubmission write : writes) {
+            Long id = inserted.remove(List.of(write.dto().getAssignmentId(), write.dto().getStudentId()));
+            results.put(write.receiptId(), id != null
+                    ? receipt(write, SubmissionReceiptDto.Status.COMPLETED, id, null)
+                    : conflict(write, SELECT_SUBMISSION, write.dto().getAssignmentId(), write.dto().getStudentId(),
+                    String.format("Submission already exists for assignment ID '%s' and student ID '%s'",
+                            write.dto().getAssignmentId(), write.dto().getStudentId())));
+        }
+        return results;
+    }
+
+    private Map<UUID, SubmissionReceiptDto> insertQuizSubmissions(List<PendingQuizSubmission> writes) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO quiz_submissions (quiz_id, student_id, score, taken_at, idempotency_key) VALUES ");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        for (int i = 0; i < writes.size(); i++) {
+            PendingQuizSubmission write = writes.get(i);
+            QuizSubmissionCreateDto dto = write.dto();
+            sql.append(i == 0 ? "" : ", ").append(String.format(
+                    "(:quizId%1$d, :studentId%1$d, :score%1$d, :takenAt%1$d, :idempotencyKey%1$d)", i));
+            params.addValue("quizId" + i, dto.getQuizId(), Types.BIGINT)
+                    .addValue("studentId" + i, dto.getStudentId(), Types.BIGINT)
+                    .addValue("score" + i, write.score(), Types.INTEGER)
+                    .addValue("takenAt" + i, write.acceptedAt(), Types.TIMESTAMP)
+                    .addValue("idempotencyKey" + i, write.idempotencyKey(), Types.VARCHAR);
+        }
+        sql.append(" ON CONFLICT DO NOTHING RETURNING id, quiz_id, student_id");
+        Map<List<Long>, Long> inserted = insertReturningIds(sql.toString(), params);
+
+        Map<UUID, SubmissionReceiptDto> results = new HashMap<>();
+        List<Object[]> answers = new ArrayList<>();
+        List<Long> insertedIds = new ArrayList<>();
+        for (PendingQuizSubmission write : writes) {
+            QuizSubmissionCreateDto dto = write.dto();
+            Long id = inserted.remove(List.of(dto.getQuizId(), dto.getStudentId()));
+            if (id == null) {
+                results.put(write.receiptId(), conflict(write, SELECT_QUIZ_SUBMISSION, dto.getQuizId(), dto.getStudentId(),
+                        String.format("Quiz submission already exists for quiz ID '%s' and student ID '%s'",
+                                dto.getQuizId(), dto.getStudentId())));
+                continue;
+            }
+            insertedIds.add(id);
+            if (dto.getAnswers() != null) {
+                answers.add(new Object[]{id, dto.getAnswers().stream()
+                        .flatMap(answer -> answer.getSelectedOptionIds().stream())
+                        .toArray(Long[]::new)});
+            }
+            results.put(write.receiptId(), receipt(write, SubmissionReceiptDto.Status.COMPLETED, id, null));
+        }
+        jdbcTemplate.batchUpdate(INSERT_QUIZ_ANSWER, answers, batchSize, (ps, row) -> {
+            ps.setLong(1, (Long) row[0]);
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", (Long[]) row[1]));
+        });
+        // Прогресс записей обновляется одним запросом на пакет в той же транзакции
+        enrollmentProgressService.quizzesSubmitted(insertedIds);
+        return results;
+    }
+
+    /**
+     * @return ID вставленных строк по паре (ID задания или теста, ID студента)
+     */
+    private Map<List<Long>, Long> insertReturningIds(String sql, MapSqlParameterSource params) {
+        Map<List<Long>, Long> inserted = new HashMap<>();
+        namedParameterJdbcTemplate.query(sql, params,
+                rs -> {
+                    inserted.put(List.of(rs.getLong(2), rs.getLong(3)), rs.getLong(1));
+                });
+        return inserted;
+    }
+
+    /**
+     * Квитанция записи, не вставленной из-за конфликта: повтор запроса с тем же ключом получает
+     * уже созданную запись, остальные конфликты - ошибку.
+     */
+    private SubmissionReceiptDto conflict(PendingWrite write, String selectSql, Long targetId, Long studentId,
+                                          String duplicateMessage) {
+        List<Map<String, Object>> existing = jdbcTemplate.queryForList(selectSql, targetId, studentId);
+        if (existing.isEmpty()) {
+            return receipt(write, SubmissionReceiptDto.Status.FAILED, null, String.format(
+                    "Idempotency-Key '%s' is already used by another submission", write.idempotencyKey()));
+        }
+        Long id = ((Number) existing.get(0).get("id")).longValue();
+        if (write.idempotencyKey() != null && write.idempotencyKey().equals(existing.get(0).get("idempotency_key"))) {
+            return receipt(write, SubmissionReceiptDto.Status.COMPLETED, id, null);
+        }
+        return receipt(write, SubmissionReceiptDto.Status.FAILED, null, duplicateMessage);
+    }
+
+    private static SubmissionReceiptDto receipt(PendingWrite write, SubmissionReceiptDto.Status status,
+                                                Long submissionId, String error) {
+        return new SubmissionReceiptDto(write.receiptId(), status, submissionId, error, write.acceptedAt());
+    }
+
+    /**
+     * Принятый запрос, ожидающий записи.
+     */
+    private sealed interface PendingWrite permits PendingSubmission, PendingQuizSubmission {
+        UUID receiptId();
+
+        LocalDateTime acceptedAt();
+
+        String idempotencyKey();
+    }
+
+    private record PendingSubmission(UUID receiptId, LocalDateTime acceptedAt, String idempotencyKey,
+                                     SubmissionCreateDto dto) implements PendingWrite {
+    }
+
+    private record PendingQuizSubmission(UUID receiptId, LocalDateTime acceptedAt, String idempotencyKey,
+                                         QuizSubmissionCreateDto dto, int score) implements PendingWrite {
+    }
+}
@@ -0,0 +1,12 @@
+package ru.dan.eduinstitution.service;
+
+import lombok.Value;
+
+/**
+ * Событие создания, переименования или удаления тега.
+ */
+@Value
+public class TagChangedEvent {
+
+    Long tagId;
+}
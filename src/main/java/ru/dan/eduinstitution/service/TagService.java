@@ -4,8 +4,12 @@ import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import ru.dan.eduinstitution.entity.Course;
+import ru.dan.eduinstitution.config.CacheConfig;
 import ru.dan.eduinstitution.entity.Tag;
 import ru.dan.eduinstitution.exception.ResourceNotFoundException;
 import ru.dan.eduinstitution.model.TagCreateDto;
@@ -14,8 +18,10 @@ import ru.dan.eduinstitution.model.TagUpdateDto;
 import ru.dan.eduinstitution.repository.CourseRepository;
 import ru.dan.eduinstitution.repository.TagRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 /**
@@ -28,6 +34,7 @@ public class TagService {
 
     private final TagRepository tagRepository;
     private final CourseRepository courseRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Создание тега.
@@ -49,6 +56,7 @@ public class TagService {
 
         tag = tagRepository.save(tag);
         log.info("Tag created with ID: {}", tag.getId());
+        eventPublisher.publishEvent(new TagChangedEvent(tag.getId()));
 
         return tagResponseDtoFromTag(tag);
     }
@@ -59,6 +67,7 @@ public class TagService {
      * @param id ID тега
      * @return Тег
      */
+    @Cacheable(cacheNames = CacheConfig.TAGS, key = "#id")
     public TagResponseDto getTagById(Long id) {
         log.info("Getting tag by ID: {}", id);
 
@@ -77,6 +86,7 @@ public class TagService {
      * @return Обновленный тег
      */
     @Transactional
+    @CachePut(cacheNames = CacheConfig.TAGS, key = "#id")
     public TagResponseDto updateTag(Long id, @Valid TagUpdateDto dto) {
         log.info("Updating tag with ID: {}", id);
 
@@ -91,6 +101,7 @@ public class TagService {
                     throw new IllegalArgumentException(
                             String.format("Tag with name '%s' already exists", dto.getName()));
                 }
+                eventPublisher.publishEvent(new TagChangedEvent(id));
             }
             tag.setName(dto.getName());
         }
@@ -107,6 +118,7 @@ public class TagService {
      * @param id ID тега
      */
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TAGS, key = "#id")
     public void deleteTag(Long id) {
         log.info("Deleting tag with ID: {}", id);
 
@@ -116,6 +128,7 @@ public class TagService {
         }
 
         tagRepository.deleteById(id);
+        eventPublisher.publishEvent(new TagChangedEvent(id));
         log.info("Tag deleted with ID: {}", id);
     }
 
@@ -154,24 +167,10 @@ public class TagService {
      *
      * @param courseId ID курса
      * @param tagId ID тега
-     * @return Обновленный курс с тегами
      */
     @Transactional
     public void addTagToCourse(Long courseId, Long tagId) {
-        log.info("Adding tag ID {} to course ID {}", tagId, courseId);
-
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        String.format("Course with id '%s' not found", courseId)));
-
-        Tag tag = tagRepository.findById(tagId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        String.format("Tag with id '%s' not found", tagId)));
-
-        course.getTags().add(tag);
-        courseRepository.save(course);
-
-        log.info("Tag ID {} added to course ID {}", tagId, courseId);
+        addTagsToCourse(courseId, Set.of(tagId));
     }
 
     /**
@@ -179,28 +178,15 @@ public class TagService {
      *
      * @param courseId ID курса
      * @param tagId ID тега
-     * @return Обновленный курс с тегами
      */
     @Transactional
     public void removeTagFromCourse(Long courseId, Long tagId) {
-        log.info("Removing tag ID {} from course ID {}", tagId, courseId);
-
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        String.format("Course with id '%s' not found", courseId)));
-
-        Tag tag = tagRepository.findById(tagId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        String.format("Tag with id '%s' not found", tagId)));
-
-        course.getTags().remove(tag);
-        courseRepository.save(course);
-
-        log.info("Tag ID {} removed from course ID {}", tagId, courseId);
+        removeTagsFromCourse(courseId, Set.of(tagId));
     }
 
     /**
      * Назначение нескольких тегов курсу.
+     * Связи добавляются одним INSERT, уже назначенные теги пропускаются.
      *
      * @param courseId ID курса
      * @param tagIds Список ID тегов
@@ -209,19 +195,15 @@ public class TagService {
     public void addTagsToCourse(Long courseId, Set<Long> tagIds) {
         log.info("Adding tags {} to course ID {}", tagIds, courseId);
 
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        String.format("Course with id '%s' not found", courseId)));
-
-        for (Long tagId : tagIds) {
-            Tag tag = tagRepository.findById(tagId)
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            String.format("Tag with id '%s' not found", tagId)));
-            course.getTags().add(tag);
+        requireExistingCourse(courseId);
+        if (tagIds.isEmpty()) {
+            return;
         }
+        requireExistingTags(tagIds);
 
-        courseRepository.save(course);
-        log.info("Tags {} added to course ID {}", tagIds, courseId);
+        int added = courseRepository.addTags(courseId, tagIds);
+        eventPublisher.publishEvent(new CourseChangedEvent(List.of(courseId)));
+        log.info("Tags {} added to course ID {}, new links: {}", tagIds, courseId, added);
     }
 
     /**
@@ -234,19 +216,61 @@ public class TagService {
     public void removeTagsFromCourse(Long courseId, Set<Long> tagIds) {
         log.info("Removing tags {} from course ID {}", tagIds, courseId);
 
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        String.format("Course with id '%s' not found", courseId)));
+        requireExistingCourse(courseId);
+        if (tagIds.isEmpty()) {
+            return;
+        }
+        requireExistingTags(tagIds);
+
+        int removed = courseRepository.removeTags(courseId, tagIds);
+        eventPublisher.publishEvent(new CourseChangedEvent(List.of(courseId)));
+        log.info("Tags {} removed from course ID {}, removed links: {}", tagIds, courseId, removed);
+    }
 
-        for (Long tagId : tagIds) {
-            Tag tag = tagRepository.findById(tagId)
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            String.format("Tag with id '%s' not found", tagId)));
-            course.getTags().remove(tag);
+    /**
+     * Замена набора тегов курса.
+     *
+     * @param courseId ID курса
+     * @param tagIds Новый набор ID тегов
+     */
+    @Transactional
+    public void replaceCourseTags(Long courseId, Set<Long> tagIds) {
+        log.info("Replacing tags of course ID {} with {}", courseId, tagIds);
+
+        if (tagIds.isEmpty()) {
+            courseRepository.removeAllTags(courseId);
+        } else {
+            requireExistingTags(tagIds);
+            courseRepository.removeTagsExcept(courseId, tagIds);
+            courseRepository.addTags(courseId, tagIds);
+        }
+        eventPublisher.publishEvent(new CourseChangedEvent(List.of(courseId)));
+    }
+
+    /**
+     * Проверка существования тегов одним запросом.
+     *
+     * @param tagIds Список ID тегов
+     * @throws ResourceNotFoundException если часть тегов не найдена; в сообщении перечислены все отсутствующие ID
+     */
+    public void requireExistingTags(Collection<Long> tagIds) {
+        Set<Long> missing = new TreeSet<>(tagIds);
+        tagRepository.findExistingIds(tagIds).forEach(missing::remove);
+        if (missing.size() == 1) {
+            throw new ResourceNotFoundException(
+                    String.format("Tag with id '%s' not found", missing.iterator().next()));
         }
+        if (!missing.isEmpty()) {
+            throw new ResourceNotFoundException(
+                    String.format("Tags with ids '%s' not found", missing));
+        }
+    }
 
-        courseRepository.save(course);
-        log.info("Tags {} removed from course ID {}", tagIds, courseId);
+    private void requireExistingCourse(Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException(
+                    String.format("Course with id '%s' not found", courseId));
+        }
     }
 
     private TagResponseDto tagResponseDtoFromTag(Tag tag) {
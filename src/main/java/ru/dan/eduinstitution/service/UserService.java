@@ -9,6 +9,11 @@ import org.springframework.web.server.ResponseStatusException;
 import ru.dan.eduinstitution.entity.User;
 import ru.dan.eduinstitution.model.UserCreateDto;
 import ru.dan.eduinstitution.model.UserResponseDto;
+import ru.dan.eduinstitution.repository.CourseRepository;
+import ru.dan.eduinstitution.repository.CourseReviewRepository;
+import ru.dan.eduinstitution.repository.EnrollmentRepository;
+import ru.dan.eduinstitution.repository.QuizSubmissionRepository;
+import ru.dan.eduinstitution.repository.SubmissionRepository;
 import ru.dan.eduinstitution.repository.UserRepository;
 
 import java.util.Optional;
@@ -22,6 +27,11 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final SubmissionRepository submissionRepository;
+    private final QuizSubmissionRepository quizSubmissionRepository;
+    private final CourseReviewRepository courseReviewRepository;
     private final EntityToDtoMapper entityToDtoMapper;
 
     @Transactional
@@ -44,6 +54,13 @@ public class UserService {
         return responseDto;
     }
 
+    /**
+     * Получение пользователя со связанными курсами, записями, решениями и отзывами.
+     * Каждая коллекция читается отдельным запросом, чтобы не получать декартово произведение строк.
+     *
+     * @param id ID пользователя
+     * @return Пользователь
+     */
     @Transactional(readOnly = true)
     public UserResponseDto getUserById(Long id) {
         log.info("Retrieving user entity by ID: {}", id);
@@ -66,11 +83,16 @@ public class UserService {
             responseDto.setBio(user.getProfile().getBio());
             responseDto.setAvatarUrl(user.getProfile().getAvatarUrl());
         }
-        responseDto.setCoursesTaught(entityToDtoMapper.mapCoursesToDtos(user.getCoursesTaught()));
-        responseDto.setEnrollments(entityToDtoMapper.mapEnrollmentsToDtos(user.getEnrollments()));
-        responseDto.setSubmissions(entityToDtoMapper.mapSubmissionsToDtos(user.getSubmissions()));
-        responseDto.setQuizSubmissions(entityToDtoMapper.mapQuizSubmissionsToDtos(user.getQuizSubmissions()));
-        responseDto.setCourseReviews(entityToDtoMapper.mapCourseReviewsToDtos(user.getCourseReviews()));
+        responseDto.setCoursesTaught(entityToDtoMapper.mapCoursesToDtos(
+                courseRepository.findByTeacherIdWithCategory(id)));
+        responseDto.setEnrollments(entityToDtoMapper.mapEnrollmentsToDtos(
+                enrollmentRepository.findByStudentIdWithCourse(id)));
+        responseDto.setSubmissions(entityToDtoMapper.mapSubmissionsToDtos(
+                submissionRepository.findByStudentIdWithAssignment(id)));
+        responseDto.setQuizSubmissions(entityToDtoMapper.mapQuizSubmissionsToDtos(
+                quizSubmissionRepository.findByStudentIdWithQuiz(id)));
+        responseDto.setCourseReviews(entityToDtoMapper.mapCourseReviewsToDtos(
+                courseReviewRepository.findByStudentIdWithCourse(id)));
 
         return responseDto;
     }
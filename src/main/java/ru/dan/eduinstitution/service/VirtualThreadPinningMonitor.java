@@ -0,0 +1,127 @@
+package ru.dan.eduinstitution.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import ru.dan.eduinstitution.model.VirtualThreadDiagnosticsDto;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Наблюдение за закреплением виртуальных потоков за потоком-носителем через поток событий JFR
+ * {@code jdk.VirtualThreadPinned}. Закрепление возникает при блокировке внутри synchronized или нативного кода:
+ * пока оно длится, носитель не может выполнять другие виртуальные потоки.
+ * Длительности публикуются метрикой jvm.threads.virtual.pinned, последние события со стеком хранятся для actuator.
+ * Включается явно и только при spring.threads.virtual.enabled=true; отдельные события пишутся в лог на уровне debug.
+ */
+@Component
+@Slf4j
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "app.diagnostics.pinning.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int STACK_DEPTH = 16;
+
+    private final Timer pinnedTimer;
+    private final Duration threshold;
+    private final int recentLimit;
+    private final Deque<VirtualThreadDiagnosticsDto.PinnedEvent> recent = new ArrayDeque<>();
+    private final ReentrantLock recentLock = new ReentrantLock();
+
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${app.diagnostics.pinning.threshold:20ms}") Duration threshold,
+                                       @Value("${app.diagnostics.pinning.recent-events:50}") int recentLimit) {
+        this.threshold = threshold;
+        this.recentLimit = recentLimit;
+        this.pinnedTimer = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent pinned to their carrier thread.")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        stream = recordingStream;
+        log.info("Monitoring virtual thread pinning longer than {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recordingStream = stream;
+        stream = null;
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    /**
+     * @return Счётчики и последние события закрепления
+     */
+    public VirtualThreadDiagnosticsDto.Pinning getPinning() {
+        List<VirtualThreadDiagnosticsDto.PinnedEvent> events;
+        recentLock.lock();
+        try {
+            events = new ArrayList<>(recent);
+        } finally {
+            recentLock.unlock();
+        }
+        return new VirtualThreadDiagnosticsDto.Pinning(isRunning(), threshold.toMillis(), pinnedTimer.count(),
+                pinnedTimer.totalTime(TimeUnit.MILLISECONDS), pinnedTimer.max(TimeUnit.MILLISECONDS), events);
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+
+        List<String> stackTrace = new ArrayList<>();
+        if (event.getStackTrace() != null) {
+            for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                if (stackTrace.size() == STACK_DEPTH) {
+                    break;
+                }
+                stackTrace.add(frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber());
+            }
+        }
+        String thread = event.getThread() != null ? event.getThread().getJavaName() : null;
+        VirtualThreadDiagnosticsDto.PinnedEvent pinned = new VirtualThreadDiagnosticsDto.PinnedEvent(
+                thread, event.getStartTime(), event.getDuration().toNanos() / 1_000_000.0, stackTrace);
+        log.debug("Virtual thread {} pinned for {} ms at {}", thread, pinned.getDurationMs(),
+                stackTrace.isEmpty() ? "unknown frame" : stackTrace.get(0));
+
+        recentLock.lock();
+        try {
+            recent.addFirst(pinned);
+            while (recent.size() > recentLimit) {
+                recent.removeLast();
+            }
+        } finally {
+            recentLock.unlock();
+        }
+    }
+}
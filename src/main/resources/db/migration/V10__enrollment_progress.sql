@@ -0,0 +1,67 @@
+-- V10__enrollment_progress.sql
+-- Прогресс прохождения курсов. Поддерживается приложением: число элементов курса пересчитывается
+-- при изменении его структуры, прогресс записи увеличивается при оценке ответа и сдаче теста,
+-- поэтому списки записей с прогрессом не пересчитывают ответы студентов.
+
+-- Число заданий и тестов в дереве курса (модули - уроки - задания, модули - тесты)
+CREATE TABLE course_item_counts
+(
+    course_id        BIGINT PRIMARY KEY REFERENCES courses (id) ON DELETE CASCADE,
+    assignment_count INTEGER NOT NULL DEFAULT 0,
+    quiz_count       INTEGER NOT NULL DEFAULT 0
+);
+
+-- Оценённые ответы на задания и сданные тесты курса по каждой записи
+CREATE TABLE enrollment_progress
+(
+    user_id            BIGINT  NOT NULL,
+    course_id          BIGINT  NOT NULL,
+    graded_assignments INTEGER NOT NULL DEFAULT 0,
+    submitted_quizzes  INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, course_id),
+    FOREIGN KEY (user_id, course_id) REFERENCES enrollments (user_id, course_id) ON DELETE CASCADE
+);
+
+INSERT INTO course_item_counts (course_id, assignment_count, quiz_count)
+SELECT c.id,
+       (SELECT count(*)
+        FROM modules m
+                 JOIN lessons l ON l.module_id = m.id
+                 JOIN assignments a ON a.lesson_id = l.id
+        WHERE m.course_id = c.id),
+       (SELECT count(*)
+        FROM modules m
+                 JOIN quizzes q ON q.module_id = m.id
+        WHERE m.course_id = c.id)
+FROM courses c;
+
+INSERT INTO enrollment_progress (user_id, course_id, graded_assignments, submitted_quizzes)
+SELECT e.user_id,
+       e.course_id,
+       (SELECT count(*)
+        FROM modules m
+                 JOIN lessons l ON l.module_id = m.id
+                 JOIN assignments a ON a.lesson_id = l.id
+                 JOIN submissions s ON s.assignment_id = a.id
+        WHERE m.course_id = e.course_id
+          AND s.student_id = e.user_id
+          AND s.score IS NOT NULL),
+       (SELECT count(*)
+        FROM modules m
+                 JOIN quizzes q ON q.module_id = m.id
+                 JOIN quiz_submissions qs ON qs.quiz_id = q.id
+        WHERE m.course_id = e.course_id
+          AND qs.student_id = e.user_id)
+FROM enrollments e;
+
+-- Активные записи с пройденными всеми заданиями и тестами курса считаются завершёнными
+UPDATE enrollments e
+SET status = 'Completed'
+FROM enrollment_progress p
+         JOIN course_item_counts c ON c.course_id = p.course_id
+WHERE e.user_id = p.user_id
+  AND e.course_id = p.course_id
+  AND e.status = 'Active'
+  AND c.assignment_count + c.quiz_count > 0
+  AND p.graded_assignments >= c.assignment_count
+  AND p.submitted_quizzes >= c.quiz_count;
@@ -0,0 +1,35 @@
+-- V11__enrollment_status_code.sql
+-- Статус записи хранится кодом smallint (см. Enrollment.Status): 1 - Active, 2 - Completed, 3 - Dropped.
+DROP INDEX idx_enrollments_status;
+ALTER TABLE enrollments DROP CONSTRAINT enrollments_status_check;
+ALTER TABLE enrollments ALTER COLUMN status DROP DEFAULT;
+ALTER TABLE enrollments
+    ALTER COLUMN status TYPE SMALLINT USING CASE status WHEN 'Completed' THEN 2 WHEN 'Dropped' THEN 3 ELSE 1 END;
+ALTER TABLE enrollments
+    ALTER COLUMN status SET DEFAULT 1,
+    ALTER COLUMN status SET NOT NULL,
+    ADD CONSTRAINT enrollments_status_check CHECK (status IN (1, 2, 3));
+
+-- Частичные индексы по статусам в порядке keyset-пагинации (user_id, course_id): выборка записей статуса
+-- читает только свой индекс. Условие по статусу должно быть известно планировщику, поэтому общий план
+-- подготовленного запроса их не использует, а частные планы (по значению параметра) используют.
+CREATE INDEX idx_enrollments_active ON enrollments (user_id, course_id) WHERE status = 1;
+CREATE INDEX idx_enrollments_completed ON enrollments (user_id, course_id) WHERE status = 2;
+CREATE INDEX idx_enrollments_dropped ON enrollments (user_id, course_id) WHERE status = 3;
+
+-- Число записей курса по статусам. Поддерживается приложением в транзакции изменения записей.
+CREATE TABLE course_enrollment_counts
+(
+    course_id       BIGINT PRIMARY KEY REFERENCES courses (id) ON DELETE CASCADE,
+    active_count    INTEGER NOT NULL DEFAULT 0,
+    completed_count INTEGER NOT NULL DEFAULT 0,
+    dropped_count   INTEGER NOT NULL DEFAULT 0
+);
+
+INSERT INTO course_enrollment_counts (course_id, active_count, completed_count, dropped_count)
+SELECT course_id,
+       count(*) FILTER (WHERE status = 1),
+       count(*) FILTER (WHERE status = 2),
+       count(*) FILTER (WHERE status = 3)
+FROM enrollments
+GROUP BY course_id;
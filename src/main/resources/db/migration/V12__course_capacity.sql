@@ -0,0 +1,17 @@
+-- V12__course_capacity.sql
+-- Лимит мест курса; NULL - без ограничения. Место занимают записи Active и Completed.
+ALTER TABLE courses ADD COLUMN capacity INTEGER CHECK (capacity > 0);
+
+-- Очередь ожидания мест курса. При освобождении места запись создаётся для первого в очереди.
+-- Порядок задаёт seq: номер берётся при вставке под блокировкой строки счётчиков курса, а now() - время начала
+-- транзакции и может расходиться с порядком постановки в очередь.
+CREATE TABLE course_waitlist
+(
+    user_id    BIGINT    NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    course_id  BIGINT    NOT NULL REFERENCES courses (id) ON DELETE CASCADE,
+    seq        BIGINT    NOT NULL GENERATED ALWAYS AS IDENTITY,
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    PRIMARY KEY (user_id, course_id)
+);
+
+CREATE INDEX idx_course_waitlist_order ON course_waitlist (course_id, seq);
@@ -0,0 +1,15 @@
+-- V3__categories_notify.sql
+-- Уведомление приложений об изменении справочника категорий (LISTEN categories_changed)
+CREATE OR REPLACE FUNCTION notify_categories_changed() RETURNS trigger AS
+$$
+BEGIN
+    PERFORM pg_notify('categories_changed', TG_OP);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER categories_changed
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE
+    ON categories
+    FOR EACH STATEMENT
+EXECUTE FUNCTION notify_categories_changed();
@@ -0,0 +1,19 @@
+-- V4__pooled_sequences.sql
+-- Последовательности ID выдают блоки по 50 значений (оптимизатор pooled-lo в Hibernate),
+-- чтобы вставки не требовали обращения к базе за каждым ID и могли идти батчами.
+-- Вставки по умолчанию через nextval() остаются корректными: каждое значение - начало свободного блока.
+DO
+$$
+    DECLARE
+        t TEXT;
+    BEGIN
+        FOREACH t IN ARRAY ARRAY ['categories', 'users', 'profiles', 'courses', 'tags', 'modules', 'lessons',
+            'assignments', 'submissions', 'quizzes', 'questions', 'answer_options', 'quiz_submissions',
+            'course_reviews']
+            LOOP
+                EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', t || '_id_seq');
+                EXECUTE format('SELECT setval(%L, COALESCE((SELECT max(id) FROM %I), 0) + 1, false)',
+                               t || '_id_seq', t);
+            END LOOP;
+    END
+$$;
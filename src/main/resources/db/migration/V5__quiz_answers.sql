@@ -0,0 +1,8 @@
+-- V5__quiz_answers.sql
+-- Выбранные варианты ответов хранятся одной строкой на результат теста:
+-- массив ID вариантов однозначно задаёт вопросы, поэтому число строк не растёт с числом вопросов.
+CREATE TABLE quiz_answers
+(
+    quiz_submission_id  BIGINT PRIMARY KEY REFERENCES quiz_submissions (id) ON DELETE CASCADE,
+    selected_option_ids BIGINT[] NOT NULL
+);
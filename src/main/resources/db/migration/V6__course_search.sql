@@ -0,0 +1,92 @@
+-- V6__course_search.sql
+-- Полнотекстовый поиск по курсам: название (вес A), имена тегов (B) и описание (C).
+-- Теги лежат в других таблицах, поэтому вместо GENERATED-колонки вектор поддерживается триггерами.
+ALTER TABLE courses
+    ADD COLUMN search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION course_search_vector(p_course_id BIGINT, p_title TEXT, p_description TEXT)
+    RETURNS tsvector
+    LANGUAGE sql
+    STABLE
+    SET search_path FROM CURRENT
+AS
+$$
+SELECT setweight(to_tsvector('simple', coalesce(p_title, '')), 'A')
+           || setweight(to_tsvector('simple', coalesce((SELECT string_agg(t.name, ' ')
+                                                        FROM course_tag ct
+                                                                 JOIN tags t ON t.id = ct.tag_id
+                                                        WHERE ct.course_id = p_course_id), '')), 'B')
+           || setweight(to_tsvector('simple', coalesce(p_description, '')), 'C')
+$$;
+
+UPDATE courses
+SET search_vector = course_search_vector(id, title, description);
+
+CREATE INDEX idx_courses_search_vector ON courses USING GIN (search_vector);
+
+-- Изменение названия или описания курса
+CREATE OR REPLACE FUNCTION courses_search_vector_refresh() RETURNS trigger
+    LANGUAGE plpgsql
+    SET search_path FROM CURRENT
+AS
+$$
+BEGIN
+    NEW.search_vector := course_search_vector(NEW.id, NEW.title, NEW.description);
+    RETURN NEW;
+END;
+$$;
+
+CREATE TRIGGER courses_search_vector
+    BEFORE INSERT OR UPDATE OF title, description
+    ON courses
+    FOR EACH ROW
+EXECUTE FUNCTION courses_search_vector_refresh();
+
+-- Назначение и снятие тегов: курс пересчитывается один раз на оператор, даже при массовой разметке
+CREATE OR REPLACE FUNCTION course_tag_search_vector_refresh() RETURNS trigger
+    LANGUAGE plpgsql
+    SET search_path FROM CURRENT
+AS
+$$
+BEGIN
+    UPDATE courses c
+    SET search_vector = course_search_vector(c.id, c.title, c.description)
+    WHERE c.id IN (SELECT DISTINCT course_id FROM changed_rows);
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER course_tag_search_vector_insert
+    AFTER INSERT
+    ON course_tag
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION course_tag_search_vector_refresh();
+
+CREATE TRIGGER course_tag_search_vector_delete
+    AFTER DELETE
+    ON course_tag
+    REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION course_tag_search_vector_refresh();
+
+-- Переименование тега
+CREATE OR REPLACE FUNCTION tags_search_vector_refresh() RETURNS trigger
+    LANGUAGE plpgsql
+    SET search_path FROM CURRENT
+AS
+$$
+BEGIN
+    UPDATE courses c
+    SET search_vector = course_search_vector(c.id, c.title, c.description)
+    WHERE c.id IN (SELECT ct.course_id FROM course_tag ct WHERE ct.tag_id = NEW.id);
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER tags_search_vector
+    AFTER UPDATE OF name
+    ON tags
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name)
+EXECUTE FUNCTION tags_search_vector_refresh();
@@ -0,0 +1,27 @@
+-- V7__course_rating_stats.sql
+-- Агрегаты оценок курса: число и сумма оценок и распределение по звёздам.
+-- Поддерживаются приложением при изменении отзывов, поэтому средняя оценка не требует чтения отзывов.
+CREATE TABLE course_rating_stats
+(
+    course_id    BIGINT PRIMARY KEY REFERENCES courses (id) ON DELETE CASCADE,
+    review_count INTEGER NOT NULL DEFAULT 0,
+    rating_sum   BIGINT  NOT NULL DEFAULT 0,
+    rating_1     INTEGER NOT NULL DEFAULT 0,
+    rating_2     INTEGER NOT NULL DEFAULT 0,
+    rating_3     INTEGER NOT NULL DEFAULT 0,
+    rating_4     INTEGER NOT NULL DEFAULT 0,
+    rating_5     INTEGER NOT NULL DEFAULT 0
+);
+
+INSERT INTO course_rating_stats (course_id, review_count, rating_sum, rating_1, rating_2, rating_3, rating_4, rating_5)
+SELECT course_id,
+       count(*),
+       sum(rating),
+       count(*) FILTER (WHERE rating = 1),
+       count(*) FILTER (WHERE rating = 2),
+       count(*) FILTER (WHERE rating = 3),
+       count(*) FILTER (WHERE rating = 4),
+       count(*) FILTER (WHERE rating = 5)
+FROM course_reviews
+WHERE rating IS NOT NULL
+GROUP BY course_id;
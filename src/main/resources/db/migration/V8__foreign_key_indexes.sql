@@ -0,0 +1,29 @@
+-- V8__foreign_key_indexes.sql
+-- Индексы под запросы репозиториев: внешние ключи, по которым идёт выборка, и составные индексы
+-- для keyset-пагинации (фильтр + id). Внешние ключи, покрытые первым столбцом уникальных ограничений
+-- (submissions.assignment_id, course_reviews.course_id, enrollments.user_id), отдельных индексов не требуют.
+-- Проверяется QueryPlanIntegrationTest.
+
+CREATE INDEX idx_courses_teacher_id ON courses (teacher_id);
+CREATE INDEX idx_courses_category_id ON courses (category_id);
+
+CREATE INDEX idx_course_tag_tag_id ON course_tag (tag_id);
+
+-- Модули курса читаются в порядке order_index
+CREATE INDEX idx_modules_course_id_order_index ON modules (course_id, order_index);
+CREATE INDEX idx_lessons_module_id ON lessons (module_id);
+CREATE INDEX idx_assignments_lesson_id ON assignments (lesson_id);
+
+CREATE INDEX idx_questions_quiz_id ON questions (quiz_id, id);
+CREATE INDEX idx_answer_options_question_id ON answer_options (question_id);
+
+CREATE INDEX idx_submissions_student_id ON submissions (student_id, id);
+
+CREATE INDEX idx_quiz_submissions_quiz_id ON quiz_submissions (quiz_id, id);
+CREATE INDEX idx_quiz_submissions_student_id ON quiz_submissions (student_id, id);
+
+CREATE INDEX idx_course_reviews_student_id ON course_reviews (student_id, id);
+
+-- Первичный ключ (user_id, course_id) не помогает выборке студентов курса
+CREATE INDEX idx_enrollments_course_id ON enrollments (course_id, user_id);
+CREATE INDEX idx_enrollments_status ON enrollments (status);
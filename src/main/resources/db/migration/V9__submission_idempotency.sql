@@ -0,0 +1,52 @@
+-- V9__submission_idempotency.sql
+-- Студент сдаёт тест один раз: повторные результаты (кроме самого раннего) удаляются, пара (тест, студент) уникальна.
+-- Удаляемые результаты вместе с выбранными вариантами сохраняются в quiz_submissions_removed_duplicates,
+-- их число выводится в лог миграции.
+-- Ключ идемпотентности из заголовка Idempotency-Key сохраняется вместе с результатом, чтобы повтор запроса
+-- вернул уже созданную запись. Вставка идёт через INSERT ... ON CONFLICT DO NOTHING без предварительной проверки.
+CREATE TABLE quiz_submissions_removed_duplicates
+(
+    id                  BIGINT PRIMARY KEY,
+    quiz_id             BIGINT    NOT NULL,
+    student_id          BIGINT    NOT NULL,
+    score               INTEGER,
+    taken_at            TIMESTAMP,
+    selected_option_ids BIGINT[],
+    kept_id             BIGINT    NOT NULL,
+    removed_at          TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+DO
+$$
+    DECLARE
+        removed BIGINT;
+    BEGIN
+        WITH duplicates AS (
+            DELETE
+                FROM quiz_submissions qs
+                    USING (SELECT quiz_id, student_id, min(id) AS kept_id
+                           FROM quiz_submissions
+                           GROUP BY quiz_id, student_id
+                           HAVING count(*) > 1) earliest
+                WHERE earliest.quiz_id = qs.quiz_id
+                    AND earliest.student_id = qs.student_id
+                    AND qs.id > earliest.kept_id
+                RETURNING qs.id, qs.quiz_id, qs.student_id, qs.score, qs.taken_at, earliest.kept_id)
+        INSERT
+        INTO quiz_submissions_removed_duplicates (id, quiz_id, student_id, score, taken_at, selected_option_ids, kept_id)
+        SELECT d.id, d.quiz_id, d.student_id, d.score, d.taken_at, qa.selected_option_ids, d.kept_id
+        FROM duplicates d
+                 LEFT JOIN quiz_answers qa ON qa.quiz_submission_id = d.id;
+        GET DIAGNOSTICS removed = ROW_COUNT;
+        RAISE NOTICE 'Removed % duplicate quiz submissions, copies kept in quiz_submissions_removed_duplicates', removed;
+    END
+$$;
+
+ALTER TABLE quiz_submissions
+    ADD CONSTRAINT uq_quiz_submissions_quiz_id_student_id UNIQUE (quiz_id, student_id);
+
+ALTER TABLE quiz_submissions
+    ADD COLUMN idempotency_key VARCHAR(255) CONSTRAINT uq_quiz_submissions_idempotency_key UNIQUE;
+
+ALTER TABLE submissions
+    ADD COLUMN idempotency_key VARCHAR(255) CONSTRAINT uq_submissions_idempotency_key UNIQUE;
@@ -0,0 +1,28 @@
+package ru.dan.eduinstitution.config;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Максимальное число SQL-запросов на один HTTP-запрос теста, выполненный через TestRestTemplate.
+ * Число берётся из заголовка X-Sql-Statement-Count, проверка выполняется после теста.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlStatementCountExtension.class)
+public @interface MaxSqlStatements {
+
+    /**
+     * @return Допустимое число SQL-запросов
+     */
+    int value();
+
+    /**
+     * @return Шаблон пути проверяемых запросов (AntPathMatcher), по умолчанию все запросы теста
+     */
+    String uri() default "/**";
+}
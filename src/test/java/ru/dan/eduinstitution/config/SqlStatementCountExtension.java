@@ -0,0 +1,80 @@
+package ru.dan.eduinstitution.config;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Расширение JUnit для {@link MaxSqlStatements}: на время теста добавляет в TestRestTemplate перехватчик,
+ * который запоминает число SQL-запросов каждого ответа, и после теста сравнивает его с допустимым.
+ */
+public class SqlStatementCountExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(SqlStatementCountExtension.class);
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        RestTemplate restTemplate = restTemplate(context);
+        List<ClientHttpRequestInterceptor> original = new ArrayList<>(restTemplate.getInterceptors());
+        List<Request> requests = new CopyOnWriteArrayList<>();
+
+        List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>(original);
+        interceptors.add((request, body, execution) -> {
+            ClientHttpResponse response = execution.execute(request, body);
+            String count = response.getHeaders().getFirst(SqlStatementCountAdvice.HEADER);
+            requests.add(new Request(request.getMethod() + " " + request.getURI().getPath(),
+                    request.getURI().getPath(), count != null ? Integer.parseInt(count) : null));
+            return response;
+        });
+        restTemplate.setInterceptors(interceptors);
+
+        ExtensionContext.Store store = context.getStore(NAMESPACE);
+        store.put("original", original);
+        store.put("requests", requests);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void afterEach(ExtensionContext context) {
+        ExtensionContext.Store store = context.getStore(NAMESPACE);
+        restTemplate(context).setInterceptors(store.remove("original", List.class));
+        List<Request> requests = store.remove("requests", List.class);
+
+        MaxSqlStatements limit = context.getRequiredTestMethod().getAnnotation(MaxSqlStatements.class);
+        if (limit == null || context.getExecutionException().isPresent()) {
+            return;
+        }
+        List<Request> checked = requests.stream()
+                .filter(request -> PATH_MATCHER.match(limit.uri(), request.path()))
+                .toList();
+        assertFalse(checked.isEmpty(), () -> "No requests matched " + limit.uri());
+        for (Request request : checked) {
+            assertNotNull(request.statements(),
+                    () -> request.name() + " has no " + SqlStatementCountAdvice.HEADER + " header");
+            assertTrue(request.statements() <= limit.value(), () -> String.format(
+                    "%s executed %d SQL statements, expected at most %d", request.name(), request.statements(),
+                    limit.value()));
+        }
+    }
+
+    private static RestTemplate restTemplate(ExtensionContext context) {
+        return SpringExtension.getApplicationContext(context).getBean(TestRestTemplate.class).getRestTemplate();
+    }
+
+    private record Request(String name, String path, Integer statements) {
+    }
+}
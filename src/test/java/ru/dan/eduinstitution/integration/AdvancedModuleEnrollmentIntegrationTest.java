@@ -201,7 +201,8 @@ class AdvancedModuleEnrollmentIntegrationTest extends BaseTestWithContext {
 
         // Проверяем получение записей по статусу
         ResponseEntity<EnrollmentResponseDto[]> getStatusEnrollmentsResponse = restTemplate.getForEntity(
-                restTemplate.getRootUri() + "/enrollment/by-status/Completed", EnrollmentResponseDto[].class);
+                restTemplate.getRootUri() + "/enrollment/by-status/Completed?after=" + (student1Id - 1) + ":0",
+                EnrollmentResponseDto[].class);
         assertEquals(HttpStatus.OK, getStatusEnrollmentsResponse.getStatusCode());
         assertNotNull(getStatusEnrollmentsResponse.getBody());
         boolean found = false;
@@ -221,6 +221,11 @@ class AssignmentSubmissionIntegrationTest extends BaseTestWithContext {
         Long submissionId = createSubmissionResponse.getBody().getId();
         assertNotNull(submissionId);
 
+        // Повторный ответ без ключа идемпотентности отклоняется
+        ResponseEntity<String> duplicateSubmissionResponse = restTemplate.postForEntity(
+                restTemplate.getRootUri() + "/submission", submissionEntity, String.class);
+        assertEquals(HttpStatus.CONFLICT, duplicateSubmissionResponse.getStatusCode());
+
         // Проверяем получение ответа/решения по ID
         ResponseEntity<SubmissionResponseDto> getSubmissionResponse = restTemplate.getForEntity(
                 restTemplate.getRootUri() + "/submission/" + submissionId, SubmissionResponseDto.class);
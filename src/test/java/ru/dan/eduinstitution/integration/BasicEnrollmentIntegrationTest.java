@@ -104,4 +104,66 @@ class BasicEnrollmentIntegrationTest extends BaseTestWithContext {
         assertEquals(course.getId(), response.getBody().getCourseId());
         assertEquals("Active", response.getBody().getStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Проверка постраничного получения записей курса по курсору")
+    void testCourseEnrollmentsKeysetPagination() {
+        // Подготавливаем данные
+        Long categoryId = jdbcTemplate.queryForObject(
+            "SELECT id FROM edu_service.categories ORDER BY id LIMIT 1", Long.class);
+        Category category = categoryRepository.findById(categoryId).orElseThrow(() ->
+            new RuntimeException("Category with id " + categoryId + " not found"));
+
+        User teacher = new User();
+        teacher.setName("Paging Teacher");
+        teacher.setEmail("teacher.paging@example.com");
+        teacher.setRole(User.Role.TEACHER);
+        teacher = userRepository.save(teacher);
+
+        Course course = new Course();
+        course.setTitle("Paging Course");
+        course.setCategory(category);
+        course.setTeacher(teacher);
+        course.setDuration(30);
+        course.setStartDate(LocalDate.now());
+        course = courseRepository.save(course);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        for (int i = 1; i <= 3; i++) {
+            User student = new User();
+            student.setName("Paging Student " + i);
+            student.setEmail("student.paging" + i + "@example.com");
+            student.setRole(User.Role.STUDENT);
+            student = userRepository.save(student);
+
+            EnrollmentRequestDto requestDto = new EnrollmentRequestDto();
+            requestDto.setStudentId(student.getId());
+            requestDto.setCourseId(course.getId());
+            ResponseEntity<EnrollmentResponseDto> enrollResponse = restTemplate.postForEntity(
+                    restTemplate.getRootUri() + "/enrollment/enroll",
+                    new HttpEntity<>(requestDto, headers), EnrollmentResponseDto.class);
+            assertEquals(HttpStatus.CREATED, enrollResponse.getStatusCode());
+        }
+
+        // Первая страница содержит курсор следующей
+        ResponseEntity<EnrollmentResponseDto[]> firstPage = restTemplate.getForEntity(
+                restTemplate.getRootUri() + "/enrollment/course/" + course.getId() + "?size=2",
+                EnrollmentResponseDto[].class);
+        assertEquals(HttpStatus.OK, firstPage.getStatusCode());
+        assertNotNull(firstPage.getBody());
+        assertEquals(2, firstPage.getBody().length);
+        String nextCursor = firstPage.getHeaders().getFirst("X-Next-Cursor");
+        assertEquals(String.valueOf(firstPage.getBody()[1].getStudentId()), nextCursor);
+
+        // Последняя страница без курсора
+        ResponseEntity<EnrollmentResponseDto[]> secondPage = restTemplate.getForEntity(
+                restTemplate.getRootUri() + "/enrollment/course/" + course.getId() + "?size=2&after=" + nextCursor,
+                EnrollmentResponseDto[].class);
+        assertEquals(HttpStatus.OK, secondPage.getStatusCode());
+        assertNotNull(secondPage.getBody());
+        assertEquals(1, secondPage.getBody().length);
+        assertTrue(secondPage.getBody()[0].getStudentId() > firstPage.getBody()[1].getStudentId());
+        assertNull(secondPage.getHeaders().getFirst("X-Next-Cursor"));
+    }
+}
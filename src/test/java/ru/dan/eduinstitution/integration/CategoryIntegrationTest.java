@@ -5,6 +5,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import ru.dan.eduinstitution.config.BaseTestWithContext;
 import ru.dan.eduinstitution.model.CategoryResponseDto;
@@ -82,4 +85,25 @@ class CategoryIntegrationTest extends BaseTestWithContext {
         assertEquals(404, response.getStatusCodeValue());
         assertNull(response.getBody());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Тест повторного запроса категорий с If-None-Match")
+    void getAllCategoriesViaRestApi_WithMatchingEtag_ReturnsNotModified() {
+        // Given
+        ResponseEntity<CategoryResponseDto[]> first = restTemplate.getForEntity("/category", CategoryResponseDto[].class);
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+
+        // When
+        ResponseEntity<CategoryResponseDto[]> response = restTemplate.exchange(
+                "/category", HttpMethod.GET, new HttpEntity<>(headers), CategoryResponseDto[].class);
+
+        // Then
+        assertEquals(304, response.getStatusCodeValue());
+        assertNull(response.getBody());
+        assertEquals(etag, response.getHeaders().getETag());
+    }
+}
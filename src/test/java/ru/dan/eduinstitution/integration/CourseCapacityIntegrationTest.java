@@ -0,0 +1,234 @@
+package ru.dan.eduinstitution.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.dan.eduinstitution.config.BaseTestWithContext;
+import ru.dan.eduinstitution.model.CourseEnrollmentCountsDto;
+import ru.dan.eduinstitution.model.CourseResponseDto;
+import ru.dan.eduinstitution.model.CourseUpdateDto;
+import ru.dan.eduinstitution.model.EnrollmentRequestDto;
+import ru.dan.eduinstitution.model.EnrollmentResponseDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционный тест лимита мест курса и очереди ожидания.
+ */
+class CourseCapacityIntegrationTest extends BaseTestWithContext {
+
+    private static final int CAPACITY = 5;
+    private static final int STUDENTS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long teacherId;
+    private Long courseId;
+    private final List<Long> studentIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        long suffix = System.nanoTime();
+        teacherId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.users (name, email, role) VALUES ('Capacity Teacher', ?, 'TEACHER') RETURNING id",
+                Long.class, "capacity.teacher." + suffix + "@example.com");
+        courseId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.courses (title, teacher_id, duration, capacity) VALUES ('Capacity Course', ?, 30, ?) "
+                        + "RETURNING id",
+                Long.class, teacherId, CAPACITY);
+        studentIds.clear();
+        for (int i = 0; i < STUDENTS; i++) {
+            studentIds.add(jdbcTemplate.queryForObject(
+                    "INSERT INTO edu_service.users (name, email, role) VALUES ('Capacity Student', ?, 'STUDENT') RETURNING id",
+                    Long.class, "capacity.student." + suffix + "." + i + "@example.com"));
+        }
+    }
+
+    @Test
+    @DisplayName("Одновременные записи занимают не больше мест, чем лимит курса, остальные попадают в очередь")
+    void concurrentEnrollments_DoNotExceedCapacity() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(STUDENTS);
+        List<Future<ResponseEntity<EnrollmentResponseDto>>> responses = new ArrayList<>();
+
+        // When
+        try {
+            for (Long studentId : studentIds) {
+                responses.add(executor.submit(() -> enroll(studentId)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        int enrolled = 0;
+        List<Integer> positions = new ArrayList<>();
+        for (Future<ResponseEntity<EnrollmentResponseDto>> response : responses) {
+            ResponseEntity<EnrollmentResponseDto> result = response.get();
+            if (result.getStatusCode() == HttpStatus.CREATED) {
+                enrolled++;
+            } else {
+                assertEquals(HttpStatus.ACCEPTED, result.getStatusCode());
+                assertEquals("Waitlisted", result.getBody().getStatus());
+                positions.add(result.getBody().getWaitlistPosition());
+            }
+        }
+
+        // Then
+        assertEquals(CAPACITY, enrolled);
+        assertEquals(STUDENTS - CAPACITY, positions.size());
+        assertEquals(new CourseEnrollmentCountsDto(courseId, CAPACITY, 0, 0, CAPACITY, STUDENTS - CAPACITY), counts());
+        assertEquals(CAPACITY, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM edu_service.enrollments WHERE course_id = ?", Integer.class, courseId));
+    }
+
+    @Test
+    @DisplayName("Освободившееся место отдаётся первому в очереди, повторная запись отклоняется")
+    void unenroll_PromotesFirstWaitlistedStudent() {
+        // Given
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(HttpStatus.CREATED, enroll(studentIds.get(i)).getStatusCode());
+        }
+        ResponseEntity<EnrollmentResponseDto> first = enroll(studentIds.get(CAPACITY));
+        ResponseEntity<EnrollmentResponseDto> second = enroll(studentIds.get(CAPACITY + 1));
+        ResponseEntity<EnrollmentResponseDto> repeated = enroll(studentIds.get(CAPACITY));
+        ResponseEntity<EnrollmentResponseDto> duplicate = enroll(studentIds.get(0));
+
+        // When
+        restTemplate.delete("/enrollment/unenroll/" + studentIds.get(0) + "/" + courseId);
+
+        // Then
+        assertEquals(HttpStatus.ACCEPTED, first.getStatusCode());
+        assertEquals(1, first.getBody().getWaitlistPosition());
+        assertEquals(2, second.getBody().getWaitlistPosition());
+        assertEquals(1, repeated.getBody().getWaitlistPosition(), "Repeated request must keep the queue position");
+        assertEquals(HttpStatus.CONFLICT, duplicate.getStatusCode());
+
+        assertEquals(new CourseEnrollmentCountsDto(courseId, CAPACITY, 0, 0, CAPACITY, 1), counts());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM edu_service.enrollments WHERE user_id = ? AND course_id = ? AND status = 1",
+                Integer.class, studentIds.get(CAPACITY), courseId));
+    }
+
+    @Test
+    @DisplayName("Увеличение лимита записывает студентов из очереди, а отчисленный не возвращается на заполненный курс")
+    void raiseCapacity_PromotesWaitlistAndDroppedNeedsSeat() {
+        // Given
+        for (int i = 0; i < CAPACITY + 2; i++) {
+            enroll(studentIds.get(i));
+        }
+        updateStatus(studentIds.get(0), "Dropped");
+        ResponseEntity<EnrollmentResponseDto> restore = updateStatus(studentIds.get(0), "Active");
+
+        // When
+        CourseUpdateDto update = new CourseUpdateDto();
+        update.setCapacity(CAPACITY + 2);
+        ResponseEntity<CourseResponseDto> updated = restTemplate.exchange("/course/" + courseId, HttpMethod.PUT,
+                new HttpEntity<>(update), CourseResponseDto.class);
+
+        // Then
+        assertEquals(HttpStatus.CONFLICT, restore.getStatusCode());
+        assertEquals(HttpStatus.OK, updated.getStatusCode());
+        assertEquals(CAPACITY + 2, updated.getBody().getCapacity());
+        assertEquals(new CourseEnrollmentCountsDto(courseId, CAPACITY + 1, 0, 1, CAPACITY + 2, 0), counts());
+        assertEquals(HttpStatus.OK, updateStatus(studentIds.get(0), "Active").getStatusCode());
+        assertEquals(new CourseEnrollmentCountsDto(courseId, CAPACITY + 2, 0, 0, CAPACITY + 2, 0), counts());
+    }
+
+    @Test
+    @DisplayName("Снятие лимита мест записывает всю очередь ожидания")
+    void removeCapacity_PromotesWholeWaitlist() {
+        // Given
+        for (int i = 0; i < CAPACITY + 3; i++) {
+            enroll(studentIds.get(i));
+        }
+        CourseUpdateDto conflicting = new CourseUpdateDto();
+        conflicting.setCapacity(CAPACITY + 1);
+        conflicting.setUnlimitedCapacity(true);
+        CourseUpdateDto update = new CourseUpdateDto();
+        update.setUnlimitedCapacity(true);
+
+        // When
+        ResponseEntity<String> rejected = restTemplate.exchange("/course/" + courseId, HttpMethod.PUT,
+                new HttpEntity<>(conflicting), String.class);
+        ResponseEntity<CourseResponseDto> updated = restTemplate.exchange("/course/" + courseId, HttpMethod.PUT,
+                new HttpEntity<>(update), CourseResponseDto.class);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        assertEquals(HttpStatus.OK, updated.getStatusCode());
+        assertNull(updated.getBody().getCapacity());
+        assertEquals(new CourseEnrollmentCountsDto(courseId, CAPACITY + 3, 0, 0, null, 0), counts());
+        assertEquals(HttpStatus.CREATED, enroll(studentIds.get(CAPACITY + 3)).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Студент из очереди, записавшийся на свободное место, удаляется из очереди")
+    void enrollFromWaitlist_RemovesWaitlistEntry() {
+        // Given
+        for (int i = 0; i < CAPACITY; i++) {
+            enroll(studentIds.get(i));
+        }
+        assertEquals(HttpStatus.ACCEPTED, enroll(studentIds.get(CAPACITY)).getStatusCode());
+        jdbcTemplate.update("UPDATE edu_service.courses SET capacity = ? WHERE id = ?", CAPACITY + 1, courseId);
+
+        // When
+        ResponseEntity<EnrollmentResponseDto> enrolled = enroll(studentIds.get(CAPACITY));
+
+        // Then
+        assertEquals(HttpStatus.CREATED, enrolled.getStatusCode());
+        assertEquals(new CourseEnrollmentCountsDto(courseId, CAPACITY + 1, 0, 0, CAPACITY + 1, 0), counts());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM edu_service.course_waitlist WHERE course_id = ?", Integer.class, courseId));
+    }
+
+    @Test
+    @DisplayName("Лимит мест курса возвращается в результатах поиска")
+    void searchCourses_ReturnsCapacity() throws Exception {
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "/course/search?teacherId=" + teacherId, String.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode content = objectMapper.readTree(response.getBody()).get("content");
+        assertEquals(1, content.size());
+        assertEquals(courseId, content.get(0).get("id").asLong());
+        assertEquals(CAPACITY, content.get(0).get("capacity").asInt());
+    }
+
+    private ResponseEntity<EnrollmentResponseDto> enroll(Long studentId) {
+        EnrollmentRequestDto request = new EnrollmentRequestDto();
+        request.setStudentId(studentId);
+        request.setCourseId(courseId);
+        return restTemplate.postForEntity("/enrollment/enroll", request, EnrollmentResponseDto.class);
+    }
+
+    private ResponseEntity<EnrollmentResponseDto> updateStatus(Long studentId, String status) {
+        return restTemplate.exchange("/enrollment/update-status/" + studentId + "/" + courseId, HttpMethod.PUT,
+                new HttpEntity<>(status), EnrollmentResponseDto.class);
+    }
+
+    private CourseEnrollmentCountsDto counts() {
+        ResponseEntity<CourseEnrollmentCountsDto> response = restTemplate.getForEntity(
+                "/enrollment/course/" + courseId + "/counts", CourseEnrollmentCountsDto.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+}
@@ -0,0 +1,168 @@
+package ru.dan.eduinstitution.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.dan.eduinstitution.config.BaseTestWithContext;
+import ru.dan.eduinstitution.entity.User;
+import ru.dan.eduinstitution.model.CourseImportResultDto;
+import ru.dan.eduinstitution.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционный тест массового импорта курсов.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CourseImportIntegrationTest extends BaseTestWithContext {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long teacherId;
+
+    @BeforeEach
+    void setUp() {
+        User teacher = userRepository.findAll().stream()
+                .filter(user -> "import.teacher@example.com".equals(user.getEmail()))
+                .findFirst()
+                .orElseGet(() -> userRepository.save(User.builder()
+                        .name("Import Teacher")
+                        .email("import.teacher@example.com")
+                        .role(User.Role.TEACHER)
+                        .build()));
+        teacherId = teacher.getId();
+    }
+
+    @Test
+    @DisplayName("Импорт дерева курсов из NDJSON")
+    void importCoursesFromNdjson_CreatesWholeTree() {
+        // Given
+        String body = """
+                {"title":"Imported Java","categoryId":1,"teacherId":%1$d,"modules":[{"title":"Basics","orderIndex":1,"lessons":[{"title":"Intro","assignments":[{"title":"Hello","maxScore":100}]}],"quiz":{"title":"Basics Quiz","timeLimit":10,"questions":[{"text":"2+2?","type":"SINGLE_CHOICE","options":[{"text":"4","isCorrect":true},{"text":"5"}]}]}}]}
+                {"title":"Imported Go","categoryId":1,"teacherId":%1$d}
+                """.formatted(teacherId);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+        // When
+        ResponseEntity<CourseImportResultDto> response = restTemplate.postForEntity(
+                "/course/import", new HttpEntity<>(body, headers), CourseImportResultDto.class);
+
+        // Then
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        CourseImportResultDto result = response.getBody();
+        assertNotNull(result);
+        assertEquals(2, result.getCourses());
+        assertEquals(1, result.getModules());
+        assertEquals(1, result.getLessons());
+        assertEquals(1, result.getAssignments());
+        assertEquals(1, result.getQuizzes());
+        assertEquals(1, result.getQuestions());
+        assertEquals(2, result.getAnswerOptions());
+
+        Integer correctOptions = jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM edu_service.answer_options ao
+                JOIN edu_service.questions q ON q.id = ao.question_id
+                JOIN edu_service.quizzes qz ON qz.id = q.quiz_id
+                JOIN edu_service.modules m ON m.id = qz.module_id
+                JOIN edu_service.courses c ON c.id = m.course_id
+                WHERE c.title = 'Imported Java' AND ao.is_correct
+                """, Integer.class);
+        assertEquals(1, correctOptions);
+    }
+
+    @Test
+    @DisplayName("Импорт курса без названия отклоняется")
+    void importCourseWithoutTitle_ReturnsError() {
+        // Given
+        String body = "[{\"categoryId\":1,\"teacherId\":" + teacherId + "}]";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        Integer coursesBefore = teacherCourseCount();
+
+        // When
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "/course/import", new HttpEntity<>(body, headers), String.class);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(coursesBefore, teacherCourseCount());
+    }
+
+    @Test
+    @DisplayName("Импорт вопроса с неизвестным типом отклоняется с кодом 400")
+    void importQuestionWithUnknownType_ReturnsBadRequest() {
+        // Given
+        String body = """
+                [{"title":"Bad Quiz Course","categoryId":1,"teacherId":%d,"modules":[{"title":"Basics","orderIndex":1,"quiz":{"title":"Basics Quiz","questions":[{"text":"2+2?","type":"ESSAY"}]}}]}]
+                """.formatted(teacherId);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        Integer coursesBefore = teacherCourseCount();
+
+        // When
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "/course/import", new HttpEntity<>(body, headers), String.class);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(coursesBefore, teacherCourseCount());
+    }
+
+    @Test
+    @DisplayName("Импорт некорректного JSON отклоняется с кодом 400")
+    void importMalformedJson_ReturnsBadRequest() {
+        // Given
+        String body = """
+                {"title":"Broken Json","categoryId":1,"teacherId":%d,"modules":[
+                """.formatted(teacherId);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        Integer coursesBefore = teacherCourseCount();
+
+        // When
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "/course/import", new HttpEntity<>(body, headers), String.class);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(coursesBefore, teacherCourseCount());
+    }
+
+    @Test
+    @DisplayName("Импорт курса с modules = null отклоняется с кодом 400")
+    void importCourseWithNullModules_ReturnsBadRequest() {
+        // Given
+        String body = """
+                [{"title":"Null Modules","categoryId":1,"teacherId":%d,"modules":null}]
+                """.formatted(teacherId);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        Integer coursesBefore = teacherCourseCount();
+
+        // When
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "/course/import", new HttpEntity<>(body, headers), String.class);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(coursesBefore, teacherCourseCount());
+    }
+
+    private Integer teacherCourseCount() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM edu_service.courses WHERE teacher_id = ?", Integer.class, teacherId);
+    }
+}
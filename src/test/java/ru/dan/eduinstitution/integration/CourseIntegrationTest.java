@@ -12,6 +12,7 @@ import ru.dan.eduinstitution.config.BaseTestWithContext;
 import ru.dan.eduinstitution.entity.Category;
 import ru.dan.eduinstitution.entity.Course;
 import ru.dan.eduinstitution.entity.User;
+import ru.dan.eduinstitution.model.SuggestionDto;
 import ru.dan.eduinstitution.repository.CategoryRepository;
 import ru.dan.eduinstitution.repository.CourseRepository;
 import ru.dan.eduinstitution.repository.UserRepository;
@@ -19,6 +20,7 @@ import ru.dan.eduinstitution.service.CategoryCacheService;
 
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -196,4 +198,59 @@ class CourseIntegrationTest extends BaseTestWithContext {
             fail("Failed to parse JSON response: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Тест полнотекстового поиска курсов с фильтром по дате начала")
+    void searchCourses_ReturnsRankedFilteredPage() throws IOException {
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity("/course/search?q=development", String.class);
+        ResponseEntity<String> filteredResponse = restTemplate.getForEntity(
+                "/course/search?q=development&startFrom=" + LocalDate.now().plusDays(10), String.class);
+
+        // Then
+        assertEquals(200, response.getStatusCodeValue());
+        Map<String, Object> responseBody = objectMapper.readValue(response.getBody(), new TypeReference<Map<String, Object>>() {});
+        assertEquals(2, (Integer) responseBody.get("numberOfElements"));
+
+        assertEquals(200, filteredResponse.getStatusCodeValue());
+        Map<String, Object> filteredBody = objectMapper.readValue(filteredResponse.getBody(), new TypeReference<Map<String, Object>>() {});
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> content = (List<Map<String, Object>>) filteredBody.get("content");
+        assertEquals(1, content.size());
+        assertEquals("Mobile Development", content.get(0).get("title"));
+    }
+
+    @Test
+    @DisplayName("Тест сортировки результатов поиска курсов")
+    void searchCourses_AppliesSortAndRejectsUnknownProperty() throws IOException {
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "/course/search?q=development&sort=duration,desc", String.class);
+        ResponseEntity<String> unknownSortResponse = restTemplate.getForEntity(
+                "/course/search?q=development&sort=description", String.class);
+
+        // Then
+        assertEquals(200, response.getStatusCodeValue());
+        Map<String, Object> responseBody = objectMapper.readValue(response.getBody(), new TypeReference<Map<String, Object>>() {});
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> content = (List<Map<String, Object>>) responseBody.get("content");
+        assertEquals(List.of("Mobile Development", "Web Development"),
+                content.stream().map(course -> course.get("title")).toList());
+
+        assertEquals(400, unknownSortResponse.getStatusCodeValue());
+    }
+
+    @Test
+    @DisplayName("Тест подсказок курсов по началу названия")
+    void autocompleteCourses_ReturnsCoursesByTitlePrefix() {
+        // When
+        ResponseEntity<SuggestionDto[]> response = restTemplate.getForEntity(
+                "/course/autocomplete?prefix=MOBILE d&limit=5", SuggestionDto[].class);
+
+        // Then
+        assertEquals(200, response.getStatusCodeValue());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().length);
+        assertEquals("Mobile Development", response.getBody()[0].getText());
+    }
+}
@@ -0,0 +1,104 @@
+package ru.dan.eduinstitution.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.dan.eduinstitution.config.BaseTestWithContext;
+import ru.dan.eduinstitution.config.MaxSqlStatements;
+import ru.dan.eduinstitution.model.CourseOutlineDto;
+import ru.dan.eduinstitution.model.LessonCreateDto;
+import ru.dan.eduinstitution.model.LessonResponseDto;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционный тест структуры курса.
+ */
+class CourseOutlineIntegrationTest extends BaseTestWithContext {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long courseId;
+    private Long firstModuleId;
+    private Long lessonId;
+
+    @BeforeEach
+    void setUp() {
+        Long teacherId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.users (name, email, role) VALUES ('Outline Teacher', ?, 'TEACHER') RETURNING id",
+                Long.class, "outline.teacher." + System.nanoTime() + "@example.com");
+        courseId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.courses (title, teacher_id, duration) VALUES ('Outline Course', ?, 30) RETURNING id",
+                Long.class, teacherId);
+        Long secondModuleId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.modules (course_id, title, order_index) VALUES (?, 'Second', 2) RETURNING id",
+                Long.class, courseId);
+        firstModuleId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.modules (course_id, title, order_index) VALUES (?, 'First', 1) RETURNING id",
+                Long.class, courseId);
+        lessonId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.lessons (module_id, title, content) VALUES (?, 'Intro', 'Long lesson body') RETURNING id",
+                Long.class, firstModuleId);
+        jdbcTemplate.update("INSERT INTO edu_service.lessons (module_id, title) VALUES (?, 'Advanced')", secondModuleId);
+        jdbcTemplate.update(
+                "INSERT INTO edu_service.assignments (lesson_id, title, max_score) VALUES (?, 'Homework', 100)", lessonId);
+        jdbcTemplate.update(
+                "INSERT INTO edu_service.quizzes (module_id, title, time_limit) VALUES (?, 'First Quiz', 15)", firstModuleId);
+    }
+
+    @Test
+    @MaxSqlStatements(value = 4, uri = "/course/*/outline")
+    @DisplayName("Структура курса собирается не более чем из четырёх запросов и содержит всё дерево")
+    void getCourseOutline_ReturnsTreeWithinFourStatements() {
+        // When
+        ResponseEntity<CourseOutlineDto> response = restTemplate.getForEntity(
+                "/course/" + courseId + "/outline", CourseOutlineDto.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        CourseOutlineDto outline = response.getBody();
+        assertEquals("Outline Course", outline.getTitle());
+        assertEquals(List.of("First", "Second"), outline.getModules().stream()
+                .map(CourseOutlineDto.ModuleOutline::getTitle).toList());
+
+        CourseOutlineDto.ModuleOutline first = outline.getModules().get(0);
+        assertEquals("First Quiz", first.getQuiz().getTitle());
+        assertEquals(15, first.getQuiz().getTimeLimit());
+        assertEquals(1, first.getLessons().size());
+        assertEquals(lessonId, first.getLessons().get(0).getId());
+        assertEquals("Homework", first.getLessons().get(0).getAssignments().get(0).getTitle());
+
+        CourseOutlineDto.ModuleOutline second = outline.getModules().get(1);
+        assertNull(second.getQuiz());
+        assertEquals("Advanced", second.getLessons().get(0).getTitle());
+        assertTrue(second.getLessons().get(0).getAssignments().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Создание урока сбрасывает кешированную структуру курса")
+    void createLesson_EvictsCachedOutline() {
+        // Given
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity(
+                "/course/" + courseId + "/outline", CourseOutlineDto.class).getStatusCode());
+        LessonCreateDto lesson = new LessonCreateDto();
+        lesson.setModuleId(firstModuleId);
+        lesson.setTitle("Added Later");
+
+        // When
+        ResponseEntity<LessonResponseDto> created = restTemplate.postForEntity("/lesson", lesson, LessonResponseDto.class);
+        ResponseEntity<CourseOutlineDto> response = restTemplate.getForEntity(
+                "/course/" + courseId + "/outline", CourseOutlineDto.class);
+
+        // Then
+        assertEquals(HttpStatus.CREATED, created.getStatusCode());
+        assertEquals(List.of("Intro", "Added Later"), response.getBody().getModules().get(0).getLessons().stream()
+                .map(CourseOutlineDto.LessonOutline::getTitle).toList());
+    }
+}
@@ -16,6 +16,8 @@ import ru.dan.eduinstitution.entity.Category;
 import ru.dan.eduinstitution.model.*;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -197,6 +199,33 @@ class CourseReviewIntegrationTest extends BaseTestWithContext {
         assertEquals(HttpStatus.OK, getAverageRatingAfterUpdateResponse.getStatusCode());
         assertNotNull(getAverageRatingAfterUpdateResponse.getBody());
         assertEquals(Double.valueOf(4.0), getAverageRatingAfterUpdateResponse.getBody());
+
+        // Проверяем агрегаты оценок: старая оценка вычтена, новая учтена
+        ResponseEntity<CourseRatingStatsDto> getRatingStatsResponse = restTemplate.getForEntity(
+                restTemplate.getRootUri() + "/course-review/course/" + courseId + "/rating-stats", CourseRatingStatsDto.class);
+        assertEquals(HttpStatus.OK, getRatingStatsResponse.getStatusCode());
+        assertNotNull(getRatingStatsResponse.getBody());
+        assertEquals(Integer.valueOf(1), getRatingStatsResponse.getBody().getReviewCount());
+        assertEquals(List.of(0, 0, 0, 1, 0), getRatingStatsResponse.getBody().getHistogram());
+
+        // Оценка встроена в данные курса и попадает в список лучших курсов
+        ResponseEntity<CourseResponseDto> getCourseResponse = restTemplate.getForEntity(
+                restTemplate.getRootUri() + "/course/" + courseId, CourseResponseDto.class);
+        assertEquals(HttpStatus.OK, getCourseResponse.getStatusCode());
+        assertEquals(Double.valueOf(4.0), getCourseResponse.getBody().getAverageRating());
+        assertEquals(Integer.valueOf(1), getCourseResponse.getBody().getReviewCount());
+
+        ResponseEntity<CourseResponseDto[]> topRatedResponse = restTemplate.getForEntity(
+                restTemplate.getRootUri() + "/course/top-rated?limit=100", CourseResponseDto[].class);
+        assertEquals(HttpStatus.OK, topRatedResponse.getStatusCode());
+        assertTrue(Arrays.stream(topRatedResponse.getBody()).anyMatch(course -> course.getId().equals(courseId)));
+
+        // После удаления отзыва у курса нет оценок
+        restTemplate.delete(restTemplate.getRootUri() + "/course-review/" + reviewId);
+        ResponseEntity<CourseResponseDto> getCourseAfterDeleteResponse = restTemplate.getForEntity(
+                restTemplate.getRootUri() + "/course/" + courseId, CourseResponseDto.class);
+        assertEquals(Integer.valueOf(0), getCourseAfterDeleteResponse.getBody().getReviewCount());
+        assertNull(getCourseAfterDeleteResponse.getBody().getAverageRating());
     }
 
     @Test
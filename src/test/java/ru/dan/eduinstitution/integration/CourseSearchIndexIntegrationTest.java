@@ -0,0 +1,122 @@
+package ru.dan.eduinstitution.integration;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import ru.dan.eduinstitution.config.BaseTestWithContext;
+import ru.dan.eduinstitution.entity.Category;
+import ru.dan.eduinstitution.entity.Course;
+import ru.dan.eduinstitution.entity.User;
+import ru.dan.eduinstitution.model.TagCreateDto;
+import ru.dan.eduinstitution.model.TagResponseDto;
+import ru.dan.eduinstitution.repository.CategoryRepository;
+import ru.dan.eduinstitution.repository.CourseRepository;
+import ru.dan.eduinstitution.repository.UserRepository;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционный тест поиска курсов по индексу в памяти.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = "app.search.engine=memory")
+class CourseSearchIndexIntegrationTest extends BaseTestWithContext {
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        User teacher = userRepository.findAll().stream()
+                .filter(user -> "index.teacher@example.com".equals(user.getEmail()))
+                .findFirst()
+                .orElseGet(() -> userRepository.save(User.builder()
+                        .name("Index Teacher")
+                        .email("index.teacher@example.com")
+                        .role(User.Role.TEACHER)
+                        .build()));
+        Category category = categoryRepository.findById(1L).orElseThrow();
+
+        course = new Course();
+        course.setTitle("Quantumphysics Basics " + System.nanoTime());
+        course.setDescription("Introduction to wave functions");
+        course.setCategory(category);
+        course.setTeacher(teacher);
+        course.setDuration(30);
+        course.setStartDate(LocalDate.now());
+        course = courseRepository.save(course);
+    }
+
+    @Test
+    @DisplayName("Поиск по префиксу находит курс и учитывает добавленный тег")
+    void searchByPrefix_FindsCourseAndAddedTag() throws IOException {
+        // Given
+        String tagName = "Relativity" + System.nanoTime();
+        TagCreateDto tagCreateDto = new TagCreateDto();
+        tagCreateDto.setName(tagName);
+        ResponseEntity<TagResponseDto> tagResponse = restTemplate.postForEntity("/tag", tagCreateDto, TagResponseDto.class);
+        assertEquals(HttpStatus.CREATED, tagResponse.getStatusCode());
+        restTemplate.postForEntity("/tag/course/" + course.getId() + "/tag/" + tagResponse.getBody().getId(),
+                null, Void.class);
+
+        // When
+        List<Map<String, Object>> byTitlePrefix = search("quantumph");
+        List<Map<String, Object>> byWordAndTag = search("wave " + tagName.toLowerCase().substring(0, 8));
+
+        // Then
+        assertTrue(containsCourse(byTitlePrefix));
+        assertTrue(containsCourse(byWordAndTag));
+    }
+
+    @Test
+    @DisplayName("Изменение названия курса обновляет индекс")
+    void renameCourse_UpdatesIndex() throws IOException {
+        // Given
+        course.setTitle("Astrochemistry Basics");
+        courseRepository.save(course);
+
+        // When
+        List<Map<String, Object>> byOldTitle = search("quantumphysics");
+        List<Map<String, Object>> byNewTitle = search("astrochem");
+
+        // Then
+        assertFalse(containsCourse(byOldTitle));
+        assertTrue(containsCourse(byNewTitle));
+    }
+
+    private List<Map<String, Object>> search(String query) throws IOException {
+        ResponseEntity<String> response = restTemplate.getForEntity("/course/search?size=100&q={q}", String.class, query);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<String, Object> body = objectMapper.readValue(response.getBody(), new TypeReference<Map<String, Object>>() {});
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> content = (List<Map<String, Object>>) body.get("content");
+        return content;
+    }
+
+    private boolean containsCourse(List<Map<String, Object>> content) {
+        return content.stream().anyMatch(dto -> course.getId().equals(((Number) dto.get("id")).longValue()));
+    }
+}
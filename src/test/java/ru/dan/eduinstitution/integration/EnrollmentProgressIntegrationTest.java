@@ -0,0 +1,162 @@
+package ru.dan.eduinstitution.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.dan.eduinstitution.config.BaseTestWithContext;
+import ru.dan.eduinstitution.model.AssignmentCreateDto;
+import ru.dan.eduinstitution.model.AssignmentResponseDto;
+import ru.dan.eduinstitution.model.EnrollmentRequestDto;
+import ru.dan.eduinstitution.model.EnrollmentResponseDto;
+import ru.dan.eduinstitution.model.QuizCreateDto;
+import ru.dan.eduinstitution.model.QuizResponseDto;
+import ru.dan.eduinstitution.model.QuizSubmissionCreateDto;
+import ru.dan.eduinstitution.model.QuizSubmissionResponseDto;
+import ru.dan.eduinstitution.model.SubmissionCreateDto;
+import ru.dan.eduinstitution.model.SubmissionGradeDto;
+import ru.dan.eduinstitution.model.SubmissionResponseDto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционный тест прогресса прохождения курса.
+ */
+class EnrollmentProgressIntegrationTest extends BaseTestWithContext {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long studentId;
+    private Long courseId;
+    private Long assignmentId;
+    private Long quizId;
+
+    @BeforeEach
+    void setUp() {
+        Long teacherId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.users (name, email, role) VALUES ('Progress Teacher', ?, 'TEACHER') RETURNING id",
+                Long.class, "progress.teacher." + System.nanoTime() + "@example.com");
+        studentId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.users (name, email, role) VALUES ('Progress Student', ?, 'STUDENT') RETURNING id",
+                Long.class, "progress.student." + System.nanoTime() + "@example.com");
+        courseId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.courses (title, teacher_id, duration) VALUES ('Progress Course', ?, 30) RETURNING id",
+                Long.class, teacherId);
+        Long moduleId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.modules (course_id, title, order_index) VALUES (?, 'Module', 1) RETURNING id",
+                Long.class, courseId);
+        Long lessonId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.lessons (module_id, title) VALUES (?, 'Lesson') RETURNING id",
+                Long.class, moduleId);
+
+        // Задание и тест создаются через API, чтобы пересчиталось число элементов курса
+        AssignmentCreateDto assignment = new AssignmentCreateDto();
+        assignment.setLessonId(lessonId);
+        assignment.setTitle("Homework");
+        assignment.setMaxScore(100);
+        assignmentId = restTemplate.postForEntity("/assignment", assignment, AssignmentResponseDto.class)
+                .getBody().getId();
+        QuizCreateDto quiz = new QuizCreateDto();
+        quiz.setModuleId(moduleId);
+        quiz.setTitle("Quiz");
+        quizId = restTemplate.postForEntity("/quiz", quiz, QuizResponseDto.class).getBody().getId();
+    }
+
+    @Test
+    @DisplayName("Оценка ответа и сдача теста увеличивают прогресс и завершают запись")
+    void gradeAndQuizSubmission_UpdateProgressAndCompleteEnrollment() {
+        // Given
+        enroll();
+        Long submissionId = submitAssignment();
+
+        // When
+        grade(submissionId, 80);
+        grade(submissionId, 90);
+        EnrollmentResponseDto halfway = studentEnrollment();
+        submitQuiz();
+        EnrollmentResponseDto completed = studentEnrollment();
+
+        // Then
+        assertEquals(1, halfway.getGradedAssignments(), "Regrading must not count the submission twice");
+        assertEquals(1, halfway.getTotalAssignments());
+        assertEquals(0, halfway.getSubmittedQuizzes());
+        assertEquals(1, halfway.getTotalQuizzes());
+        assertEquals(50, halfway.getProgressPercent());
+        assertEquals("Active", halfway.getStatus());
+
+        assertEquals(1, completed.getSubmittedQuizzes());
+        assertEquals(100, completed.getProgressPercent());
+        assertEquals("Completed", completed.getStatus());
+    }
+
+    @Test
+    @DisplayName("Работы, сданные до записи, засчитываются, а новое задание уменьшает прогресс")
+    void enrollAfterSubmissions_CountsExistingWorkAndRecountsOnNewAssignment() {
+        // Given
+        submitQuiz();
+
+        // When
+        ResponseEntity<EnrollmentResponseDto> enrolled = enroll();
+        Integer percentBefore = studentEnrollment().getProgressPercent();
+        AssignmentCreateDto extra = new AssignmentCreateDto();
+        extra.setLessonId(jdbcTemplate.queryForObject(
+                "SELECT lesson_id FROM edu_service.assignments WHERE id = ?", Long.class, assignmentId));
+        extra.setTitle("Extra Homework");
+        restTemplate.postForEntity("/assignment", extra, AssignmentResponseDto.class);
+        EnrollmentResponseDto after = studentEnrollment();
+
+        // Then
+        assertEquals("Active", enrolled.getBody().getStatus());
+        assertEquals(50, percentBefore);
+        assertEquals(1, after.getSubmittedQuizzes());
+        assertEquals(2, after.getTotalAssignments());
+        assertEquals(33, after.getProgressPercent());
+    }
+
+    private ResponseEntity<EnrollmentResponseDto> enroll() {
+        EnrollmentRequestDto request = new EnrollmentRequestDto();
+        request.setStudentId(studentId);
+        request.setCourseId(courseId);
+        ResponseEntity<EnrollmentResponseDto> response = restTemplate.postForEntity(
+                "/enrollment/enroll", request, EnrollmentResponseDto.class);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        return response;
+    }
+
+    private Long submitAssignment() {
+        SubmissionCreateDto submission = new SubmissionCreateDto();
+        submission.setStudentId(studentId);
+        submission.setAssignmentId(assignmentId);
+        submission.setContent("Solution");
+        return restTemplate.postForEntity("/submission", submission, SubmissionResponseDto.class).getBody().getId();
+    }
+
+    private void grade(Long submissionId, int score) {
+        SubmissionGradeDto grade = new SubmissionGradeDto();
+        grade.setScore(score);
+        assertEquals(HttpStatus.OK, restTemplate.exchange("/submission/" + submissionId + "/grade", HttpMethod.PUT,
+                new HttpEntity<>(grade), SubmissionResponseDto.class).getStatusCode());
+    }
+
+    private void submitQuiz() {
+        QuizSubmissionCreateDto quizSubmission = new QuizSubmissionCreateDto();
+        quizSubmission.setStudentId(studentId);
+        quizSubmission.setQuizId(quizId);
+        assertEquals(HttpStatus.CREATED, restTemplate.postForEntity(
+                "/quiz-submission", quizSubmission, QuizSubmissionResponseDto.class).getStatusCode());
+    }
+
+    private EnrollmentResponseDto studentEnrollment() {
+        ResponseEntity<EnrollmentResponseDto[]> response = restTemplate.getForEntity(
+                "/enrollment/student/" + studentId, EnrollmentResponseDto[].class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().length);
+        return response.getBody()[0];
+    }
+}
@@ -0,0 +1,177 @@
+package ru.dan.eduinstitution.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.dan.eduinstitution.config.BaseTestWithContext;
+import ru.dan.eduinstitution.model.CourseEnrollmentCountsDto;
+import ru.dan.eduinstitution.model.EnrollmentRequestDto;
+import ru.dan.eduinstitution.model.EnrollmentResponseDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционный тест статусов записей: счётчики курса, постраничное чтение и выгрузка по статусу.
+ */
+class EnrollmentStatusIntegrationTest extends BaseTestWithContext {
+
+    private static final int STUDENTS = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long courseId;
+    private final List<Long> studentIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        long suffix = System.nanoTime();
+        Long teacherId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.users (name, email, role) VALUES ('Status Teacher', ?, 'TEACHER') RETURNING id",
+                Long.class, "status.teacher." + suffix + "@example.com");
+        courseId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.courses (title, teacher_id, duration) VALUES ('Status Course', ?, 30) RETURNING id",
+                Long.class, teacherId);
+        studentIds.clear();
+        for (int i = 0; i < STUDENTS; i++) {
+            studentIds.add(jdbcTemplate.queryForObject(
+                    "INSERT INTO edu_service.users (name, email, role) VALUES ('Status Student', ?, 'STUDENT') RETURNING id",
+                    Long.class, "status.student." + suffix + "." + i + "@example.com"));
+        }
+    }
+
+    @Test
+    @DisplayName("Счётчики курса меняются при записи, смене статуса и отписке")
+    void enrollUpdateAndUnenroll_MaintainCourseCounts() {
+        // Given
+        studentIds.forEach(this::enroll);
+
+        // When
+        CourseEnrollmentCountsDto afterEnroll = counts();
+        updateStatus(studentIds.get(0), "Completed");
+        updateStatus(studentIds.get(1), "dropped");
+        updateStatus(studentIds.get(1), "Dropped");
+        CourseEnrollmentCountsDto afterUpdate = counts();
+        restTemplate.delete("/enrollment/unenroll/" + studentIds.get(1) + "/" + courseId);
+        CourseEnrollmentCountsDto afterUnenroll = counts();
+
+        // Then
+        assertEquals(new CourseEnrollmentCountsDto(courseId, STUDENTS, 0, 0, null, 0), afterEnroll);
+        assertEquals(new CourseEnrollmentCountsDto(courseId, STUDENTS - 2, 1, 1, null, 0), afterUpdate,
+                "Repeated status must not be counted twice");
+        assertEquals(new CourseEnrollmentCountsDto(courseId, STUDENTS - 2, 1, 0, null, 0), afterUnenroll);
+    }
+
+    @Test
+    @DisplayName("Неизвестный статус отклоняется с кодом 400")
+    void unknownStatus_ReturnsBadRequest() {
+        // Given
+        enroll(studentIds.get(0));
+
+        // When
+        ResponseEntity<String> update = restTemplate.exchange(
+                "/enrollment/update-status/" + studentIds.get(0) + "/" + courseId, HttpMethod.PUT,
+                new HttpEntity<>("Paused"), String.class);
+        ResponseEntity<String> page = restTemplate.getForEntity("/enrollment/by-status/Paused", String.class);
+        ResponseEntity<String> stream = restTemplate.getForEntity("/enrollment/by-status/Paused/stream", String.class);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, update.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, page.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, stream.getStatusCode());
+        assertEquals(new CourseEnrollmentCountsDto(courseId, 1, 0, 0, null, 0), counts());
+    }
+
+    @Test
+    @DisplayName("Записи по статусу читаются страницами по курсору")
+    void getEnrollmentsByStatus_PagesByCursor() {
+        // Given
+        studentIds.forEach(studentId -> {
+            enroll(studentId);
+            updateStatus(studentId, "Dropped");
+        });
+        String start = (studentIds.get(0) - 1) + ":0";
+
+        // When
+        ResponseEntity<EnrollmentResponseDto[]> firstPage = restTemplate.getForEntity(
+                "/enrollment/by-status/Dropped?size=2&after=" + start, EnrollmentResponseDto[].class);
+        String nextCursor = firstPage.getHeaders().getFirst("X-Next-Cursor");
+        ResponseEntity<EnrollmentResponseDto[]> secondPage = restTemplate.getForEntity(
+                "/enrollment/by-status/Dropped?size=2&after=" + nextCursor, EnrollmentResponseDto[].class);
+
+        // Then
+        assertEquals(HttpStatus.OK, firstPage.getStatusCode());
+        assertEquals(2, firstPage.getBody().length);
+        assertEquals(studentIds.get(0), firstPage.getBody()[0].getStudentId());
+        assertEquals(studentIds.get(1), firstPage.getBody()[1].getStudentId());
+        assertEquals(studentIds.get(1) + ":" + courseId, nextCursor);
+
+        assertEquals(HttpStatus.OK, secondPage.getStatusCode());
+        assertEquals(1, secondPage.getBody().length);
+        assertEquals(studentIds.get(2), secondPage.getBody()[0].getStudentId());
+        assertEquals("Dropped", secondPage.getBody()[0].getStatus());
+        assertNull(secondPage.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    @DisplayName("Выгрузка по статусу отдаёт все записи построчно в NDJSON")
+    void streamEnrollmentsByStatus_WritesNdjson() throws Exception {
+        // Given
+        studentIds.forEach(this::enroll);
+        updateStatus(studentIds.get(0), "Completed");
+
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity("/enrollment/by-status/Active/stream", String.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(MediaType.APPLICATION_NDJSON.isCompatibleWith(response.getHeaders().getContentType()));
+        List<Long> streamed = new ArrayList<>();
+        for (String line : response.getBody().split("\n")) {
+            JsonNode row = objectMapper.readTree(line);
+            assertEquals("Active", row.get("status").asText());
+            if (row.get("courseId").asLong() == courseId) {
+                assertEquals("Status Course", row.get("courseTitle").asText());
+                streamed.add(row.get("studentId").asLong());
+            }
+        }
+        assertEquals(studentIds.subList(1, STUDENTS), streamed);
+    }
+
+    private void enroll(Long studentId) {
+        EnrollmentRequestDto request = new EnrollmentRequestDto();
+        request.setStudentId(studentId);
+        request.setCourseId(courseId);
+        assertEquals(HttpStatus.CREATED, restTemplate.postForEntity(
+                "/enrollment/enroll", request, EnrollmentResponseDto.class).getStatusCode());
+    }
+
+    private void updateStatus(Long studentId, String status) {
+        ResponseEntity<EnrollmentResponseDto> response = restTemplate.exchange(
+                "/enrollment/update-status/" + studentId + "/" + courseId, HttpMethod.PUT,
+                new HttpEntity<>(status), EnrollmentResponseDto.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    private CourseEnrollmentCountsDto counts() {
+        ResponseEntity<CourseEnrollmentCountsDto> response = restTemplate.getForEntity(
+                "/enrollment/course/" + courseId + "/counts", CourseEnrollmentCountsDto.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+}
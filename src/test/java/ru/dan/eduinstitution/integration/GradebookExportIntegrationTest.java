@@ -0,0 +1,111 @@
+package ru.dan.eduinstitution.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.dan.eduinstitution.config.BaseTestWithContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционный тест потоковой выгрузки журнала оценок.
+ */
+class GradebookExportIntegrationTest extends BaseTestWithContext {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long courseId;
+    private Long assignmentId;
+    private Long quizId;
+    private Long gradedStudentId;
+    private Long ungradedStudentId;
+
+    @BeforeEach
+    void setUp() {
+        long suffix = System.nanoTime();
+        Long teacherId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.users (name, email, role) VALUES ('Grade Teacher', ?, 'TEACHER') RETURNING id",
+                Long.class, "grade.teacher." + suffix + "@example.com");
+        gradedStudentId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.users (name, email, role) VALUES ('Doe, Jane', ?, 'STUDENT') RETURNING id",
+                Long.class, "grade.student.a." + suffix + "@example.com");
+        ungradedStudentId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.users (name, email, role) VALUES ('John', ?, 'STUDENT') RETURNING id",
+                Long.class, "grade.student.b." + suffix + "@example.com");
+        courseId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.courses (title, teacher_id) VALUES ('Grade Course', ?) RETURNING id",
+                Long.class, teacherId);
+        Long moduleId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.modules (course_id, title, order_index) VALUES (?, 'Grade Module', 1) RETURNING id",
+                Long.class, courseId);
+        Long lessonId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.lessons (module_id, title) VALUES (?, 'Grade Lesson') RETURNING id",
+                Long.class, moduleId);
+        assignmentId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.assignments (lesson_id, title, max_score) VALUES (?, 'Homework', 100) RETURNING id",
+                Long.class, lessonId);
+        quizId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.quizzes (module_id, title) VALUES (?, 'Quiz') RETURNING id",
+                Long.class, moduleId);
+
+        jdbcTemplate.update("INSERT INTO edu_service.enrollments (user_id, course_id) VALUES (?, ?), (?, ?)",
+                gradedStudentId, courseId, ungradedStudentId, courseId);
+        jdbcTemplate.update("INSERT INTO edu_service.submissions (assignment_id, student_id, score) VALUES (?, ?, 90)",
+                assignmentId, gradedStudentId);
+        jdbcTemplate.update("INSERT INTO edu_service.quiz_submissions (quiz_id, student_id, score) VALUES (?, ?, 70)",
+                quizId, gradedStudentId);
+    }
+
+    @Test
+    @DisplayName("Журнал в CSV содержит столбец на каждое задание и тест и строку на каждого записанного студента")
+    void exportGradebook_Csv_ReturnsMatrix() {
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "/gradebook/course/" + courseId + "?format=CSV", String.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getHeaders().getContentType().isCompatibleWith(MediaType.parseMediaType("text/csv")));
+        assertEquals(List.of(
+                "student_id,student_name,assignment:" + assignmentId + " Homework,quiz:" + quizId + " Quiz",
+                gradedStudentId + ",\"Doe, Jane\",90,70",
+                ungradedStudentId + ",John,,"), response.getBody().lines().toList());
+    }
+
+    @Test
+    @DisplayName("Журнал в NDJSON содержит по объекту на студента с оценками по всем элементам курса")
+    void exportGradebook_Ndjson_ReturnsObjectPerStudent() throws Exception {
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "/gradebook/course/" + courseId + "?format=NDJSON", String.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getHeaders().getContentType().isCompatibleWith(MediaType.APPLICATION_NDJSON));
+        List<String> lines = response.getBody().lines().toList();
+        assertEquals(2, lines.size());
+
+        JsonNode graded = objectMapper.readTree(lines.get(0));
+        assertEquals(gradedStudentId, graded.get("studentId").asLong());
+        assertEquals(90, graded.get("scores").get("assignment:" + assignmentId).asInt());
+        assertEquals(70, graded.get("scores").get("quiz:" + quizId).asInt());
+
+        JsonNode ungraded = objectMapper.readTree(lines.get(1));
+        assertEquals(ungradedStudentId, ungraded.get("studentId").asLong());
+        assertTrue(ungraded.get("scores").get("assignment:" + assignmentId).isNull());
+        assertTrue(ungraded.get("scores").get("quiz:" + quizId).isNull());
+    }
+}
@@ -0,0 +1,227 @@
+package ru.dan.eduinstitution.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+import ru.dan.eduinstitution.config.BaseTestWithContext;
+import ru.dan.eduinstitution.config.SqlStatementCounter;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Регрессионный тест планов запросов репозиториев.
+ * Каждый метод, объявленный в интерфейсах пакета repository, вызывается с произвольными аргументами,
+ * сгенерированный Hibernate SQL перехватывается и объясняется через {@code EXPLAIN (FORMAT JSON, GENERIC_PLAN)}
+ * с выключенным {@code enable_seqscan}. Тогда последовательное чтение остаётся в плане, только если
+ * ни один индекс не может обслужить запрос, и результат не зависит от объёма данных в тестовой базе.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.dan.eduinstitution.integration.QueryPlanIntegrationTest$CapturingStatementInspector")
+class QueryPlanIntegrationTest extends BaseTestWithContext {
+
+    private static final String REPOSITORY_PACKAGE = "ru.dan.eduinstitution.repository";
+
+    /**
+     * Справочники, которые целиком помещаются в кеш и читаются последовательно без ущерба.
+     */
+    private static final Set<String> SMALL_TABLES = Set.of("categories", "tags");
+
+    /**
+     * Методы, которые по назначению читают всю таблицу.
+     */
+    private static final Set<String> FULL_SCAN_METHODS = Set.of(
+            "CourseRepository.findAll",
+            "CourseRepository.findAllWithTeacherAndCategory",
+            "CourseRepository.findByTitleContainingIgnoreCase",
+            "CourseRepository.streamTitles",
+            "CourseRepository.streamIndexRows");
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Запросы репозиториев не читают большие таблицы последовательно")
+    void repositoryQueries_UseIndexes() throws IOException {
+        List<String> violations = new ArrayList<>();
+        int explained = 0;
+
+        for (Object repository : applicationContext.getBeansOfType(Repository.class).values()) {
+            for (Class<?> repositoryInterface : ClassUtils.getAllInterfacesForClass(repository.getClass())) {
+                if (!repositoryInterface.getPackageName().equals(REPOSITORY_PACKAGE)) {
+                    continue;
+                }
+                for (Method method : repositoryInterface.getDeclaredMethods()) {
+                    String name = repositoryInterface.getSimpleName() + "." + method.getName();
+                    if (method.isDefault() || Modifier.isStatic(method.getModifiers())
+                            || FULL_SCAN_METHODS.contains(name)) {
+                        continue;
+                    }
+                    for (String sql : captureSql(repository, method)) {
+                        if (!isExplainable(sql)) {
+                            continue;
+                        }
+                        explained++;
+                        for (String relation : seqScannedRelations(explain(sql))) {
+                            if (!SMALL_TABLES.contains(relation)) {
+                                violations.add(name + ": Seq Scan on " + relation + " in " + sql);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        assertTrue(explained > 0, "No repository SQL was captured");
+        assertTrue(violations.isEmpty(), String.join("\n", violations));
+    }
+
+    private Set<String> captureSql(Object repository, Method method) {
+        Object[] args = new Object[method.getParameterCount()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = sampleArgument(method.getParameterTypes()[i]);
+        }
+
+        CapturingStatementInspector.STATEMENTS.clear();
+        CapturingStatementInspector.enabled = true;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                try {
+                    Object result = method.invoke(repository, args);
+                    if (result instanceof Stream<?> stream) {
+                        stream.close();
+                    }
+                } catch (ReflectiveOperationException e) {
+                    // Ошибка выполнения (например, нарушение внешнего ключа) не мешает объяснить перехваченный SQL
+                }
+            });
+        } finally {
+            CapturingStatementInspector.enabled = false;
+        }
+        return new LinkedHashSet<>(CapturingStatementInspector.STATEMENTS);
+    }
+
+    private Object sampleArgument(Class<?> type) {
+        if (type == Long.class || type == long.class) {
+            return 1L;
+        }
+        if (type == Integer.class || type == int.class) {
+            return 1;
+        }
+        if (type == String.class) {
+            return "sample";
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return List.of(1L, 2L);
+        }
+        if (Pageable.class.isAssignableFrom(type)) {
+            return PageRequest.of(0, 10);
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.of(2025, 1, 15);
+        }
+        if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        }
+        throw new IllegalStateException("No sample argument for parameter type " + type.getName());
+    }
+
+    private boolean isExplainable(String sql) {
+        String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return statement.startsWith("select") || statement.startsWith("with")
+                || statement.startsWith("update") || statement.startsWith("delete");
+    }
+
+    private String explain(String sql) {
+        // Параметры JDBC заменяются на $n: GENERIC_PLAN строит план без значений параметров
+        StringBuilder positional = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                positional.append('$').append(++parameter);
+            } else {
+                positional.append(c);
+            }
+        }
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                try (ResultSet resultSet = statement.executeQuery(
+                        "EXPLAIN (FORMAT JSON, GENERIC_PLAN) " + positional)) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                } finally {
+                    statement.execute("RESET enable_seqscan");
+                }
+            }
+        });
+    }
+
+    private List<String> seqScannedRelations(String planJson) throws IOException {
+        List<String> relations = new ArrayList<>();
+        collectSeqScans(objectMapper.readTree(planJson).get(0).get("Plan"), relations);
+        return relations;
+    }
+
+    private void collectSeqScans(JsonNode plan, List<String> relations) {
+        if (plan.path("Node Type").asText().endsWith("Seq Scan")) {
+            relations.add(plan.path("Relation Name").asText());
+        }
+        for (JsonNode child : plan.path("Plans")) {
+            collectSeqScans(child, relations);
+        }
+    }
+
+    /**
+     * Перехватчик SQL, подключаемый к фабрике сессий Hibernate свойством теста вместо {@link SqlStatementCounter}.
+     */
+    public static class CapturingStatementInspector extends SqlStatementCounter {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+        static volatile boolean enabled;
+
+        @Override
+        public String inspect(String sql) {
+            if (enabled) {
+                STATEMENTS.add(sql);
+            }
+            return super.inspect(sql);
+        }
+    }
+}
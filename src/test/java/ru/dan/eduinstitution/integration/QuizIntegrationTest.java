@@ -18,6 +18,9 @@ import ru.dan.eduinstitution.model.UserCreateDto;
 import ru.dan.eduinstitution.model.UserResponseDto;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -215,7 +218,7 @@ class QuizIntegrationTest extends BaseTestWithContext {
         QuizSubmissionCreateDto quizSubmissionCreateDto = new QuizSubmissionCreateDto();
         quizSubmissionCreateDto.setQuizId(quizId);
         quizSubmissionCreateDto.setStudentId(studentId);
-        quizSubmissionCreateDto.setScore(85);
+        quizSubmissionCreateDto.setAnswers(List.of(new QuizAnswerDto(questionId, List.of(answerOptionId))));
 
         HttpHeaders quizSubmissionHeaders = new HttpHeaders();
         quizSubmissionHeaders.setContentType(MediaType.APPLICATION_JSON);
@@ -225,7 +228,7 @@ class QuizIntegrationTest extends BaseTestWithContext {
                 restTemplate.getRootUri() + "/quiz-submission", quizSubmissionEntity, QuizSubmissionResponseDto.class);
         assertEquals(HttpStatus.CREATED, createQuizSubmissionResponse.getStatusCode());
         assertNotNull(createQuizSubmissionResponse.getBody());
-        assertEquals(Integer.valueOf(85), createQuizSubmissionResponse.getBody().getScore());
+        assertEquals(Integer.valueOf(100), createQuizSubmissionResponse.getBody().getScore());
         assertEquals(quizId, createQuizSubmissionResponse.getBody().getQuizId());
         assertEquals("Java Fundamentals Quiz", createQuizSubmissionResponse.getBody().getQuizTitle());
         assertEquals(studentId, createQuizSubmissionResponse.getBody().getStudentId());
@@ -241,7 +244,7 @@ class QuizIntegrationTest extends BaseTestWithContext {
         assertEquals(HttpStatus.OK, getQuizSubmissionResponse.getStatusCode());
         assertNotNull(getQuizSubmissionResponse.getBody());
         assertEquals(quizSubmissionId, getQuizSubmissionResponse.getBody().getId());
-        assertEquals(Integer.valueOf(85), getQuizSubmissionResponse.getBody().getScore());
+        assertEquals(Integer.valueOf(100), getQuizSubmissionResponse.getBody().getScore());
         assertEquals(studentId, getQuizSubmissionResponse.getBody().getStudentId());
 
         // Проверяем получение всех вопросов по ID теста
@@ -290,7 +293,7 @@ class QuizIntegrationTest extends BaseTestWithContext {
         for (QuizSubmissionResponseDto quizSubmissionDto : getQuizSubmissionsByStudentResponse.getBody()) {
             if (quizSubmissionDto.getId().equals(quizSubmissionId)) {
                 quizSubmissionFound = true;
-                assertEquals(Integer.valueOf(85), quizSubmissionDto.getScore());
+                assertEquals(Integer.valueOf(100), quizSubmissionDto.getScore());
                 assertEquals("Test Student for Quiz", quizSubmissionDto.getStudentName());
                 break;
             }
@@ -308,7 +311,7 @@ class QuizIntegrationTest extends BaseTestWithContext {
         for (QuizSubmissionResponseDto quizSubmissionDto : getQuizSubmissionsByQuizResponse.getBody()) {
             if (quizSubmissionDto.getId().equals(quizSubmissionId)) {
                 quizSubmissionByQuizFound = true;
-                assertEquals(Integer.valueOf(85), quizSubmissionDto.getScore());
+                assertEquals(Integer.valueOf(100), quizSubmissionDto.getScore());
                 assertEquals("Java Fundamentals Quiz", quizSubmissionDto.getQuizTitle());
                 break;
             }
@@ -331,5 +334,113 @@ class QuizIntegrationTest extends BaseTestWithContext {
         assertNotNull(updateQuizSubmissionResponse.getBody());
         assertEquals(quizSubmissionId, updateQuizSubmissionResponse.getBody().getId());
         assertEquals(Integer.valueOf(90), updateQuizSubmissionResponse.getBody().getScore());
+
+        // Повтор запроса с тем же Idempotency-Key возвращает уже созданный результат, повторная сдача отклоняется
+        QuizSubmissionCreateDto idempotentCreateDto = new QuizSubmissionCreateDto();
+        idempotentCreateDto.setQuizId(quizId);
+        idempotentCreateDto.setStudentId(createStudent("student.quiz.idempotent@example.com", userHeaders));
+        idempotentCreateDto.setAnswers(List.of(new QuizAnswerDto(questionId, List.of())));
+
+        HttpHeaders idempotentHeaders = new HttpHeaders();
+        idempotentHeaders.setContentType(MediaType.APPLICATION_JSON);
+        idempotentHeaders.set("Idempotency-Key", "quiz-submission-" + idempotentCreateDto.getStudentId());
+        HttpEntity<QuizSubmissionCreateDto> idempotentEntity = new HttpEntity<>(idempotentCreateDto, idempotentHeaders);
+
+        ResponseEntity<QuizSubmissionResponseDto> firstAttemptResponse = restTemplate.postForEntity(
+                restTemplate.getRootUri() + "/quiz-submission", idempotentEntity, QuizSubmissionResponseDto.class);
+        ResponseEntity<QuizSubmissionResponseDto> retryResponse = restTemplate.postForEntity(
+                restTemplate.getRootUri() + "/quiz-submission", idempotentEntity, QuizSubmissionResponseDto.class);
+        assertEquals(HttpStatus.CREATED, firstAttemptResponse.getStatusCode());
+        assertEquals(HttpStatus.CREATED, retryResponse.getStatusCode());
+        assertEquals(firstAttemptResponse.getBody().getId(), retryResponse.getBody().getId());
+
+        ResponseEntity<String> duplicateResponse = restTemplate.postForEntity(
+                restTemplate.getRootUri() + "/quiz-submission",
+                new HttpEntity<>(idempotentCreateDto, quizSubmissionHeaders), String.class);
+        assertEquals(HttpStatus.CONFLICT, duplicateResponse.getStatusCode());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM edu_service.quiz_submissions WHERE quiz_id = ? AND student_id = ?",
+                Integer.class, quizId, idempotentCreateDto.getStudentId()));
+
+        // Проверяем автоматическую проверку ответов
+        QuizSubmissionCreateDto gradedCreateDto = new QuizSubmissionCreateDto();
+        gradedCreateDto.setQuizId(quizId);
+        gradedCreateDto.setStudentId(createStudent("student.quiz.graded@example.com", userHeaders));
+        gradedCreateDto.setAnswers(List.of(new QuizAnswerDto(questionId, List.of(answerOptionId))));
+
+        ResponseEntity<QuizSubmissionResponseDto> gradedResponse = restTemplate.postForEntity(
+                restTemplate.getRootUri() + "/quiz-submission",
+                new HttpEntity<>(gradedCreateDto, quizSubmissionHeaders), QuizSubmissionResponseDto.class);
+        assertEquals(HttpStatus.CREATED, gradedResponse.getStatusCode());
+        assertEquals(Integer.valueOf(100), gradedResponse.getBody().getScore());
+
+        // Неизвестный или пустой вариант, неизвестный вопрос и повторный ответ на вопрос отклоняются с кодом 400
+        Long invalidStudentId = createStudent("student.quiz.invalid@example.com", userHeaders);
+        List<List<QuizAnswerDto>> invalidAnswers = List.of(
+                List.of(new QuizAnswerDto(Long.MAX_VALUE, List.of())),
+                List.of(new QuizAnswerDto(questionId, List.of(Long.MAX_VALUE))),
+                List.of(new QuizAnswerDto(questionId, List.of(answerOptionId)),
+                        new QuizAnswerDto(questionId, List.of(answerOptionId))),
+                List.of(new QuizAnswerDto(questionId, Arrays.asList(answerOptionId, null))));
+        for (List<QuizAnswerDto> answers : invalidAnswers) {
+            QuizSubmissionCreateDto invalidCreateDto = new QuizSubmissionCreateDto();
+            invalidCreateDto.setQuizId(quizId);
+            invalidCreateDto.setStudentId(invalidStudentId);
+            invalidCreateDto.setAnswers(answers);
+            ResponseEntity<String> invalidResponse = restTemplate.postForEntity(
+                    restTemplate.getRootUri() + "/quiz-submission",
+                    new HttpEntity<>(invalidCreateDto, quizSubmissionHeaders), String.class);
+            assertEquals(HttpStatus.BAD_REQUEST, invalidResponse.getStatusCode());
+        }
+
+        // Балл от клиента не принимается: без ответов тест с проверяемыми вопросами отклоняется
+        ResponseEntity<String> withoutAnswersResponse = restTemplate.postForEntity(
+                restTemplate.getRootUri() + "/quiz-submission",
+                new HttpEntity<>(Map.of("quizId", quizId, "studentId", invalidStudentId, "score", 100),
+                        quizSubmissionHeaders), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, withoutAnswersResponse.getStatusCode());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM edu_service.quiz_submissions WHERE student_id = ?",
+                Integer.class, invalidStudentId));
+
+        // После добавления второго правильного варианта ключ ответов перестраивается
+        AnswerOptionCreateDto secondCorrectDto = new AnswerOptionCreateDto();
+        secondCorrectDto.setQuestionId(questionId);
+        secondCorrectDto.setText("Lutetia");
+        secondCorrectDto.setIsCorrect(true);
+        ResponseEntity<AnswerOptionResponseDto> secondCorrectResponse = restTemplate.postForEntity(
+                restTemplate.getRootUri() + "/answer-option",
+                new HttpEntity<>(secondCorrectDto, answerOptionHeaders), AnswerOptionResponseDto.class);
+        assertEquals(HttpStatus.CREATED, secondCorrectResponse.getStatusCode());
+
+        gradedCreateDto.setStudentId(createStudent("student.quiz.regraded@example.com", userHeaders));
+        ResponseEntity<QuizSubmissionResponseDto> regradedResponse = restTemplate.postForEntity(
+                restTemplate.getRootUri() + "/quiz-submission",
+                new HttpEntity<>(gradedCreateDto, quizSubmissionHeaders), QuizSubmissionResponseDto.class);
+        assertEquals(HttpStatus.CREATED, regradedResponse.getStatusCode());
+        assertEquals(Integer.valueOf(0), regradedResponse.getBody().getScore());
+
+        // Проверяем статистику выбора вариантов по сохранённым ответам
+        ResponseEntity<AnswerOptionStatsDto[]> statsResponse = restTemplate.getForEntity(
+                restTemplate.getRootUri() + "/quiz-submission/quiz/" + quizId + "/option-stats",
+                AnswerOptionStatsDto[].class);
+        assertEquals(HttpStatus.OK, statsResponse.getStatusCode());
+        assertEquals(2, statsResponse.getBody().length);
+        assertEquals(answerOptionId, statsResponse.getBody()[0].getOptionId());
+        assertEquals(3, statsResponse.getBody()[0].getSelectedCount());
+        assertEquals(0, statsResponse.getBody()[1].getSelectedCount());
+    }
+
+    private Long createStudent(String email, HttpHeaders headers) {
+        UserCreateDto studentCreateDto = new UserCreateDto();
+        studentCreateDto.setName("Graded Student");
+        studentCreateDto.setEmail(email);
+        studentCreateDto.setRole("STUDENT");
+
+        ResponseEntity<UserResponseDto> response = restTemplate.postForEntity(
+                restTemplate.getRootUri() + "/user/create", new HttpEntity<>(studentCreateDto, headers),
+                UserResponseDto.class);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        return response.getBody().getId();
     }
 }
\ No newline at end of file
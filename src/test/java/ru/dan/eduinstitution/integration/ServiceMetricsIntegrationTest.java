@@ -0,0 +1,38 @@
+package ru.dan.eduinstitution.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.dan.eduinstitution.config.BaseTestWithContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционный тест метрик методов сервисов и обращений к репозиториям.
+ */
+class ServiceMetricsIntegrationTest extends BaseTestWithContext {
+
+    @Test
+    @DisplayName("Вызов эндпоинта публикует время метода сервиса, размер результата и число обращений к репозиториям")
+    void courseList_PublishesServiceAndRepositoryMetrics() {
+        // Given
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/course?page=0&size=10", String.class).getStatusCode());
+
+        // When
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String metrics = response.getBody();
+        assertTrue(metrics.contains("service_method_seconds_count{class=\"CourseService\",exception=\"none\","
+                + "method=\"getAllCourses\"}"), "service.method timer is missing");
+        assertTrue(metrics.contains("service_method_seconds_bucket{"), "service.method histogram is missing");
+        assertTrue(metrics.contains("service_method_result_size_elements_count{class=\"CourseService\","
+                + "method=\"getAllCourses\"}"), "service.method.result.size is missing");
+        assertTrue(metrics.contains("repository_calls_total{method=\"findAllWithTeacherAndCategory\","
+                + "repository=\"CourseRepository\"}"), "repository.calls is missing");
+        assertTrue(metrics.contains("http_server_requests_repository_calls_count{method=\"GET\","
+                + "repository=\"CourseRepository\",uri=\"/course\"}"), "per-request repository calls are missing");
+    }
+}
@@ -0,0 +1,76 @@
+package ru.dan.eduinstitution.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.dan.eduinstitution.config.BaseTestWithContext;
+import ru.dan.eduinstitution.config.MaxSqlStatements;
+import ru.dan.eduinstitution.config.SqlStatementCountAdvice;
+import ru.dan.eduinstitution.model.EnrollmentResponseDto;
+import ru.dan.eduinstitution.model.ModuleResponseDto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционный тест числа SQL-запросов списочных эндпоинтов (отсутствие N+1).
+ */
+class SqlStatementCountIntegrationTest extends BaseTestWithContext {
+
+    private static final int ROWS = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long courseId;
+
+    @BeforeEach
+    void setUp() {
+        long suffix = System.nanoTime();
+        Long teacherId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.users (name, email, role) VALUES ('Sql Teacher', ?, 'TEACHER') RETURNING id",
+                Long.class, "sql.teacher." + suffix + "@example.com");
+        courseId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.courses (title, teacher_id) VALUES ('Sql Course', ?) RETURNING id",
+                Long.class, teacherId);
+        for (int i = 0; i < ROWS; i++) {
+            Long studentId = jdbcTemplate.queryForObject(
+                    "INSERT INTO edu_service.users (name, email, role) VALUES ('Sql Student', ?, 'STUDENT') RETURNING id",
+                    Long.class, "sql.student." + suffix + "." + i + "@example.com");
+            jdbcTemplate.update("INSERT INTO edu_service.enrollments (user_id, course_id, status) VALUES (?, ?, 3)",
+                    studentId, courseId);
+            jdbcTemplate.update("INSERT INTO edu_service.modules (course_id, title, order_index) VALUES (?, 'Sql Module', ?)",
+                    courseId, i);
+        }
+    }
+
+    @Test
+    @MaxSqlStatements(value = 1, uri = "/enrollment/by-status/*")
+    @DisplayName("Записи по статусу читаются одним запросом вместе со студентами и курсами")
+    void getEnrollmentsByStatus_SingleStatement() {
+        // When
+        ResponseEntity<EnrollmentResponseDto[]> response = restTemplate.getForEntity(
+                "/enrollment/by-status/Dropped", EnrollmentResponseDto[].class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().length >= ROWS);
+        assertNotNull(response.getHeaders().getFirst(SqlStatementCountAdvice.HEADER));
+    }
+
+    @Test
+    @MaxSqlStatements(value = 1, uri = "/module/course/*")
+    @DisplayName("Модули курса читаются одним запросом вместе с курсом")
+    void getModulesByCourse_SingleStatement() {
+        // When
+        ResponseEntity<ModuleResponseDto[]> response = restTemplate.getForEntity(
+                "/module/course/" + courseId, ModuleResponseDto[].class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ROWS, response.getBody().length);
+    }
+}
@@ -0,0 +1,180 @@
+package ru.dan.eduinstitution.integration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import ru.dan.eduinstitution.config.BaseTestWithContext;
+import ru.dan.eduinstitution.model.QuizAnswerDto;
+import ru.dan.eduinstitution.model.QuizSubmissionCreateDto;
+import ru.dan.eduinstitution.model.SubmissionCreateDto;
+import ru.dan.eduinstitution.model.SubmissionReceiptDto;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционный тест отложенной записи ответов на задания.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = "app.submission.write-behind.enabled=true")
+class SubmissionWriteBehindIntegrationTest extends BaseTestWithContext {
+
+    private static final long RECEIPT_TIMEOUT_MS = 10_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long assignmentId;
+    private Long studentId;
+    private Long quizId;
+    private Long questionId;
+    private Long correctOptionId;
+
+    @BeforeEach
+    void setUp() {
+        long suffix = System.nanoTime();
+        Long teacherId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.users (name, email, role) VALUES ('Async Teacher', ?, 'TEACHER') RETURNING id",
+                Long.class, "async.teacher." + suffix + "@example.com");
+        studentId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.users (name, email, role) VALUES ('Async Student', ?, 'STUDENT') RETURNING id",
+                Long.class, "async.student." + suffix + "@example.com");
+        Long courseId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.courses (title, teacher_id) VALUES ('Async Course', ?) RETURNING id",
+                Long.class, teacherId);
+        Long moduleId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.modules (course_id, title) VALUES (?, 'Async Module') RETURNING id",
+                Long.class, courseId);
+        Long lessonId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.lessons (module_id, title) VALUES (?, 'Async Lesson') RETURNING id",
+                Long.class, moduleId);
+        assignmentId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.assignments (lesson_id, title) VALUES (?, 'Async Assignment') RETURNING id",
+                Long.class, lessonId);
+        quizId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.quizzes (module_id, title) VALUES (?, 'Async Quiz') RETURNING id",
+                Long.class, moduleId);
+        questionId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.questions (quiz_id, text, type) VALUES (?, 'Async Question', 'SINGLE_CHOICE') "
+                        + "RETURNING id",
+                Long.class, quizId);
+        correctOptionId = jdbcTemplate.queryForObject(
+                "INSERT INTO edu_service.answer_options (question_id, text, is_correct) VALUES (?, 'Right', TRUE) "
+                        + "RETURNING id",
+                Long.class, questionId);
+    }
+
+    @Test
+    @DisplayName("Принятый ответ записывается в фоне, повторный ответ получает ошибку в квитанции")
+    void createSubmissionAsync_WritesSubmissionAndRejectsDuplicate() throws InterruptedException {
+        // Given
+        SubmissionCreateDto dto = new SubmissionCreateDto();
+        dto.setAssignmentId(assignmentId);
+        dto.setStudentId(studentId);
+        dto.setContent("Async solution");
+
+        // When
+        ResponseEntity<SubmissionReceiptDto> accepted = restTemplate.postForEntity(
+                "/submission/async", dto, SubmissionReceiptDto.class);
+        ResponseEntity<SubmissionReceiptDto> duplicate = restTemplate.postForEntity(
+                "/submission/async", dto, SubmissionReceiptDto.class);
+
+        // Then
+        assertEquals(HttpStatus.ACCEPTED, accepted.getStatusCode());
+        assertEquals(SubmissionReceiptDto.Status.QUEUED, accepted.getBody().getStatus());
+        assertEquals(HttpStatus.ACCEPTED, duplicate.getStatusCode());
+
+        SubmissionReceiptDto completed = awaitReceipt(accepted.getBody().getReceiptId());
+        assertEquals(SubmissionReceiptDto.Status.COMPLETED, completed.getStatus());
+        assertEquals("Async solution", jdbcTemplate.queryForObject(
+                "SELECT content FROM edu_service.submissions WHERE id = ?", String.class, completed.getSubmissionId()));
+
+        SubmissionReceiptDto rejected = awaitReceipt(duplicate.getBody().getReceiptId());
+        assertEquals(SubmissionReceiptDto.Status.FAILED, rejected.getStatus());
+        assertNotNull(rejected.getError());
+    }
+
+    @Test
+    @DisplayName("Ответ несуществующего студента не мешает записи остальных ответов пакета")
+    void createSubmissionAsync_UnknownStudentFailsOnlyOwnReceipt() throws InterruptedException {
+        // Given
+        SubmissionCreateDto valid = new SubmissionCreateDto();
+        valid.setAssignmentId(assignmentId);
+        valid.setStudentId(studentId);
+        valid.setContent("Valid solution");
+        SubmissionCreateDto unknownStudent = new SubmissionCreateDto();
+        unknownStudent.setAssignmentId(assignmentId);
+        unknownStudent.setStudentId(Long.MAX_VALUE);
+        unknownStudent.setContent("Orphan solution");
+
+        // When
+        UUID unknownReceiptId = restTemplate.postForEntity(
+                "/submission/async", unknownStudent, SubmissionReceiptDto.class).getBody().getReceiptId();
+        UUID validReceiptId = restTemplate.postForEntity(
+                "/submission/async", valid, SubmissionReceiptDto.class).getBody().getReceiptId();
+
+        // Then
+        SubmissionReceiptDto unknownReceipt = awaitReceipt(unknownReceiptId);
+        assertEquals(SubmissionReceiptDto.Status.FAILED, unknownReceipt.getStatus());
+        assertEquals("Assignment or student not found", unknownReceipt.getError());
+        assertEquals(SubmissionReceiptDto.Status.COMPLETED, awaitReceipt(validReceiptId).getStatus());
+    }
+
+    @Test
+    @DisplayName("Результат теста с неизвестным вариантом ответа отклоняется с кодом 400, остальные записи пакета проходят")
+    void createQuizSubmissionAsync_UnknownOptionRejectedBeforeQueue() throws InterruptedException {
+        // Given
+        SubmissionCreateDto submission = new SubmissionCreateDto();
+        submission.setAssignmentId(assignmentId);
+        submission.setStudentId(studentId);
+        submission.setContent("Batch solution");
+        QuizSubmissionCreateDto unknownOption = new QuizSubmissionCreateDto();
+        unknownOption.setQuizId(quizId);
+        unknownOption.setStudentId(studentId);
+        unknownOption.setAnswers(List.of(new QuizAnswerDto(questionId, List.of(Long.MAX_VALUE))));
+        QuizSubmissionCreateDto valid = new QuizSubmissionCreateDto();
+        valid.setQuizId(quizId);
+        valid.setStudentId(studentId);
+        valid.setAnswers(List.of(new QuizAnswerDto(questionId, List.of(correctOptionId))));
+
+        // When
+        UUID submissionReceiptId = restTemplate.postForEntity(
+                "/submission/async", submission, SubmissionReceiptDto.class).getBody().getReceiptId();
+        ResponseEntity<String> rejected = restTemplate.postForEntity(
+                "/quiz-submission/async", unknownOption, String.class);
+        ResponseEntity<SubmissionReceiptDto> accepted = restTemplate.postForEntity(
+                "/quiz-submission/async", valid, SubmissionReceiptDto.class);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        assertEquals(HttpStatus.ACCEPTED, accepted.getStatusCode());
+        assertEquals(SubmissionReceiptDto.Status.COMPLETED, awaitReceipt(submissionReceiptId).getStatus());
+        SubmissionReceiptDto quizReceipt = awaitReceipt(accepted.getBody().getReceiptId());
+        assertEquals(SubmissionReceiptDto.Status.COMPLETED, quizReceipt.getStatus());
+        assertEquals(100, jdbcTemplate.queryForObject(
+                "SELECT score FROM edu_service.quiz_submissions WHERE id = ?", Integer.class,
+                quizReceipt.getSubmissionId()));
+    }
+
+    private SubmissionReceiptDto awaitReceipt(UUID receiptId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + RECEIPT_TIMEOUT_MS;
+        while (true) {
+            ResponseEntity<SubmissionReceiptDto> response = restTemplate.getForEntity(
+                    "/submission/receipt/" + receiptId, SubmissionReceiptDto.class);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            if (response.getBody().getStatus() != SubmissionReceiptDto.Status.QUEUED
+                    || System.currentTimeMillis() > deadline) {
+                return response.getBody();
+            }
+            Thread.sleep(50);
+        }
+    }
+}
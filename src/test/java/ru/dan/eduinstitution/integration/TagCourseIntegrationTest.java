@@ -151,6 +151,7 @@ class TagCourseIntegrationTest extends BaseTestWithContext {
         restTemplate.postForEntity(
                 restTemplate.getRootUri() + "/tag/course/" + courseId + "/tags",
                 tagsEntity, Void.class);
+        assertEquals(List.of(tagId, tag2Id), courseTagIds(courseId));
 
         // Проверяем получение курса по ID
         ResponseEntity<CourseResponseDto> getCourseResponse = restTemplate.getForEntity(
@@ -201,6 +202,12 @@ class TagCourseIntegrationTest extends BaseTestWithContext {
         assertNotNull(updateCourseWithTagResponse.getBody());
         assertEquals(courseId, updateCourseWithTagResponse.getBody().getId());
         assertEquals("Updated Again Course for Tags", updateCourseWithTagResponse.getBody().getTitle());
+        assertEquals(List.of(tagId), courseTagIds(courseId));
+
+        // Читаем тег, чтобы он попал в кеш
+        ResponseEntity<TagResponseDto> cachedTagResponse = restTemplate.getForEntity(
+                restTemplate.getRootUri() + "/tag/" + tagId, TagResponseDto.class);
+        assertEquals(HttpStatus.OK, cachedTagResponse.getStatusCode());
 
         // Проверяем обновление тега
         TagUpdateDto tagUpdateDto = new TagUpdateDto();
@@ -219,13 +226,39 @@ class TagCourseIntegrationTest extends BaseTestWithContext {
         assertEquals(tagId, updateTagResponse.getBody().getId());
         assertEquals("Java Advanced", updateTagResponse.getBody().getName());
 
+        // После обновления из кеша читается новое имя тега
+        ResponseEntity<TagResponseDto> getUpdatedTagResponse = restTemplate.getForEntity(
+                restTemplate.getRootUri() + "/tag/" + tagId, TagResponseDto.class);
+        assertEquals(HttpStatus.OK, getUpdatedTagResponse.getStatusCode());
+        assertEquals("Java Advanced", getUpdatedTagResponse.getBody().getName());
+
+        // Подсказки по префиксу видят новое имя тега
+        ResponseEntity<SuggestionDto[]> suggestionsResponse = restTemplate.getForEntity(
+                restTemplate.getRootUri() + "/tag/autocomplete?prefix=java adv", SuggestionDto[].class);
+        assertEquals(HttpStatus.OK, suggestionsResponse.getStatusCode());
+        assertTrue(Arrays.stream(suggestionsResponse.getBody())
+                .anyMatch(suggestion -> suggestion.getId().equals(tagId)
+                        && "Java Advanced".equals(suggestion.getText())));
+
         // Проверяем удаление тега из курса
         restTemplate.delete(restTemplate.getRootUri() + "/tag/course/" + courseId + "/tag/" + tag2Id);
 
         // Проверяем удаление тега
         restTemplate.delete(restTemplate.getRootUri() + "/tag/" + tag2Id);
 
+        // Удалённый тег пропадает из подсказок
+        ResponseEntity<SuggestionDto[]> deletedSuggestionsResponse = restTemplate.getForEntity(
+                restTemplate.getRootUri() + "/tag/autocomplete?prefix=spr", SuggestionDto[].class);
+        assertEquals(HttpStatus.OK, deletedSuggestionsResponse.getStatusCode());
+        assertTrue(Arrays.stream(deletedSuggestionsResponse.getBody())
+                .noneMatch(suggestion -> suggestion.getId().equals(tag2Id)));
+
         // Пропускаем проверку 404, т.к. может быть сложная логика с внешними ключами
         // После удаления тега, он уже не должен существовать
     }
-}
\ No newline at end of file
+
+    private List<Long> courseTagIds(Long courseId) {
+        return jdbcTemplate.queryForList(
+                "SELECT tag_id FROM edu_service.course_tag WHERE course_id = ? ORDER BY tag_id", Long.class, courseId);
+    }
+}
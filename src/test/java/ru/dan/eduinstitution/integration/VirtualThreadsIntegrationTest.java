@@ -0,0 +1,55 @@
+package ru.dan.eduinstitution.integration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import ru.dan.eduinstitution.config.BaseTestWithContext;
+import ru.dan.eduinstitution.model.VirtualThreadDiagnosticsDto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Интеграционный тест обработки запросов на виртуальных потоках и диагностики закреплений.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.threads.virtual.enabled=true",
+        "app.diagnostics.pinning.enabled=true",
+        "app.diagnostics.pinning.threshold=0ms"
+})
+class VirtualThreadsIntegrationTest extends BaseTestWithContext {
+
+    /**
+     * Поток событий JFR сбрасывается примерно раз в секунду.
+     */
+    private static final long JFR_FLUSH_WAIT_MS = 2_000;
+
+    @Test
+    @DisplayName("Запросы к базе на виртуальных потоках не закрепляют носитель в JDBC и пуле соединений")
+    void databaseRequests_DoNotPinInJdbcPath() throws InterruptedException {
+        // Given
+        for (int i = 0; i < 20; i++) {
+            assertEquals(HttpStatus.OK, restTemplate.getForEntity("/course?page=0&size=10", String.class).getStatusCode());
+            assertEquals(HttpStatus.OK, restTemplate.getForEntity("/course/top-rated?limit=5", String.class).getStatusCode());
+        }
+        Thread.sleep(JFR_FLUSH_WAIT_MS);
+
+        // When
+        ResponseEntity<VirtualThreadDiagnosticsDto> response = restTemplate.getForEntity(
+                "/actuator/virtualthreads", VirtualThreadDiagnosticsDto.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        VirtualThreadDiagnosticsDto diagnostics = response.getBody();
+        assertTrue(diagnostics.isVirtualThreadsEnabled());
+        assertTrue(diagnostics.getPinning().isMonitored());
+        assertTrue(diagnostics.getConnectionPool().getAcquireCount() > 0);
+        assertTrue(diagnostics.getPinning().getRecent().stream()
+                        .flatMap(event -> event.getStackTrace().stream())
+                        .noneMatch(frame -> frame.startsWith("org.postgresql.") || frame.startsWith("com.zaxxer.hikari.")),
+                () -> "JDBC path pinned a carrier: " + diagnostics.getPinning().getRecent());
+    }
+}